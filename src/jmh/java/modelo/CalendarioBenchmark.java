@@ -0,0 +1,98 @@
+package modelo;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Calendario de ocupación con reservas y avance del horizonte a la vez
+ *
+ * En producción el horizonte avanza una vez por día, así que ReservaBenchmark
+ * nunca pasa por avanzarHasta. Aquí un hilo mueve el horizonte un día en
+ * cada llamada (toma todas las franjas) mientras otros tres ocupan y liberan
+ * noches: se mide cuánto frena el avance a las reservas y cuánto tarda el avance.
+ * Está en el paquete modelo porque el calendario no es público
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class CalendarioBenchmark {
+
+    /**
+     * Calendario compartido por los hilos del grupo
+     */
+    @State(Scope.Group)
+    public static class Calendario {
+
+        @Param({"1000", "100000"})
+        public int propiedades;
+
+        CalendarioOcupacion calendario;
+
+        // Primer día actual del horizonte (en días desde 1970-01-01)
+        final AtomicLong dia = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void preparar() {
+            LocalDate inicio = LocalDate.of(2024, 1, 1);
+            calendario = new CalendarioOcupacion(inicio);
+            calendario.agregar(propiedades - 1);
+            dia.set(inicio.toEpochDay());
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Hilo {
+
+        private SplittableRandom azar;
+
+        @Setup(Level.Trial)
+        public void preparar() {
+            azar = new SplittableRandom(Thread.currentThread().getId());
+        }
+    }
+
+    /**
+     * Ocupa de 1 a 3 noches de una propiedad al azar y, si pudo, las libera
+     */
+    @Benchmark
+    @Group("horizonte")
+    @GroupThreads(3)
+    public boolean ocuparYLiberar(Calendario c, Hilo h) {
+        int ordinal = h.azar.nextInt(c.propiedades);
+        LocalDate entrada = LocalDate.ofEpochDay(c.dia.get() + 1 + h.azar.nextInt(300));
+        LocalDate salida = entrada.plusDays(1 + h.azar.nextInt(3));
+        boolean ocupada = c.calendario.ocupar(ordinal, entrada, salida);
+        if (ocupada) {
+            c.calendario.liberar(ordinal, entrada, salida);
+        }
+        return ocupada;
+    }
+
+    /**
+     * Mueve el horizonte un día (toma las 64 franjas y desplaza todos los bits)
+     */
+    @Benchmark
+    @Group("horizonte")
+    @GroupThreads(1)
+    public boolean avanzarHorizonte(Calendario c) {
+        return c.calendario.avanzarHasta(LocalDate.ofEpochDay(c.dia.incrementAndGet()));
+    }
+}
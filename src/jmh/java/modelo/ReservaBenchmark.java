@@ -0,0 +1,124 @@
+package modelo;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reservas simultáneas desde varios hilos
+ *
+ * Con MISMA todos los hilos piden noches de la misma propiedad (compiten
+ * por la misma franja del calendario); con DISTINTAS cada intento elige una
+ * propiedad al azar entre muchas (las franjas casi nunca coinciden)
+ *
+ * Cada reserva lograda se cancela enseguida para que el calendario no se
+ * llene. ReservaData guarda también las canceladas: las iteraciones son
+ * cortas y antes de cada una se descartan las anteriores, así la recolección
+ * de basura no copia cientos de miles de reservas viejas.
+ * Está en el paquete modelo por eso (descartarTodas no es público)
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Xmx3g"})
+public class ReservaBenchmark {
+
+    private static final int PROPIEDADES = 4096;
+
+    /**
+     * Qué propiedades piden los hilos
+     */
+    public enum Reparto {
+        MISMA,      // una sola propiedad para todos
+        DISTINTAS   // una al azar entre PROPIEDADES
+    }
+
+    /**
+     * Catálogo y reservas compartidos por todos los hilos
+     */
+    @State(Scope.Benchmark)
+    public static class Reservas {
+
+        @Param({"MISMA", "DISTINTAS"})
+        public Reparto reparto;
+
+        ReservaData reservas;
+
+        String[] ids;
+
+        @Setup(Level.Trial)
+        public void cargar() {
+            // El DAO escribe una línea por operación; aquí mediría la consola
+            System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            PropiedadData propiedades = PropiedadData.sinDatos();
+            List<Propiedad> catalogo = new ArrayList<>(PROPIEDADES);
+            for (int i = 0; i < PROPIEDADES; i++) {
+                catalogo.add(new Propiedad("reserva-" + i, "anfitrion-bench", "Propiedad " + i, "Para reservar",
+                                           "Bogotá", "Calle " + i, "Apartamento", 4, 2, 1, 100000));
+            }
+            propiedades.registrarPropiedades(catalogo);
+            reservas = new ReservaData(propiedades);
+            ids = new String[PROPIEDADES];
+            for (int i = 0; i < PROPIEDADES; i++) {
+                ids[i] = catalogo.get(i).getPropiedadId();
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void descartarReservas() {
+            ReservaData.descartarTodas();
+        }
+    }
+
+    /**
+     * Azar propio de cada hilo (sin estado compartido fuera del DAO)
+     */
+    @State(Scope.Thread)
+    public static class Hilo {
+
+        private SplittableRandom azar;
+
+        private LocalDate hoy;
+
+        @Setup(Level.Trial)
+        public void preparar() {
+            azar = new SplittableRandom(Thread.currentThread().getId());
+            hoy = LocalDate.now();
+        }
+    }
+
+    /**
+     * Un intento de reserva de 1 a 3 noches dentro de los próximos 300 días
+     * (si se logra, se cancela)
+     */
+    @Benchmark
+    public Reserva reservar(Reservas r, Hilo h) {
+        String id = r.reparto == Reparto.MISMA ? r.ids[0] : r.ids[h.azar.nextInt(PROPIEDADES)];
+        LocalDate entrada = h.hoy.plusDays(1 + h.azar.nextInt(300));
+        LocalDate salida = entrada.plusDays(1 + h.azar.nextInt(3));
+        Reserva reserva = r.reservas.reservar(id, "viajero-bench", entrada, salida);
+        if (reserva != null) {
+            r.reservas.cancelarReserva(reserva.getReservaId());
+        }
+        return reserva;
+    }
+}
@@ -0,0 +1,107 @@
+package rendimiento;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import modelo.AlmacenPropiedades;
+import modelo.FiltroBusqueda;
+import modelo.MotorAlmacenamiento;
+import modelo.PoliticaCache;
+import modelo.Propiedad;
+import modelo.PropiedadData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Búsqueda con filtros y lista de ciudades sobre catálogos de distinto tamaño
+ *
+ * El catálogo de 10 millones no está en la lista por defecto (necesita
+ * mucha memoria); se pide con:
+ *   java -jar target/benchmarks.jar Busqueda -p tamano=10000000 -jvmArgsAppend -Xmx24g
+ *
+ * Cada combinación corre en su propia JVM y sobre un almacenamiento vacío
+ * (sin datos de prueba): el catálogo tiene exactamente tamano propiedades
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Xmx3g"})
+public class BusquedaBenchmark {
+
+    /**
+     * Catálogo cargado una vez por JVM
+     */
+    @State(Scope.Benchmark)
+    public static class Catalogo {
+
+        @Param({"10", "1000", "100000", "1000000"})
+        public int tamano;
+
+        // LISTA, MEMORIA o JDBC: el mismo benchmark compara los motores
+        @Param({"LISTA", "MEMORIA", "JDBC"})
+        public MotorAlmacenamiento motor;
+
+        // Sin caché se mide la búsqueda en sí; con caché, la mezcla de aciertos y fallos
+        @Param({"false"})
+        public boolean cache;
+
+        AlmacenPropiedades propiedades;
+
+        @Setup(Level.Trial)
+        public void cargar() {
+            CatalogoSintetico.silenciarConsola();
+            propiedades = motor.crearPropiedadesVacias();
+            propiedades.registrarPropiedades(CatalogoSintetico.propiedades(tamano));
+            if (!cache && propiedades instanceof PropiedadData) {
+                ((PropiedadData) propiedades).configurarCache(0, PoliticaCache.LRU);
+            }
+        }
+    }
+
+    /**
+     * Consultas que cada hilo recorre en ronda
+     */
+    @State(Scope.Thread)
+    public static class Consultas {
+
+        private static final int CANTIDAD = 1024;
+
+        @Param({"ALTA", "MEDIA", "BAJA"})
+        public Selectividad selectividad;
+
+        private FiltroBusqueda[] filtros;
+
+        private int siguiente;
+
+        @Setup(Level.Trial)
+        public void preparar() {
+            filtros = CatalogoSintetico.filtros(selectividad, CANTIDAD);
+        }
+
+        FiltroBusqueda siguiente() {
+            FiltroBusqueda filtro = filtros[siguiente];
+            siguiente = (siguiente + 1) % CANTIDAD;
+            return filtro;
+        }
+    }
+
+    @Benchmark
+    public List<Propiedad> buscarConFiltros(Catalogo catalogo, Consultas consultas) {
+        return catalogo.propiedades.buscarConFiltros(consultas.siguiente());
+    }
+
+    @Benchmark
+    public List<String> obtenerCiudades(Catalogo catalogo) {
+        return catalogo.propiedades.obtenerCiudades();
+    }
+}
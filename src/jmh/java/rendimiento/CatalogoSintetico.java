@@ -0,0 +1,127 @@
+package rendimiento;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import modelo.FiltroBusqueda;
+import modelo.Propiedad;
+import modelo.Usuario;
+
+/**
+ * Datos generados para los benchmarks
+ * Siempre la misma semilla: cada corrida mide el mismo catálogo y las
+ * mismas consultas, así los resultados se pueden comparar entre cambios
+ */
+final class CatalogoSintetico {
+
+    static final String[] CIUDADES = {
+        "Bogotá", "Medellín", "Cali", "Barranquilla", "Cartagena", "Cúcuta", "Bucaramanga",
+        "Pereira", "Santa Marta", "Ibagué", "Pasto", "Manizales", "Neiva", "Villavicencio",
+        "Armenia", "Valledupar", "Montería", "Popayán", "Tunja", "Riohacha"
+    };
+
+    // Servicio -> probabilidad de tenerlo (Chimenea es el servicio raro)
+    static final String[] SERVICIOS = {"WiFi", "Cocina", "TV", "Parqueadero", "Piscina", "Aire acondicionado",
+                                       "Lavadora", "Chimenea"};
+    private static final double[] PROBABILIDAD_SERVICIO = {0.9, 0.7, 0.6, 0.4, 0.2, 0.3, 0.25, 0.02};
+
+    private static final String[] TIPOS = {"Apartamento", "Casa", "Cabaña", "Habitación", "Finca"};
+
+    private static final String[] PALABRAS = {"moderno", "amplio", "acogedor", "vista", "centro", "tranquilo",
+                                              "jardín", "montaña", "mar", "familiar", "luminoso", "nuevo"};
+
+    // Precios de 50.000 a 1.000.000 en pasos de 10.000
+    private static final int PASOS_PRECIO = 96;
+
+    private static final long SEMILLA = 20240601L;
+
+    private CatalogoSintetico() {
+    }
+
+    /**
+     * El DAO escribe una línea por operación; en los benchmarks eso mediría la consola
+     */
+    static void silenciarConsola() {
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    /**
+     * @return Propiedades con ID "bench-i", repartidas entre ciudades, precios y servicios
+     */
+    static List<Propiedad> propiedades(int cantidad) {
+        SplittableRandom azar = new SplittableRandom(SEMILLA);
+        List<Propiedad> propiedades = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            Propiedad p = new Propiedad(
+                "bench-" + i,
+                "anfitrion-" + azar.nextInt(1000),
+                palabra(azar) + " " + palabra(azar) + " en " + CIUDADES[i % CIUDADES.length],
+                palabra(azar) + " " + palabra(azar) + " " + palabra(azar),
+                CIUDADES[azar.nextInt(CIUDADES.length)],
+                "Calle " + azar.nextInt(200),
+                TIPOS[azar.nextInt(TIPOS.length)],
+                1 + azar.nextInt(10), 1 + azar.nextInt(5), 1 + azar.nextInt(3),
+                50000 + azar.nextInt(PASOS_PRECIO) * 10000
+            );
+            for (int s = 0; s < SERVICIOS.length; s++) {
+                if (azar.nextDouble() < PROBABILIDAD_SERVICIO[s]) {
+                    p.agregarServicio(SERVICIOS[s]);
+                }
+            }
+            p.setUbicacion(-4 + azar.nextDouble() * 16, -79 + azar.nextDouble() * 12);
+            // 1 de cada 10 no está disponible
+            p.setDisponible(azar.nextInt(10) != 0);
+            propiedades.add(p);
+        }
+        return propiedades;
+    }
+
+    /**
+     * @return Consultas distintas entre sí (para no medir solo aciertos de caché)
+     */
+    static FiltroBusqueda[] filtros(Selectividad selectividad, int cantidad) {
+        SplittableRandom azar = new SplittableRandom(SEMILLA + selectividad.ordinal());
+        FiltroBusqueda[] filtros = new FiltroBusqueda[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            String ciudad = CIUDADES[azar.nextInt(CIUDADES.length)];
+            int desde = azar.nextInt(PASOS_PRECIO / 2);
+            switch (selectividad) {
+                case ALTA:
+                    filtros[i] = new FiltroBusqueda(ciudad, 50000 + desde * 10000, 50000 + (desde + 10) * 10000,
+                                                    Arrays.asList("Chimenea"));
+                    filtros[i].setCapacidadMinima(1 + azar.nextInt(4));
+                    break;
+                case MEDIA:
+                    filtros[i] = new FiltroBusqueda(ciudad, 50000 + desde * 10000, 0, new ArrayList<>());
+                    break;
+                default:
+                    // Sin ciudad: la variación va en el precio mínimo (casi todo pasa)
+                    filtros[i] = new FiltroBusqueda("Todas", azar.nextInt(5) * 1000, 0, new ArrayList<>());
+            }
+        }
+        return filtros;
+    }
+
+    /**
+     * @return Usuarios con email "usuario-i@bench.com" y contraseña "clave-i"
+     */
+    static List<Usuario> usuarios(int cantidad) {
+        List<Usuario> usuarios = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            usuarios.add(new Usuario("bench-u" + i, "Usuario " + i, email(i), "3001234567", "clave-" + i,
+                                     i % 4 == 0 ? "Anfitrion" : "Viajero"));
+        }
+        return usuarios;
+    }
+
+    static String email(int i) {
+        return "usuario-" + i + "@bench.com";
+    }
+
+    private static String palabra(SplittableRandom azar) {
+        return PALABRAS[azar.nextInt(PALABRAS.length)];
+    }
+}
@@ -0,0 +1,113 @@
+package rendimiento;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import modelo.AlmacenUsuarios;
+import modelo.MotorAlmacenamiento;
+import modelo.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Lecturas y altas de usuarios al mismo tiempo: UsuarioData (candado con
+ * lecturas optimistas e índice concurrente) contra la línea base con un
+ * solo monitor (UsuariosSincronizados)
+ *
+ * En el grupo "lecturaEscritura" dos hilos verifican emails, uno recorre la
+ * lista (contarPorRol) y uno registra usuarios. El que registra hace una
+ * pausa de trabajo propio entre altas: así la lista no crece millones
+ * durante la medición y quien la recorre mide siempre un tamaño parecido
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Xmx3g"})
+public class ConcurrenciaUsuariosBenchmark {
+
+    // Trabajo del escritor entre altas (unidades de Blackhole.consumeCPU)
+    private static final long PAUSA_ENTRE_ALTAS = 2000;
+
+    /**
+     * Almacenamiento a comparar
+     */
+    public enum Almacen {
+        SINCRONIZADO,   // un monitor para todo (línea base)
+        MEMORIA         // UsuarioData
+    }
+
+    /**
+     * Usuarios compartidos por los hilos del grupo
+     */
+    @State(Scope.Group)
+    public static class Usuarios {
+
+        @Param({"SINCRONIZADO", "MEMORIA"})
+        public Almacen almacen;
+
+        @Param({"10000"})
+        public int tamano;
+
+        AlmacenUsuarios usuarios;
+
+        // Número del próximo usuario a registrar
+        final AtomicLong nuevos = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void cargar() {
+            CatalogoSintetico.silenciarConsola();
+            usuarios = almacen == Almacen.MEMORIA ? MotorAlmacenamiento.MEMORIA.crearUsuariosVacios()
+                                                  : new UsuariosSincronizados();
+            usuarios.registrarUsuarios(CatalogoSintetico.usuarios(tamano));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Hilo {
+
+        private SplittableRandom azar;
+
+        @Setup(Level.Trial)
+        public void preparar() {
+            azar = new SplittableRandom(Thread.currentThread().getId());
+        }
+    }
+
+    @Benchmark
+    @Group("lecturaEscritura")
+    @GroupThreads(2)
+    public boolean existeEmail(Usuarios u, Hilo h) {
+        return u.usuarios.existeEmail(CatalogoSintetico.email(h.azar.nextInt(u.tamano)));
+    }
+
+    @Benchmark
+    @Group("lecturaEscritura")
+    @GroupThreads(1)
+    public int contarPorRol(Usuarios u) {
+        return u.usuarios.contarPorRol("Anfitrion");
+    }
+
+    @Benchmark
+    @Group("lecturaEscritura")
+    @GroupThreads(1)
+    public boolean registrarUsuario(Usuarios u) {
+        Blackhole.consumeCPU(PAUSA_ENTRE_ALTAS);
+        long n = u.nuevos.getAndIncrement();
+        return u.usuarios.registrarUsuario(new Usuario("Nuevo " + n, "nuevo-" + n + "@bench.com",
+                                                       "3001234567", "secreta", "Viajero"));
+    }
+}
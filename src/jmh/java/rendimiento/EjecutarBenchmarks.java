@@ -0,0 +1,24 @@
+package rendimiento;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Punto de entrada de target/benchmarks.jar
+ * Acepta las mismas opciones que JMH y siempre agrega el perfilador de GC,
+ * así cada resultado trae también la memoria asignada por operación
+ * (gc.alloc.rate.norm) junto al rendimiento y el tiempo promedio
+ */
+public class EjecutarBenchmarks {
+
+    public static void main(String[] args) throws Exception {
+        Options opciones = new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(opciones).run();
+    }
+}
@@ -0,0 +1,11 @@
+package rendimiento;
+
+/**
+ * Qué tan selectiva es una consulta de búsqueda (fracción aproximada del catálogo que devuelve)
+ */
+public enum Selectividad {
+
+    ALTA,   // ciudad + rango de precio angosto + servicio raro (~0,01%)
+    MEDIA,  // ciudad + precio mínimo (~3%)
+    BAJA    // todas las ciudades, sin servicios (~90%)
+}
@@ -0,0 +1,100 @@
+package rendimiento;
+
+import controlador.ControladorRegistro;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import modelo.AlmacenUsuarios;
+import modelo.MotorAlmacenamiento;
+import modelo.Usuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Inicio de sesión, verificación de email y registro de usuarios
+ *
+ * El registro agrega un usuario nuevo en cada llamada, así que la lista
+ * crece durante la medición (igual que en producción)
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector", "-Xmx3g"})
+public class UsuarioBenchmark {
+
+    /**
+     * Usuarios cargados una vez por JVM
+     */
+    @State(Scope.Benchmark)
+    public static class Usuarios {
+
+        @Param({"10", "10000", "1000000"})
+        public int tamano;
+
+        // LISTA, MEMORIA o JDBC (cada uno vacío, sin datos de prueba)
+        @Param({"LISTA", "MEMORIA", "JDBC"})
+        public MotorAlmacenamiento motor;
+
+        AlmacenUsuarios usuarios;
+
+        ControladorRegistro registro;
+
+        // Número del próximo usuario a registrar (compartido entre hilos)
+        final AtomicLong nuevos = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void cargar() {
+            CatalogoSintetico.silenciarConsola();
+            usuarios = motor.crearUsuariosVacios();
+            usuarios.registrarUsuarios(CatalogoSintetico.usuarios(tamano));
+            registro = new ControladorRegistro(usuarios);
+        }
+    }
+
+    /**
+     * Usuario existente que cada hilo consulta en ronda
+     */
+    @State(Scope.Thread)
+    public static class Ronda {
+
+        private int siguiente;
+
+        int siguiente(int tamano) {
+            siguiente = siguiente + 1 < tamano ? siguiente + 1 : 0;
+            return siguiente;
+        }
+    }
+
+    @Benchmark
+    public Usuario buscarUsuario(Usuarios u, Ronda ronda) {
+        int i = ronda.siguiente(u.tamano);
+        return u.usuarios.buscarUsuario(CatalogoSintetico.email(i), "clave-" + i);
+    }
+
+    @Benchmark
+    public boolean existeEmail(Usuarios u, Ronda ronda) {
+        return u.usuarios.existeEmail(CatalogoSintetico.email(ronda.siguiente(u.tamano)));
+    }
+
+    @Benchmark
+    public boolean existeEmailAusente(Usuarios u, Ronda ronda) {
+        return u.usuarios.existeEmail("ausente-" + ronda.siguiente(u.tamano) + "@bench.com");
+    }
+
+    @Benchmark
+    public ControladorRegistro.ResultadoRegistro registrarUsuario(Usuarios u) {
+        long n = u.nuevos.getAndIncrement();
+        return u.registro.registrarUsuario("Nuevo " + n, "nuevo-" + n + "@bench.com", "3001234567",
+                                           "secreta", "secreta", "Viajero");
+    }
+}
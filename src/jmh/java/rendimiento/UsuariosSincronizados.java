@@ -0,0 +1,83 @@
+package rendimiento;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import modelo.AlmacenUsuarios;
+import modelo.Usuario;
+
+/**
+ * Línea base para ConcurrenciaUsuariosBenchmark: la lista y el índice por
+ * email de UsuarioData, pero protegidos con un solo monitor (cada lectura
+ * espera a cualquier otra operación). Es la forma más simple de hacer
+ * seguro el almacenamiento original
+ */
+class UsuariosSincronizados implements AlmacenUsuarios {
+
+    private final List<Usuario> listaUsuarios = new ArrayList<>();
+
+    private final Map<String, Usuario> indicePorEmail = new HashMap<>();
+
+    @Override
+    public synchronized boolean registrarUsuario(Usuario usuario) {
+        if (usuario.getUsuarioId() == null || usuario.getUsuarioId().isEmpty()) {
+            usuario.setUsuarioId(UUID.randomUUID().toString());
+        }
+        if (indicePorEmail.putIfAbsent(clave(usuario.getEmail()), usuario) != null) {
+            return false;
+        }
+        listaUsuarios.add(usuario);
+        return true;
+    }
+
+    @Override
+    public synchronized int registrarUsuarios(Collection<Usuario> usuarios) {
+        int registrados = 0;
+        for (Usuario usuario : usuarios) {
+            if (usuario != null && registrarUsuario(usuario)) {
+                registrados++;
+            }
+        }
+        return registrados;
+    }
+
+    @Override
+    public synchronized Usuario buscarUsuario(String email, String contrasena) {
+        Usuario u = indicePorEmail.get(clave(email));
+        return u != null && u.getContrasena().equals(contrasena) ? u : null;
+    }
+
+    @Override
+    public synchronized Usuario buscarPorEmail(String email) {
+        return indicePorEmail.get(clave(email));
+    }
+
+    @Override
+    public synchronized boolean existeEmail(String email) {
+        return indicePorEmail.containsKey(clave(email));
+    }
+
+    @Override
+    public synchronized List<Usuario> obtenerTodosUsuarios() {
+        return new ArrayList<>(listaUsuarios);
+    }
+
+    @Override
+    public synchronized int contarPorRol(String rol) {
+        int count = 0;
+        for (Usuario u : listaUsuarios) {
+            if (u.getRol().equalsIgnoreCase(rol)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String clave(String email) {
+        return email == null ? "" : email.toLowerCase(Locale.ROOT);
+    }
+}
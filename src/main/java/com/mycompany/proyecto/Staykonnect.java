@@ -1,11 +1,12 @@
 package com.mycompany.proyecto;
-import modelo.UsuarioData;
+import modelo.AlmacenUsuarios;
+import modelo.MotorAlmacenamiento;
 import vista.InicioSesion;
 import controlador.InicioControlador;
 
 public class Staykonnect {
     public static void main(String[] args) {
-        UsuarioData dao = new UsuarioData();
+        AlmacenUsuarios dao = MotorAlmacenamiento.usuarios();
         InicioSesion vista = new InicioSesion();
         new InicioControlador(vista, dao);
         vista.setVisible(true);
@@ -1,8 +1,17 @@
 package controlador;
 
+import modelo.EstadisticasCache;
+import modelo.FacetasBusqueda;
+import modelo.FiltroBusqueda;
+import modelo.OrdenBusqueda;
+import modelo.PaginaResultados;
 import modelo.Propiedad;
-import modelo.PropiedadData;
+import modelo.AlmacenPropiedades;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 
 /**
  * Controlador para manejar la lógica de búsqueda de propiedades
@@ -10,14 +19,31 @@ import java.util.List;
  */
 public class ControladorBusqueda {
     
-    private PropiedadData dao;
+    // Días hacia adelante en los que se puede buscar disponibilidad
+    private static final int DIAS_MAXIMOS_BUSQUEDA = 365;
+    
+    private AlmacenPropiedades dao;
+    
+    // Pool para búsquedas en catálogos grandes (null = siempre secuencial)
+    private ForkJoinPool pool;
+    
+    /**
+     * Constructor: las búsquedas grandes usan el pool común de la JVM
+     * @param dao Objeto DAO para acceder a datos de propiedades
+     */
+    public ControladorBusqueda(AlmacenPropiedades dao) {
+        this.dao = dao;
+        this.pool = ForkJoinPool.commonPool();
+    }
     
     /**
-     * Constructor
+     * Constructor con nivel de paralelismo propio
      * @param dao Objeto DAO para acceder a datos de propiedades
+     * @param paralelismo Hilos para búsquedas grandes (1 = siempre secuencial)
      */
-    public ControladorBusqueda(PropiedadData dao) {
+    public ControladorBusqueda(AlmacenPropiedades dao, int paralelismo) {
         this.dao = dao;
+        this.pool = paralelismo > 1 ? new ForkJoinPool(paralelismo) : null;
     }
     
     /**
@@ -31,6 +57,179 @@ public class ControladorBusqueda {
     public ResultadoBusqueda buscarPropiedades(String ciudad, String precioMinTexto, 
                                                String precioMaxTexto, 
                                                List<String> serviciosSeleccionados) {
+        return buscarPropiedades(ciudad, precioMinTexto, precioMaxTexto, serviciosSeleccionados,
+                                 OrdenBusqueda.CATALOGO, 0, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Busca propiedades aplicando filtros y devuelve solo una página ordenada
+     * @param ciudad Ciudad seleccionada (puede ser "Todas")
+     * @param precioMinTexto Precio mínimo como String
+     * @param precioMaxTexto Precio máximo como String
+     * @param serviciosSeleccionados Lista de servicios requeridos
+     * @param orden Criterio de orden (ej: PRECIO_ASC)
+     * @param desplazamiento Cantidad de resultados a saltar (desde 0)
+     * @param tamanoPagina Cantidad de resultados por página
+     * @return Resultado con la página pedida y el total de coincidencias
+     */
+    public ResultadoBusqueda buscarPropiedades(String ciudad, String precioMinTexto, 
+                                               String precioMaxTexto, 
+                                               List<String> serviciosSeleccionados,
+                                               OrdenBusqueda orden, int desplazamiento,
+                                               int tamanoPagina) {
+        return buscar(ciudad, precioMinTexto, precioMaxTexto, serviciosSeleccionados, null,
+                      orden, desplazamiento, tamanoPagina, false);
+    }
+    
+    /**
+     * Busca propiedades que además contengan un texto en el título o la descripción
+     * @param ciudad Ciudad seleccionada (puede ser "Todas")
+     * @param precioMinTexto Precio mínimo como String
+     * @param precioMaxTexto Precio máximo como String
+     * @param serviciosSeleccionados Lista de servicios requeridos
+     * @param texto Palabras a buscar (ej: bogota lujo; entre comillas = frase exacta)
+     * @param orden Criterio de orden (RELEVANCIA = mejor coincidencia primero)
+     * @param desplazamiento Cantidad de resultados a saltar (desde 0)
+     * @param tamanoPagina Cantidad de resultados por página
+     * @return Resultado con la página pedida y el total de coincidencias
+     */
+    public ResultadoBusqueda buscarPropiedades(String ciudad, String precioMinTexto, 
+                                               String precioMaxTexto, 
+                                               List<String> serviciosSeleccionados,
+                                               String texto, OrdenBusqueda orden,
+                                               int desplazamiento, int tamanoPagina) {
+        return buscar(ciudad, precioMinTexto, precioMaxTexto, serviciosSeleccionados,
+                      filtro -> filtro.setTexto(texto), orden, desplazamiento, tamanoPagina, false);
+    }
+    
+    /**
+     * Busca propiedades a menos de cierta distancia de un punto
+     * @param latitudTexto Latitud del punto como String (-90 a 90)
+     * @param longitudTexto Longitud del punto como String (-180 a 180)
+     * @param radioKmTexto Radio en km como String
+     * @param precioMinTexto Precio mínimo como String
+     * @param precioMaxTexto Precio máximo como String
+     * @param serviciosSeleccionados Lista de servicios requeridos
+     * @param orden Criterio de orden (DISTANCIA = más cercanas primero)
+     * @param desplazamiento Cantidad de resultados a saltar (desde 0)
+     * @param tamanoPagina Cantidad de resultados por página
+     * @return Resultado con la página pedida y el total de coincidencias
+     */
+    public ResultadoBusqueda buscarCercanas(String latitudTexto, String longitudTexto,
+                                            String radioKmTexto, String precioMinTexto,
+                                            String precioMaxTexto,
+                                            List<String> serviciosSeleccionados,
+                                            OrdenBusqueda orden, int desplazamiento,
+                                            int tamanoPagina) {
+        
+        //   VALIDACIÓN DE UBICACIÓN  
+        Double latitud = convertirNumero(latitudTexto);
+        if (latitud == null || latitud < -90 || latitud > 90) {
+            return new ResultadoBusqueda(false, "La latitud debe ser un número entre -90 y 90", null);
+        }
+        Double longitud = convertirNumero(longitudTexto);
+        if (longitud == null || longitud < -180 || longitud > 180) {
+            return new ResultadoBusqueda(false, "La longitud debe ser un número entre -180 y 180", null);
+        }
+        Double radioKm = convertirNumero(radioKmTexto);
+        if (radioKm == null || radioKm <= 0) {
+            return new ResultadoBusqueda(false, "El radio debe ser un número mayor que cero", null);
+        }
+        
+        return buscar("Todas", precioMinTexto, precioMaxTexto, serviciosSeleccionados,
+                      filtro -> filtro.setRadio(latitud, longitud, radioKm),
+                      orden, desplazamiento, tamanoPagina, false);
+    }
+    
+    /**
+     * Busca propiedades libres todas las noches de una estadía
+     * @param ciudad Ciudad seleccionada (puede ser "Todas")
+     * @param precioMinTexto Precio mínimo como String
+     * @param precioMaxTexto Precio máximo como String
+     * @param serviciosSeleccionados Lista de servicios requeridos
+     * @param fechaEntradaTexto Fecha de llegada (formato AAAA-MM-DD)
+     * @param fechaSalidaTexto Fecha de salida (formato AAAA-MM-DD)
+     * @param orden Criterio de orden (ej: PRECIO_ASC)
+     * @param desplazamiento Cantidad de resultados a saltar (desde 0)
+     * @param tamanoPagina Cantidad de resultados por página
+     * @return Resultado con la página pedida y el total de coincidencias
+     */
+    public ResultadoBusqueda buscarDisponiblesEntre(String ciudad, String precioMinTexto,
+                                                    String precioMaxTexto,
+                                                    List<String> serviciosSeleccionados,
+                                                    String fechaEntradaTexto, String fechaSalidaTexto,
+                                                    OrdenBusqueda orden, int desplazamiento,
+                                                    int tamanoPagina) {
+        
+        //   VALIDACIÓN DE FECHAS  
+        if (fechaEntradaTexto == null || fechaSalidaTexto == null) {
+            return new ResultadoBusqueda(false, "Debe indicar las fechas de entrada y salida", null);
+        }
+        LocalDate entrada;
+        LocalDate salida;
+        try {
+            entrada = LocalDate.parse(fechaEntradaTexto.trim());
+            salida = LocalDate.parse(fechaSalidaTexto.trim());
+        } catch (DateTimeParseException e) {
+            return new ResultadoBusqueda(false, "Las fechas deben tener el formato AAAA-MM-DD", null);
+        }
+        LocalDate hoy = LocalDate.now();
+        if (entrada.isBefore(hoy)) {
+            return new ResultadoBusqueda(false, "La fecha de entrada no puede ser anterior a hoy", null);
+        }
+        if (!salida.isAfter(entrada)) {
+            return new ResultadoBusqueda(false, "La fecha de salida debe ser posterior a la de entrada", null);
+        }
+        if (salida.isAfter(hoy.plusDays(DIAS_MAXIMOS_BUSQUEDA))) {
+            return new ResultadoBusqueda(false, 
+                "Solo se puede buscar hasta " + DIAS_MAXIMOS_BUSQUEDA + " días adelante", null);
+        }
+        
+        return buscar(ciudad, precioMinTexto, precioMaxTexto, serviciosSeleccionados,
+                      filtro -> filtro.setFechas(entrada, salida),
+                      orden, desplazamiento, tamanoPagina, false);
+    }
+    
+    /**
+     * Busca una página de propiedades junto con los conteos por ciudad,
+     * servicio y tipo de todas las coincidencias (para mostrarlos en los filtros)
+     * @param ciudad Ciudad seleccionada (puede ser "Todas")
+     * @param precioMinTexto Precio mínimo como String
+     * @param precioMaxTexto Precio máximo como String
+     * @param serviciosSeleccionados Lista de servicios requeridos
+     * @param orden Criterio de orden (ej: PRECIO_ASC)
+     * @param desplazamiento Cantidad de resultados a saltar (desde 0)
+     * @param tamanoPagina Cantidad de resultados por página
+     * @return Resultado con la página, el total y las facetas
+     */
+    public ResultadoBusqueda buscarConFacetas(String ciudad, String precioMinTexto, 
+                                              String precioMaxTexto, 
+                                              List<String> serviciosSeleccionados,
+                                              OrdenBusqueda orden, int desplazamiento,
+                                              int tamanoPagina) {
+        return buscar(ciudad, precioMinTexto, precioMaxTexto, serviciosSeleccionados, null,
+                      orden, desplazamiento, tamanoPagina, true);
+    }
+    
+    /**
+     * Valida los parámetros y ejecuta la búsqueda paginada
+     * @param criteriosExtra Ajustes adicionales del filtro, ej: texto o zona (null = ninguno)
+     * @param conFacetas true para calcular también los conteos por faceta
+     */
+    private ResultadoBusqueda buscar(String ciudad, String precioMinTexto, 
+                                     String precioMaxTexto, 
+                                     List<String> serviciosSeleccionados,
+                                     Consumer<FiltroBusqueda> criteriosExtra,
+                                     OrdenBusqueda orden, int desplazamiento,
+                                     int tamanoPagina, boolean conFacetas) {
+        
+        //   VALIDACIÓN DE PAGINACIÓN  
+        if (desplazamiento < 0) {
+            return new ResultadoBusqueda(false, "El desplazamiento no puede ser negativo", null);
+        }
+        if (tamanoPagina <= 0) {
+            return new ResultadoBusqueda(false, "El tamaño de página debe ser mayor que cero", null);
+        }
         
         //   CONVERSIÓN Y VALIDACIÓN DE PRECIOS  
         double precioMin = 0;
@@ -71,20 +270,45 @@ public class ControladorBusqueda {
         }
         
         //   BÚSQUEDA: Aplicar filtros  
-        List<Propiedad> resultados = dao.buscarConFiltros(
-            ciudad, precioMin, precioMax, serviciosSeleccionados
-        );
+        FiltroBusqueda filtro = new FiltroBusqueda(ciudad, precioMin, precioMax, serviciosSeleccionados);
+        if (criteriosExtra != null) {
+            criteriosExtra.accept(filtro);
+        }
+        OrdenBusqueda ordenEfectivo = orden != null ? orden : OrdenBusqueda.CATALOGO;
+        PaginaResultados pagina = conFacetas
+            ? dao.buscarConFacetas(filtro, ordenEfectivo, desplazamiento, tamanoPagina, pool)
+            : dao.buscarPagina(filtro, ordenEfectivo, desplazamiento, tamanoPagina, pool);
+        List<Propiedad> resultados = pagina.getPropiedades();
         
         //   MENSAJE DE RESULTADO  
         String mensaje;
-        if (resultados.isEmpty()) {
+        if (pagina.getTotal() == 0) {
             mensaje = "No se encontraron propiedades con los criterios seleccionados. " +
                      "Intente modificar los filtros.";
+        } else if (resultados.size() < pagina.getTotal()) {
+            mensaje = "Se encontraron " + pagina.getTotal() + " propiedad(es), mostrando " +
+                     (desplazamiento + 1) + "-" + (desplazamiento + resultados.size());
         } else {
-            mensaje = "Se encontraron " + resultados.size() + " propiedad(es)";
+            mensaje = "Se encontraron " + pagina.getTotal() + " propiedad(es)";
         }
         
-        return new ResultadoBusqueda(true, mensaje, resultados);
+        return new ResultadoBusqueda(true, mensaje, resultados, pagina.getTotal(), pagina.getFacetas());
+    }
+    
+    /**
+     * Convierte un texto a número
+     * @return El número, o null si está vacío o no es un número finito
+     */
+    private Double convertirNumero(String texto) {
+        if (texto == null || texto.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            double valor = Double.parseDouble(texto.trim());
+            return Double.isFinite(valor) ? valor : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
     
     /**
@@ -116,6 +340,14 @@ public class ControladorBusqueda {
         return dao.obtenerServiciosDisponibles();
     }
     
+    /**
+     * Obtiene los contadores de la caché de búsquedas (para monitoreo)
+     * @return Aciertos, fallos, invalidaciones y expulsiones
+     */
+    public EstadisticasCache obtenerEstadisticasCache() {
+        return dao.obtenerEstadisticasCache();
+    }
+    
     /**
      * Busca propiedades de un anfitrión específico
      * @param anfitrionId ID del anfitrión
@@ -141,11 +373,24 @@ public class ControladorBusqueda {
         private boolean exitoso;
         private String mensaje;
         private List<Propiedad> propiedades;
+        private int total;
+        private FacetasBusqueda facetas;
         
         public ResultadoBusqueda(boolean exitoso, String mensaje, List<Propiedad> propiedades) {
+            this(exitoso, mensaje, propiedades, propiedades != null ? propiedades.size() : 0);
+        }
+        
+        public ResultadoBusqueda(boolean exitoso, String mensaje, List<Propiedad> propiedades, int total) {
+            this(exitoso, mensaje, propiedades, total, null);
+        }
+        
+        public ResultadoBusqueda(boolean exitoso, String mensaje, List<Propiedad> propiedades, int total,
+                                 FacetasBusqueda facetas) {
             this.exitoso = exitoso;
             this.mensaje = mensaje;
             this.propiedades = propiedades;
+            this.total = total;
+            this.facetas = facetas;
         }
         
         public boolean isExitoso() {
@@ -163,5 +408,19 @@ public class ControladorBusqueda {
         public int getCantidad() {
             return propiedades != null ? propiedades.size() : 0;
         }
+        
+        /**
+         * @return Total de coincidencias (puede ser mayor que la página mostrada)
+         */
+        public int getTotal() {
+            return total;
+        }
+        
+        /**
+         * @return Conteos por ciudad, servicio y tipo (null si no se pidieron)
+         */
+        public FacetasBusqueda getFacetas() {
+            return facetas;
+        }
     }
 }
\ No newline at end of file
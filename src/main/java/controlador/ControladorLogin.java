@@ -1,7 +1,8 @@
 package controlador;
 
 import modelo.Usuario;
-import modelo.UsuarioData;
+import modelo.AlmacenUsuarios;
+import modelo.SesionUsuario;
 
 /**
  * Controlador para manejar la lógica de inicio de sesión
@@ -9,14 +10,26 @@ import modelo.UsuarioData;
  */
 public class ControladorLogin {
     
-    private UsuarioData dao;
+    private AlmacenUsuarios dao;
+    
+    private SesionUsuario sesion;
+    
+    /**
+     * Constructor (usa la sesión compartida del programa)
+     * @param dao Objeto DAO para acceder a datos de usuarios
+     */
+    public ControladorLogin(AlmacenUsuarios dao) {
+        this(dao, SesionUsuario.compartida());
+    }
     
     /**
      * Constructor
      * @param dao Objeto DAO para acceder a datos de usuarios
+     * @param sesion Sesión donde se guarda el usuario autenticado
      */
-    public ControladorLogin(UsuarioData dao) {
+    public ControladorLogin(AlmacenUsuarios dao, SesionUsuario sesion) {
         this.dao = dao;
+        this.sesion = sesion;
     }
     
     /**
@@ -44,7 +57,7 @@ public class ControladorLogin {
         }
         
         // ===== ÉXITO: Guardar sesión =====
-        UsuarioData.setUsuarioActual(usuario);
+        sesion.iniciar(usuario);
         
         String mensajeBienvenida = "¡Bienvenido " + usuario.getNombre() + "!";
         return new ResultadoLogin(true, mensajeBienvenida, usuario);
@@ -54,7 +67,7 @@ public class ControladorLogin {
      * Cierra la sesión del usuario actual
      */
     public void cerrarSesion() {
-        UsuarioData.cerrarSesion();
+        sesion.cerrar();
     }
     
     /**
@@ -62,7 +75,7 @@ public class ControladorLogin {
      * @return Usuario actual o null
      */
     public Usuario obtenerUsuarioActual() {
-        return UsuarioData.getUsuarioActual();
+        return sesion.getUsuario();
     }
     
     /**
@@ -70,7 +83,7 @@ public class ControladorLogin {
      * @return true si hay usuario logueado
      */
     public boolean haySesionActiva() {
-        return UsuarioData.haySesionActiva();
+        return sesion.hayActiva();
     }
     
     /**
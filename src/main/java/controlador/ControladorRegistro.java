@@ -1,7 +1,7 @@
 package controlador;
 
 import modelo.Usuario;
-import modelo.UsuarioData;
+import modelo.AlmacenUsuarios;
 
 /**
  * Controlador para manejar la lógica de registro de usuarios
@@ -9,13 +9,13 @@ import modelo.UsuarioData;
  */
 public class ControladorRegistro {
     
-    private UsuarioData dao;
+    private AlmacenUsuarios dao;
     
     /**
      * Constructor
      * @param dao Objeto DAO para acceder a datos de usuarios
      */
-    public ControladorRegistro(UsuarioData dao) {
+    public ControladorRegistro(AlmacenUsuarios dao) {
         this.dao = dao;
     }
     
@@ -0,0 +1,170 @@
+package controlador;
+
+import modelo.Propiedad;
+import modelo.AlmacenPropiedades;
+import modelo.Reserva;
+import modelo.ReservaData;
+import modelo.Usuario;
+import modelo.SesionUsuario;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Controlador para manejar la lógica de reservas
+ * Separa la lógica de negocio de la vista
+ */
+public class ControladorReservas {
+    
+    // Días hacia adelante en los que se puede reservar (horizonte del calendario)
+    private static final int DIAS_MAXIMOS_RESERVA = 365;
+    
+    private ReservaData dao;
+    
+    private AlmacenPropiedades propiedades;
+    
+    private SesionUsuario sesion;
+    
+    /**
+     * Constructor (usa la sesión compartida del programa)
+     * @param propiedades Objeto DAO para acceder a datos de propiedades
+     */
+    public ControladorReservas(AlmacenPropiedades propiedades) {
+        this(propiedades, SesionUsuario.compartida());
+    }
+    
+    /**
+     * Constructor
+     * @param propiedades Objeto DAO para acceder a datos de propiedades
+     * @param sesion Sesión con el usuario que reserva o cancela
+     */
+    public ControladorReservas(AlmacenPropiedades propiedades, SesionUsuario sesion) {
+        this.propiedades = propiedades;
+        this.sesion = sesion;
+        this.dao = new ReservaData(propiedades);
+    }
+    
+    /**
+     * Reserva una propiedad a nombre del usuario que inició sesión
+     * @param propiedadId ID de la propiedad
+     * @param fechaEntradaTexto Fecha de llegada (AAAA-MM-DD)
+     * @param fechaSalidaTexto Fecha de salida (AAAA-MM-DD)
+     * @return Resultado con la reserva creada
+     */
+    public ResultadoReserva crearReserva(String propiedadId, String fechaEntradaTexto,
+                                         String fechaSalidaTexto) {
+        
+        //   VALIDACIÓN 1: Sesión activa  
+        Usuario usuario = sesion.getUsuario();
+        if (usuario == null) {
+            return new ResultadoReserva(false, "Debe iniciar sesión para reservar", null);
+        }
+        
+        //   VALIDACIÓN 2: Campos vacíos  
+        if (propiedadId == null || propiedadId.trim().isEmpty()) {
+            return new ResultadoReserva(false, "Debe seleccionar una propiedad", null);
+        }
+        if (fechaEntradaTexto == null || fechaSalidaTexto == null) {
+            return new ResultadoReserva(false, "Debe indicar las fechas de entrada y salida", null);
+        }
+        
+        //   VALIDACIÓN 3: Fechas  
+        LocalDate entrada;
+        LocalDate salida;
+        try {
+            entrada = LocalDate.parse(fechaEntradaTexto.trim());
+            salida = LocalDate.parse(fechaSalidaTexto.trim());
+        } catch (DateTimeParseException e) {
+            return new ResultadoReserva(false, "Las fechas deben tener el formato AAAA-MM-DD", null);
+        }
+        LocalDate hoy = LocalDate.now();
+        if (entrada.isBefore(hoy)) {
+            return new ResultadoReserva(false, "La fecha de entrada no puede ser anterior a hoy", null);
+        }
+        if (!salida.isAfter(entrada)) {
+            return new ResultadoReserva(false, "La fecha de salida debe ser posterior a la de entrada", null);
+        }
+        if (salida.isAfter(hoy.plusDays(DIAS_MAXIMOS_RESERVA))) {
+            return new ResultadoReserva(false,
+                "Solo se puede reservar hasta " + DIAS_MAXIMOS_RESERVA + " días adelante", null);
+        }
+        
+        //   RESERVA  
+        Reserva reserva = dao.reservar(propiedadId.trim(), usuario.getUsuarioId(), entrada, salida);
+        if (reserva == null) {
+            return new ResultadoReserva(false, "La propiedad no está disponible en esas fechas", null);
+        }
+        return new ResultadoReserva(true, "Reserva confirmada: " + reserva.getNoches() + " noches", reserva);
+    }
+    
+    /**
+     * Cancela una reserva del usuario que inició sesión (o de una propiedad suya)
+     * @param reservaId ID de la reserva
+     * @return Resultado de la operación
+     */
+    public ResultadoReserva cancelarReserva(String reservaId) {
+        Usuario usuario = sesion.getUsuario();
+        if (usuario == null) {
+            return new ResultadoReserva(false, "Debe iniciar sesión para cancelar", null);
+        }
+        Reserva reserva = reservaId != null ? dao.buscarPorId(reservaId) : null;
+        if (reserva == null) {
+            return new ResultadoReserva(false, "La reserva no existe", null);
+        }
+        if (!reserva.getViajeroId().equals(usuario.getUsuarioId())
+                && !esAnfitrionDe(usuario, reserva)) {
+            return new ResultadoReserva(false, "No puede cancelar una reserva ajena", null);
+        }
+        if (!dao.cancelarReserva(reservaId)) {
+            return new ResultadoReserva(false, "La reserva ya estaba cancelada", reserva);
+        }
+        return new ResultadoReserva(true, "Reserva cancelada", reserva);
+    }
+    
+    /**
+     * @return Reservas del usuario actual: las de sus propiedades si es
+     *         anfitrión, las que hizo si es viajero (vacía sin sesión)
+     */
+    public List<Reserva> obtenerReservasUsuarioActual() {
+        Usuario usuario = sesion.getUsuario();
+        if (usuario == null) {
+            return List.of();
+        }
+        if (usuario.getRol().equalsIgnoreCase("Anfitrion")) {
+            return dao.obtenerReservasPorAnfitrion(usuario.getUsuarioId());
+        }
+        return dao.obtenerReservasPorViajero(usuario.getUsuarioId());
+    }
+    
+    private boolean esAnfitrionDe(Usuario usuario, Reserva reserva) {
+        Propiedad propiedad = propiedades.buscarPorId(reserva.getPropiedadId());
+        return propiedad != null && usuario.getUsuarioId().equals(propiedad.getAnfitrionId());
+    }
+    
+    /**
+     * Clase interna para encapsular el resultado de una reserva
+     */
+    public static class ResultadoReserva {
+        private boolean exitoso;
+        private String mensaje;
+        private Reserva reserva;
+        
+        public ResultadoReserva(boolean exitoso, String mensaje, Reserva reserva) {
+            this.exitoso = exitoso;
+            this.mensaje = mensaje;
+            this.reserva = reserva;
+        }
+        
+        public boolean isExitoso() {
+            return exitoso;
+        }
+        
+        public String getMensaje() {
+            return mensaje;
+        }
+        
+        public Reserva getReserva() {
+            return reserva;
+        }
+    }
+}
@@ -4,7 +4,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import javax.swing.JOptionPane;
 import modelo.Usuario;
-import modelo.UsuarioData;
+import modelo.AlmacenUsuarios;
 import vista.InicioSesion;
 import vista.MenuPrincipal;
 import vista.Registro;
@@ -12,9 +12,9 @@ import vista.Registro;
 public class InicioControlador implements ActionListener {
 
     private InicioSesion vista;
-    private UsuarioData dao;
+    private AlmacenUsuarios dao;
 
-    public InicioControlador(InicioSesion vista, UsuarioData dao) {
+    public InicioControlador(InicioSesion vista, AlmacenUsuarios dao) {
         this.vista = vista;
         this.dao = dao;
 
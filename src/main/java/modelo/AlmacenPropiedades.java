@@ -0,0 +1,136 @@
+package modelo;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Operaciones de un motor de almacenamiento de propiedades
+ * Los controladores usan esta interfaz y no una clase concreta: el motor
+ * se elige por configuración (ver MotorAlmacenamiento)
+ *
+ * Todos los motores devuelven los mismos resultados para el mismo
+ * catálogo: búsquedas en orden del catálogo y empates de orden resueltos
+ * también por orden del catálogo
+ */
+public interface AlmacenPropiedades {
+
+    //   MÉTODOS CRUD
+
+    /**
+     * Registra una nueva propiedad (si no tiene ID recibe uno)
+     * @return true si se registró
+     */
+    boolean registrarPropiedad(Propiedad propiedad);
+
+    /**
+     * Registra varias propiedades nuevas de una vez
+     * @return Cantidad registrada; se omiten las nulas y las de ID ya registrado
+     */
+    int registrarPropiedades(Collection<Propiedad> propiedades);
+
+    /**
+     * Guarda los datos actuales de una propiedad ya registrada
+     * (en los motores que devuelven copias es la única forma de guardar un cambio)
+     * @return true si existía
+     */
+    boolean actualizarPropiedad(Propiedad propiedad);
+
+    /**
+     * @return Propiedad con ese ID, o null si no existe
+     */
+    Propiedad buscarPorId(String id);
+
+    List<Propiedad> obtenerPropiedadesDisponibles();
+
+    List<Propiedad> obtenerTodasPropiedades();
+
+    List<Propiedad> obtenerPropiedadesPorAnfitrion(String anfitrionId);
+
+    //   BÚSQUEDA
+
+    /**
+     * Busca propiedades con los criterios de la vista de búsqueda
+     * @see FiltroBusqueda#FiltroBusqueda(String, double, double, List)
+     */
+    default List<Propiedad> buscarConFiltros(String ciudad, double precioMin,
+                                             double precioMax, List<String> serviciosRequeridos) {
+        return buscarConFiltros(new FiltroBusqueda(ciudad, precioMin, precioMax, serviciosRequeridos));
+    }
+
+    /**
+     * @return Propiedades que cumplen el filtro (en orden del catálogo)
+     */
+    List<Propiedad> buscarConFiltros(FiltroBusqueda filtro);
+
+    /**
+     * Busca una página ordenada de resultados
+     * Por defecto filtra, ordena y corta la lista completa de coincidencias
+     * @param pool Pool fork/join para motores que buscan en paralelo (null = secuencial)
+     * @return Página de resultados con el total de coincidencias
+     */
+    default PaginaResultados buscarPagina(FiltroBusqueda filtro, OrdenBusqueda orden,
+                                          int desplazamiento, int tamanoPagina, ForkJoinPool pool) {
+        return PaginadorResultados.paginar(buscarConFiltros(filtro), filtro, orden,
+                                           desplazamiento, tamanoPagina, false);
+    }
+
+    /**
+     * Busca una página ordenada y cuenta todas las coincidencias por ciudad, servicio y tipo
+     * @return Página de resultados con el total y las facetas
+     */
+    default PaginaResultados buscarConFacetas(FiltroBusqueda filtro, OrdenBusqueda orden,
+                                              int desplazamiento, int tamanoPagina, ForkJoinPool pool) {
+        return PaginadorResultados.paginar(buscarConFiltros(filtro), filtro, orden,
+                                           desplazamiento, tamanoPagina, true);
+    }
+
+    //   CONSULTAS DEL CATÁLOGO
+
+    /**
+     * @return Nombres de las ciudades sin repetir, ordenados
+     */
+    List<String> obtenerCiudades();
+
+    /**
+     * @return Servicios que ofrece alguna propiedad, ordenados
+     */
+    List<String> obtenerServiciosDisponibles();
+
+    int contarDisponiblesPorCiudad(String ciudad);
+
+    int contarDisponiblesPorServicio(String servicio);
+
+    /**
+     * @return Contadores de la caché de búsquedas (en cero si el motor no tiene caché)
+     */
+    default EstadisticasCache obtenerEstadisticasCache() {
+        return new EstadisticasCache(0, 0, 0, 0, 0, 0);
+    }
+
+    //   CALENDARIO DE DISPONIBILIDAD
+
+    /**
+     * Ocupa las noches de una estadía si todas estaban libres
+     * @return true si se ocuparon; false si la propiedad no existe, alguna
+     *         noche ya estaba ocupada o las fechas salen del horizonte
+     */
+    boolean bloquearFechas(String propiedadId, LocalDate fechaEntrada, LocalDate fechaSalida);
+
+    /**
+     * Libera las noches de una estadía (ej: reserva cancelada)
+     * @return true si la propiedad existe
+     */
+    boolean liberarFechas(String propiedadId, LocalDate fechaEntrada, LocalDate fechaSalida);
+
+    /**
+     * @return true si la propiedad existe y ninguna noche de la estadía está ocupada
+     */
+    boolean estaLibreEntre(String propiedadId, LocalDate fechaEntrada, LocalDate fechaSalida);
+
+    /**
+     * @return Noches ocupadas desde hoy, en orden (vacía si no existe)
+     */
+    List<LocalDate> obtenerNochesOcupadas(String propiedadId);
+}
@@ -0,0 +1,44 @@
+package modelo;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Operaciones de un motor de almacenamiento de usuarios
+ * Los controladores usan esta interfaz y no una clase concreta: el motor
+ * se elige por configuración (ver MotorAlmacenamiento). Los emails se
+ * comparan sin distinguir mayúsculas en todos los motores
+ */
+public interface AlmacenUsuarios {
+
+    /**
+     * Registra un nuevo usuario (si no tiene ID recibe uno)
+     * @return true si se registró, false si el email ya existe
+     */
+    boolean registrarUsuario(Usuario usuario);
+
+    /**
+     * Registra varios usuarios de una vez
+     * @return Cantidad registrada; se omiten los nulos y los de email ya registrado
+     */
+    int registrarUsuarios(Collection<Usuario> usuarios);
+
+    /**
+     * @return Usuario si el email y la contraseña son correctos, null si no
+     */
+    Usuario buscarUsuario(String email, String contrasena);
+
+    /**
+     * @return Usuario con ese email, o null si no existe
+     */
+    Usuario buscarPorEmail(String email);
+
+    boolean existeEmail(String email);
+
+    List<Usuario> obtenerTodosUsuarios();
+
+    /**
+     * @param rol "Viajero" o "Anfitrion" (sin distinguir mayúsculas)
+     */
+    int contarPorRol(String rol);
+}
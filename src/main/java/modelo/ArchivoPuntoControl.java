@@ -0,0 +1,283 @@
+package modelo;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Archivo binario de un punto de control: copia completa de los datos hasta
+ * una generación del registro de escritura
+ *
+ * Se escribe en un archivo temporal, se fuerza al disco y se renombra encima
+ * del anterior, así una caída a mitad deja el punto de control viejo intacto.
+ * Se lee proyectándolo en memoria (FileChannel.map): los arreglos grandes se
+ * copian de una vez y lo demás se lee solo cuando se necesita, sin copiarlo
+ *
+ * Formato: [mágico][formato][generación][contenido]; los números van en
+ * big-endian y los textos como en el registro de escritura (largo UTF-8 y bytes)
+ */
+class ArchivoPuntoControl {
+
+    private static final int MAGICO = 0x534B5043;   // "SKPC"
+
+    // Mágico, formato y generación
+    private static final int ENCABEZADO = 16;
+
+    /**
+     * Escribe el contenido de un punto de control
+     */
+    interface Contenido {
+        void escribir(Salida salida) throws IOException;
+    }
+
+    private final long generacion;
+    private final ByteBuffer datos;
+
+    private ArchivoPuntoControl(long generacion, ByteBuffer datos) {
+        this.generacion = generacion;
+        this.datos = datos;
+    }
+
+    /**
+     * @return Primera generación del registro que no está en el punto de control
+     */
+    public long getGeneracion() {
+        return generacion;
+    }
+
+    /**
+     * @return Contenido proyectado en memoria, posicionado al inicio
+     */
+    public ByteBuffer getDatos() {
+        return datos;
+    }
+
+    //   ESCRITURA
+
+    /**
+     * Guarda un punto de control reemplazando al anterior de forma atómica
+     * @param archivo Archivo del punto de control
+     * @param formato Versión del formato del contenido
+     * @param generacion Primera generación del registro que no queda incluida
+     * @param contenido Escribe los datos
+     * @return Tamaño del archivo en bytes
+     */
+    static long guardar(Path archivo, int formato, long generacion, Contenido contenido) throws IOException {
+        Path temporal = archivo.resolveSibling(archivo.getFileName() + ".tmp");
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            Salida salida = new Salida(Channels.newOutputStream(canal));
+            salida.writeInt(MAGICO);
+            salida.writeInt(formato);
+            salida.writeLong(generacion);
+            contenido.escribir(salida);
+            salida.flush();
+            if (salida.size() == Integer.MAX_VALUE) {
+                throw new IOException("El punto de control supera los 2 GB que se pueden proyectar");
+            }
+            salida.completarPendientes(canal);
+            canal.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+        Files.move(temporal, archivo, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return Files.size(archivo);
+    }
+
+    /**
+     * Flujo de escritura que cuenta la posición y permite dejar enteros
+     * reservados (ej: el largo de una sección) para completarlos al final
+     */
+    static class Salida extends DataOutputStream {
+
+        // Posición (desde el inicio del archivo) y valor de cada entero reservado
+        private final List<long[]> pendientes = new ArrayList<>();
+
+        // Los arreglos se convierten a bytes por bloques
+        private final ByteBuffer bloque = ByteBuffer.allocate(1 << 16);
+
+        Salida(OutputStream destino) {
+            super(new BufferedOutputStream(destino, 1 << 20));
+        }
+
+        /**
+         * Escribe un entero provisorio
+         * @return Marca para completarlo con completar
+         */
+        int reservarEntero() throws IOException {
+            int marca = pendientes.size();
+            pendientes.add(new long[] {size(), 0});
+            writeInt(0);
+            return marca;
+        }
+
+        void completar(int marca, int valor) {
+            pendientes.get(marca)[1] = valor;
+        }
+
+        private void completarPendientes(FileChannel canal) throws IOException {
+            ByteBuffer entero = ByteBuffer.allocate(4);
+            for (long[] p : pendientes) {
+                entero.clear();
+                entero.putInt((int) p[1]).flip();
+                while (entero.hasRemaining()) {
+                    canal.write(entero, p[0] + 4 - entero.remaining());
+                }
+            }
+        }
+
+        void escribirEnteros(int[] valores, int cantidad) throws IOException {
+            if (cantidad <= 8) {
+                for (int i = 0; i < cantidad; i++) {
+                    writeInt(valores[i]);
+                }
+                return;
+            }
+            for (int i = 0; i < cantidad; ) {
+                int n = Math.min(cantidad - i, bloque.capacity() / 4);
+                bloque.clear();
+                bloque.asIntBuffer().put(valores, i, n);
+                write(bloque.array(), 0, n * 4);
+                i += n;
+            }
+        }
+
+        void escribirLargos(long[] valores, int cantidad) throws IOException {
+            for (int i = 0; i < cantidad; ) {
+                int n = Math.min(cantidad - i, bloque.capacity() / 8);
+                bloque.clear();
+                bloque.asLongBuffer().put(valores, i, n);
+                write(bloque.array(), 0, n * 8);
+                i += n;
+            }
+        }
+
+        void escribirDobles(double[] valores, int cantidad) throws IOException {
+            for (int i = 0; i < cantidad; ) {
+                int n = Math.min(cantidad - i, bloque.capacity() / 8);
+                bloque.clear();
+                bloque.asDoubleBuffer().put(valores, i, n);
+                write(bloque.array(), 0, n * 8);
+                i += n;
+            }
+        }
+
+        /**
+         * Copia bytes de un búfer (ej: una parte del punto de control anterior)
+         */
+        void escribirBytes(ByteBuffer origen) throws IOException {
+            ByteBuffer copia = origen.duplicate();
+            byte[] bloque = new byte[Math.min(copia.remaining(), 1 << 16)];
+            while (copia.hasRemaining()) {
+                int n = Math.min(copia.remaining(), bloque.length);
+                copia.get(bloque, 0, n);
+                write(bloque, 0, n);
+            }
+        }
+
+        void escribirTexto(String texto) throws IOException {
+            RegistroEscritura.escribirTexto(this, texto);
+        }
+    }
+
+    //   LECTURA
+
+    /**
+     * Proyecta en memoria un punto de control
+     * @param archivo Archivo del punto de control
+     * @param formato Versión del formato esperada
+     * @return El punto de control, o null si no existe
+     * @throws IOException si el archivo no es un punto de control de ese formato
+     */
+    static ArchivoPuntoControl abrir(Path archivo, int formato) throws IOException {
+        if (!Files.exists(archivo)) {
+            return null;
+        }
+        ByteBuffer datos;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new IOException(archivo.getFileName() + " supera los 2 GB que se pueden proyectar");
+            }
+            // La proyección sigue válida después de cerrar el canal
+            datos = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+        }
+        if (datos.remaining() < ENCABEZADO || datos.getInt() != MAGICO) {
+            throw new IOException(archivo.getFileName() + " no es un punto de control");
+        }
+        int leido = datos.getInt();
+        if (leido != formato) {
+            throw new IOException(archivo.getFileName() + " tiene el formato " + leido + " (se esperaba " + formato + ")");
+        }
+        long generacion = datos.getLong();
+        return new ArchivoPuntoControl(generacion, datos.slice());
+    }
+
+    /**
+     * @see Salida#escribirTexto(String)
+     */
+    static String leerTexto(ByteBuffer datos) {
+        int longitud = datos.getInt();
+        if (longitud < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud];
+        datos.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copia a un arreglo los enteros siguientes del búfer
+     * @param capacidad Largo del arreglo (al menos cantidad)
+     */
+    static int[] leerEnteros(ByteBuffer datos, int cantidad, int capacidad) {
+        int[] valores = new int[capacidad];
+        datos.asIntBuffer().get(valores, 0, cantidad);
+        datos.position(datos.position() + cantidad * 4);
+        return valores;
+    }
+
+    static long[] leerLargos(ByteBuffer datos, int cantidad, int capacidad) {
+        long[] valores = new long[capacidad];
+        datos.asLongBuffer().get(valores, 0, cantidad);
+        datos.position(datos.position() + cantidad * 8);
+        return valores;
+    }
+
+    static double[] leerDobles(ByteBuffer datos, int cantidad, int capacidad) {
+        double[] valores = new double[capacidad];
+        datos.asDoubleBuffer().get(valores, 0, cantidad);
+        datos.position(datos.position() + cantidad * 8);
+        return valores;
+    }
+
+    /**
+     * Vista (sin copiar) de los enteros siguientes del búfer
+     */
+    static IntBuffer vistaEnteros(ByteBuffer datos, int cantidad) {
+        IntBuffer vista = datos.slice().limit(cantidad * 4).slice().asIntBuffer();
+        datos.position(datos.position() + cantidad * 4);
+        return vista;
+    }
+
+    /**
+     * Vista (sin copiar) de los bytes siguientes del búfer
+     */
+    static ByteBuffer vistaBytes(ByteBuffer datos, int cantidad) {
+        ByteBuffer vista = datos.slice().limit(cantidad).slice();
+        datos.position(datos.position() + cantidad);
+        return vista;
+    }
+}
@@ -0,0 +1,94 @@
+package modelo;
+
+/**
+ * Zona de búsqueda: un rectángulo de latitud/longitud y, opcionalmente,
+ * un círculo (centro y radio) dentro de él
+ * No cubre rectángulos que crucen el antimeridiano (longitud 180)
+ */
+class AreaGeografica {
+
+    // Radio medio de la Tierra en km
+    private static final double RADIO_TIERRA_KM = 6371.0088;
+
+    // Km por grado de latitud
+    private static final double KM_POR_GRADO = RADIO_TIERRA_KM * Math.PI / 180;
+
+    final double latitudMin;
+    final double latitudMax;
+    final double longitudMin;
+    final double longitudMax;
+
+    // Centro de la zona y radio en km (radio 0 = solo el rectángulo)
+    final double centroLatitud;
+    final double centroLongitud;
+    final double radioKm;
+
+    private AreaGeografica(double latitudMin, double longitudMin, double latitudMax, double longitudMax,
+                           double centroLatitud, double centroLongitud, double radioKm) {
+        this.latitudMin = latitudMin;
+        this.latitudMax = latitudMax;
+        this.longitudMin = longitudMin;
+        this.longitudMax = longitudMax;
+        this.centroLatitud = centroLatitud;
+        this.centroLongitud = centroLongitud;
+        this.radioKm = radioKm;
+    }
+
+    /**
+     * Rectángulo entre dos esquinas
+     */
+    static AreaGeografica rectangulo(double latitudMin, double longitudMin,
+                                     double latitudMax, double longitudMax) {
+        return new AreaGeografica(latitudMin, longitudMin, latitudMax, longitudMax,
+                                  (latitudMin + latitudMax) / 2, (longitudMin + longitudMax) / 2, 0);
+    }
+
+    /**
+     * Círculo alrededor de un punto; el rectángulo que lo encierra sirve
+     * para descartar rápido con el índice
+     */
+    static AreaGeografica circulo(double latitud, double longitud, double radioKm) {
+        double dLat = radioKm / KM_POR_GRADO;
+        double cos = Math.cos(Math.toRadians(latitud));
+        double dLon = cos > 1e-6 ? dLat / cos : 360;
+        return new AreaGeografica(Math.max(-90, latitud - dLat), Math.max(-180, longitud - dLon),
+                                  Math.min(90, latitud + dLat), Math.min(180, longitud + dLon),
+                                  latitud, longitud, radioKm);
+    }
+
+    /**
+     * @return true si el punto está dentro (false si no tiene coordenadas)
+     */
+    boolean contiene(double latitud, double longitud) {
+        return latitud >= latitudMin && latitud <= latitudMax
+            && longitud >= longitudMin && longitud <= longitudMax
+            && (radioKm <= 0 || distanciaKm(centroLatitud, centroLongitud, latitud, longitud) <= radioKm);
+    }
+
+    /**
+     * @return Distancia en km desde el centro de la zona
+     */
+    double distanciaAlCentro(double latitud, double longitud) {
+        return distanciaKm(centroLatitud, centroLongitud, latitud, longitud);
+    }
+
+    /**
+     * Distancia sobre la superficie de la Tierra (fórmula de haversine)
+     */
+    static double distanciaKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                 + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                 * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * RADIO_TIERRA_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    @Override
+    public String toString() {
+        if (radioKm > 0) {
+            return radioKm + "km de " + centroLatitud + "," + centroLongitud;
+        }
+        return latitudMin + "," + longitudMin + ".." + latitudMax + "," + longitudMax;
+    }
+}
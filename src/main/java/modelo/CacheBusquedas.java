@@ -0,0 +1,150 @@
+package modelo;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Caché acotada de resultados de búsqueda (ordinales que cumplen un filtro)
+ * La clave es el filtro normalizado. Cuando cambia una propiedad solo se
+ * descartan las entradas cuyo resultado cambia: las que la contenían y ya no
+ * la cumplen, o las que no la contenían y ahora sí
+ * Todos los métodos son sincronizados: la usan a la vez los hilos de búsqueda
+ */
+class CacheBusquedas {
+    
+    /**
+     * Resultado guardado con el filtro que lo produjo
+     */
+    private static class Entrada {
+        final FiltroBusqueda filtro;
+        final ListaEnteros ordinales;
+        long usos;
+        
+        Entrada(FiltroBusqueda filtro, ListaEnteros ordinales) {
+            this.filtro = filtro;
+            this.ordinales = ordinales;
+        }
+    }
+    
+    // Orden de acceso: la primera entrada es la usada hace más tiempo
+    private final Map<String, Entrada> entradas = new LinkedHashMap<>(16, 0.75f, true);
+    
+    private int capacidad;
+    private PoliticaCache politica;
+    
+    // Contadores
+    private long aciertos;
+    private long fallos;
+    private long invalidaciones;
+    private long expulsiones;
+    
+    /**
+     * @param capacidad Cantidad máxima de búsquedas guardadas (0 = desactivada)
+     * @param politica Política de expulsión
+     */
+    public CacheBusquedas(int capacidad, PoliticaCache politica) {
+        configurar(capacidad, politica);
+    }
+    
+    /**
+     * Cambia el tamaño y la política; si la capacidad baja se expulsan entradas
+     */
+    public synchronized void configurar(int capacidad, PoliticaCache politica) {
+        this.capacidad = Math.max(0, capacidad);
+        this.politica = politica != null ? politica : PoliticaCache.LRU;
+        while (entradas.size() > this.capacidad) {
+            expulsar();
+        }
+    }
+    
+    public synchronized boolean estaActiva() {
+        return capacidad > 0;
+    }
+    
+    /**
+     * Busca el resultado de un filtro
+     * @param clave Clave normalizada del filtro
+     * @return Ordinales guardados (no modificar), o null si no está en la caché
+     */
+    public synchronized ListaEnteros obtener(String clave) {
+        Entrada e = entradas.get(clave);
+        if (e == null) {
+            fallos++;
+            return null;
+        }
+        aciertos++;
+        e.usos++;
+        return e.ordinales;
+    }
+    
+    /**
+     * Guarda el resultado de un filtro, expulsando otra entrada si está llena
+     * @param clave Clave normalizada del filtro
+     * @param filtro Copia del filtro (se usa para decidir invalidaciones)
+     * @param ordinales Ordinales que cumplen el filtro, en orden ascendente
+     * @param vigente Se evalúa con la caché tomada: si es false el catálogo
+     *                cambió durante la búsqueda y el resultado no se guarda
+     */
+    public synchronized void guardar(String clave, FiltroBusqueda filtro, ListaEnteros ordinales,
+                                     BooleanSupplier vigente) {
+        if (capacidad == 0 || !vigente.getAsBoolean()) {
+            return;
+        }
+        if (!entradas.containsKey(clave) && entradas.size() >= capacidad) {
+            expulsar();
+        }
+        Entrada e = new Entrada(filtro, ordinales);
+        e.usos = 1;
+        entradas.put(clave, e);
+    }
+    
+    /**
+     * Descarta las entradas cuyo resultado cambia por una propiedad nueva o modificada
+     * @param ordinal Ordinal de la propiedad
+     * @param cumpleAhora Indica si la propiedad, con sus datos actuales, cumple un filtro
+     */
+    public synchronized void propiedadCambiada(int ordinal, Predicate<FiltroBusqueda> cumpleAhora) {
+        Iterator<Entrada> it = entradas.values().iterator();
+        while (it.hasNext()) {
+            Entrada e = it.next();
+            if (e.ordinales.contieneOrdenado(ordinal) != cumpleAhora.test(e.filtro)) {
+                it.remove();
+                invalidaciones++;
+            }
+        }
+    }
+    
+    /**
+     * Descarta todas las entradas
+     */
+    public synchronized void limpiar() {
+        invalidaciones += entradas.size();
+        entradas.clear();
+    }
+    
+    public synchronized EstadisticasCache estadisticas() {
+        return new EstadisticasCache(aciertos, fallos, invalidaciones, expulsiones,
+                                     entradas.size(), capacidad);
+    }
+    
+    // Saca una entrada según la política
+    private void expulsar() {
+        // LRU: la primera en orden de acceso
+        String victima = entradas.keySet().iterator().next();
+        if (politica == PoliticaCache.LFU) {
+            // La menos usada; ante empate gana la usada hace más tiempo
+            long menosUsos = Long.MAX_VALUE;
+            for (Map.Entry<String, Entrada> e : entradas.entrySet()) {
+                if (e.getValue().usos < menosUsos) {
+                    menosUsos = e.getValue().usos;
+                    victima = e.getKey();
+                }
+            }
+        }
+        entradas.remove(victima);
+        expulsiones++;
+    }
+}
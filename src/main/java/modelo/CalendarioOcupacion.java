@@ -0,0 +1,259 @@
+package modelo;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Noches ocupadas de cada propiedad en un horizonte móvil de días
+ * Cada propiedad tiene PALABRAS_POR_PROPIEDAD palabras de 64 bits (un bit
+ * por noche desde el primer día del horizonte). Consultar un rango de
+ * fechas revisa como mucho esas palabras con máscaras, sin recorrer reservas
+ *
+ * Es seguro entre hilos: ocupar y liberar toman solo el candado de la franja
+ * de la propiedad (propiedades distintas casi nunca compiten) y las
+ * consultas leen sin candados
+ */
+class CalendarioOcupacion {
+
+    // Días que cubre el calendario desde hoy
+    static final int DIAS_HORIZONTE = 365;
+
+    private static final int PALABRAS_POR_PROPIEDAD = (DIAS_HORIZONTE + 63) >>> 6;
+
+    // Las palabras se guardan en segmentos de tamaño fijo: crecer solo agrega
+    // segmentos, así una escritura nunca se pierde en un arreglo viejo
+    private static final int PROPIEDADES_POR_SEGMENTO = 1024;
+
+    // Candados por franja: la propiedad con ordinal o usa la franja o % FRANJAS
+    private static final int FRANJAS = 64;
+
+    private volatile AtomicLongArray[] segmentos = new AtomicLongArray[0];
+    private final ReentrantLock[] franjas = new ReentrantLock[FRANJAS];
+    private final Object candadoCrecimiento = new Object();
+
+    // Primer día del horizonte (en días desde 1970-01-01)
+    private volatile long primerDia;
+
+    /**
+     * @param hoy Primer día del horizonte
+     */
+    CalendarioOcupacion(LocalDate hoy) {
+        this.primerDia = hoy.toEpochDay();
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Reserva espacio para el calendario de una propiedad (todas las noches libres)
+     * @param ordinal Ordinal de la propiedad
+     */
+    public void agregar(int ordinal) {
+        int necesarios = ordinal / PROPIEDADES_POR_SEGMENTO + 1;
+        if (necesarios <= segmentos.length) {
+            return;
+        }
+        synchronized (candadoCrecimiento) {
+            AtomicLongArray[] actuales = segmentos;
+            if (necesarios > actuales.length) {
+                AtomicLongArray[] nuevos = Arrays.copyOf(actuales, Math.max(necesarios, actuales.length * 2));
+                for (int i = actuales.length; i < nuevos.length; i++) {
+                    nuevos[i] = new AtomicLongArray(PROPIEDADES_POR_SEGMENTO * PALABRAS_POR_PROPIEDAD);
+                }
+                segmentos = nuevos;
+            }
+        }
+    }
+
+    //   CONSULTAS
+
+    /**
+     * Verifica que todas las noches entre entrada y salida estén libres
+     * Las noches fuera del horizonte se consideran libres
+     * @param ordinal Ordinal de la propiedad
+     * @param entrada Fecha de llegada (primera noche)
+     * @param salida Fecha de salida (no se cuenta como noche)
+     * @return true si ninguna noche del rango está ocupada
+     */
+    public boolean estaLibre(int ordinal, LocalDate entrada, LocalDate salida) {
+        long inicio = primerDia;
+        int desde = (int) Math.max(0, entrada.toEpochDay() - inicio);
+        int hasta = (int) Math.min(DIAS_HORIZONTE, salida.toEpochDay() - inicio);
+        if (desde >= hasta) {
+            return true;
+        }
+        AtomicLongArray palabras = segmento(ordinal);
+        int base = base(ordinal);
+        int ultima = (hasta - 1) >>> 6;
+        for (int w = desde >>> 6; w <= ultima; w++) {
+            if ((palabras.get(base + w) & mascara(w, desde, hasta)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Noches ocupadas de la propiedad dentro del horizonte, en orden
+     */
+    public List<LocalDate> nochesOcupadas(int ordinal) {
+        List<LocalDate> noches = new ArrayList<>();
+        long inicio = primerDia;
+        AtomicLongArray palabras = segmento(ordinal);
+        int base = base(ordinal);
+        for (int w = 0; w < PALABRAS_POR_PROPIEDAD; w++) {
+            long palabra = palabras.get(base + w);
+            while (palabra != 0) {
+                int dia = (w << 6) + Long.numberOfTrailingZeros(palabra);
+                noches.add(LocalDate.ofEpochDay(inicio + dia));
+                palabra &= palabra - 1;
+            }
+        }
+        return noches;
+    }
+
+    /**
+     * @return true si el rango está dentro del horizonte y tiene al menos una noche
+     */
+    public boolean dentroDelHorizonte(LocalDate entrada, LocalDate salida) {
+        long desde = entrada.toEpochDay() - primerDia;
+        long hasta = salida.toEpochDay() - primerDia;
+        return desde >= 0 && hasta <= DIAS_HORIZONTE && desde < hasta;
+    }
+
+    //   CAMBIOS
+
+    /**
+     * Marca las noches del rango como ocupadas si todas estaban libres
+     * La verificación y la marca se hacen con el candado de la franja, así
+     * dos reservas de la misma propiedad nunca se solapan
+     * @return true si se ocuparon; false si alguna ya estaba ocupada o el
+     *         rango sale del horizonte
+     */
+    public boolean ocupar(int ordinal, LocalDate entrada, LocalDate salida) {
+        ReentrantLock candado = franja(ordinal);
+        candado.lock();
+        try {
+            if (!dentroDelHorizonte(entrada, salida) || !estaLibre(ordinal, entrada, salida)) {
+                return false;
+            }
+            marcar(ordinal, entrada, salida, true);
+            return true;
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Marca las noches del rango como libres (la parte fuera del horizonte se ignora)
+     */
+    public void liberar(int ordinal, LocalDate entrada, LocalDate salida) {
+        ReentrantLock candado = franja(ordinal);
+        candado.lock();
+        try {
+            marcar(ordinal, entrada, salida, false);
+        } finally {
+            candado.unlock();
+        }
+    }
+
+    /**
+     * Mueve el inicio del horizonte a hoy; las noches pasadas se descartan
+     * Toma todas las franjas (en orden), así no corre junto con ninguna reserva
+     * @param hoy Fecha actual
+     * @return true si el horizonte se movió
+     */
+    public boolean avanzarHasta(LocalDate hoy) {
+        if (hoy.toEpochDay() <= primerDia) {
+            return false;
+        }
+        for (ReentrantLock candado : franjas) {
+            candado.lock();
+        }
+        try {
+            long dias = hoy.toEpochDay() - primerDia;
+            if (dias <= 0) {
+                return false;
+            }
+            synchronized (candadoCrecimiento) {
+                for (AtomicLongArray palabras : segmentos) {
+                    for (int base = 0; base < palabras.length(); base += PALABRAS_POR_PROPIEDAD) {
+                        desplazar(palabras, base, dias);
+                    }
+                }
+            }
+            primerDia = hoy.toEpochDay();
+            return true;
+        } finally {
+            for (ReentrantLock candado : franjas) {
+                candado.unlock();
+            }
+        }
+    }
+
+    //   MANEJO DE BITS
+
+    private AtomicLongArray segmento(int ordinal) {
+        return segmentos[ordinal / PROPIEDADES_POR_SEGMENTO];
+    }
+
+    private static int base(int ordinal) {
+        return (ordinal % PROPIEDADES_POR_SEGMENTO) * PALABRAS_POR_PROPIEDAD;
+    }
+
+    private ReentrantLock franja(int ordinal) {
+        return franjas[ordinal % FRANJAS];
+    }
+
+    // Se llama con el candado de la franja tomado
+    private void marcar(int ordinal, LocalDate entrada, LocalDate salida, boolean ocupada) {
+        int desde = (int) Math.max(0, entrada.toEpochDay() - primerDia);
+        int hasta = (int) Math.min(DIAS_HORIZONTE, salida.toEpochDay() - primerDia);
+        if (desde >= hasta) {
+            return;
+        }
+        AtomicLongArray palabras = segmento(ordinal);
+        int base = base(ordinal);
+        int ultima = (hasta - 1) >>> 6;
+        for (int w = desde >>> 6; w <= ultima; w++) {
+            long m = mascara(w, desde, hasta);
+            long actual = palabras.get(base + w);
+            palabras.set(base + w, ocupada ? actual | m : actual & ~m);
+        }
+    }
+
+    // Bits de la palabra w que caen dentro de [desde, hasta)
+    private static long mascara(int w, int desde, int hasta) {
+        long m = -1L;
+        if (w == desde >>> 6) {
+            m &= -1L << (desde & 63);
+        }
+        if (w == (hasta - 1) >>> 6) {
+            m &= -1L >>> (63 - ((hasta - 1) & 63));
+        }
+        return m;
+    }
+
+    // Corre el calendario de una propiedad 'dias' posiciones hacia el inicio
+    private static void desplazar(AtomicLongArray palabras, int base, long dias) {
+        if (dias >= PALABRAS_POR_PROPIEDAD * 64L) {
+            for (int i = 0; i < PALABRAS_POR_PROPIEDAD; i++) {
+                palabras.set(base + i, 0L);
+            }
+            return;
+        }
+        int saltoPalabras = (int) (dias >>> 6);
+        int saltoBits = (int) (dias & 63);
+        for (int i = 0; i < PALABRAS_POR_PROPIEDAD; i++) {
+            int origen = i + saltoPalabras;
+            long bajo = origen < PALABRAS_POR_PROPIEDAD ? palabras.get(base + origen) >>> saltoBits : 0;
+            long alto = saltoBits != 0 && origen + 1 < PALABRAS_POR_PROPIEDAD
+                      ? palabras.get(base + origen + 1) << (64 - saltoBits) : 0;
+            palabras.set(base + i, bajo | alto);
+        }
+    }
+}
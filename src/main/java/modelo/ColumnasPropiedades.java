@@ -0,0 +1,236 @@
+package modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copia en columnas de los campos que se leen en cada búsqueda
+ * Cada arreglo se indexa por el ordinal de la propiedad, así los recorridos
+ * leen memoria contigua en vez de visitar objetos Propiedad dispersos
+ */
+class ColumnasPropiedades {
+
+    //   COLUMNAS
+
+    double[] precios = new double[16];
+    int[] ciudades = new int[16];
+    int[] tipos = new int[16];
+    double[] latitudes = new double[16];
+    double[] longitudes = new double[16];
+    int[] capacidades = new int[16];
+    int[] habitaciones = new int[16];
+    int[] banos = new int[16];
+    long[] disponibles = new long[1];   // un bit por ordinal
+    private int tamano;
+
+    // Ids compactos de ciudad normalizada y de tipo de propiedad
+    private final Diccionario dicCiudades = new Diccionario();
+    private final Diccionario dicTipos = new Diccionario();
+
+    /**
+     * Agrega una fila con los datos de la propiedad
+     * @param propiedad Propiedad con su ordinal ya asignado
+     */
+    public void agregar(Propiedad propiedad) {
+        int o = propiedad.ordinal;
+        if (o >= precios.length) {
+            int capacidad = Math.max(precios.length * 2, o + 1);
+            precios = Arrays.copyOf(precios, capacidad);
+            ciudades = Arrays.copyOf(ciudades, capacidad);
+            tipos = Arrays.copyOf(tipos, capacidad);
+            latitudes = Arrays.copyOf(latitudes, capacidad);
+            longitudes = Arrays.copyOf(longitudes, capacidad);
+            capacidades = Arrays.copyOf(capacidades, capacidad);
+            habitaciones = Arrays.copyOf(habitaciones, capacidad);
+            banos = Arrays.copyOf(banos, capacidad);
+            disponibles = Arrays.copyOf(disponibles, (capacidad + 63) >>> 6);
+        }
+        tamano = Math.max(tamano, o + 1);
+        actualizar(propiedad);
+    }
+
+    /**
+     * Vuelve a copiar en las columnas los campos de una propiedad ya agregada
+     * @param propiedad Propiedad modificada
+     */
+    public void actualizar(Propiedad propiedad) {
+        int o = propiedad.ordinal;
+        precios[o] = propiedad.getPrecioPorNoche();
+        ciudades[o] = dicCiudades.idOCrear(propiedad.claveCiudad);
+        tipos[o] = dicTipos.idOCrear(propiedad.getTipo());
+        latitudes[o] = propiedad.getLatitud();
+        longitudes[o] = propiedad.getLongitud();
+        capacidades[o] = propiedad.getCapacidad();
+        habitaciones[o] = propiedad.getHabitaciones();
+        banos[o] = propiedad.getBanos();
+        if (propiedad.isDisponible()) {
+            disponibles[o >>> 6] |= 1L << o;
+        } else {
+            disponibles[o >>> 6] &= ~(1L << o);
+        }
+    }
+
+    public int tamano() {
+        return tamano;
+    }
+
+    //   PUNTO DE CONTROL
+
+    /**
+     * Escribe las columnas y sus diccionarios
+     */
+    void escribir(ArchivoPuntoControl.Salida salida) throws IOException {
+        salida.writeInt(tamano);
+        salida.escribirDobles(precios, tamano);
+        salida.escribirEnteros(ciudades, tamano);
+        salida.escribirEnteros(tipos, tamano);
+        salida.escribirDobles(latitudes, tamano);
+        salida.escribirDobles(longitudes, tamano);
+        salida.escribirEnteros(capacidades, tamano);
+        salida.escribirEnteros(habitaciones, tamano);
+        salida.escribirEnteros(banos, tamano);
+        salida.escribirLargos(disponibles, (tamano + 63) >>> 6);
+        dicCiudades.escribir(salida);
+        dicTipos.escribir(salida);
+    }
+
+    /**
+     * Reemplaza las columnas por las de un punto de control (copia cada
+     * columna de una vez; deja lugar para seguir agregando)
+     */
+    void cargar(ByteBuffer datos) {
+        int n = datos.getInt();
+        int capacidad = Math.max(16, n + n / 8);
+        precios = ArchivoPuntoControl.leerDobles(datos, n, capacidad);
+        ciudades = ArchivoPuntoControl.leerEnteros(datos, n, capacidad);
+        tipos = ArchivoPuntoControl.leerEnteros(datos, n, capacidad);
+        latitudes = ArchivoPuntoControl.leerDobles(datos, n, capacidad);
+        longitudes = ArchivoPuntoControl.leerDobles(datos, n, capacidad);
+        capacidades = ArchivoPuntoControl.leerEnteros(datos, n, capacidad);
+        habitaciones = ArchivoPuntoControl.leerEnteros(datos, n, capacidad);
+        banos = ArchivoPuntoControl.leerEnteros(datos, n, capacidad);
+        disponibles = ArchivoPuntoControl.leerLargos(datos, (n + 63) >>> 6, (capacidad + 63) >>> 6);
+        tamano = n;
+        dicCiudades.cargar(datos);
+        dicTipos.cargar(datos);
+    }
+
+    //   DISPONIBILIDAD
+
+    public boolean estaDisponible(int ordinal) {
+        return (disponibles[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * Bits de disponibilidad de 64 ordinales consecutivos
+     * @param indice Índice de la palabra (ordinal / 64)
+     * @return Palabra con un bit por ordinal
+     */
+    public long palabraDisponibles(int indice) {
+        return disponibles[indice];
+    }
+
+    /**
+     * @param desde Ordinal inicial (inclusivo)
+     * @return Siguiente ordinal disponible, o -1 si no hay más
+     */
+    public int siguienteDisponible(int desde) {
+        int i = desde >>> 6;
+        if (i >= disponibles.length) {
+            return -1;
+        }
+        long palabra = disponibles[i] & (-1L << desde);
+        while (palabra == 0) {
+            if (++i >= disponibles.length) {
+                return -1;
+            }
+            palabra = disponibles[i];
+        }
+        return (i << 6) + Long.numberOfTrailingZeros(palabra);
+    }
+
+    public int cantidadDisponibles() {
+        int total = 0;
+        for (long palabra : disponibles) {
+            total += Long.bitCount(palabra);
+        }
+        return total;
+    }
+
+    //   DICCIONARIOS
+
+    /**
+     * Obtiene el id de una ciudad
+     * @param claveCiudad Clave normalizada
+     * @return id de la ciudad, o -1 si no hay propiedades en ella
+     */
+    public int idCiudad(String claveCiudad) {
+        return dicCiudades.id(claveCiudad);
+    }
+
+    public String claveCiudad(int id) {
+        return dicCiudades.valor(id);
+    }
+
+    public int cantidadCiudades() {
+        return dicCiudades.tamano();
+    }
+
+    public String tipo(int id) {
+        return dicTipos.valor(id);
+    }
+
+    public int cantidadTipos() {
+        return dicTipos.tamano();
+    }
+
+    /**
+     * Asigna ids enteros compactos a valores de texto
+     */
+    private static class Diccionario {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> valores = new ArrayList<>();
+
+        int id(String valor) {
+            Integer id = ids.get(valor);
+            return id != null ? id : -1;
+        }
+
+        int idOCrear(String valor) {
+            Integer id = ids.get(valor);
+            if (id == null) {
+                id = valores.size();
+                ids.put(valor, id);
+                valores.add(valor);
+            }
+            return id;
+        }
+
+        String valor(int id) {
+            return valores.get(id);
+        }
+
+        void escribir(ArchivoPuntoControl.Salida salida) throws IOException {
+            salida.writeInt(valores.size());
+            for (String valor : valores) {
+                salida.escribirTexto(valor);
+            }
+        }
+
+        void cargar(ByteBuffer datos) {
+            int n = datos.getInt();
+            for (int i = 0; i < n; i++) {
+                idOCrear(ArchivoPuntoControl.leerTexto(datos));
+            }
+        }
+
+        int tamano() {
+            return valores.size();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Consulta de texto ya separada en términos
+ * Todos los términos deben aparecer en la propiedad; lo que va entre
+ * comillas además debe aparecer como frase (ej: "parque 93")
+ */
+class ConsultaTexto {
+
+    /**
+     * Frase: términos con su posición relativa dentro de la frase
+     */
+    static class Frase {
+        final String[] terminos;
+        final int[] desplazamientos;
+
+        Frase(String[] terminos, int[] desplazamientos) {
+            this.terminos = terminos;
+            this.desplazamientos = desplazamientos;
+        }
+    }
+
+    private final String[] terminos;
+    private final List<Frase> frases;
+
+    /**
+     * Separa el texto escrito por el usuario
+     * @param texto Texto de búsqueda (las comillas delimitan frases)
+     */
+    ConsultaTexto(String texto) {
+        Set<String> distintos = new LinkedHashSet<>();
+        List<Frase> encontradas = new ArrayList<>();
+        String[] partes = texto.split("\"", -1);
+        for (int i = 0; i < partes.length; i++) {
+            List<String> tokens = TokenizadorEspanol.tokenizar(partes[i]);
+            List<String> deLaFrase = new ArrayList<>();
+            List<Integer> posiciones = new ArrayList<>();
+            for (int pos = 0; pos < tokens.size(); pos++) {
+                if (tokens.get(pos) != null) {
+                    distintos.add(tokens.get(pos));
+                    deLaFrase.add(tokens.get(pos));
+                    posiciones.add(pos);
+                }
+            }
+            // Los segmentos impares estaban entre comillas
+            if (i % 2 == 1 && deLaFrase.size() > 1) {
+                int[] desplazamientos = new int[posiciones.size()];
+                for (int k = 0; k < desplazamientos.length; k++) {
+                    desplazamientos[k] = posiciones.get(k) - posiciones.get(0);
+                }
+                encontradas.add(new Frase(deLaFrase.toArray(new String[0]), desplazamientos));
+            }
+        }
+        this.terminos = distintos.toArray(new String[0]);
+        this.frases = encontradas;
+    }
+
+    /**
+     * @return Términos distintos requeridos
+     */
+    String[] terminos() {
+        return terminos;
+    }
+
+    List<Frase> frases() {
+        return frases;
+    }
+
+    /**
+     * @return true si el texto no tenía ningún término útil (solo palabras vacías)
+     */
+    boolean estaVacia() {
+        return terminos.length == 0;
+    }
+
+    /**
+     * Forma normalizada de la consulta (para claves de caché y el plan)
+     */
+    @Override
+    public String toString() {
+        String[] ordenados = terminos.clone();
+        Arrays.sort(ordenados);
+        StringBuilder sb = new StringBuilder(String.join(" ", ordenados));
+        for (Frase f : frases) {
+            sb.append(" \"");
+            for (int k = 0; k < f.terminos.length; k++) {
+                sb.append(k > 0 ? " " : "").append(f.terminos[k]).append('@').append(f.desplazamientos[k]);
+            }
+            sb.append('"');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,156 @@
+package modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Diccionario de valores de una faceta (ciudades o servicios) con la
+ * cantidad de propiedades de cada valor
+ * Se mantiene al día en cada cambio del catálogo, así las lecturas no
+ * recorren las propiedades
+ */
+class DiccionarioFacetas {
+
+    /**
+     * Conteos de un valor de la faceta
+     */
+    private static class Entrada {
+        final String nombre;
+        int total;
+        int disponibles;
+
+        Entrada(String nombre) {
+            this.nombre = nombre;
+        }
+    }
+
+    private final Map<String, Entrada> entradas = new HashMap<>();
+
+    // Nombres ordenados; se recalculan al cambiar solo si aparece o desaparece
+    // un valor (las lecturas nunca escriben, así se pueden hacer sin candado)
+    private volatile List<String> nombresOrdenados = Collections.emptyList();
+
+    /**
+     * Suma una propiedad al valor
+     * @param clave Clave del valor (ej: ciudad normalizada)
+     * @param nombre Nombre a mostrar si el valor es nuevo
+     * @param disponible true si la propiedad está disponible
+     */
+    public void agregar(String clave, String nombre, boolean disponible) {
+        Entrada e = entradas.get(clave);
+        if (e == null) {
+            e = new Entrada(nombre);
+            entradas.put(clave, e);
+            ordenarNombres();
+        }
+        e.total++;
+        if (disponible) {
+            e.disponibles++;
+        }
+    }
+
+    /**
+     * Resta una propiedad del valor (lo elimina si queda en cero)
+     * @param clave Clave del valor
+     * @param disponible true si la propiedad estaba disponible
+     */
+    public void remover(String clave, boolean disponible) {
+        Entrada e = entradas.get(clave);
+        if (e == null) {
+            return;
+        }
+        e.total--;
+        if (disponible) {
+            e.disponibles--;
+        }
+        if (e.total <= 0) {
+            entradas.remove(clave);
+            ordenarNombres();
+        }
+    }
+
+    /**
+     * Ajusta el conteo de disponibles cuando una propiedad cambia de estado
+     * @param clave Clave del valor
+     * @param disponible Nuevo estado de la propiedad
+     */
+    public void cambiarDisponibilidad(String clave, boolean disponible) {
+        Entrada e = entradas.get(clave);
+        if (e != null) {
+            e.disponibles += disponible ? 1 : -1;
+        }
+    }
+
+    /**
+     * @return Cantidad de propiedades disponibles con ese valor
+     */
+    public int contarDisponibles(String clave) {
+        Entrada e = entradas.get(clave);
+        return e != null ? e.disponibles : 0;
+    }
+
+    /**
+     * @return Cantidad total de propiedades con ese valor
+     */
+    public int contarTotal(String clave) {
+        Entrada e = entradas.get(clave);
+        return e != null ? e.total : 0;
+    }
+
+    /**
+     * @return Nombre a mostrar del valor, o la misma clave si no existe
+     */
+    public String nombre(String clave) {
+        Entrada e = entradas.get(clave);
+        return e != null ? e.nombre : clave;
+    }
+
+    /**
+     * Nombres de los valores ordenados alfabéticamente (solo lectura)
+     * @return Lista inmodificable; no se crea una nueva si no hubo cambios
+     */
+    public List<String> nombres() {
+        return nombresOrdenados;
+    }
+
+    //   PUNTO DE CONTROL
+
+    void escribir(ArchivoPuntoControl.Salida salida) throws IOException {
+        salida.writeInt(entradas.size());
+        for (Map.Entry<String, Entrada> e : entradas.entrySet()) {
+            salida.escribirTexto(e.getKey());
+            salida.escribirTexto(e.getValue().nombre);
+            salida.writeInt(e.getValue().total);
+            salida.writeInt(e.getValue().disponibles);
+        }
+    }
+
+    /**
+     * Agrega los valores de un punto de control (los nombres se ordenan una vez)
+     */
+    void cargar(ByteBuffer datos) {
+        int n = datos.getInt();
+        for (int i = 0; i < n; i++) {
+            String clave = ArchivoPuntoControl.leerTexto(datos);
+            Entrada e = new Entrada(ArchivoPuntoControl.leerTexto(datos));
+            e.total = datos.getInt();
+            e.disponibles = datos.getInt();
+            entradas.put(clave, e);
+        }
+        ordenarNombres();
+    }
+
+    private void ordenarNombres() {
+        List<String> nombres = new ArrayList<>(entradas.size());
+        for (Entrada e : entradas.values()) {
+            nombres.add(e.nombre);
+        }
+        nombres.sort(String.CASE_INSENSITIVE_ORDER);
+        nombresOrdenados = Collections.unmodifiableList(nombres);
+    }
+}
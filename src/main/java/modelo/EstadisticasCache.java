@@ -0,0 +1,69 @@
+package modelo;
+
+/**
+ * Contadores de la caché de búsquedas en un momento dado
+ */
+public class EstadisticasCache {
+    
+    private final long aciertos;
+    private final long fallos;
+    private final long invalidaciones;
+    private final long expulsiones;
+    private final int tamano;
+    private final int capacidad;
+    
+    EstadisticasCache(long aciertos, long fallos, long invalidaciones, long expulsiones,
+                      int tamano, int capacidad) {
+        this.aciertos = aciertos;
+        this.fallos = fallos;
+        this.invalidaciones = invalidaciones;
+        this.expulsiones = expulsiones;
+        this.tamano = tamano;
+        this.capacidad = capacidad;
+    }
+    
+    public long getAciertos() {
+        return aciertos;
+    }
+    
+    public long getFallos() {
+        return fallos;
+    }
+    
+    /**
+     * @return Entradas descartadas porque un cambio del catálogo alteró su resultado
+     */
+    public long getInvalidaciones() {
+        return invalidaciones;
+    }
+    
+    /**
+     * @return Entradas descartadas por falta de espacio
+     */
+    public long getExpulsiones() {
+        return expulsiones;
+    }
+    
+    public int getTamano() {
+        return tamano;
+    }
+    
+    public int getCapacidad() {
+        return capacidad;
+    }
+    
+    /**
+     * @return Proporción de búsquedas respondidas desde la caché (0 a 1)
+     */
+    public double getTasaAciertos() {
+        long consultas = aciertos + fallos;
+        return consultas > 0 ? (double) aciertos / consultas : 0;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("Caché [%d/%d entradas, aciertos=%d, fallos=%d (%.1f%%), invalidaciones=%d, expulsiones=%d]",
+                             tamano, capacidad, aciertos, fallos, getTasaAciertos() * 100,
+                             invalidaciones, expulsiones);
+    }
+}
@@ -0,0 +1,29 @@
+package modelo;
+
+/**
+ * Evaluación de criterios numéricos ordinal por ordinal
+ */
+class EvaluadorEscalar implements EvaluadorPredicados {
+
+    @Override
+    public long evaluarBloque(ColumnasPropiedades columnas, FiltroBusqueda filtro, int inicio) {
+        int fin = Math.min(inicio + 64, columnas.tamano());
+        double desde = filtro.getPrecioDesde();
+        double hasta = filtro.getPrecioHasta();
+        int capacidad = filtro.getCapacidadMinima();
+        int habitaciones = filtro.getHabitacionesMinimas();
+        int banos = filtro.getBanosMinimos();
+
+        long resultado = 0;
+        for (int o = inicio; o < fin; o++) {
+            double precio = columnas.precios[o];
+            if (precio >= desde && precio <= hasta
+                && (capacidad == 0 || columnas.capacidades[o] >= capacidad)
+                && (habitaciones == 0 || columnas.habitaciones[o] >= habitaciones)
+                && (banos == 0 || columnas.banos[o] >= banos)) {
+                resultado |= 1L << (o - inicio);
+            }
+        }
+        return resultado;
+    }
+}
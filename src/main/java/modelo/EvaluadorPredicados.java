@@ -0,0 +1,36 @@
+package modelo;
+
+/**
+ * Evalúa los criterios numéricos de un filtro (precio, capacidad,
+ * habitaciones y baños) sobre bloques de 64 ordinales de las columnas
+ */
+interface EvaluadorPredicados {
+    
+    /**
+     * Evalúa un bloque de 64 ordinales consecutivos
+     * @param columnas Columnas del catálogo
+     * @param filtro Criterios de búsqueda
+     * @param inicio Primer ordinal del bloque (múltiplo de 64)
+     * @return Palabra con el bit i encendido si el ordinal inicio+i cumple
+     */
+    long evaluarBloque(ColumnasPropiedades columnas, FiltroBusqueda filtro, int inicio);
+    
+    /**
+     * Crea el evaluador vectorial si el módulo jdk.incubator.vector está
+     * habilitado (--add-modules jdk.incubator.vector); si no, el escalar
+     * @return Evaluador a usar en los recorridos completos
+     */
+    static EvaluadorPredicados crear() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                // Se carga por nombre para no enlazar la clase cuando el módulo no está
+                return (EvaluadorPredicados) Class.forName("modelo.EvaluadorVectorial")
+                                                  .getDeclaredConstructor()
+                                                  .newInstance();
+            } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+                System.out.println("⚠ Evaluación vectorial no disponible, se usa la escalar: " + e);
+            }
+        }
+        return new EvaluadorEscalar();
+    }
+}
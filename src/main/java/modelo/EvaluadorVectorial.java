@@ -0,0 +1,59 @@
+package modelo;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Evaluación de criterios numéricos con la Vector API (SIMD)
+ * Compara varios ordinales por instrucción y combina las máscaras de cada
+ * criterio como bits; solo se carga si jdk.incubator.vector está habilitado
+ */
+class EvaluadorVectorial implements EvaluadorPredicados {
+
+    // Mismo número de carriles para precios (double) y enteros (int)
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> ENTEROS =
+        VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.length() * Integer.SIZE));
+
+    private final EvaluadorEscalar escalar = new EvaluadorEscalar();
+
+    @Override
+    public long evaluarBloque(ColumnasPropiedades columnas, FiltroBusqueda filtro, int inicio) {
+        // El último bloque (incompleto) se evalúa de forma escalar
+        if (inicio + 64 > columnas.tamano()) {
+            return escalar.evaluarBloque(columnas, filtro, inicio);
+        }
+        double desde = filtro.getPrecioDesde();
+        double hasta = filtro.getPrecioHasta();
+        int capacidad = filtro.getCapacidadMinima();
+        int habitaciones = filtro.getHabitacionesMinimas();
+        int banos = filtro.getBanosMinimos();
+
+        int carriles = DOUBLES.length();
+        long resultado = 0;
+        for (int i = 0; i < 64; i += carriles) {
+            int o = inicio + i;
+            DoubleVector precios = DoubleVector.fromArray(DOUBLES, columnas.precios, o);
+            long mascara = precios.compare(VectorOperators.GE, desde)
+                                  .and(precios.compare(VectorOperators.LE, hasta))
+                                  .toLong();
+            if (capacidad > 0) {
+                mascara &= IntVector.fromArray(ENTEROS, columnas.capacidades, o)
+                                    .compare(VectorOperators.GE, capacidad).toLong();
+            }
+            if (habitaciones > 0) {
+                mascara &= IntVector.fromArray(ENTEROS, columnas.habitaciones, o)
+                                    .compare(VectorOperators.GE, habitaciones).toLong();
+            }
+            if (banos > 0) {
+                mascara &= IntVector.fromArray(ENTEROS, columnas.banos, o)
+                                    .compare(VectorOperators.GE, banos).toLong();
+            }
+            resultado |= mascara << i;
+        }
+        return resultado;
+    }
+}
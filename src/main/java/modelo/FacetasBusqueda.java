@@ -0,0 +1,59 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Conteos por ciudad, servicio y tipo de las propiedades que cumplen una búsqueda
+ * Permiten mostrar junto a cada opción de filtro cuántos resultados quedarían
+ * Cada mapa está ordenado de mayor a menor conteo y omite los valores en cero
+ */
+public class FacetasBusqueda {
+
+    private final Map<String, Integer> porCiudad;
+    private final Map<String, Integer> porServicio;
+    private final Map<String, Integer> porTipo;
+
+    FacetasBusqueda(Map<String, Integer> porCiudad, Map<String, Integer> porServicio,
+                    Map<String, Integer> porTipo) {
+        this.porCiudad = ordenar(porCiudad);
+        this.porServicio = ordenar(porServicio);
+        this.porTipo = ordenar(porTipo);
+    }
+
+    public Map<String, Integer> getPorCiudad() {
+        return porCiudad;
+    }
+
+    public Map<String, Integer> getPorServicio() {
+        return porServicio;
+    }
+
+    public Map<String, Integer> getPorTipo() {
+        return porTipo;
+    }
+
+    // Orden de mayor a menor conteo (empates por nombre), sin valores en cero
+    private static Map<String, Integer> ordenar(Map<String, Integer> conteos) {
+        List<Map.Entry<String, Integer>> entradas = new ArrayList<>(conteos.entrySet());
+        entradas.sort((a, b) -> {
+            int c = Integer.compare(b.getValue(), a.getValue());
+            return c != 0 ? c : a.getKey().compareToIgnoreCase(b.getKey());
+        });
+        Map<String, Integer> ordenado = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> e : entradas) {
+            if (e.getValue() > 0) {
+                ordenado.put(e.getKey(), e.getValue());
+            }
+        }
+        return Collections.unmodifiableMap(ordenado);
+    }
+
+    @Override
+    public String toString() {
+        return "Facetas [ciudades=" + porCiudad + ", servicios=" + porServicio + ", tipos=" + porTipo + "]";
+    }
+}
@@ -0,0 +1,226 @@
+package modelo;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Criterios de una búsqueda de propiedades, ya normalizados
+ * Se construye una sola vez por búsqueda para no repetir conversiones
+ * (ej: equalsIgnoreCase de la ciudad) por cada propiedad evaluada
+ */
+public class FiltroBusqueda {
+
+    //   ATRIBUTOS
+
+    // Ciudad tal como llegó y su clave normalizada (null = todas las ciudades)
+    private String ciudad;
+    private String claveCiudad;
+
+    // Rango de precio efectivo (infinito cuando el filtro no aplica)
+    private double precioDesde;
+    private double precioHasta;
+
+    // Servicios requeridos (todos deben estar presentes)
+    private List<String> servicios;
+
+    // Texto a buscar en título y descripción (null = sin filtro)
+    private String texto;
+    private ConsultaTexto consultaTexto;
+
+    // Zona geográfica (null = sin filtro)
+    private AreaGeografica area;
+
+    // Estadía: noche de llegada y día de salida (null = sin filtro)
+    private LocalDate fechaEntrada;
+    private LocalDate fechaSalida;
+
+    // Mínimos de características (0 = sin filtro)
+    private int capacidadMinima;
+    private int habitacionesMinimas;
+    private int banosMinimos;
+
+    //   CONSTRUCTOR
+
+    /**
+     * Crea un filtro con las mismas reglas de los campos de la vista de búsqueda
+     * @param ciudad Ciudad a buscar ("Todas", "Seleccione" o vacío = sin filtro)
+     * @param precioMin Precio mínimo (0 = sin filtro)
+     * @param precioMax Precio máximo (0 = sin filtro)
+     * @param servicios Servicios requeridos (null o vacío = sin filtro)
+     */
+    public FiltroBusqueda(String ciudad, double precioMin, double precioMax, List<String> servicios) {
+        this.ciudad = ciudad;
+        if (ciudad != null && !ciudad.trim().isEmpty() &&
+            !ciudad.equalsIgnoreCase("Todas") && !ciudad.equalsIgnoreCase("Seleccione")) {
+            this.claveCiudad = PropiedadData.normalizarCiudad(ciudad);
+        }
+        this.precioDesde = precioMin > 0 ? precioMin : Double.NEGATIVE_INFINITY;
+        this.precioHasta = (precioMax > 0 && precioMax >= precioMin) ? precioMax : Double.POSITIVE_INFINITY;
+        this.servicios = servicios != null ? new ArrayList<>(servicios) : new ArrayList<>();
+    }
+
+    //   GETTERS Y SETTERS
+
+    public String getCiudad() {
+        return ciudad;
+    }
+
+    public String getClaveCiudad() {
+        return claveCiudad;
+    }
+
+    public double getPrecioDesde() {
+        return precioDesde;
+    }
+
+    public double getPrecioHasta() {
+        return precioHasta;
+    }
+
+    public List<String> getServicios() {
+        return servicios;
+    }
+
+    public String getTexto() {
+        return texto;
+    }
+
+    /**
+     * @param texto Palabras a buscar en título y descripción; entre comillas
+     *              deben aparecer juntas (null o vacío = sin filtro)
+     */
+    public void setTexto(String texto) {
+        this.texto = texto;
+        ConsultaTexto consulta = texto != null ? new ConsultaTexto(texto) : null;
+        this.consultaTexto = consulta != null && !consulta.estaVacia() ? consulta : null;
+    }
+
+    ConsultaTexto getConsultaTexto() {
+        return consultaTexto;
+    }
+
+    /**
+     * Limita la búsqueda a un radio alrededor de un punto
+     * @param latitud Latitud del centro en grados
+     * @param longitud Longitud del centro en grados
+     * @param radioKm Radio en km (mayor que cero)
+     */
+    public void setRadio(double latitud, double longitud, double radioKm) {
+        this.area = AreaGeografica.circulo(latitud, longitud, radioKm);
+    }
+
+    /**
+     * Limita la búsqueda a un rectángulo de coordenadas
+     * @param latitudMin Latitud del borde sur
+     * @param longitudMin Longitud del borde oeste
+     * @param latitudMax Latitud del borde norte
+     * @param longitudMax Longitud del borde este
+     */
+    public void setRectangulo(double latitudMin, double longitudMin, double latitudMax, double longitudMax) {
+        this.area = AreaGeografica.rectangulo(latitudMin, longitudMin, latitudMax, longitudMax);
+    }
+
+    AreaGeografica getArea() {
+        return area;
+    }
+
+    /**
+     * Limita la búsqueda a propiedades libres todas las noches de la estadía
+     * @param fechaEntrada Fecha de llegada
+     * @param fechaSalida Fecha de salida (debe ser posterior a la de llegada)
+     */
+    public void setFechas(LocalDate fechaEntrada, LocalDate fechaSalida) {
+        this.fechaEntrada = fechaEntrada;
+        this.fechaSalida = fechaSalida;
+    }
+
+    public LocalDate getFechaEntrada() {
+        return fechaEntrada;
+    }
+
+    public LocalDate getFechaSalida() {
+        return fechaSalida;
+    }
+
+    public int getCapacidadMinima() {
+        return capacidadMinima;
+    }
+
+    public void setCapacidadMinima(int capacidadMinima) {
+        this.capacidadMinima = Math.max(0, capacidadMinima);
+    }
+
+    public int getHabitacionesMinimas() {
+        return habitacionesMinimas;
+    }
+
+    public void setHabitacionesMinimas(int habitacionesMinimas) {
+        this.habitacionesMinimas = Math.max(0, habitacionesMinimas);
+    }
+
+    public int getBanosMinimos() {
+        return banosMinimos;
+    }
+
+    public void setBanosMinimos(int banosMinimos) {
+        this.banosMinimos = Math.max(0, banosMinimos);
+    }
+
+    //   CONSULTAS
+
+    public boolean tieneCiudad() {
+        return claveCiudad != null;
+    }
+
+    public boolean tienePrecio() {
+        return precioDesde != Double.NEGATIVE_INFINITY || precioHasta != Double.POSITIVE_INFINITY;
+    }
+
+    public boolean tieneServicios() {
+        return !servicios.isEmpty();
+    }
+
+    public boolean tieneTexto() {
+        return consultaTexto != null;
+    }
+
+    public boolean tieneUbicacion() {
+        return area != null;
+    }
+
+    public boolean tieneFechas() {
+        return fechaEntrada != null && fechaSalida != null && fechaEntrada.isBefore(fechaSalida);
+    }
+
+    /**
+     * Clave normalizada del filtro: dos filtros con la misma clave
+     * producen exactamente los mismos resultados
+     * @return Texto con ciudad, rango de precio, mínimos, servicios ordenados, texto, zona y fechas
+     */
+    String clave() {
+        return claveCiudad + "|" + precioDesde + "|" + precioHasta + "|" + capacidadMinima + "|"
+            + habitacionesMinimas + "|" + banosMinimos + "|" + new TreeSet<>(servicios) + "|" + consultaTexto + "|" + area
+            + "|" + (tieneFechas() ? fechaEntrada + ".." + fechaSalida : null);
+    }
+
+    /**
+     * @return Copia independiente del filtro (para guardarla en la caché)
+     */
+    FiltroBusqueda copiar() {
+        FiltroBusqueda copia = new FiltroBusqueda(ciudad, 0, 0, servicios);
+        copia.claveCiudad = claveCiudad;
+        copia.precioDesde = precioDesde;
+        copia.precioHasta = precioHasta;
+        copia.capacidadMinima = capacidadMinima;
+        copia.habitacionesMinimas = habitacionesMinimas;
+        copia.banosMinimos = banosMinimos;
+        copia.texto = texto;
+        copia.consultaTexto = consultaTexto;
+        copia.area = area;
+        copia.fechaEntrada = fechaEntrada;
+        copia.fechaSalida = fechaSalida;
+        return copia;
+    }
+}
@@ -0,0 +1,248 @@
+package modelo;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Formato de un archivo de importación
+ *
+ * CSV: la primera fila trae los nombres de las columnas; los valores pueden
+ * ir entre comillas dobles (con comas, saltos de línea o "" dentro).
+ * JSONL: un objeto JSON plano por línea; las listas (ej: servicios) se
+ * aceptan como arreglos de textos
+ *
+ * En los dos casos cada fila se convierte en un mapa columna -> texto, así
+ * la validación es la misma para ambos formatos
+ */
+public enum FormatoImportacion {
+
+    CSV,
+    JSONL;
+
+    // Separador de los valores de una lista dentro de una columna CSV (ej: WiFi|TV)
+    static final String SEPARADOR_LISTA = "|";
+
+    /**
+     * @param archivo Archivo a importar (.csv, .jsonl o .ndjson)
+     * @return Formato según la extensión
+     * @throws IllegalArgumentException si la extensión no es conocida
+     */
+    public static FormatoImportacion desdeArchivo(Path archivo) {
+        String nombre = archivo.getFileName().toString().toLowerCase(Locale.ROOT);
+        if (nombre.endsWith(".csv")) {
+            return CSV;
+        }
+        if (nombre.endsWith(".jsonl") || nombre.endsWith(".ndjson")) {
+            return JSONL;
+        }
+        throw new IllegalArgumentException("Formato no soportado: " + archivo.getFileName()
+                                           + " (se espera .csv o .jsonl)");
+    }
+
+    /**
+     * @param registro Texto acumulado de una fila
+     * @return false si la fila sigue en la línea siguiente (CSV con comillas abiertas)
+     */
+    boolean filaCompleta(CharSequence registro) {
+        if (this != CSV) {
+            return true;
+        }
+        int comillas = 0;
+        for (int i = 0; i < registro.length(); i++) {
+            if (registro.charAt(i) == '"') {
+                comillas++;
+            }
+        }
+        return comillas % 2 == 0;
+    }
+
+    /**
+     * Convierte una fila en un mapa columna -> texto
+     * @param fila Texto de la fila (sin el salto de línea final)
+     * @param encabezado Nombres de las columnas (solo CSV)
+     * @throws IllegalArgumentException si la fila está mal formada
+     */
+    Map<String, String> campos(String fila, String[] encabezado) {
+        if (this == CSV) {
+            List<String> valores = valoresCsv(fila);
+            if (valores.size() != encabezado.length) {
+                throw new IllegalArgumentException("Se esperaban " + encabezado.length
+                                                   + " columnas y hay " + valores.size());
+            }
+            Map<String, String> campos = new HashMap<>();
+            for (int i = 0; i < encabezado.length; i++) {
+                campos.put(encabezado[i], valores.get(i));
+            }
+            return campos;
+        }
+        return new ObjetoJson(fila).leer();
+    }
+
+    //   CSV
+
+    /**
+     * Separa una fila CSV en sus valores (también sirve para el encabezado)
+     */
+    static List<String> valoresCsv(String fila) {
+        List<String> valores = new ArrayList<>();
+        StringBuilder valor = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < fila.length(); i++) {
+            char c = fila.charAt(i);
+            if (entreComillas) {
+                if (c != '"') {
+                    valor.append(c);
+                } else if (i + 1 < fila.length() && fila.charAt(i + 1) == '"') {
+                    valor.append('"');
+                    i++;
+                } else {
+                    entreComillas = false;
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                valores.add(valor.toString());
+                valor.setLength(0);
+            } else if (c != '\r') {
+                valor.append(c);
+            }
+        }
+        valores.add(valor.toString());
+        return valores;
+    }
+
+    //   JSONL
+
+    /**
+     * Lector de un objeto JSON plano: textos, números, true/false/null y
+     * arreglos de esos valores (que se unen con SEPARADOR_LISTA)
+     */
+    private static class ObjetoJson {
+
+        private final String texto;
+        private int pos;
+
+        ObjetoJson(String texto) {
+            this.texto = texto;
+        }
+
+        Map<String, String> leer() {
+            Map<String, String> campos = new HashMap<>();
+            esperar('{');
+            if (!consumir('}')) {
+                do {
+                    String clave = leerTexto();
+                    esperar(':');
+                    String valor = leerValor(true);
+                    if (valor != null) {
+                        campos.put(clave, valor);
+                    }
+                } while (consumir(','));
+                esperar('}');
+            }
+            saltarEspacios();
+            if (pos < texto.length()) {
+                throw error("texto después del objeto");
+            }
+            return campos;
+        }
+
+        private String leerValor(boolean permiteArreglo) {
+            saltarEspacios();
+            if (pos >= texto.length()) {
+                throw error("falta un valor");
+            }
+            char c = texto.charAt(pos);
+            if (c == '"') {
+                return leerTexto();
+            }
+            if (c == '[' && permiteArreglo) {
+                pos++;
+                List<String> valores = new ArrayList<>();
+                if (!consumir(']')) {
+                    do {
+                        String valor = leerValor(false);
+                        if (valor != null) {
+                            valores.add(valor);
+                        }
+                    } while (consumir(','));
+                    esperar(']');
+                }
+                return String.join(SEPARADOR_LISTA, valores);
+            }
+            int inicio = pos;
+            while (pos < texto.length() && ",}] \t".indexOf(texto.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = texto.substring(inicio, pos);
+            if (literal.isEmpty()) {
+                throw error("valor inesperado");
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String leerTexto() {
+            esperar('"');
+            StringBuilder valor = new StringBuilder();
+            while (pos < texto.length()) {
+                char c = texto.charAt(pos++);
+                if (c == '"') {
+                    return valor.toString();
+                }
+                if (c != '\\') {
+                    valor.append(c);
+                    continue;
+                }
+                if (pos >= texto.length()) {
+                    break;
+                }
+                char escape = texto.charAt(pos++);
+                switch (escape) {
+                    case 'n': valor.append('\n'); break;
+                    case 't': valor.append('\t'); break;
+                    case 'r': valor.append('\r'); break;
+                    case 'b': valor.append('\b'); break;
+                    case 'f': valor.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > texto.length()) {
+                            throw error("escape \\u incompleto");
+                        }
+                        valor.append((char) Integer.parseInt(texto.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: valor.append(escape);
+                }
+            }
+            throw error("texto sin cerrar");
+        }
+
+        private void esperar(char c) {
+            if (!consumir(c)) {
+                throw error("se esperaba '" + c + "'");
+            }
+        }
+
+        private boolean consumir(char c) {
+            saltarEspacios();
+            if (pos < texto.length() && texto.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void saltarEspacios() {
+            while (pos < texto.length() && Character.isWhitespace(texto.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private IllegalArgumentException error(String mensaje) {
+            return new IllegalArgumentException("JSON inválido en la posición " + pos + ": " + mensaje);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package modelo;
+
+import java.util.UUID;
+
+/**
+ * IDs nuevos para altas en lote
+ * Se pide un UUID aleatorio por lote y los siguientes se derivan de él
+ * cambiando solo sus bits bajos: un lote de mil altas usa un solo número
+ * aleatorio seguro en vez de mil, y los IDs siguen siendo UUID válidos
+ */
+class GeneradorIds {
+
+    private final long alto;
+    private final long bajo;
+    private long contador;
+
+    GeneradorIds() {
+        UUID base = UUID.randomUUID();
+        this.alto = base.getMostSignificantBits();
+        this.bajo = base.getLeastSignificantBits();
+    }
+
+    /**
+     * @return ID distinto de todos los anteriores de este generador
+     */
+    String siguiente() {
+        return new UUID(alto, bajo ^ contador++).toString();
+    }
+}
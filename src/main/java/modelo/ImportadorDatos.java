@@ -0,0 +1,500 @@
+package modelo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Importación masiva de propiedades y usuarios desde archivos CSV o JSONL
+ *
+ * El archivo pasa por tres etapas que trabajan a la vez:
+ *   1. lectura: un hilo lee el archivo y lo corta en trozos de filas
+ *   2. análisis: varios hilos convierten y validan cada trozo, y preparan lo
+ *      que no depende del catálogo (texto de búsqueda, registro de escritura)
+ *   3. inserción: el hilo que importa agrega cada trozo como un lote, en el
+ *      orden del archivo; los índices se mezclan una vez por lote
+ * Entre etapas hay una cola acotada, así un archivo enorme nunca está entero
+ * en memoria. Las filas inválidas se rechazan con su número de línea y no
+ * detienen la importación
+ *
+ * Columnas de propiedades: anfitrionId, titulo, ciudad y precioPorNoche son
+ * obligatorias; propiedadId, descripcion, direccion, tipo, capacidad,
+ * habitaciones, banos, latitud, longitud, disponible y servicios (separados
+ * por |) son opcionales
+ * Columnas de usuarios: nombre, email y contrasena son obligatorias;
+ * usuarioId, telefono, rol y fechaRegistro son opcionales
+ */
+public class ImportadorDatos {
+
+    public static final int TAMANO_LOTE_POR_DEFECTO = 10_000;
+
+    private final PropiedadData propiedadData;
+    private int tamanoLote = TAMANO_LOTE_POR_DEFECTO;
+    private int hilos = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * @param propiedadData DAO de propiedades (carga el catálogo si hace falta)
+     * @param usuarioData DAO de usuarios (carga los usuarios si hace falta)
+     */
+    public ImportadorDatos(PropiedadData propiedadData, UsuarioData usuarioData) {
+        this.propiedadData = propiedadData;
+    }
+
+    /**
+     * @param tamanoLote Filas por trozo (cada trozo se agrega al catálogo como un lote)
+     */
+    public void setTamanoLote(int tamanoLote) {
+        this.tamanoLote = Math.max(1, tamanoLote);
+    }
+
+    /**
+     * @param hilos Hilos que analizan y validan los trozos
+     */
+    public void setHilos(int hilos) {
+        this.hilos = Math.max(1, hilos);
+    }
+
+    //   IMPORTACIÓN
+
+    /**
+     * Importa propiedades; las que no traen propiedadId reciben uno nuevo
+     * Si hay registro de escritura, al terminar se guarda un punto de
+     * control, así el próximo arranque no reproduce toda la importación
+     * @param archivo Archivo .csv o .jsonl
+     * @return Resumen con las filas importadas, los rechazos y el tiempo de cada etapa
+     */
+    public ResultadoImportacion importarPropiedades(Path archivo) throws IOException {
+        ResultadoImportacion resultado = importar(archivo, new Destino<Propiedad, LotePropiedades>() {
+            @Override
+            Propiedad convertir(Map<String, String> campos, GeneradorIds ids) {
+                return propiedad(campos, ids);
+            }
+
+            @Override
+            String clave(Propiedad propiedad) {
+                return propiedad.getPropiedadId();
+            }
+
+            @Override
+            LotePropiedades preparar(List<Propiedad> propiedades) {
+                return PropiedadData.prepararLote(propiedades);
+            }
+
+            @Override
+            List<String> insertar(LotePropiedades lote) {
+                return PropiedadData.agregarLote(lote);
+            }
+
+            @Override
+            String repetido(String id) {
+                return "el ID " + id + " ya existe";
+            }
+
+            @Override
+            boolean terminar() {
+                return propiedadData.guardarPuntoControl();
+            }
+        });
+        System.out.println("✅ Importación de propiedades " + resultado);
+        return resultado;
+    }
+
+    /**
+     * Importa usuarios; los que no traen usuarioId reciben uno nuevo y los
+     * que repiten un email registrado se rechazan
+     * @param archivo Archivo .csv o .jsonl
+     * @return Resumen con las filas importadas, los rechazos y el tiempo de cada etapa
+     */
+    public ResultadoImportacion importarUsuarios(Path archivo) throws IOException {
+        ResultadoImportacion resultado = importar(archivo, new Destino<Usuario, List<Usuario>>() {
+            @Override
+            Usuario convertir(Map<String, String> campos, GeneradorIds ids) {
+                return usuario(campos, ids);
+            }
+
+            @Override
+            String clave(Usuario usuario) {
+                return usuario.getEmail();
+            }
+
+            @Override
+            List<Usuario> preparar(List<Usuario> usuarios) {
+                return usuarios;
+            }
+
+            @Override
+            List<String> insertar(List<Usuario> lote) {
+                return UsuarioData.agregarLote(lote);
+            }
+
+            @Override
+            String repetido(String email) {
+                return "el email " + email + " ya está registrado";
+            }
+        });
+        System.out.println("✅ Importación de usuarios " + resultado);
+        return resultado;
+    }
+
+    //   ETAPAS
+
+    /**
+     * Lo que cambia entre importar propiedades y usuarios
+     * @param <T> Elemento de una fila
+     * @param <L> Lote preparado para insertar
+     */
+    private abstract static class Destino<T, L> {
+        // Fila -> elemento; IllegalArgumentException con el motivo si es inválida
+        abstract T convertir(Map<String, String> campos, GeneradorIds ids);
+
+        // Clave con la que insertar informa los repetidos
+        abstract String clave(T elemento);
+
+        // Trabajo previo a la inserción (en los hilos de análisis)
+        abstract L preparar(List<T> elementos);
+
+        // Devuelve las claves repetidas, que no se insertaron
+        abstract List<String> insertar(L lote);
+
+        abstract String repetido(String clave);
+
+        // Después de insertar todo (si se importó algo); true si guardó un punto de control
+        boolean terminar() {
+            return false;
+        }
+    }
+
+    /**
+     * Trozo del archivo ya analizado
+     */
+    private static class Trozo<L> {
+        final int filas;
+        L lote;
+        final List<String> claves = new ArrayList<>();      // de cada elemento del lote
+        final List<Long> lineas = new ArrayList<>();        // de cada elemento del lote
+        final List<Long> lineasRechazadas = new ArrayList<>();
+        final List<String> motivos = new ArrayList<>();
+        long nanos;
+
+        Trozo(int filas) {
+            this.filas = filas;
+        }
+    }
+
+    private <T, L> ResultadoImportacion importar(Path archivo, Destino<T, L> destino) throws IOException {
+        long inicio = System.nanoTime();
+        FormatoImportacion formato = FormatoImportacion.desdeArchivo(archivo);
+        ResultadoImportacion resultado = new ResultadoImportacion(archivo.getFileName().toString());
+        ExecutorService analisis = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "importacion-analisis");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        // Trozos en orden del archivo; la capacidad limita cuántos hay en memoria
+        BlockingQueue<Future<Trozo<L>>> cola = new ArrayBlockingQueue<>(hilos * 2);
+        long[] nanosLectura = new long[1];
+        IOException[] errorLectura = new IOException[1];
+
+        Thread lector = new Thread(() -> {
+            try (BufferedReader entrada = new BufferedReader(
+                     new InputStreamReader(Files.newInputStream(archivo), StandardCharsets.UTF_8), 1 << 20)) {
+                leer(entrada, formato, destino, analisis, cola, nanosLectura);
+            } catch (IOException e) {
+                errorLectura[0] = e;
+            } catch (InterruptedException e) {
+                return;
+            }
+            try {
+                cola.put(CompletableFuture.completedFuture(null));
+            } catch (InterruptedException e) {
+                // La inserción ya terminó con error
+            }
+        }, "importacion-lectura");
+        lector.setDaemon(true);
+        lector.start();
+
+        long nanosAnalisis = 0;
+        long nanosInsercion = 0;
+        try {
+            for (Trozo<L> trozo = siguiente(cola); trozo != null; trozo = siguiente(cola)) {
+                resultado.sumarLeidas(trozo.filas);
+                nanosAnalisis += trozo.nanos;
+                for (int i = 0; i < trozo.motivos.size(); i++) {
+                    resultado.rechazar(trozo.lineasRechazadas.get(i), trozo.motivos.get(i));
+                }
+                long t = System.nanoTime();
+                List<String> repetidos = destino.insertar(trozo.lote);
+                nanosInsercion += System.nanoTime() - t;
+                resultado.sumarImportadas(trozo.claves.size() - repetidos.size());
+                for (String clave : repetidos) {
+                    // Se rechaza la última aparición: las anteriores ya entraron
+                    resultado.rechazar(trozo.lineas.get(trozo.claves.lastIndexOf(clave)), destino.repetido(clave));
+                }
+            }
+            lector.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Importación interrumpida", e);
+        } finally {
+            lector.interrupt();
+            analisis.shutdownNow();
+        }
+        if (errorLectura[0] != null) {
+            throw errorLectura[0];
+        }
+
+        long nanosPuntoControl = 0;
+        long t = System.nanoTime();
+        if (resultado.getImportadas() > 0 && destino.terminar()) {
+            nanosPuntoControl = System.nanoTime() - t;
+        }
+        resultado.tiempos(nanosLectura[0], nanosAnalisis, nanosInsercion, nanosPuntoControl,
+                          System.nanoTime() - inicio, hilos);
+        return resultado;
+    }
+
+    // Espera el trozo siguiente en orden (null = fin del archivo)
+    private static <L> Trozo<L> siguiente(BlockingQueue<Future<Trozo<L>>> cola) throws InterruptedException {
+        try {
+            return cola.take().get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // Etapa de lectura: arma trozos de filas y los manda a analizar
+    private <T, L> void leer(BufferedReader entrada, FormatoImportacion formato, Destino<T, L> destino,
+                             ExecutorService analisis, BlockingQueue<Future<Trozo<L>>> cola,
+                             long[] nanosLectura) throws IOException, InterruptedException {
+        long inicio = System.nanoTime();
+        long esperando = 0;
+        String[] encabezado = null;
+        List<String> filas = new ArrayList<>(tamanoLote);
+        long[] lineas = new long[tamanoLote];
+        StringBuilder abierta = null;   // fila CSV con comillas que sigue en otra línea
+        long lineaFila = 0;
+        long numeroLinea = 0;
+        String linea;
+        while ((linea = entrada.readLine()) != null || abierta != null) {
+            if (linea == null) {
+                // Fin del archivo con comillas sin cerrar: se analiza y se rechaza
+                linea = abierta.toString();
+                abierta = null;
+            } else {
+                numeroLinea++;
+                if (abierta != null) {
+                    abierta.append('\n').append(linea);
+                    if (!formato.filaCompleta(abierta)) {
+                        continue;
+                    }
+                    linea = abierta.toString();
+                    abierta = null;
+                } else {
+                    lineaFila = numeroLinea;
+                    if (!formato.filaCompleta(linea)) {
+                        abierta = new StringBuilder(linea);
+                        continue;
+                    }
+                }
+            }
+            if (linea.isBlank()) {
+                continue;
+            }
+            if (formato == FormatoImportacion.CSV && encabezado == null) {
+                encabezado = encabezado(linea);
+                continue;
+            }
+            lineas[filas.size()] = lineaFila;
+            filas.add(linea);
+            if (filas.size() == tamanoLote) {
+                esperando += enviar(filas, lineas, formato, encabezado, destino, analisis, cola);
+                filas = new ArrayList<>(tamanoLote);
+                lineas = new long[tamanoLote];
+            }
+        }
+        if (!filas.isEmpty()) {
+            esperando += enviar(filas, lineas, formato, encabezado, destino, analisis, cola);
+        }
+        nanosLectura[0] = System.nanoTime() - inicio - esperando;
+    }
+
+    // Manda un trozo a analizar; devuelve el tiempo que esperó lugar en la cola
+    private <T, L> long enviar(List<String> filas, long[] lineas, FormatoImportacion formato,
+                               String[] encabezado, Destino<T, L> destino, ExecutorService analisis,
+                               BlockingQueue<Future<Trozo<L>>> cola) throws InterruptedException {
+        Future<Trozo<L>> trozo = analisis.submit(() -> analizar(filas, lineas, formato, encabezado, destino));
+        long t = System.nanoTime();
+        cola.put(trozo);
+        return System.nanoTime() - t;
+    }
+
+    // Etapa de análisis: convierte y valida cada fila del trozo
+    private static <T, L> Trozo<L> analizar(List<String> filas, long[] lineas, FormatoImportacion formato,
+                                            String[] encabezado, Destino<T, L> destino) {
+        long inicio = System.nanoTime();
+        Trozo<L> trozo = new Trozo<>(filas.size());
+        List<T> validos = new ArrayList<>(filas.size());
+        GeneradorIds ids = new GeneradorIds();
+        for (int i = 0; i < filas.size(); i++) {
+            try {
+                T elemento = destino.convertir(formato.campos(filas.get(i), encabezado), ids);
+                validos.add(elemento);
+                trozo.claves.add(destino.clave(elemento));
+                trozo.lineas.add(lineas[i]);
+            } catch (IllegalArgumentException e) {
+                trozo.lineasRechazadas.add(lineas[i]);
+                trozo.motivos.add(e.getMessage());
+            }
+        }
+        trozo.lote = destino.preparar(validos);
+        trozo.nanos = System.nanoTime() - inicio;
+        return trozo;
+    }
+
+    private static String[] encabezado(String linea) {
+        List<String> columnas = FormatoImportacion.valoresCsv(linea.replace("\uFEFF", ""));
+        String[] encabezado = new String[columnas.size()];
+        for (int i = 0; i < encabezado.length; i++) {
+            encabezado[i] = columnas.get(i).trim();
+        }
+        return encabezado;
+    }
+
+    //   CONVERSIÓN Y VALIDACIÓN
+
+    private static Propiedad propiedad(Map<String, String> campos, GeneradorIds ids) {
+        String anfitrionId = obligatorio(campos, "anfitrionId");
+        String titulo = obligatorio(campos, "titulo");
+        String ciudad = obligatorio(campos, "ciudad");
+        obligatorio(campos, "precioPorNoche");
+        double precio = decimal(campos, "precioPorNoche", 0);
+        if (!(precio > 0)) {
+            throw new IllegalArgumentException("el precio por noche debe ser mayor a 0");
+        }
+        int capacidad = entero(campos, "capacidad", 1);
+        int habitaciones = entero(campos, "habitaciones", 1);
+        int banos = entero(campos, "banos", 1);
+        if (capacidad < 1 || habitaciones < 0 || banos < 0) {
+            throw new IllegalArgumentException("capacidad, habitaciones o baños fuera de rango");
+        }
+        String id = opcional(campos, "propiedadId", null);
+        Propiedad propiedad = new Propiedad(
+            id != null ? id : ids.siguiente(), anfitrionId, titulo,
+            opcional(campos, "descripcion", ""), ciudad, opcional(campos, "direccion", ""),
+            opcional(campos, "tipo", "Casa"), capacidad, habitaciones, banos, precio
+        );
+
+        String latitud = opcional(campos, "latitud", null);
+        String longitud = opcional(campos, "longitud", null);
+        if ((latitud == null) != (longitud == null)) {
+            throw new IllegalArgumentException("la ubicación necesita latitud y longitud");
+        }
+        if (latitud != null) {
+            double lat = decimal(campos, "latitud", 0);
+            double lon = decimal(campos, "longitud", 0);
+            if (lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+                throw new IllegalArgumentException("ubicación fuera de rango: " + lat + ", " + lon);
+            }
+            propiedad.setUbicacion(lat, lon);
+        }
+        propiedad.setDisponible(booleano(campos, "disponible", true));
+
+        String servicios = opcional(campos, "servicios", null);
+        if (servicios != null) {
+            Set<String> distintos = new LinkedHashSet<>();
+            for (String servicio : servicios.split("\\" + FormatoImportacion.SEPARADOR_LISTA)) {
+                if (!servicio.isBlank()) {
+                    distintos.add(servicio.trim());
+                }
+            }
+            propiedad.setServicios(new ArrayList<>(distintos));
+        }
+        return propiedad;
+    }
+
+    private static Usuario usuario(Map<String, String> campos, GeneradorIds ids) {
+        String nombre = obligatorio(campos, "nombre");
+        String email = obligatorio(campos, "email");
+        String contrasena = obligatorio(campos, "contrasena");
+        int arroba = email.indexOf('@');
+        int punto = email.lastIndexOf('.');
+        // Misma regla que el formulario de registro
+        if (arroba <= 0 || punto < arroba || email.length() - punto <= 2) {
+            throw new IllegalArgumentException("el email " + email + " no tiene un formato válido");
+        }
+        String id = opcional(campos, "usuarioId", null);
+        Usuario usuario = new Usuario(id != null ? id : ids.siguiente(), nombre, email,
+                                      opcional(campos, "telefono", ""), contrasena,
+                                      opcional(campos, "rol", "Viajero"));
+        String fecha = opcional(campos, "fechaRegistro", null);
+        if (fecha != null) {
+            usuario.setFechaRegistro(fecha);
+        }
+        return usuario;
+    }
+
+    private static String obligatorio(Map<String, String> campos, String columna) {
+        String valor = opcional(campos, columna, null);
+        if (valor == null) {
+            throw new IllegalArgumentException("falta " + columna);
+        }
+        return valor;
+    }
+
+    private static String opcional(Map<String, String> campos, String columna, String porDefecto) {
+        String valor = campos.get(columna);
+        return valor == null || valor.isBlank() ? porDefecto : valor.trim();
+    }
+
+    private static int entero(Map<String, String> campos, String columna, int porDefecto) {
+        String valor = opcional(campos, columna, null);
+        try {
+            return valor == null ? porDefecto : Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(columna + " no es un número entero: " + valor);
+        }
+    }
+
+    private static double decimal(Map<String, String> campos, String columna, double porDefecto) {
+        String valor = opcional(campos, columna, null);
+        try {
+            return valor == null ? porDefecto : Double.parseDouble(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(columna + " no es un número: " + valor);
+        }
+    }
+
+    private static boolean booleano(Map<String, String> campos, String columna, boolean porDefecto) {
+        String valor = opcional(campos, columna, null);
+        if (valor == null) {
+            return porDefecto;
+        }
+        switch (valor.toLowerCase(Locale.ROOT)) {
+            case "true": case "si": case "sí": case "1":
+                return true;
+            case "false": case "no": case "0":
+                return false;
+            default:
+                throw new IllegalArgumentException(columna + " debe ser true o false: " + valor);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Índice espacial en cuadrícula
+ * Divide el mapa en celdas de TAMANO_CELDA grados (~1,1 km) y guarda un
+ * mapa de bits con las propiedades de cada celda; una búsqueda solo
+ * revisa las celdas que tocan el rectángulo pedido
+ */
+class IndiceGeografico {
+
+    // Lado de cada celda en grados
+    static final double TAMANO_CELDA = 0.01;
+
+    // (fila, columna) empaquetadas en un long -> propiedades de la celda
+    private final Map<Long, MapaBits> celdas = new ConcurrentHashMap<>();
+
+    /**
+     * Agrega una propiedad en su celda (se ignora si no tiene coordenadas)
+     */
+    public void agregar(int ordinal, double latitud, double longitud) {
+        if (Double.isNaN(latitud) || Double.isNaN(longitud)) {
+            return;
+        }
+        celdas.computeIfAbsent(clave(fila(latitud), columna(longitud)), k -> new MapaBits())
+              .agregar(ordinal);
+    }
+
+    /**
+     * Quita una propiedad de la celda de sus coordenadas anteriores
+     */
+    public void remover(int ordinal, double latitud, double longitud) {
+        if (Double.isNaN(latitud) || Double.isNaN(longitud)) {
+            return;
+        }
+        Long clave = clave(fila(latitud), columna(longitud));
+        MapaBits celda = celdas.get(clave);
+        if (celda != null) {
+            celda.remover(ordinal);
+            if (celda.estaVacio()) {
+                celdas.remove(clave);
+            }
+        }
+    }
+
+    /**
+     * Cota superior de propiedades dentro del área (las de las celdas que la tocan)
+     */
+    public int contar(AreaGeografica area) {
+        int[] total = {0};
+        paraCadaCelda(area, celda -> total[0] += celda.cardinalidad());
+        return total[0];
+    }
+
+    /**
+     * Propiedades de las celdas que tocan el área; las de los bordes pueden
+     * quedar fuera, así que cada una se verifica después con sus coordenadas
+     * @return Ordinales en orden ascendente
+     */
+    public int[] candidatas(AreaGeografica area) {
+        ListaEnteros ordinales = new ListaEnteros();
+        paraCadaCelda(area, celda -> celda.paraCada(ordinales::agregar));
+        int[] resultado = ordinales.aArreglo();
+        Arrays.sort(resultado);
+        return resultado;
+    }
+
+    void escribir(ArchivoPuntoControl.Salida salida) throws IOException {
+        salida.writeInt(celdas.size());
+        for (Map.Entry<Long, MapaBits> e : celdas.entrySet()) {
+            salida.writeLong(e.getKey());
+            e.getValue().escribir(salida);
+        }
+    }
+
+    /**
+     * Agrega las celdas de un punto de control
+     */
+    void cargar(ByteBuffer datos) {
+        int n = datos.getInt();
+        for (int i = 0; i < n; i++) {
+            long clave = datos.getLong();
+            celdas.put(clave, MapaBits.leer(datos));
+        }
+    }
+
+    // Recorre las celdas del rectángulo, o las existentes si son menos
+    private void paraCadaCelda(AreaGeografica area, Consumer<MapaBits> accion) {
+        long filaMin = fila(area.latitudMin);
+        long filaMax = fila(area.latitudMax);
+        long columnaMin = columna(area.longitudMin);
+        long columnaMax = columna(area.longitudMax);
+        long enRectangulo = (filaMax - filaMin + 1) * (columnaMax - columnaMin + 1);
+
+        if (enRectangulo > celdas.size()) {
+            for (Map.Entry<Long, MapaBits> e : celdas.entrySet()) {
+                long f = e.getKey() >> 32;
+                long c = (int) (long) e.getKey();
+                if (f >= filaMin && f <= filaMax && c >= columnaMin && c <= columnaMax) {
+                    accion.accept(e.getValue());
+                }
+            }
+            return;
+        }
+        for (long f = filaMin; f <= filaMax; f++) {
+            for (long c = columnaMin; c <= columnaMax; c++) {
+                MapaBits celda = celdas.get(clave(f, c));
+                if (celda != null) {
+                    accion.accept(celda);
+                }
+            }
+        }
+    }
+
+    private static long fila(double latitud) {
+        return (long) Math.floor(latitud / TAMANO_CELDA);
+    }
+
+    private static long columna(double longitud) {
+        return (long) Math.floor(longitud / TAMANO_CELDA);
+    }
+
+    private static Long clave(long fila, long columna) {
+        return (fila << 32) | (columna & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,448 @@
+package modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Índice ordenado por precio por noche
+ * Guarda pares (precio, ordinal) ordenados para responder rangos de precio
+ * con dos búsquedas binarias
+ *
+ * Los pares se reparten en cubetas ordenadas de hasta TAMANO_CUBETA
+ * elementos: agregar o remover desplaza solo dentro de una cubeta (y
+ * actualiza las posiciones de inicio de las siguientes), en lugar de mover
+ * medio arreglo. Una cubeta llena se parte en dos y una vacía se quita
+ */
+class IndicePrecios {
+
+    // Máximo de pares por cubeta
+    static final int TAMANO_CUBETA = 512;
+
+    // Pares por cubeta al reconstruir (lote o punto de control): deja lugar
+    // para agregar sin partir enseguida
+    private static final int LLENADO = TAMANO_CUBETA * 3 / 4;
+
+    /**
+     * Tramo ordenado del índice
+     */
+    private static final class Cubeta {
+        double[] precios;
+        int[] ordinales;
+        int tamano;
+
+        Cubeta(int capacidad) {
+            precios = new double[capacidad];
+            ordinales = new int[capacidad];
+        }
+
+        double ultimoPrecio() {
+            return precios[tamano - 1];
+        }
+
+        int ultimoOrdinal() {
+            return ordinales[tamano - 1];
+        }
+
+        void insertar(int pos, double precio, int ordinal) {
+            if (tamano == precios.length) {
+                int capacidad = Math.min(TAMANO_CUBETA, tamano * 2);
+                precios = Arrays.copyOf(precios, capacidad);
+                ordinales = Arrays.copyOf(ordinales, capacidad);
+            }
+            System.arraycopy(precios, pos, precios, pos + 1, tamano - pos);
+            System.arraycopy(ordinales, pos, ordinales, pos + 1, tamano - pos);
+            precios[pos] = precio;
+            ordinales[pos] = ordinal;
+            tamano++;
+        }
+
+        void quitar(int pos) {
+            System.arraycopy(precios, pos + 1, precios, pos, tamano - pos - 1);
+            System.arraycopy(ordinales, pos + 1, ordinales, pos, tamano - pos - 1);
+            tamano--;
+        }
+
+        // Posición de inserción del par (precio, ordinal) dentro de la cubeta
+        int posicion(double precio, int ordinal) {
+            int bajo = 0;
+            int alto = tamano;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                int c = Double.compare(precios[medio], precio);
+                if (c < 0 || (c == 0 && ordinales[medio] < ordinal)) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+
+        // Primera posición con precio >= (o > si estricto) el dado
+        int primero(double precio, boolean estricto) {
+            int bajo = 0;
+            int alto = tamano;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (precios[medio] < precio || (estricto && precios[medio] == precio)) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+    }
+
+    private Cubeta[] cubetas = new Cubeta[4];
+    // inicios[c] = posición global del primer par de la cubeta c
+    private int[] inicios = new int[4];
+    private int cantidadCubetas;
+    private int tamano;
+
+    /**
+     * Agrega una propiedad al índice
+     * @param ordinal Ordinal de la propiedad en el catálogo
+     * @param precio Precio por noche
+     */
+    public void agregar(int ordinal, double precio) {
+        if (cantidadCubetas == 0) {
+            insertarCubeta(0, new Cubeta(16));
+        }
+        int c = cubetaDe(precio, ordinal);
+        Cubeta cubeta = cubetas[c];
+        if (cubeta.tamano == TAMANO_CUBETA) {
+            partir(c);
+            if (Double.compare(precio, cubeta.ultimoPrecio()) > 0
+                    || (precio == cubeta.ultimoPrecio() && ordinal > cubeta.ultimoOrdinal())) {
+                cubeta = cubetas[++c];
+            }
+        }
+        cubeta.insertar(cubeta.posicion(precio, ordinal), precio, ordinal);
+        desplazarInicios(c + 1, 1);
+        tamano++;
+    }
+
+    /**
+     * Agrega varias propiedades de una vez: se ordenan entre ellas y se
+     * mezclan con el índice en una sola pasada (no una inserción por cada una)
+     * Si el lote es chico frente al índice conviene más insertar una por una
+     * en su cubeta que reconstruir todas
+     * @param nuevos Ordinales de las propiedades (crecientes)
+     * @param preciosNuevos Precio por noche de cada una
+     * @param cantidad Cantidad de propiedades a agregar
+     */
+    public void agregarLote(int[] nuevos, double[] preciosNuevos, int cantidad) {
+        if (cantidad == 0) {
+            return;
+        }
+        if ((long) cantidad * TAMANO_CUBETA < tamano) {
+            for (int i = 0; i < cantidad; i++) {
+                agregar(nuevos[i], preciosNuevos[i]);
+            }
+            return;
+        }
+        // Orden estable por precio: los ordinales ya vienen crecientes
+        int[] orden = new int[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            orden[i] = i;
+        }
+        ordenarPorPrecio(orden, new int[cantidad], preciosNuevos, 0, cantidad);
+
+        // Mezcla las cubetas actuales con el lote en cubetas nuevas
+        int total = tamano + cantidad;
+        Reconstruccion destino = new Reconstruccion(total);
+        int c = 0;
+        int i = 0;
+        int j = 0;
+        while (j < cantidad) {
+            int n = orden[j];
+            if (c < cantidadCubetas && i == cubetas[c].tamano) {
+                c++;
+                i = 0;
+                continue;
+            }
+            int comparacion = c < cantidadCubetas ? Double.compare(cubetas[c].precios[i], preciosNuevos[n]) : 1;
+            if (comparacion < 0 || (comparacion == 0 && cubetas[c].ordinales[i] < nuevos[n])) {
+                destino.agregar(cubetas[c].precios[i], cubetas[c].ordinales[i]);
+                i++;
+            } else {
+                destino.agregar(preciosNuevos[n], nuevos[n]);
+                j++;
+            }
+        }
+        for (; c < cantidadCubetas; c++, i = 0) {
+            for (; i < cubetas[c].tamano; i++) {
+                destino.agregar(cubetas[c].precios[i], cubetas[c].ordinales[i]);
+            }
+        }
+        destino.aplicar();
+    }
+
+    /**
+     * Remueve una propiedad del índice
+     * @param ordinal Ordinal de la propiedad
+     * @param precio Precio con el que fue indexada
+     */
+    public void remover(int ordinal, double precio) {
+        if (cantidadCubetas == 0) {
+            return;
+        }
+        int c = cubetaDe(precio, ordinal);
+        Cubeta cubeta = cubetas[c];
+        int pos = cubeta.posicion(precio, ordinal);
+        if (pos < cubeta.tamano && cubeta.ordinales[pos] == ordinal && cubeta.precios[pos] == precio) {
+            cubeta.quitar(pos);
+            desplazarInicios(c + 1, -1);
+            tamano--;
+            if (cubeta.tamano == 0) {
+                quitarCubeta(c);
+            }
+        }
+    }
+
+    /**
+     * Obtiene los ordinales con precio dentro del rango [min, max]
+     * @param min Precio mínimo (inclusivo)
+     * @param max Precio máximo (inclusivo)
+     * @return Ordinales en orden de precio
+     */
+    public int[] rango(double min, double max) {
+        int desde = primeroMayorOIgual(min);
+        int hasta = primeroMayor(max);
+        if (hasta <= desde) {
+            return new int[0];
+        }
+        int[] resultado = new int[hasta - desde];
+        int c = cubetaEnPosicion(desde);
+        int i = desde - inicios[c];
+        for (int k = 0; k < resultado.length; c++, i = 0) {
+            int n = Math.min(cubetas[c].tamano - i, resultado.length - k);
+            System.arraycopy(cubetas[c].ordinales, i, resultado, k, n);
+            k += n;
+        }
+        return resultado;
+    }
+
+    /**
+     * Cuenta las propiedades con precio dentro del rango [min, max]
+     */
+    public int contar(double min, double max) {
+        return Math.max(0, primeroMayor(max) - primeroMayorOIgual(min));
+    }
+
+    public int tamano() {
+        return tamano;
+    }
+
+    //   PUNTO DE CONTROL
+
+    // Mismo formato que un solo arreglo: tamaño, todos los precios y todos los ordinales
+    void escribir(ArchivoPuntoControl.Salida salida) throws IOException {
+        salida.writeInt(tamano);
+        for (int c = 0; c < cantidadCubetas; c++) {
+            salida.escribirDobles(cubetas[c].precios, cubetas[c].tamano);
+        }
+        for (int c = 0; c < cantidadCubetas; c++) {
+            salida.escribirEnteros(cubetas[c].ordinales, cubetas[c].tamano);
+        }
+    }
+
+    /**
+     * Reemplaza el contenido por el de un punto de control (ya viene ordenado)
+     */
+    void cargar(ByteBuffer datos) {
+        int n = datos.getInt();
+        int inicio = datos.position();
+        ByteBuffer ordinalesGuardados = datos.duplicate().position(inicio + n * 8);
+        Reconstruccion destino = new Reconstruccion(n);
+        for (int k = 0; k < n; ) {
+            int m = Math.min(LLENADO, n - k);
+            Cubeta cubeta = destino.nueva();
+            datos.asDoubleBuffer().get(cubeta.precios, 0, m);
+            datos.position(datos.position() + m * 8);
+            ordinalesGuardados.asIntBuffer().get(cubeta.ordinales, 0, m);
+            ordinalesGuardados.position(ordinalesGuardados.position() + m * 4);
+            cubeta.tamano = m;
+            destino.agregar(cubeta);
+            k += m;
+        }
+        datos.position(inicio + n * 12);
+        destino.aplicar();
+    }
+
+    /**
+     * Cubetas nuevas llenadas en orden, que reemplazan a todas las actuales
+     */
+    private final class Reconstruccion {
+        private final Cubeta[] nuevas;
+        private final int pares;
+        private int cantidad;
+        private int total;
+
+        Reconstruccion(int pares) {
+            this.pares = pares;
+            nuevas = new Cubeta[Math.max(4, (pares + LLENADO - 1) / LLENADO)];
+        }
+
+        // Los índices chicos (ej: de una ciudad) no reservan una cubeta entera
+        Cubeta nueva() {
+            int restantes = pares - total;
+            return new Cubeta(restantes < LLENADO ? Math.max(16, restantes) : TAMANO_CUBETA);
+        }
+
+        void agregar(double precio, int ordinal) {
+            Cubeta cubeta = cantidad > 0 ? nuevas[cantidad - 1] : null;
+            if (cubeta == null || cubeta.tamano == LLENADO) {
+                cubeta = nueva();
+                nuevas[cantidad++] = cubeta;
+            }
+            cubeta.precios[cubeta.tamano] = precio;
+            cubeta.ordinales[cubeta.tamano++] = ordinal;
+            total++;
+        }
+
+        void agregar(Cubeta cubeta) {
+            nuevas[cantidad++] = cubeta;
+            total += cubeta.tamano;
+        }
+
+        void aplicar() {
+            cubetas = nuevas;
+            inicios = new int[nuevas.length];
+            cantidadCubetas = cantidad;
+            tamano = total;
+            desplazarInicios(0, 0);
+        }
+    }
+
+    //   CUBETAS
+
+    private void insertarCubeta(int c, Cubeta cubeta) {
+        if (cantidadCubetas == cubetas.length) {
+            cubetas = Arrays.copyOf(cubetas, cantidadCubetas * 2);
+            inicios = Arrays.copyOf(inicios, cantidadCubetas * 2);
+        }
+        System.arraycopy(cubetas, c, cubetas, c + 1, cantidadCubetas - c);
+        System.arraycopy(inicios, c, inicios, c + 1, cantidadCubetas - c);
+        cubetas[c] = cubeta;
+        inicios[c] = c > 0 ? inicios[c - 1] + cubetas[c - 1].tamano : 0;
+        cantidadCubetas++;
+    }
+
+    private void quitarCubeta(int c) {
+        System.arraycopy(cubetas, c + 1, cubetas, c, cantidadCubetas - c - 1);
+        System.arraycopy(inicios, c + 1, inicios, c, cantidadCubetas - c - 1);
+        cubetas[--cantidadCubetas] = null;
+    }
+
+    // Pasa la mitad alta de la cubeta c a una cubeta nueva a continuación
+    private void partir(int c) {
+        Cubeta llena = cubetas[c];
+        int mitad = llena.tamano / 2;
+        Cubeta alta = new Cubeta(TAMANO_CUBETA);
+        alta.tamano = llena.tamano - mitad;
+        System.arraycopy(llena.precios, mitad, alta.precios, 0, alta.tamano);
+        System.arraycopy(llena.ordinales, mitad, alta.ordinales, 0, alta.tamano);
+        llena.tamano = mitad;
+        insertarCubeta(c + 1, alta);
+    }
+
+    // Suma delta a los inicios desde la cubeta c (delta 0 los recalcula)
+    private void desplazarInicios(int c, int delta) {
+        if (delta == 0) {
+            for (int k = c; k < cantidadCubetas; k++) {
+                inicios[k] = k > 0 ? inicios[k - 1] + cubetas[k - 1].tamano : 0;
+            }
+            return;
+        }
+        for (int k = c; k < cantidadCubetas; k++) {
+            inicios[k] += delta;
+        }
+    }
+
+    // Mergesort estable de posiciones según su precio
+    private static void ordenarPorPrecio(int[] orden, int[] auxiliar, double[] precios, int desde, int hasta) {
+        if (hasta - desde < 2) {
+            return;
+        }
+        int medio = (desde + hasta) >>> 1;
+        ordenarPorPrecio(orden, auxiliar, precios, desde, medio);
+        ordenarPorPrecio(orden, auxiliar, precios, medio, hasta);
+        if (Double.compare(precios[orden[medio - 1]], precios[orden[medio]]) <= 0) {
+            return;
+        }
+        System.arraycopy(orden, desde, auxiliar, desde, hasta - desde);
+        int i = desde;
+        int j = medio;
+        for (int k = desde; k < hasta; k++) {
+            if (j >= hasta || (i < medio && Double.compare(precios[auxiliar[i]], precios[auxiliar[j]]) <= 0)) {
+                orden[k] = auxiliar[i++];
+            } else {
+                orden[k] = auxiliar[j++];
+            }
+        }
+    }
+
+    //   BÚSQUEDAS BINARIAS
+
+    // Cubeta donde va (o está) el par: la primera cuyo último par no es menor
+    private int cubetaDe(double precio, int ordinal) {
+        int bajo = 0;
+        int alto = cantidadCubetas - 1;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            Cubeta cubeta = cubetas[medio];
+            int c = Double.compare(cubeta.ultimoPrecio(), precio);
+            if (c < 0 || (c == 0 && cubeta.ultimoOrdinal() < ordinal)) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    // Cubeta que contiene la posición global dada (< tamano)
+    private int cubetaEnPosicion(int posicion) {
+        int bajo = 0;
+        int alto = cantidadCubetas - 1;
+        while (bajo < alto) {
+            int medio = (bajo + alto + 1) >>> 1;
+            if (inicios[medio] <= posicion) {
+                bajo = medio;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return bajo;
+    }
+
+    private int primeroMayorOIgual(double precio) {
+        return primero(precio, false);
+    }
+
+    private int primeroMayor(double precio) {
+        return primero(precio, true);
+    }
+
+    // Posición global del primer precio >= (o > si estricto) el dado
+    private int primero(double precio, boolean estricto) {
+        int bajo = 0;
+        int alto = cantidadCubetas;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            double ultimo = cubetas[medio].ultimoPrecio();
+            if (ultimo < precio || (estricto && ultimo == precio)) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        if (bajo == cantidadCubetas) {
+            return tamano;
+        }
+        return inicios[bajo] + cubetas[bajo].primero(precio, estricto);
+    }
+}
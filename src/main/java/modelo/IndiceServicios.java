@@ -0,0 +1,154 @@
+package modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice invertido de servicios
+ * Cada servicio distinto recibe un id entero compacto y un mapa de bits
+ * con los ordinales de las propiedades que lo ofrecen
+ */
+class IndiceServicios {
+    
+    // Servicio -> id compacto
+    private final Map<String, Integer> idsServicios = new HashMap<>();
+    
+    // id compacto -> propiedades con ese servicio
+    private final List<MapaBits> mapas = new ArrayList<>();
+    
+    // id compacto -> nombre del servicio
+    private final List<String> nombres = new ArrayList<>();
+    
+    /**
+     * Obtiene (o asigna) el id compacto de un servicio
+     * @param servicio Nombre del servicio
+     * @return id del servicio
+     */
+    public int idServicio(String servicio) {
+        Integer id = idsServicios.get(servicio);
+        if (id == null) {
+            id = mapas.size();
+            idsServicios.put(servicio, id);
+            mapas.add(new MapaBits());
+            nombres.add(servicio);
+        }
+        return id;
+    }
+    
+    /**
+     * Marca que la propiedad con ese ordinal ofrece el servicio
+     */
+    public void agregar(int ordinal, String servicio) {
+        mapas.get(idServicio(servicio)).agregar(ordinal);
+    }
+    
+    /**
+     * Marca que la propiedad con ese ordinal ya no ofrece el servicio
+     */
+    public void remover(int ordinal, String servicio) {
+        Integer id = idsServicios.get(servicio);
+        if (id != null) {
+            mapas.get(id).remover(ordinal);
+        }
+    }
+    
+    /**
+     * Escribe los servicios en orden de id con sus mapas de bits
+     */
+    void escribir(ArchivoPuntoControl.Salida salida) throws IOException {
+        salida.writeInt(mapas.size());
+        for (int id = 0; id < mapas.size(); id++) {
+            salida.escribirTexto(nombres.get(id));
+            mapas.get(id).escribir(salida);
+        }
+    }
+
+    /**
+     * Agrega los servicios de un punto de control (conservan sus ids)
+     */
+    void cargar(ByteBuffer datos) {
+        int n = datos.getInt();
+        for (int i = 0; i < n; i++) {
+            String servicio = ArchivoPuntoControl.leerTexto(datos);
+            idsServicios.put(servicio, mapas.size());
+            nombres.add(servicio);
+            mapas.add(MapaBits.leer(datos));
+        }
+    }
+    
+    public int cantidadServicios() {
+        return mapas.size();
+    }
+    
+    public String nombreServicio(int id) {
+        return nombres.get(id);
+    }
+    
+    /**
+     * @param id id compacto del servicio
+     * @return Propiedades que ofrecen ese servicio
+     */
+    public MapaBits mapa(int id) {
+        return mapas.get(id);
+    }
+    
+    /**
+     * Obtiene los mapas de bits de los servicios pedidos
+     * @param servicios Servicios requeridos
+     * @return Mapas de cada servicio, o null si alguno no existe en el catálogo
+     */
+    public List<MapaBits> mapas(List<String> servicios) {
+        List<MapaBits> requeridos = new ArrayList<>(servicios.size());
+        for (String servicio : servicios) {
+            Integer id = idsServicios.get(servicio);
+            if (id == null) {
+                return null;
+            }
+            requeridos.add(mapas.get(id));
+        }
+        return requeridos;
+    }
+    
+    /**
+     * Cota superior de propiedades con todos los servicios pedidos
+     * (la cardinalidad del servicio menos frecuente)
+     * @param servicios Servicios requeridos
+     * @return Cardinalidad mínima entre los servicios
+     */
+    public int cardinalidadMinima(List<String> servicios) {
+        int minimo = Integer.MAX_VALUE;
+        for (String servicio : servicios) {
+            Integer id = idsServicios.get(servicio);
+            if (id == null) {
+                return 0;
+            }
+            minimo = Math.min(minimo, mapas.get(id).cardinalidad());
+        }
+        return minimo;
+    }
+    
+    /**
+     * Calcula las propiedades que ofrecen TODOS los servicios pedidos
+     * @param servicios Servicios requeridos (no vacío)
+     * @return Mapa de bits con los ordinales que cumplen
+     */
+    public MapaBits interseccion(List<String> servicios) {
+        List<MapaBits> requeridos = mapas(servicios);
+        if (requeridos == null) {
+            return new MapaBits();
+        }
+        
+        // Ordenar por cardinalidad para intersectar primero los más pequeños
+        requeridos.sort((a, b) -> Integer.compare(a.cardinalidad(), b.cardinalidad()));
+        
+        MapaBits resultado = requeridos.get(0).copiar();
+        for (int i = 1; i < requeridos.size() && !resultado.estaVacio(); i++) {
+            resultado = resultado.interseccion(requeridos.get(i));
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,534 @@
+package modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Índice invertido de texto sobre título y descripción de las propiedades
+ * Cada término guarda un mapa de bits de las propiedades que lo contienen
+ * (para intersectar rápido) y sus posiciones en cada una (para frases)
+ * La relevancia se calcula con BM25; las apariciones en el título pesan doble
+ *
+ * Al cargarse de un punto de control solo se lee el diccionario de términos:
+ * las apariciones de cada uno se leen la primera vez que una consulta lo usa
+ */
+class IndiceTexto {
+
+    // Parámetros de BM25
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Peso de una aparición en el título frente a una en la descripción
+    private static final int PESO_TITULO = 2;
+
+    // Posiciones libres entre título y descripción (una frase no cruza campos)
+    private static final int SEPARACION_CAMPOS = 16;
+
+    // Términos de un documento ya quitado del índice
+    private static final String[] QUITADO = new String[0];
+
+    /**
+     * Lista de apariciones de un término, ordenada por ordinal
+     */
+    private static class Postings {
+        MapaBits documentos;
+        int[] ordinales;
+        int[][] posiciones;
+        int tamano;
+
+        // Apariciones todavía sin leer del punto de control (null = ya en memoria)
+        private volatile ByteBuffer pendiente;
+
+        Postings() {
+            documentos = new MapaBits();
+            ordinales = new int[4];
+            posiciones = new int[4][];
+        }
+
+        Postings(int tamano, ByteBuffer pendiente) {
+            this.tamano = tamano;
+            this.pendiente = pendiente;
+        }
+
+        /**
+         * @return Estas apariciones, leídas del punto de control si hacía falta
+         */
+        Postings cargada() {
+            if (pendiente != null) {
+                leerPendiente();
+            }
+            return this;
+        }
+
+        // Formato: ordinales y, por cada uno, cantidad de posiciones y posiciones
+        private synchronized void leerPendiente() {
+            ByteBuffer datos = pendiente;
+            if (datos == null) {
+                return;
+            }
+            datos = datos.duplicate();
+            int[] ords = ArchivoPuntoControl.leerEnteros(datos, tamano, Math.max(4, tamano));
+            int[][] pos = new int[ords.length][];
+            MapaBits docs = new MapaBits();
+            for (int i = 0; i < tamano; i++) {
+                int cantidad = datos.getInt();
+                pos[i] = ArchivoPuntoControl.leerEnteros(datos, cantidad, cantidad);
+                docs.agregar(ords[i]);
+            }
+            ordinales = ords;
+            posiciones = pos;
+            documentos = docs;
+            pendiente = null;
+        }
+
+        void escribir(ArchivoPuntoControl.Salida salida, ByteBuffer sinLeer) throws IOException {
+            if (sinLeer != null) {
+                salida.escribirBytes(sinLeer);
+                return;
+            }
+            salida.escribirEnteros(ordinales, tamano);
+            for (int i = 0; i < tamano; i++) {
+                salida.writeInt(posiciones[i].length);
+                salida.escribirEnteros(posiciones[i], posiciones[i].length);
+            }
+        }
+
+        void agregar(int ordinal, int[] pos) {
+            cargada();
+            int i = Arrays.binarySearch(ordinales, 0, tamano, ordinal);
+            if (i >= 0) {
+                posiciones[i] = pos;
+                return;
+            }
+            i = -i - 1;
+            if (tamano == ordinales.length) {
+                ordinales = Arrays.copyOf(ordinales, tamano * 2);
+                posiciones = Arrays.copyOf(posiciones, tamano * 2);
+            }
+            System.arraycopy(ordinales, i, ordinales, i + 1, tamano - i);
+            System.arraycopy(posiciones, i, posiciones, i + 1, tamano - i);
+            ordinales[i] = ordinal;
+            posiciones[i] = pos;
+            tamano++;
+            documentos.agregar(ordinal);
+        }
+
+        void remover(int ordinal) {
+            cargada();
+            int i = Arrays.binarySearch(ordinales, 0, tamano, ordinal);
+            if (i >= 0) {
+                System.arraycopy(ordinales, i + 1, ordinales, i, tamano - i - 1);
+                System.arraycopy(posiciones, i + 1, posiciones, i, tamano - i - 1);
+                tamano--;
+                posiciones[tamano] = null;
+                documentos.remover(ordinal);
+            }
+        }
+
+        /**
+         * @return Posiciones del término en la propiedad, o null si no aparece
+         */
+        int[] posicionesDe(int ordinal) {
+            cargada();
+            int i = Arrays.binarySearch(ordinales, 0, tamano, ordinal);
+            return i >= 0 ? posiciones[i] : null;
+        }
+    }
+
+    /**
+     * Términos de un título y una descripción con sus posiciones
+     * (la descripción empieza después de un hueco)
+     * No depende del índice, así que puede armarse en otro hilo antes de agregar
+     */
+    static class Documento {
+        final Map<String, ListaEnteros> apariciones = new LinkedHashMap<>();
+        final int indexados;
+        final int finTitulo;
+
+        Documento(String titulo, String descripcion) {
+            List<String> tokensTitulo = TokenizadorEspanol.tokenizar(titulo);
+            int total = registrar(tokensTitulo, 0, apariciones);
+            total += registrar(TokenizadorEspanol.tokenizar(descripcion),
+                               tokensTitulo.size() + SEPARACION_CAMPOS, apariciones);
+            this.indexados = total;
+            this.finTitulo = tokensTitulo.size();
+        }
+
+        int[] posiciones(String termino) {
+            ListaEnteros pos = apariciones.get(termino);
+            return pos != null ? pos.aArreglo() : null;
+        }
+    }
+
+    private final Map<String, Postings> postings = new ConcurrentHashMap<>();
+
+    // Por ordinal: términos distintos, cantidad de términos indexados y fin del título
+    private String[][] terminosPorDocumento = new String[16][];
+    private int[] longitudes = new int[16];
+    private int[] finTitulo = new int[16];
+
+    private long longitudTotal;
+    private int documentos;
+
+    // Términos del punto de control (por id) y los ids de los de cada
+    // documento cargado, para quitarlo sin leer todas las apariciones
+    private String[] terminosCargados = new String[0];
+    private IntBuffer inicioTerminosCargados;
+    private IntBuffer idsTerminosCargados;
+
+    //   MANTENIMIENTO
+
+    /**
+     * Indexa el título y la descripción de una propiedad
+     * @param propiedad Propiedad con su ordinal ya asignado
+     */
+    public void agregar(Propiedad propiedad) {
+        agregar(propiedad, new Documento(propiedad.getTitulo(), propiedad.getDescripcion()));
+    }
+
+    /**
+     * Indexa una propiedad con su texto ya analizado
+     * @param propiedad Propiedad con su ordinal ya asignado
+     * @param documento Título y descripción de la propiedad analizados
+     */
+    public void agregar(Propiedad propiedad, Documento documento) {
+        agregar(propiedad.ordinal, documento);
+    }
+
+    /**
+     * Indexa un texto ya analizado con el número de documento dado
+     * (ej: la posición de una propiedad en una lista de resultados)
+     */
+    void agregar(int ordinal, Documento documento) {
+        if (ordinal >= longitudes.length) {
+            int capacidad = Math.max(longitudes.length * 2, ordinal + 1);
+            terminosPorDocumento = Arrays.copyOf(terminosPorDocumento, capacidad);
+            longitudes = Arrays.copyOf(longitudes, capacidad);
+            finTitulo = Arrays.copyOf(finTitulo, capacidad);
+        }
+
+        for (Map.Entry<String, ListaEnteros> e : documento.apariciones.entrySet()) {
+            postings.computeIfAbsent(e.getKey(), k -> new Postings())
+                    .agregar(ordinal, e.getValue().aArreglo());
+        }
+        terminosPorDocumento[ordinal] = documento.apariciones.keySet().toArray(new String[0]);
+        longitudes[ordinal] = documento.indexados;
+        finTitulo[ordinal] = documento.finTitulo;
+        longitudTotal += documento.indexados;
+        documentos++;
+    }
+
+    /**
+     * Vuelve a indexar una propiedad cuyo título o descripción cambió
+     * @param propiedad Propiedad ya indexada
+     */
+    public void actualizar(Propiedad propiedad) {
+        remover(propiedad.ordinal);
+        agregar(propiedad);
+    }
+
+    /**
+     * Quita una propiedad del índice (según los términos con que se indexó)
+     * @param ordinal Ordinal de la propiedad
+     */
+    public void remover(int ordinal) {
+        String[] terminos = terminosDe(ordinal);
+        if (terminos == null) {
+            return;
+        }
+        for (String termino : terminos) {
+            Postings p = postings.get(termino);
+            p.remover(ordinal);
+            if (p.tamano == 0) {
+                postings.remove(termino);
+            }
+        }
+        terminosPorDocumento[ordinal] = QUITADO;
+        longitudTotal -= longitudes[ordinal];
+        documentos--;
+    }
+
+    // Términos indexados de un documento (null si no está en el índice)
+    private String[] terminosDe(int ordinal) {
+        String[] terminos = terminosPorDocumento[ordinal];
+        if (terminos == QUITADO) {
+            return null;
+        }
+        if (terminos != null || inicioTerminosCargados == null
+            || ordinal >= inicioTerminosCargados.limit() - 1) {
+            return terminos;
+        }
+        int desde = inicioTerminosCargados.get(ordinal);
+        terminos = new String[inicioTerminosCargados.get(ordinal + 1) - desde];
+        for (int i = 0; i < terminos.length; i++) {
+            terminos[i] = terminosCargados[idsTerminosCargados.get(desde + i)];
+        }
+        return terminos;
+    }
+
+    // Anota la posición de cada término (sin palabras vacías); devuelve cuántos anotó
+    private static int registrar(List<String> tokens, int desplazamiento,
+                                 Map<String, ListaEnteros> apariciones) {
+        int indexados = 0;
+        for (int i = 0; i < tokens.size(); i++) {
+            String termino = tokens.get(i);
+            if (termino != null) {
+                apariciones.computeIfAbsent(termino, k -> new ListaEnteros(4)).agregar(desplazamiento + i);
+                indexados++;
+            }
+        }
+        return indexados;
+    }
+
+    //   PUNTO DE CONTROL
+
+    /**
+     * Escribe las estadísticas, cada término con sus apariciones y los
+     * términos de cada documento
+     * @param n Cantidad de documentos (ordinales 0..n-1)
+     */
+    void escribir(ArchivoPuntoControl.Salida salida, int n) throws IOException {
+        salida.writeLong(longitudTotal);
+        salida.writeInt(documentos);
+        salida.escribirEnteros(longitudes, n);
+        salida.escribirEnteros(finTitulo, n);
+
+        // Cada término recibe como id su posición en el diccionario
+        List<Map.Entry<String, Postings>> terminos = new ArrayList<>(postings.entrySet());
+        ByteBuffer[] sinLeer = new ByteBuffer[terminos.size()];
+        int[] inicios = new int[n + 1];
+        salida.writeInt(terminos.size());
+        for (int t = 0; t < terminos.size(); t++) {
+            Postings p = terminos.get(t).getValue();
+            sinLeer[t] = p.pendiente;
+            salida.escribirTexto(terminos.get(t).getKey());
+            salida.writeInt(p.tamano);
+            int marca = salida.reservarEntero();
+            int inicio = salida.size();
+            p.escribir(salida, sinLeer[t]);
+            salida.completar(marca, salida.size() - inicio);
+            for (int i = 0; i < p.tamano; i++) {
+                inicios[ordinal(p, sinLeer[t], i) + 1]++;
+            }
+        }
+
+        // Ids de los términos de cada documento (invirtiendo las apariciones)
+        for (int o = 0; o < n; o++) {
+            inicios[o + 1] += inicios[o];
+        }
+        int[] ids = new int[inicios[n]];
+        int[] siguiente = Arrays.copyOf(inicios, n);
+        for (int t = 0; t < terminos.size(); t++) {
+            Postings p = terminos.get(t).getValue();
+            for (int i = 0; i < p.tamano; i++) {
+                ids[siguiente[ordinal(p, sinLeer[t], i)]++] = t;
+            }
+        }
+        salida.escribirEnteros(inicios, n + 1);
+        salida.escribirEnteros(ids, ids.length);
+    }
+
+    // i-ésimo ordinal de un término, sin leer sus apariciones si siguen en el punto de control
+    private static int ordinal(Postings p, ByteBuffer sinLeer, int i) {
+        return sinLeer != null ? sinLeer.getInt(i * 4) : p.ordinales[i];
+    }
+
+    /**
+     * Reemplaza el índice por el de un punto de control; las apariciones de
+     * cada término quedan sin leer hasta que se usen
+     * @param n Cantidad de documentos
+     */
+    void cargar(ByteBuffer datos, int n) {
+        int capacidad = Math.max(16, n + n / 8);
+        longitudTotal = datos.getLong();
+        documentos = datos.getInt();
+        longitudes = ArchivoPuntoControl.leerEnteros(datos, n, capacidad);
+        finTitulo = ArchivoPuntoControl.leerEnteros(datos, n, capacidad);
+        terminosPorDocumento = new String[capacidad][];
+
+        int cantidad = datos.getInt();
+        terminosCargados = new String[cantidad];
+        postings.clear();
+        for (int t = 0; t < cantidad; t++) {
+            String termino = ArchivoPuntoControl.leerTexto(datos);
+            int tamano = datos.getInt();
+            int bytes = datos.getInt();
+            postings.put(termino, new Postings(tamano, ArchivoPuntoControl.vistaBytes(datos, bytes)));
+            terminosCargados[t] = termino;
+        }
+        inicioTerminosCargados = ArchivoPuntoControl.vistaEnteros(datos, n + 1);
+        idsTerminosCargados = ArchivoPuntoControl.vistaEnteros(datos, inicioTerminosCargados.get(n));
+    }
+
+    //   CONSULTAS
+
+    /**
+     * Propiedades que contienen todos los términos y frases de la consulta
+     * @param consulta Consulta no vacía
+     * @return Mapa de bits con los ordinales que cumplen
+     */
+    public MapaBits buscar(ConsultaTexto consulta) {
+        List<MapaBits> mapas = new ArrayList<>();
+        for (String termino : consulta.terminos()) {
+            Postings p = postings.get(termino);
+            if (p == null) {
+                return new MapaBits();
+            }
+            mapas.add(p.cargada().documentos);
+        }
+
+        // Intersectar primero los términos menos frecuentes
+        mapas.sort((a, b) -> Integer.compare(a.cardinalidad(), b.cardinalidad()));
+        MapaBits resultado = mapas.get(0).copiar();
+        for (int i = 1; i < mapas.size() && !resultado.estaVacio(); i++) {
+            resultado = resultado.interseccion(mapas.get(i));
+        }
+
+        if (consulta.frases().isEmpty() || resultado.estaVacio()) {
+            return resultado;
+        }
+        MapaBits conFrases = new MapaBits();
+        resultado.paraCada(ordinal -> {
+            if (contieneFrases(consulta, termino -> posicionesEn(termino, ordinal))) {
+                conFrases.agregar(ordinal);
+            }
+        });
+        return conFrases;
+    }
+
+    /**
+     * Cota superior de coincidencias: propiedades con el término menos frecuente
+     */
+    public int frecuenciaMinima(ConsultaTexto consulta) {
+        int minimo = Integer.MAX_VALUE;
+        for (String termino : consulta.terminos()) {
+            Postings p = postings.get(termino);
+            if (p == null) {
+                return 0;
+            }
+            minimo = Math.min(minimo, p.tamano);
+        }
+        return minimo;
+    }
+
+    /**
+     * Verifica una sola propiedad contra la consulta
+     * @return true si contiene todos los términos y frases
+     */
+    public boolean coincide(ConsultaTexto consulta, int ordinal) {
+        for (String termino : consulta.terminos()) {
+            Postings p = postings.get(termino);
+            if (p == null || !p.cargada().documentos.contiene(ordinal)) {
+                return false;
+            }
+        }
+        return contieneFrases(consulta, termino -> posicionesEn(termino, ordinal));
+    }
+
+    /**
+     * Verifica un texto que no está en el índice (ej: la versión anterior de
+     * una propiedad modificada) con las mismas reglas que las indexadas
+     * @return true si contiene todos los términos y frases
+     */
+    public boolean coincideDocumento(ConsultaTexto consulta, String titulo, String descripcion) {
+        Documento documento = new Documento(titulo, descripcion);
+        for (String termino : consulta.terminos()) {
+            if (!documento.apariciones.containsKey(termino)) {
+                return false;
+            }
+        }
+        return contieneFrases(consulta, documento::posiciones);
+    }
+
+    /**
+     * Relevancia BM25 de una propiedad para la consulta
+     * @param consulta Consulta de texto
+     * @param ordinal Ordinal de la propiedad
+     * @return Puntaje (mayor = más relevante; 0 si no contiene ningún término)
+     */
+    public double puntaje(ConsultaTexto consulta, int ordinal) {
+        return puntaje(consulta, termino -> posicionesEn(termino, ordinal),
+                       longitudes[ordinal], finTitulo[ordinal]);
+    }
+
+    /**
+     * Relevancia BM25 de un texto que no está en el índice, con las
+     * estadísticas actuales del catálogo
+     * @see #puntaje(ConsultaTexto, int)
+     */
+    public double puntajeDocumento(ConsultaTexto consulta, String titulo, String descripcion) {
+        Documento documento = new Documento(titulo, descripcion);
+        return puntaje(consulta, documento::posiciones, documento.indexados, documento.finTitulo);
+    }
+
+    private double puntaje(ConsultaTexto consulta, Function<String, int[]> posiciones,
+                           int longitud, int finDelTitulo) {
+        if (documentos == 0) {
+            return 0;
+        }
+        double longitudPromedio = (double) longitudTotal / documentos;
+        double normalizacion = K1 * (1 - B + B * longitud / longitudPromedio);
+        double total = 0;
+        for (String termino : consulta.terminos()) {
+            int[] pos = posiciones.apply(termino);
+            if (pos == null) {
+                continue;
+            }
+            // Frecuencia ponderada: las apariciones en el título cuentan doble
+            int frecuencia = 0;
+            for (int x : pos) {
+                frecuencia += x < finDelTitulo ? PESO_TITULO : 1;
+            }
+            Postings p = postings.get(termino);
+            int conTermino = p != null ? p.tamano : 0;
+            double idf = Math.log(1 + (documentos - conTermino + 0.5) / (conTermino + 0.5));
+            total += idf * frecuencia * (K1 + 1) / (frecuencia + normalizacion);
+        }
+        return total;
+    }
+
+    // Posiciones de un término en una propiedad indexada (null si no aparece)
+    private int[] posicionesEn(String termino, int ordinal) {
+        Postings p = postings.get(termino);
+        return p != null ? p.posicionesDe(ordinal) : null;
+    }
+
+    // Cada frase debe aparecer con sus términos en las posiciones relativas pedidas
+    private static boolean contieneFrases(ConsultaTexto consulta, Function<String, int[]> posiciones) {
+        for (ConsultaTexto.Frase frase : consulta.frases()) {
+            if (!contieneFrase(frase, posiciones)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean contieneFrase(ConsultaTexto.Frase frase, Function<String, int[]> posiciones) {
+        int[][] pos = new int[frase.terminos.length][];
+        for (int k = 0; k < pos.length; k++) {
+            pos[k] = posiciones.apply(frase.terminos[k]);
+            if (pos[k] == null) {
+                return false;
+            }
+        }
+        for (int inicio : pos[0]) {
+            int base = inicio - frase.desplazamientos[0];
+            boolean completa = true;
+            for (int k = 1; k < pos.length && completa; k++) {
+                completa = Arrays.binarySearch(pos[k], base + frase.desplazamientos[k]) >= 0;
+            }
+            if (completa) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,177 @@
+package modelo;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Vista de solo lectura del catálogo fija en una versión
+ * Todas las búsquedas sobre la instantánea ven el catálogo como estaba al
+ * abrirla: las propiedades agregadas después no aparecen y las modificadas
+ * se devuelven como copias con sus datos de ese momento. Así las páginas de
+ * un mismo resultado nunca se solapan ni saltan propiedades
+ *
+ * Las búsquedas no bloquean a quienes modifican el catálogo (leen sin
+ * candado y solo repiten si un cambio se cruzó); a cambio, mientras la
+ * instantánea esté abierta el catálogo guarda los datos anteriores de lo
+ * que cambia. Por eso debe cerrarse al terminar (try-with-resources)
+ *
+ * La disponibilidad por fechas se toma del calendario actual la primera
+ * vez que se consulta un filtro; desde ahí queda fija en la instantánea
+ */
+public class InstantaneaCatalogo implements AutoCloseable {
+
+    // Filtros distintos recordados por instantánea
+    private static final int MAXIMO_CONSULTAS = 16;
+
+    /**
+     * Coincidencias de un filtro en la versión de la instantánea
+     */
+    private static class Consulta {
+        final int[] ordinales;
+        final Map<OrdenBusqueda, int[]> ordenadas = new EnumMap<>(OrdenBusqueda.class);
+        FacetasBusqueda facetas;
+
+        Consulta(int[] ordinales) {
+            this.ordinales = ordinales;
+        }
+    }
+
+    private final long version;
+    private final int tamano;
+    private final ForkJoinPool pool;
+    private boolean cerrada;
+
+    // Clave del filtro -> coincidencias (las menos usadas salen primero)
+    private final Map<String, Consulta> consultas = new LinkedHashMap<String, Consulta>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Consulta> mayor) {
+            return size() > MAXIMO_CONSULTAS;
+        }
+    };
+
+    /**
+     * Se crea con PropiedadData.abrirInstantanea
+     * @param version Versión del catálogo que se ve
+     * @param tamano Cantidad de propiedades en esa versión
+     * @param pool Pool fork/join para búsquedas grandes (null = secuencial)
+     */
+    InstantaneaCatalogo(long version, int tamano, ForkJoinPool pool) {
+        this.version = version;
+        this.tamano = tamano;
+        this.pool = pool;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Cantidad de propiedades del catálogo en esta versión
+     */
+    public int getCantidadPropiedades() {
+        return tamano;
+    }
+
+    //   BÚSQUEDAS
+
+    /**
+     * @param filtro Criterios de búsqueda
+     * @return Propiedades que cumplían el filtro (en orden del catálogo)
+     */
+    public synchronized List<Propiedad> buscarConFiltros(FiltroBusqueda filtro) {
+        int[] ordinales = consulta(filtro).ordinales;
+        return Collections.unmodifiableList(
+            PropiedadData.materializarEnVersion(ordinales, 0, ordinales.length, version));
+    }
+
+    /**
+     * Página ordenada de resultados en esta versión
+     * @param filtro Criterios de búsqueda
+     * @param orden Criterio de orden de los resultados
+     * @param desplazamiento Cantidad de resultados a saltar (desde 0)
+     * @param tamanoPagina Cantidad máxima de resultados de la página
+     * @return Página de resultados con el total de coincidencias
+     */
+    public synchronized PaginaResultados buscarPagina(FiltroBusqueda filtro, OrdenBusqueda orden,
+                                                      int desplazamiento, int tamanoPagina) {
+        return pagina(filtro, orden, desplazamiento, tamanoPagina, null);
+    }
+
+    /**
+     * Página ordenada con los conteos por ciudad, servicio y tipo de todas las coincidencias
+     * @see #buscarPagina(FiltroBusqueda, OrdenBusqueda, int, int)
+     */
+    public synchronized PaginaResultados buscarConFacetas(FiltroBusqueda filtro, OrdenBusqueda orden,
+                                                          int desplazamiento, int tamanoPagina) {
+        Consulta consulta = consulta(filtro);
+        if (consulta.facetas == null) {
+            consulta.facetas = PropiedadData.facetasEnVersion(consulta.ordinales, version);
+        }
+        return pagina(filtro, orden, desplazamiento, tamanoPagina, consulta.facetas);
+    }
+
+    /**
+     * @param propiedadId ID de la propiedad
+     * @return La propiedad con sus datos de esta versión, o null si no existía
+     */
+    public synchronized Propiedad buscarPorId(String propiedadId) {
+        verificarAbierta();
+        return PropiedadData.buscarPorIdEnVersion(propiedadId, version, tamano);
+    }
+
+    /**
+     * Libera la versión: el catálogo deja de guardar datos para ella
+     */
+    @Override
+    public synchronized void close() {
+        if (!cerrada) {
+            cerrada = true;
+            consultas.clear();
+            PropiedadData.cerrarInstantanea(version);
+        }
+    }
+
+    //   MÉTODOS PRIVADOS
+
+    private PaginaResultados pagina(FiltroBusqueda filtro, OrdenBusqueda orden, int desplazamiento,
+                                    int tamanoPagina, FacetasBusqueda facetas) {
+        int[] todas = ordenadas(filtro, orden);
+        int desde = Math.min(Math.max(0, desplazamiento), todas.length);
+        int hasta = (int) Math.min(todas.length, (long) desde + Math.max(0, tamanoPagina));
+        List<Propiedad> propiedades = PropiedadData.materializarEnVersion(todas, desde, hasta, version);
+        return new PaginaResultados(propiedades, todas.length, desde, facetas);
+    }
+
+    // Coincidencias ordenadas (el orden se calcula una vez por filtro y orden;
+    // las propiedades se materializan en cada página)
+    private int[] ordenadas(FiltroBusqueda filtro, OrdenBusqueda orden) {
+        Consulta consulta = consulta(filtro);
+        int[] ordenadas = consulta.ordenadas.get(orden);
+        if (ordenadas == null) {
+            ordenadas = PropiedadData.ordenarEnVersion(filtro, orden, consulta.ordinales, version);
+            consulta.ordenadas.put(orden, ordenadas);
+        }
+        return ordenadas;
+    }
+
+    private Consulta consulta(FiltroBusqueda filtro) {
+        verificarAbierta();
+        String clave = filtro.clave();
+        Consulta consulta = consultas.get(clave);
+        if (consulta == null) {
+            consulta = new Consulta(PropiedadData.coincidenciasEnVersion(filtro, version, tamano, pool));
+            consultas.put(clave, consulta);
+        }
+        return consulta;
+    }
+
+    private void verificarAbierta() {
+        if (cerrada) {
+            throw new IllegalStateException("La instantánea " + version + " ya está cerrada");
+        }
+    }
+}
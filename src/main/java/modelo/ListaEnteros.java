@@ -0,0 +1,64 @@
+package modelo;
+
+import java.util.Arrays;
+
+/**
+ * Lista creciente de enteros primitivos (ordinales de propiedades)
+ * Evita el boxing de List&lt;Integer&gt; en los recorridos de búsqueda
+ */
+class ListaEnteros {
+
+    private int[] valores;
+    private int tamano;
+
+    public ListaEnteros() {
+        this(16);
+    }
+
+    public ListaEnteros(int capacidad) {
+        this.valores = new int[Math.max(capacidad, 4)];
+    }
+
+    public void agregar(int valor) {
+        if (tamano == valores.length) {
+            valores = Arrays.copyOf(valores, tamano * 2);
+        }
+        valores[tamano++] = valor;
+    }
+
+    /**
+     * Agrega al final todos los valores de otra lista
+     * @param otra Lista a concatenar
+     */
+    public void agregarTodos(ListaEnteros otra) {
+        if (tamano + otra.tamano > valores.length) {
+            valores = Arrays.copyOf(valores, Math.max(valores.length * 2, tamano + otra.tamano));
+        }
+        System.arraycopy(otra.valores, 0, valores, tamano, otra.tamano);
+        tamano += otra.tamano;
+    }
+
+    public int obtener(int i) {
+        return valores[i];
+    }
+
+    public int tamano() {
+        return tamano;
+    }
+
+    /**
+     * Verifica si un valor está en la lista (debe estar en orden ascendente)
+     * @param valor Valor a buscar
+     * @return true si está presente
+     */
+    public boolean contieneOrdenado(int valor) {
+        return Arrays.binarySearch(valores, 0, tamano, valor) >= 0;
+    }
+
+    /**
+     * @return Copia de los valores en un arreglo del tamaño exacto
+     */
+    public int[] aArreglo() {
+        return Arrays.copyOf(valores, tamano);
+    }
+}
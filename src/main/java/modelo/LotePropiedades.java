@@ -0,0 +1,40 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Propiedades nuevas preparadas para agregarse juntas al catálogo
+ *
+ * Lo que no depende del catálogo (analizar el título y la descripción,
+ * codificar el registro de escritura) se hace al preparar el lote, en el
+ * hilo que lo arma y sin candado; con el candado solo queda enlazarlas
+ */
+class LotePropiedades {
+
+    final List<Propiedad> propiedades;
+    final IndiceTexto.Documento[] documentos;
+    final byte[][] registros;   // null = sin registro de escritura
+
+    /**
+     * @param propiedades Propiedades con ID asignado (aún fuera del catálogo)
+     * @param codificar true si hay que anotarlas en el registro de escritura
+     */
+    LotePropiedades(List<Propiedad> propiedades, boolean codificar) {
+        this.propiedades = new ArrayList<>(propiedades);
+        int n = this.propiedades.size();
+        this.documentos = new IndiceTexto.Documento[n];
+        this.registros = codificar ? new byte[n][] : null;
+        for (int i = 0; i < n; i++) {
+            Propiedad propiedad = this.propiedades.get(i);
+            documentos[i] = new IndiceTexto.Documento(propiedad.getTitulo(), propiedad.getDescripcion());
+            if (codificar) {
+                registros[i] = PropiedadData.codificar(propiedad);
+            }
+        }
+    }
+
+    int tamano() {
+        return propiedades.size();
+    }
+}
@@ -0,0 +1,488 @@
+package modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Mapa de bits comprimido para conjuntos de enteros no negativos
+ * (ordinales de propiedades)
+ * Divide los valores en bloques de 65536: los bloques con pocos elementos
+ * se guardan como arreglo ordenado y los densos como bits (estilo Roaring)
+ */
+class MapaBits {
+
+    // Un bloque con más elementos que este límite se guarda como bits
+    private static final int LIMITE_ARREGLO = 4096;
+
+    // Parte alta (16 bits) de cada bloque, ordenada
+    private char[] claves = new char[4];
+    private Contenedor[] contenedores = new Contenedor[4];
+    private int cantidadBloques;
+
+    // Cantidad total de valores (se mantiene al agregar y remover)
+    private int cardinalidad;
+
+    //   OPERACIONES BÁSICAS
+
+    /**
+     * Agrega un valor al conjunto
+     * @param valor Entero no negativo
+     */
+    public void agregar(int valor) {
+        char alta = (char) (valor >>> 16);
+        int i = buscarBloque(alta);
+        if (i >= 0) {
+            int antes = contenedores[i].cardinalidad();
+            contenedores[i] = contenedores[i].agregar((char) valor);
+            cardinalidad += contenedores[i].cardinalidad() - antes;
+        } else {
+            insertarBloque(-i - 1, alta, new ContenedorArreglo().agregar((char) valor));
+            cardinalidad++;
+        }
+    }
+
+    /**
+     * Remueve un valor del conjunto (si existe)
+     * @param valor Entero no negativo
+     */
+    public void remover(int valor) {
+        int i = buscarBloque((char) (valor >>> 16));
+        if (i < 0) {
+            return;
+        }
+        int antes = contenedores[i].cardinalidad();
+        Contenedor c = contenedores[i].remover((char) valor);
+        cardinalidad -= antes - c.cardinalidad();
+        if (c.cardinalidad() == 0) {
+            System.arraycopy(claves, i + 1, claves, i, cantidadBloques - i - 1);
+            System.arraycopy(contenedores, i + 1, contenedores, i, cantidadBloques - i - 1);
+            cantidadBloques--;
+            contenedores[cantidadBloques] = null;
+        } else {
+            contenedores[i] = c;
+        }
+    }
+
+    /**
+     * Verifica si un valor pertenece al conjunto
+     * @param valor Entero no negativo
+     * @return true si está presente
+     */
+    public boolean contiene(int valor) {
+        int i = buscarBloque((char) (valor >>> 16));
+        return i >= 0 && contenedores[i].contiene((char) valor);
+    }
+
+    /**
+     * @return Cantidad de valores en el conjunto
+     */
+    public int cardinalidad() {
+        return cardinalidad;
+    }
+
+    public boolean estaVacio() {
+        return cantidadBloques == 0;
+    }
+
+    /**
+     * Intersección (AND) de este conjunto con otro
+     * @param otro Conjunto a intersectar
+     * @return Nuevo conjunto con los valores presentes en ambos
+     */
+    public MapaBits interseccion(MapaBits otro) {
+        MapaBits resultado = new MapaBits();
+        int i = 0;
+        int j = 0;
+        while (i < cantidadBloques && j < otro.cantidadBloques) {
+            if (claves[i] < otro.claves[j]) {
+                i++;
+            } else if (claves[i] > otro.claves[j]) {
+                j++;
+            } else {
+                Contenedor c = contenedores[i].interseccion(otro.contenedores[j]);
+                if (c.cardinalidad() > 0) {
+                    resultado.insertarBloque(resultado.cantidadBloques, claves[i], c);
+                    resultado.cardinalidad += c.cardinalidad();
+                }
+                i++;
+                j++;
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Cuenta los valores presentes en ambos conjuntos sin construir la intersección
+     * @param otro Conjunto a intersectar
+     * @return Cardinalidad de la intersección
+     */
+    public int cardinalidadInterseccion(MapaBits otro) {
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < cantidadBloques && j < otro.cantidadBloques) {
+            if (claves[i] < otro.claves[j]) {
+                i++;
+            } else if (claves[i] > otro.claves[j]) {
+                j++;
+            } else {
+                total += contenedores[i].cardinalidadInterseccion(otro.contenedores[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Recorre los valores en orden ascendente
+     * @param accion Acción a ejecutar con cada valor
+     */
+    public void paraCada(IntConsumer accion) {
+        for (int i = 0; i < cantidadBloques; i++) {
+            contenedores[i].paraCada(claves[i] << 16, accion);
+        }
+    }
+
+    /**
+     * @return Los valores del conjunto en orden ascendente
+     */
+    public int[] aArreglo() {
+        int[] valores = new int[cardinalidad()];
+        int[] pos = {0};
+        paraCada(v -> valores[pos[0]++] = v);
+        return valores;
+    }
+
+    /**
+     * @return Copia independiente de este conjunto
+     */
+    public MapaBits copiar() {
+        MapaBits copia = new MapaBits();
+        copia.claves = Arrays.copyOf(claves, claves.length);
+        copia.contenedores = new Contenedor[contenedores.length];
+        for (int i = 0; i < cantidadBloques; i++) {
+            copia.contenedores[i] = contenedores[i].copiar();
+        }
+        copia.cantidadBloques = cantidadBloques;
+        copia.cardinalidad = cardinalidad;
+        return copia;
+    }
+
+    //   FORMATO BINARIO
+
+    /**
+     * Escribe el conjunto tal como está en memoria: por bloque, su parte
+     * alta, el tipo de contenedor y su contenido
+     */
+    void escribir(ArchivoPuntoControl.Salida salida) throws IOException {
+        salida.writeInt(cantidadBloques);
+        for (int i = 0; i < cantidadBloques; i++) {
+            salida.writeChar(claves[i]);
+            Contenedor c = contenedores[i];
+            salida.writeInt(c.cardinalidad());
+            if (c instanceof ContenedorBits) {
+                salida.writeBoolean(true);
+                salida.escribirLargos(((ContenedorBits) c).palabras, 1024);
+            } else {
+                salida.writeBoolean(false);
+                ContenedorArreglo a = (ContenedorArreglo) c;
+                for (int j = 0; j < a.card; j++) {
+                    salida.writeChar(a.valores[j]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lee un conjunto escrito con escribir (sin volver a agregar valor por valor)
+     */
+    static MapaBits leer(ByteBuffer datos) {
+        MapaBits mapa = new MapaBits();
+        int bloques = datos.getInt();
+        mapa.claves = new char[Math.max(4, bloques)];
+        mapa.contenedores = new Contenedor[Math.max(4, bloques)];
+        for (int i = 0; i < bloques; i++) {
+            mapa.claves[i] = datos.getChar();
+            int card = datos.getInt();
+            if (datos.get() != 0) {
+                ContenedorBits bits = new ContenedorBits();
+                datos.asLongBuffer().get(bits.palabras);
+                datos.position(datos.position() + 1024 * 8);
+                bits.card = card;
+                mapa.contenedores[i] = bits;
+            } else {
+                char[] valores = new char[Math.max(4, card)];
+                datos.asCharBuffer().get(valores, 0, card);
+                datos.position(datos.position() + card * 2);
+                mapa.contenedores[i] = new ContenedorArreglo(valores, card);
+            }
+            mapa.cardinalidad += card;
+        }
+        mapa.cantidadBloques = bloques;
+        return mapa;
+    }
+
+    //   MANEJO DE BLOQUES
+
+    private int buscarBloque(char alta) {
+        return Arrays.binarySearch(claves, 0, cantidadBloques, alta);
+    }
+
+    private void insertarBloque(int pos, char alta, Contenedor c) {
+        if (cantidadBloques == claves.length) {
+            claves = Arrays.copyOf(claves, claves.length * 2);
+            contenedores = Arrays.copyOf(contenedores, contenedores.length * 2);
+        }
+        System.arraycopy(claves, pos, claves, pos + 1, cantidadBloques - pos);
+        System.arraycopy(contenedores, pos, contenedores, pos + 1, cantidadBloques - pos);
+        claves[pos] = alta;
+        contenedores[pos] = c;
+        cantidadBloques++;
+    }
+
+    //   CONTENEDORES
+
+    /**
+     * Bloque de hasta 65536 valores (parte baja de 16 bits)
+     */
+    private abstract static class Contenedor {
+        abstract Contenedor agregar(char v);
+        abstract Contenedor remover(char v);
+        abstract boolean contiene(char v);
+        abstract int cardinalidad();
+        abstract Contenedor interseccion(Contenedor otro);
+        abstract int cardinalidadInterseccion(Contenedor otro);
+        abstract void paraCada(int base, IntConsumer accion);
+        abstract Contenedor copiar();
+    }
+
+    /**
+     * Bloque disperso: arreglo ordenado de valores
+     */
+    private static final class ContenedorArreglo extends Contenedor {
+        char[] valores;
+        int card;
+
+        ContenedorArreglo() {
+            this.valores = new char[4];
+        }
+
+        ContenedorArreglo(char[] valores, int card) {
+            this.valores = valores;
+            this.card = card;
+        }
+
+        @Override
+        Contenedor agregar(char v) {
+            int i = Arrays.binarySearch(valores, 0, card, v);
+            if (i >= 0) {
+                return this;
+            }
+            if (card >= LIMITE_ARREGLO) {
+                return aBits().agregar(v);
+            }
+            i = -i - 1;
+            if (card == valores.length) {
+                valores = Arrays.copyOf(valores, Math.min(valores.length * 2, LIMITE_ARREGLO));
+            }
+            System.arraycopy(valores, i, valores, i + 1, card - i);
+            valores[i] = v;
+            card++;
+            return this;
+        }
+
+        @Override
+        Contenedor remover(char v) {
+            int i = Arrays.binarySearch(valores, 0, card, v);
+            if (i >= 0) {
+                System.arraycopy(valores, i + 1, valores, i, card - i - 1);
+                card--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contiene(char v) {
+            return Arrays.binarySearch(valores, 0, card, v) >= 0;
+        }
+
+        @Override
+        int cardinalidad() {
+            return card;
+        }
+
+        @Override
+        Contenedor interseccion(Contenedor otro) {
+            char[] r = new char[card];
+            int n = 0;
+            if (otro instanceof ContenedorArreglo) {
+                ContenedorArreglo a = (ContenedorArreglo) otro;
+                int i = 0;
+                int j = 0;
+                while (i < card && j < a.card) {
+                    if (valores[i] < a.valores[j]) {
+                        i++;
+                    } else if (valores[i] > a.valores[j]) {
+                        j++;
+                    } else {
+                        r[n++] = valores[i];
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < card; i++) {
+                    if (otro.contiene(valores[i])) {
+                        r[n++] = valores[i];
+                    }
+                }
+            }
+            return new ContenedorArreglo(r, n);
+        }
+
+        @Override
+        int cardinalidadInterseccion(Contenedor otro) {
+            int n = 0;
+            if (otro instanceof ContenedorArreglo) {
+                ContenedorArreglo a = (ContenedorArreglo) otro;
+                int i = 0;
+                int j = 0;
+                while (i < card && j < a.card) {
+                    if (valores[i] < a.valores[j]) {
+                        i++;
+                    } else if (valores[i] > a.valores[j]) {
+                        j++;
+                    } else {
+                        n++;
+                        i++;
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < card; i++) {
+                    if (otro.contiene(valores[i])) {
+                        n++;
+                    }
+                }
+            }
+            return n;
+        }
+
+        @Override
+        void paraCada(int base, IntConsumer accion) {
+            for (int i = 0; i < card; i++) {
+                accion.accept(base | valores[i]);
+            }
+        }
+
+        @Override
+        Contenedor copiar() {
+            return new ContenedorArreglo(Arrays.copyOf(valores, Math.max(card, 4)), card);
+        }
+
+        ContenedorBits aBits() {
+            ContenedorBits b = new ContenedorBits();
+            for (int i = 0; i < card; i++) {
+                b.palabras[valores[i] >>> 6] |= 1L << valores[i];
+            }
+            b.card = card;
+            return b;
+        }
+    }
+
+    /**
+     * Bloque denso: 65536 bits en 1024 palabras de 64 bits
+     */
+    private static final class ContenedorBits extends Contenedor {
+        long[] palabras = new long[1024];
+        int card;
+
+        @Override
+        Contenedor agregar(char v) {
+            long antes = palabras[v >>> 6];
+            long despues = antes | (1L << v);
+            if (antes != despues) {
+                palabras[v >>> 6] = despues;
+                card++;
+            }
+            return this;
+        }
+
+        @Override
+        Contenedor remover(char v) {
+            long antes = palabras[v >>> 6];
+            long despues = antes & ~(1L << v);
+            if (antes != despues) {
+                palabras[v >>> 6] = despues;
+                card--;
+            }
+            return card <= LIMITE_ARREGLO ? aArreglo() : this;
+        }
+
+        @Override
+        boolean contiene(char v) {
+            return (palabras[v >>> 6] & (1L << v)) != 0;
+        }
+
+        @Override
+        int cardinalidad() {
+            return card;
+        }
+
+        @Override
+        Contenedor interseccion(Contenedor otro) {
+            if (otro instanceof ContenedorArreglo) {
+                return otro.interseccion(this);
+            }
+            ContenedorBits b = (ContenedorBits) otro;
+            ContenedorBits r = new ContenedorBits();
+            for (int k = 0; k < palabras.length; k++) {
+                r.palabras[k] = palabras[k] & b.palabras[k];
+                r.card += Long.bitCount(r.palabras[k]);
+            }
+            return r.card <= LIMITE_ARREGLO ? r.aArreglo() : r;
+        }
+
+        @Override
+        int cardinalidadInterseccion(Contenedor otro) {
+            if (otro instanceof ContenedorArreglo) {
+                return otro.cardinalidadInterseccion(this);
+            }
+            long[] b = ((ContenedorBits) otro).palabras;
+            int n = 0;
+            for (int k = 0; k < palabras.length; k++) {
+                n += Long.bitCount(palabras[k] & b[k]);
+            }
+            return n;
+        }
+
+        @Override
+        void paraCada(int base, IntConsumer accion) {
+            for (int k = 0; k < palabras.length; k++) {
+                long palabra = palabras[k];
+                while (palabra != 0) {
+                    accion.accept(base | (k << 6) | Long.numberOfTrailingZeros(palabra));
+                    palabra &= palabra - 1;
+                }
+            }
+        }
+
+        @Override
+        Contenedor copiar() {
+            ContenedorBits c = new ContenedorBits();
+            c.palabras = palabras.clone();
+            c.card = card;
+            return c;
+        }
+
+        ContenedorArreglo aArreglo() {
+            char[] r = new char[Math.max(card, 4)];
+            int[] n = {0};
+            paraCada(0, v -> r[n[0]++] = (char) v);
+            return new ContenedorArreglo(r, card);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package modelo;
+
+/**
+ * Montículo de tamaño fijo que conserva los K ordinales con menor clave
+ * Se usa para obtener una página ordenada sin ordenar todos los resultados:
+ * cuesta O(n log K) en vez de O(n log n)
+ */
+class MonticuloAcotado {
+
+    // Montículo de máximos: en la raíz está el peor de los K conservados
+    private final double[] claves;
+    private final int[] ordinales;
+    private int tamano;
+
+    /**
+     * @param capacidad Cantidad K de elementos a conservar
+     */
+    public MonticuloAcotado(int capacidad) {
+        this.claves = new double[capacidad];
+        this.ordinales = new int[capacidad];
+    }
+
+    /**
+     * Ofrece un elemento: entra si está entre los K mejores vistos
+     * @param clave Clave de orden (menor = mejor)
+     * @param ordinal Ordinal de la propiedad (desempata)
+     */
+    public void ofrecer(double clave, int ordinal) {
+        if (tamano < claves.length) {
+            claves[tamano] = clave;
+            ordinales[tamano] = ordinal;
+            subir(tamano++);
+        } else if (tamano > 0 && peor(claves[0], ordinales[0], clave, ordinal)) {
+            claves[0] = clave;
+            ordinales[0] = ordinal;
+            bajar(0);
+        }
+    }
+
+    /**
+     * Vacía el montículo y devuelve los ordinales de mejor a peor
+     * @return Ordinales ordenados por clave ascendente
+     */
+    public int[] extraerOrdenados() {
+        int[] resultado = new int[tamano];
+        while (tamano > 0) {
+            resultado[tamano - 1] = ordinales[0];
+            tamano--;
+            claves[0] = claves[tamano];
+            ordinales[0] = ordinales[tamano];
+            bajar(0);
+        }
+        return resultado;
+    }
+
+    //   OPERACIONES DEL MONTÍCULO
+
+    // true si (c1, o1) va después que (c2, o2) en el orden final
+    private static boolean peor(double c1, int o1, double c2, int o2) {
+        int c = Double.compare(c1, c2);
+        return c > 0 || (c == 0 && o1 > o2);
+    }
+
+    private void subir(int i) {
+        while (i > 0) {
+            int padre = (i - 1) >>> 1;
+            if (!peor(claves[i], ordinales[i], claves[padre], ordinales[padre])) {
+                return;
+            }
+            intercambiar(i, padre);
+            i = padre;
+        }
+    }
+
+    private void bajar(int i) {
+        while (true) {
+            int izq = 2 * i + 1;
+            if (izq >= tamano) {
+                return;
+            }
+            int mayor = izq;
+            int der = izq + 1;
+            if (der < tamano && peor(claves[der], ordinales[der], claves[izq], ordinales[izq])) {
+                mayor = der;
+            }
+            if (!peor(claves[mayor], ordinales[mayor], claves[i], ordinales[i])) {
+                return;
+            }
+            intercambiar(i, mayor);
+            i = mayor;
+        }
+    }
+
+    private void intercambiar(int a, int b) {
+        double c = claves[a];
+        claves[a] = claves[b];
+        claves[b] = c;
+        int o = ordinales[a];
+        ordinales[a] = ordinales[b];
+        ordinales[b] = o;
+    }
+}
@@ -0,0 +1,113 @@
+package modelo;
+
+import java.util.Locale;
+
+/**
+ * Motor de almacenamiento de propiedades y usuarios
+ * Se elige con la propiedad del sistema staykonnect.almacenamiento
+ * (ej: -Dstaykonnect.almacenamiento=JDBC); sin ella se usa MEMORIA.
+ * Las vistas y controladores piden los datos a propiedades() y usuarios(),
+ * así todos comparten el mismo motor sin conocer su clase
+ */
+public enum MotorAlmacenamiento {
+
+    LISTA,      // listas sin índices: cada consulta recorre todo (catálogos chicos)
+    MEMORIA,    // índices en memoria, caché de búsquedas y registro de escritura
+    JDBC;       // tablas en una base de datos (H2 embebida por defecto)
+
+    public static final String PROPIEDAD_MOTOR = "staykonnect.almacenamiento";
+
+    private static AlmacenPropiedades propiedadesCompartidas;
+
+    private static AlmacenUsuarios usuariosCompartidos;
+
+    /**
+     * @return Motor configurado en las propiedades del sistema (MEMORIA si no hay)
+     * @throws IllegalArgumentException si el nombre no es un motor conocido
+     */
+    public static MotorAlmacenamiento configurado() {
+        return valueOf(System.getProperty(PROPIEDAD_MOTOR, MEMORIA.name()).trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Abre un almacenamiento de propiedades nuevo de este motor
+     * (los de MEMORIA comparten siempre el mismo catálogo estático)
+     */
+    public AlmacenPropiedades crearPropiedades() {
+        switch (this) {
+            case LISTA:
+                return new PropiedadDataLista();
+            case JDBC:
+                return new PropiedadDataJdbc();
+            default:
+                return new PropiedadData();
+        }
+    }
+
+    /**
+     * Abre un almacenamiento de usuarios nuevo de este motor
+     * (los de MEMORIA comparten siempre la misma lista estática)
+     */
+    public AlmacenUsuarios crearUsuarios() {
+        switch (this) {
+            case LISTA:
+                return new UsuarioDataLista();
+            case JDBC:
+                return new UsuarioDataJdbc();
+            default:
+                return new UsuarioData();
+        }
+    }
+
+    /**
+     * Abre un almacenamiento de propiedades vacío de este motor, sin datos
+     * de prueba ni nada en común con los anteriores (pruebas y benchmarks)
+     * JDBC usa una base en memoria propia; MEMORIA vacía el catálogo
+     * estático, así que no se debe mezclar con propiedades()
+     */
+    public AlmacenPropiedades crearPropiedadesVacias() {
+        switch (this) {
+            case LISTA:
+                return new PropiedadDataLista(false);
+            case JDBC:
+                return new PropiedadDataJdbc(PoolConexiones.aislado(), false);
+            default:
+                return PropiedadData.sinDatos();
+        }
+    }
+
+    /**
+     * Abre un almacenamiento de usuarios vacío de este motor (ver
+     * crearPropiedadesVacias); MEMORIA vacía la lista estática
+     */
+    public AlmacenUsuarios crearUsuariosVacios() {
+        switch (this) {
+            case LISTA:
+                return new UsuarioDataLista(false);
+            case JDBC:
+                return new UsuarioDataJdbc(PoolConexiones.aislado(), false);
+            default:
+                return UsuarioData.sinDatos();
+        }
+    }
+
+    /**
+     * @return Almacenamiento de propiedades del programa, del motor configurado
+     */
+    public static synchronized AlmacenPropiedades propiedades() {
+        if (propiedadesCompartidas == null) {
+            propiedadesCompartidas = configurado().crearPropiedades();
+        }
+        return propiedadesCompartidas;
+    }
+
+    /**
+     * @return Almacenamiento de usuarios del programa, del motor configurado
+     */
+    public static synchronized AlmacenUsuarios usuarios() {
+        if (usuariosCompartidos == null) {
+            usuariosCompartidos = configurado().crearUsuarios();
+        }
+        return usuariosCompartidos;
+    }
+}
@@ -0,0 +1,72 @@
+package modelo;
+
+/**
+ * Recibe avisos cuando cambia una propiedad ya registrada
+ * Lo usa PropiedadData para mantener sus índices al día
+ */
+interface ObservadorPropiedad {
+    
+    /**
+     * Se agregó un servicio a la propiedad
+     * @param propiedad Propiedad modificada
+     * @param servicio Servicio agregado
+     */
+    void servicioAgregado(Propiedad propiedad, String servicio);
+    
+    /**
+     * Se removió un servicio de la propiedad
+     * @param propiedad Propiedad modificada
+     * @param servicio Servicio removido
+     */
+    void servicioRemovido(Propiedad propiedad, String servicio);
+    
+    /**
+     * Cambió el precio por noche de la propiedad
+     * @param propiedad Propiedad modificada (ya tiene el precio nuevo)
+     * @param precioAnterior Precio antes del cambio
+     */
+    void precioCambiado(Propiedad propiedad, double precioAnterior);
+    
+    /**
+     * Cambió la ciudad de la propiedad
+     * @param propiedad Propiedad modificada (ya tiene la ciudad nueva)
+     * @param ciudadAnterior Ciudad antes del cambio
+     */
+    void ciudadCambiada(Propiedad propiedad, String ciudadAnterior);
+    
+    /**
+     * Cambiaron las coordenadas de la propiedad
+     * @param propiedad Propiedad modificada (ya tiene las coordenadas nuevas)
+     * @param latitudAnterior Latitud antes del cambio (NaN = no tenía)
+     * @param longitudAnterior Longitud antes del cambio (NaN = no tenía)
+     */
+    void ubicacionCambiada(Propiedad propiedad, double latitudAnterior, double longitudAnterior);
+    
+    /**
+     * Cambió el tipo, disponibilidad, capacidad, habitaciones o baños de la propiedad
+     * @param propiedad Propiedad modificada
+     */
+    void caracteristicasCambiadas(Propiedad propiedad);
+    
+    /**
+     * Cambió el título o la descripción de la propiedad
+     * @param propiedad Propiedad modificada (ya tiene el texto nuevo)
+     * @param tituloAnterior Título antes del cambio
+     * @param descripcionAnterior Descripción antes del cambio
+     */
+    void textoCambiado(Propiedad propiedad, String tituloAnterior, String descripcionAnterior);
+    
+    /**
+     * Cambió el anfitrión de la propiedad
+     * @param propiedad Propiedad modificada (ya tiene el anfitrión nuevo)
+     * @param anfitrionAnterior Anfitrión antes del cambio
+     */
+    void anfitrionCambiado(Propiedad propiedad, String anfitrionAnterior);
+    
+    /**
+     * Cambió la dirección de la propiedad (no se busca por ella, pero el
+     * cambio se debe guardar igual)
+     * @param propiedad Propiedad modificada
+     */
+    void direccionCambiada(Propiedad propiedad);
+}
@@ -0,0 +1,56 @@
+package modelo;
+
+/**
+ * Criterios de orden para los resultados de búsqueda
+ */
+public enum OrdenBusqueda {
+    
+    CATALOGO,        // orden de registro en el catálogo
+    PRECIO_ASC,      // más baratas primero
+    PRECIO_DESC,     // más caras primero
+    CAPACIDAD,       // más huéspedes primero
+    HABITACIONES,    // más habitaciones primero
+    RELEVANCIA,      // mejor puntaje de texto primero (sin texto = orden del catálogo)
+    DISTANCIA;       // más cercanas al centro de la zona primero (sin zona = orden del catálogo)
+    
+    /**
+     * Clave de orden de una propiedad: menor clave = aparece antes
+     * @param columnas Columnas del catálogo
+     * @param ordinal Ordinal de la propiedad
+     * @return Clave numérica (los órdenes descendentes se niegan)
+     */
+    double clave(ColumnasPropiedades columnas, int ordinal) {
+        switch (this) {
+            case PRECIO_ASC:
+                return columnas.precios[ordinal];
+            case PRECIO_DESC:
+                return -columnas.precios[ordinal];
+            case CAPACIDAD:
+                return -columnas.capacidades[ordinal];
+            case HABITACIONES:
+                return -columnas.habitaciones[ordinal];
+            default:
+                return ordinal;
+        }
+    }
+    
+    /**
+     * Clave de orden calculada con los campos de una propiedad
+     * (ej: la versión anterior de una propiedad modificada)
+     * @see #clave(ColumnasPropiedades, int)
+     */
+    double clave(Propiedad propiedad) {
+        switch (this) {
+            case PRECIO_ASC:
+                return propiedad.getPrecioPorNoche();
+            case PRECIO_DESC:
+                return -propiedad.getPrecioPorNoche();
+            case CAPACIDAD:
+                return -propiedad.getCapacidad();
+            case HABITACIONES:
+                return -propiedad.getHabitaciones();
+            default:
+                return propiedad.ordinal;
+        }
+    }
+}
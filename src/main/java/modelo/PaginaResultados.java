@@ -0,0 +1,59 @@
+package modelo;
+
+import java.util.List;
+
+/**
+ * Una página de resultados de búsqueda junto con el total de coincidencias
+ */
+public class PaginaResultados {
+    
+    private final List<Propiedad> propiedades;
+    private final int total;
+    private final int desplazamiento;
+    
+    // Conteos por faceta de todas las coincidencias (null si no se pidieron)
+    private final FacetasBusqueda facetas;
+    
+    /**
+     * @param propiedades Propiedades de esta página (ya ordenadas)
+     * @param total Cantidad total de propiedades que cumplen el filtro
+     * @param desplazamiento Posición del primer elemento de la página
+     */
+    public PaginaResultados(List<Propiedad> propiedades, int total, int desplazamiento) {
+        this(propiedades, total, desplazamiento, null);
+    }
+    
+    /**
+     * @param facetas Conteos por ciudad, servicio y tipo de todas las coincidencias
+     */
+    public PaginaResultados(List<Propiedad> propiedades, int total, int desplazamiento,
+                            FacetasBusqueda facetas) {
+        this.propiedades = propiedades;
+        this.total = total;
+        this.desplazamiento = desplazamiento;
+        this.facetas = facetas;
+    }
+    
+    public List<Propiedad> getPropiedades() {
+        return propiedades;
+    }
+    
+    public int getTotal() {
+        return total;
+    }
+    
+    public int getDesplazamiento() {
+        return desplazamiento;
+    }
+    
+    public FacetasBusqueda getFacetas() {
+        return facetas;
+    }
+    
+    /**
+     * @return true si hay más resultados después de esta página
+     */
+    public boolean hayMas() {
+        return desplazamiento + propiedades.size() < total;
+    }
+}
@@ -0,0 +1,98 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Orden, paginación y facetas sobre una lista de coincidencias ya filtrada
+ * Lo usan los motores sin índices propios (lista y JDBC). Sigue las mismas
+ * reglas que PropiedadData: la página se elige con un montículo acotado y
+ * los empates quedan en orden del catálogo
+ *
+ * Como no hay índice de texto del catálogo, la relevancia se calcula con
+ * las estadísticas de las coincidencias, y el nombre de cada ciudad en las
+ * facetas es el de la primera coincidencia de esa ciudad
+ */
+class PaginadorResultados {
+
+    /**
+     * @param coincidencias Propiedades que cumplen el filtro, en orden del catálogo
+     * @param filtro Criterios de la búsqueda (el texto define la relevancia y la zona la distancia)
+     * @param conFacetas true para contar además las coincidencias por faceta
+     */
+    static PaginaResultados paginar(List<Propiedad> coincidencias, FiltroBusqueda filtro,
+                                    OrdenBusqueda orden, int desplazamiento,
+                                    int tamanoPagina, boolean conFacetas) {
+        int total = coincidencias.size();
+        int fin = (int) Math.min(total, (long) desplazamiento + tamanoPagina);
+
+        List<Propiedad> pagina = new ArrayList<>(Math.max(0, fin - desplazamiento));
+        if (fin > desplazamiento && PropiedadData.usaOrden(orden, filtro)) {
+            // Top-K por posición en la lista: a igual clave gana la posición menor
+            double[] claves = claves(coincidencias, filtro, orden);
+            MonticuloAcotado mejores = new MonticuloAcotado(fin);
+            for (int i = 0; i < total; i++) {
+                mejores.ofrecer(claves[i], i);
+            }
+            int[] ordenados = mejores.extraerOrdenados();
+            for (int i = desplazamiento; i < fin; i++) {
+                pagina.add(coincidencias.get(ordenados[i]));
+            }
+        } else {
+            int desde = Math.min(desplazamiento, total);
+            pagina.addAll(coincidencias.subList(desde, Math.max(fin, desde)));
+        }
+
+        return new PaginaResultados(pagina, total, desplazamiento, conFacetas ? facetas(coincidencias) : null);
+    }
+
+    /**
+     * Clave de orden de cada coincidencia: menor clave = aparece antes
+     */
+    private static double[] claves(List<Propiedad> coincidencias, FiltroBusqueda filtro, OrdenBusqueda orden) {
+        double[] claves = new double[coincidencias.size()];
+        IndiceTexto textos = null;
+        if (orden == OrdenBusqueda.RELEVANCIA) {
+            textos = new IndiceTexto();
+            for (int i = 0; i < claves.length; i++) {
+                Propiedad p = coincidencias.get(i);
+                textos.agregar(i, new IndiceTexto.Documento(p.getTitulo(), p.getDescripcion()));
+            }
+        }
+        for (int i = 0; i < claves.length; i++) {
+            Propiedad p = coincidencias.get(i);
+            switch (orden) {
+                case RELEVANCIA:
+                    claves[i] = -textos.puntaje(filtro.getConsultaTexto(), i);
+                    break;
+                case DISTANCIA:
+                    claves[i] = filtro.getArea().distanciaAlCentro(p.getLatitud(), p.getLongitud());
+                    break;
+                default:
+                    claves[i] = orden.clave(p);
+            }
+        }
+        return claves;
+    }
+
+    private static FacetasBusqueda facetas(List<Propiedad> coincidencias) {
+        Map<String, String> nombresCiudad = new HashMap<>();
+        Map<String, Integer> porCiudad = new HashMap<>();
+        Map<String, Integer> porServicio = new HashMap<>();
+        Map<String, Integer> porTipo = new HashMap<>();
+        for (Propiedad p : coincidencias) {
+            String nombre = nombresCiudad.computeIfAbsent(PropiedadData.normalizarCiudad(p.getCiudad()),
+                                                          clave -> p.getCiudad());
+            porCiudad.merge(nombre, 1, Integer::sum);
+            for (String servicio : p.getServicios()) {
+                porServicio.merge(servicio, 1, Integer::sum);
+            }
+            if (p.getTipo() != null) {
+                porTipo.merge(p.getTipo(), 1, Integer::sum);
+            }
+        }
+        return new FacetasBusqueda(porCiudad, porServicio, porTipo);
+    }
+}
@@ -0,0 +1,99 @@
+package modelo;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Plan de ejecución de una búsqueda
+ * Indica desde qué índice se parte (el que produce menos candidatas) y
+ * las estimaciones que llevaron a esa decisión
+ */
+public class PlanBusqueda {
+
+    /**
+     * Formas de obtener las propiedades candidatas
+     */
+    public enum Acceso {
+        CATALOGO,   // recorrer todo el catálogo
+        CIUDAD,     // lista de la ciudad
+        PRECIO,     // rebanada del índice de precios (de la ciudad si aplica)
+        SERVICIOS,  // intersección de los mapas de bits de servicios
+        TEXTO,      // propiedades que contienen los términos buscados
+        UBICACION   // celdas de la cuadrícula que tocan la zona pedida
+    }
+
+    private final FiltroBusqueda filtro;
+    private final Map<Acceso, Integer> estimaciones = new EnumMap<>(Acceso.class);
+    private Acceso acceso;
+
+    /**
+     * Crea un plan que por defecto recorre todo el catálogo
+     * @param filtro Criterios de la búsqueda
+     * @param tamanoCatalogo Cantidad total de propiedades
+     */
+    PlanBusqueda(FiltroBusqueda filtro, int tamanoCatalogo) {
+        this.filtro = filtro;
+        this.acceso = Acceso.CATALOGO;
+        this.estimaciones.put(Acceso.CATALOGO, tamanoCatalogo);
+    }
+
+    /**
+     * Registra la estimación de un acceso y lo elige si es el más selectivo
+     * @param opcion Acceso evaluado
+     * @param candidatas Cantidad estimada de candidatas
+     */
+    void considerar(Acceso opcion, int candidatas) {
+        estimaciones.put(opcion, candidatas);
+        if (candidatas < estimaciones.get(acceso)) {
+            acceso = opcion;
+        }
+    }
+
+    public Acceso getAcceso() {
+        return acceso;
+    }
+
+    /**
+     * @return Candidatas estimadas para el acceso elegido
+     */
+    public int getCandidatasEstimadas() {
+        return estimaciones.get(acceso);
+    }
+
+    public Map<Acceso, Integer> getEstimaciones() {
+        return estimaciones;
+    }
+
+    /**
+     * Representación del plan (equivalente a un EXPLAIN)
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("Plan de búsqueda");
+        sb.append(" [ciudad=").append(filtro.tieneCiudad() ? filtro.getClaveCiudad() : "todas");
+        if (filtro.tienePrecio()) {
+            sb.append(", precio=").append(filtro.getPrecioDesde())
+              .append("..").append(filtro.getPrecioHasta());
+        }
+        if (filtro.tieneServicios()) {
+            sb.append(", servicios=").append(filtro.getServicios());
+        }
+        if (filtro.tieneTexto()) {
+            sb.append(", texto=").append(filtro.getConsultaTexto());
+        }
+        if (filtro.tieneUbicacion()) {
+            sb.append(", zona=").append(filtro.getArea());
+        }
+        if (filtro.tieneFechas()) {
+            sb.append(", fechas=").append(filtro.getFechaEntrada()).append("..").append(filtro.getFechaSalida());
+        }
+        sb.append("]\n");
+        for (Map.Entry<Acceso, Integer> e : estimaciones.entrySet()) {
+            sb.append(e.getKey() == acceso ? "  -> " : "     ")
+              .append(String.format("%-10s ~%d candidatas", e.getKey(), e.getValue()))
+              .append('\n');
+        }
+        sb.append("     se verifican en una pasada: disponible, ciudad, precio, características, servicios, texto, zona, fechas");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,10 @@
+package modelo;
+
+/**
+ * Política de expulsión de la caché de búsquedas cuando se llena
+ */
+public enum PoliticaCache {
+    
+    LRU,    // expulsa la búsqueda usada hace más tiempo
+    LFU     // expulsa la búsqueda menos usada (empates: la más antigua)
+}
@@ -0,0 +1,11 @@
+package modelo;
+
+/**
+ * Cuándo el registro de escritura fuerza sus datos al disco (fsync)
+ */
+public enum PoliticaSincronizacion {
+
+    POR_ESCRITURA,  // un fsync por registro; cada cambio espera el suyo
+    POR_LOTE,       // un fsync por lote de registros acumulados; cada cambio espera el de su lote
+    POR_INTERVALO   // un fsync cada cierto tiempo; los cambios no esperan (se puede perder el último intervalo)
+}
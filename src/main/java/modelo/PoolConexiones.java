@@ -0,0 +1,362 @@
+package modelo;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Pool de conexiones JDBC para los DAO de base de datos
+ *
+ * Las conexiones se abren una vez y se prestan a un hilo a la vez. Cada
+ * conexión guarda sus sentencias preparadas por texto SQL: una consulta que
+ * se repite se analiza y planifica una sola vez por conexión, y en cada uso
+ * solo cambian los parámetros
+ */
+public final class PoolConexiones implements AutoCloseable {
+
+    // Propiedades del sistema para el pool compartido
+    public static final String PROPIEDAD_URL = "staykonnect.jdbc.url";
+    public static final String PROPIEDAD_USUARIO = "staykonnect.jdbc.usuario";
+    public static final String PROPIEDAD_CONTRASENA = "staykonnect.jdbc.contrasena";
+    public static final String PROPIEDAD_CONEXIONES = "staykonnect.jdbc.conexiones";
+
+    // Base H2 en memoria, compartida por todas las conexiones de la JVM
+    static final String URL_POR_DEFECTO = "jdbc:h2:mem:staykonnect;DB_CLOSE_DELAY=-1";
+    static final int CONEXIONES_POR_DEFECTO = 4;
+
+    // Sentencias preparadas que guarda cada conexión (se cierran las menos usadas)
+    static final int SENTENCIAS_POR_CONEXION = 64;
+
+    // Valores de cada arreglo que se manda como parámetro (H2 admite hasta 65536)
+    static final int VALORES_POR_CONSULTA = 1000;
+
+    // Código SQLState de una clave única repetida
+    static final String CLAVE_REPETIDA = "23505";
+
+    private static PoolConexiones compartido;
+
+    private final String url;
+    private final String usuario;
+    private final String contrasena;
+    private final BlockingQueue<Conexion> libres;
+    private volatile boolean cerrado;
+
+    /**
+     * Abre todas las conexiones del pool
+     * @param url URL JDBC (ej: jdbc:h2:./datos/staykonnect)
+     * @param usuario Usuario de la base de datos
+     * @param contrasena Contraseña de la base de datos
+     * @param conexiones Cantidad de conexiones (al menos 1)
+     * @throws SQLException si no se puede abrir alguna conexión
+     */
+    public PoolConexiones(String url, String usuario, String contrasena, int conexiones) throws SQLException {
+        this.url = url;
+        this.usuario = usuario;
+        this.contrasena = contrasena;
+        this.libres = new ArrayBlockingQueue<>(Math.max(1, conexiones));
+        try {
+            for (int i = 0; i < Math.max(1, conexiones); i++) {
+                libres.add(abrirConexion());
+            }
+        } catch (SQLException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Pool que comparten los DAO de base de datos, configurado con las
+     * propiedades del sistema (por defecto una base H2 en memoria)
+     * Se abre la primera vez que se pide y se cierra al salir
+     */
+    public static synchronized PoolConexiones compartido() {
+        if (compartido == null) {
+            String url = System.getProperty(PROPIEDAD_URL, URL_POR_DEFECTO).trim();
+            try {
+                compartido = new PoolConexiones(url, System.getProperty(PROPIEDAD_USUARIO, "sa"),
+                                                System.getProperty(PROPIEDAD_CONTRASENA, ""),
+                                                Integer.getInteger(PROPIEDAD_CONEXIONES, CONEXIONES_POR_DEFECTO));
+            } catch (SQLException e) {
+                throw error("No se pudo conectar a " + url, e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(compartido::close, "cierre-pool-conexiones"));
+        }
+        return compartido;
+    }
+
+    /**
+     * Pool sobre una base H2 en memoria nueva que nadie más usa (pruebas y
+     * benchmarks); la base desaparece al cerrar el pool
+     */
+    static PoolConexiones aislado() {
+        String url = "jdbc:h2:mem:aislada-" + UUID.randomUUID();
+        try {
+            return new PoolConexiones(url, "sa", "", CONEXIONES_POR_DEFECTO);
+        } catch (SQLException e) {
+            throw error("No se pudo crear la base " + url, e);
+        }
+    }
+
+    //   USO DE CONEXIONES
+
+    /**
+     * Operación sobre una conexión prestada
+     */
+    interface Operacion<T> {
+        T ejecutar(Conexion conexion) throws SQLException;
+    }
+
+    /**
+     * Ejecuta una operación con una conexión del pool (en modo autocommit)
+     * Si no hay conexiones libres espera a que se devuelva una
+     * @return Resultado de la operación
+     * @throws IllegalStateException si la base de datos falla o el pool está cerrado
+     */
+    <T> T usar(Operacion<T> operacion) {
+        Conexion conexion = prestar();
+        boolean sana = true;
+        try {
+            return operacion.ejecutar(conexion);
+        } catch (SQLException e) {
+            sana = !conexion.rota();
+            throw error("Error de base de datos", e);
+        } finally {
+            devolver(conexion, sana);
+        }
+    }
+
+    /**
+     * Ejecuta una operación dentro de una transacción: si termina se confirma
+     * y si lanza una excepción se deshace todo lo que hizo
+     * @return Resultado de la operación
+     */
+    <T> T enTransaccion(Operacion<T> operacion) {
+        return usar(conexion -> {
+            Connection c = conexion.jdbc;
+            c.setAutoCommit(false);
+            try {
+                T resultado = operacion.ejecutar(conexion);
+                c.commit();
+                return resultado;
+            } catch (SQLException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            } finally {
+                c.setAutoCommit(true);
+            }
+        });
+    }
+
+    private Conexion prestar() {
+        if (cerrado) {
+            throw new IllegalStateException("El pool de conexiones ya está cerrado");
+        }
+        try {
+            return libres.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Espera de conexión interrumpida", e);
+        }
+    }
+
+    /**
+     * Devuelve la conexión al pool; si quedó rota se reemplaza por una nueva
+     */
+    private void devolver(Conexion conexion, boolean sana) {
+        if (!sana) {
+            conexion.cerrar();
+            try {
+                conexion = abrirConexion();
+            } catch (SQLException e) {
+                // Se devuelve la rota: el próximo uso vuelve a intentar reemplazarla
+                System.err.println("⚠️ No se pudo reabrir una conexión: " + e.getMessage());
+            }
+        }
+        if (cerrado) {
+            conexion.cerrar();
+        } else {
+            libres.add(conexion);
+        }
+    }
+
+    private Conexion abrirConexion() throws SQLException {
+        return new Conexion(DriverManager.getConnection(url, usuario, contrasena));
+    }
+
+    /**
+     * Convierte un error de JDBC en una excepción sin verificar
+     */
+    static IllegalStateException error(String mensaje, SQLException e) {
+        return new IllegalStateException(mensaje + ": " + e.getMessage(), e);
+    }
+
+    /**
+     * @return true si el error es por una clave única repetida
+     */
+    static boolean esClaveRepetida(SQLException e) {
+        for (SQLException actual = e; actual != null; actual = actual.getNextException()) {
+            if (CLAVE_REPETIDA.equals(actual.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * Cierra las conexiones libres; las prestadas se cierran al devolverse
+     */
+    @Override
+    public void close() {
+        cerrado = true;
+        Conexion conexion;
+        while ((conexion = libres.poll()) != null) {
+            conexion.cerrar();
+        }
+    }
+
+    //   CONEXIÓN CON SENTENCIAS PREPARADAS
+
+    /**
+     * Conexión del pool con su caché de sentencias preparadas
+     * Solo la usa el hilo que la tiene prestada
+     */
+    static class Conexion {
+
+        final Connection jdbc;
+
+        // Texto SQL -> sentencia, en orden de uso (se cierra la menos usada)
+        private final Map<String, PreparedStatement> sentencias =
+            new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> mayor) {
+                    if (size() <= SENTENCIAS_POR_CONEXION) {
+                        return false;
+                    }
+                    cerrar(mayor.getValue());
+                    return true;
+                }
+            };
+
+        Conexion(Connection jdbc) {
+            this.jdbc = jdbc;
+        }
+
+        /**
+         * Sentencia preparada para el texto SQL (la misma en cada uso, sin parámetros)
+         * Los ResultSet que se obtengan de ella se deben cerrar antes de volver a pedirla
+         */
+        PreparedStatement preparar(String sql) throws SQLException {
+            PreparedStatement sentencia = sentencias.get(sql);
+            if (sentencia == null) {
+                sentencia = jdbc.prepareStatement(sql);
+                sentencias.put(sql, sentencia);
+            } else {
+                sentencia.clearParameters();
+            }
+            return sentencia;
+        }
+
+        /**
+         * Sentencia preparada con los parámetros ya asignados en orden
+         */
+        PreparedStatement preparar(String sql, Object... parametros) throws SQLException {
+            PreparedStatement sentencia = preparar(sql);
+            for (int i = 0; i < parametros.length; i++) {
+                sentencia.setObject(i + 1, parametros[i]);
+            }
+            return sentencia;
+        }
+
+        /**
+         * Ejecuta sentencias sin parámetros (ej: crear tablas)
+         */
+        void ejecutar(String... sentencias) throws SQLException {
+            try (Statement sentencia = jdbc.createStatement()) {
+                for (String sql : sentencias) {
+                    sentencia.execute(sql);
+                }
+            }
+        }
+
+        /**
+         * @return Primer valor entero de la consulta (ej: un COUNT), 0 si no hay filas
+         */
+        int contar(String sql, Object... parametros) throws SQLException {
+            try (ResultSet rs = preparar(sql, parametros).executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+
+        /**
+         * Busca cuáles valores ya están en la base con una consulta por cada
+         * VALORES_POR_CONSULTA valores (no una por valor)
+         * @param sql Consulta de una columna con un parámetro de arreglo (ej: WHERE id = ANY(?))
+         * @param valores Valores a buscar
+         * @return Valores encontrados
+         */
+        Set<String> existentes(String sql, Collection<String> valores) throws SQLException {
+            Object[] todos = valores.toArray();
+            Set<String> encontrados = new HashSet<>();
+            for (int desde = 0; desde < todos.length; desde += VALORES_POR_CONSULTA) {
+                Array arreglo = jdbc.createArrayOf("VARCHAR",
+                    Arrays.copyOfRange(todos, desde, Math.min(todos.length, desde + VALORES_POR_CONSULTA)));
+                try (ResultSet rs = preparar(sql, arreglo).executeQuery()) {
+                    while (rs.next()) {
+                        encontrados.add(rs.getString(1));
+                    }
+                } finally {
+                    arreglo.free();
+                }
+            }
+            return encontrados;
+        }
+
+        /**
+         * @return true si la conexión ya no sirve
+         */
+        boolean rota() {
+            try {
+                return jdbc.isClosed() || !jdbc.isValid(1);
+            } catch (SQLException e) {
+                return true;
+            }
+        }
+
+        void cerrar() {
+            for (PreparedStatement sentencia : sentencias.values()) {
+                cerrar(sentencia);
+            }
+            sentencias.clear();
+            try {
+                jdbc.close();
+            } catch (SQLException e) {
+                // La conexión se descarta igual
+            }
+        }
+
+        private static void cerrar(PreparedStatement sentencia) {
+            try {
+                sentencia.close();
+            } catch (SQLException e) {
+                // La sentencia se descarta igual
+            }
+        }
+    }
+}
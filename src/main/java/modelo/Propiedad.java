@@ -1,12 +1,17 @@
 package modelo;
 
-import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Clase que representa una propiedad en el sistema StayKonnect
  * Puede ser publicada por un Anfitrión para ser alquilada por Viajeros
+ * Los cambios que actualizan el catálogo son sincronizados: dos hilos que
+ * modifican la misma propiedad no mezclan sus valores anteriores
  */
 public class Propiedad {
     
@@ -22,6 +27,10 @@ public class Propiedad {
     private String ciudad;
     private String direccion;
     
+    // Ubicación en grados (NaN = sin coordenadas)
+    private double latitud = Double.NaN;
+    private double longitud = Double.NaN;
+    
     // Características
     private String tipo;
     private int capacidad;
@@ -37,13 +46,20 @@ public class Propiedad {
     // Estado
     private boolean disponible;// true = disponible para reservar
     
+    // Ciudad normalizada para comparar sin equalsIgnoreCase
+    String claveCiudad = "";
+    
+    // Datos internos del catálogo (los asigna PropiedadData al registrar)
+    int ordinal = -1;
+    ObservadorPropiedad observador;
+    
     //   CONSTRUCTORES
     
     /**
      * Constructor vacío
      */
     public Propiedad() {
-        this.servicios = new ArrayList<>();
+        this.servicios = new CopyOnWriteArrayList<>();
         this.disponible = true;
     }
     
@@ -59,13 +75,14 @@ public class Propiedad {
         this.titulo = titulo;
         this.descripcion = descripcion;
         this.ciudad = ciudad;
+        this.claveCiudad = PropiedadData.normalizarCiudad(ciudad);
         this.direccion = direccion;
         this.tipo = tipo;
         this.capacidad = capacidad;
         this.habitaciones = habitaciones;
         this.banos = banos;
         this.precioPorNoche = precioPorNoche;
-        this.servicios = new ArrayList<>();
+        this.servicios = new CopyOnWriteArrayList<>();
         this.disponible = true;
     }
     
@@ -80,13 +97,14 @@ public class Propiedad {
         this.titulo = titulo;
         this.descripcion = descripcion;
         this.ciudad = ciudad;
+        this.claveCiudad = PropiedadData.normalizarCiudad(ciudad);
         this.direccion = direccion;
         this.tipo = tipo;
         this.capacidad = capacidad;
         this.habitaciones = habitaciones;
         this.banos = banos;
         this.precioPorNoche = precioPorNoche;
-        this.servicios = new ArrayList<>();
+        this.servicios = new CopyOnWriteArrayList<>();
         this.disponible = true;
     }
     
@@ -96,7 +114,16 @@ public class Propiedad {
         return propiedadId;
     }
     
-    public void setPropiedadId(String propiedadId) {
+    /**
+     * @param propiedadId ID de la propiedad
+     * @throws IllegalStateException si la propiedad ya está registrada y el ID
+     *         es otro (el catálogo y el registro de escritura la conocen por su ID)
+     */
+    public synchronized void setPropiedadId(String propiedadId) {
+        if (observador != null && !Objects.equals(this.propiedadId, propiedadId)) {
+            throw new IllegalStateException("No se puede cambiar el ID de la propiedad registrada "
+                                            + this.propiedadId);
+        }
         this.propiedadId = propiedadId;
     }
     
@@ -104,96 +131,185 @@ public class Propiedad {
         return anfitrionId;
     }
     
-    public void setAnfitrionId(String anfitrionId) {
+    public synchronized void setAnfitrionId(String anfitrionId) {
+        String anterior = this.anfitrionId;
         this.anfitrionId = anfitrionId;
+        if (observador != null) {
+            observador.anfitrionCambiado(this, anterior);
+        }
     }
     
     public String getTitulo() {
         return titulo;
     }
     
-    public void setTitulo(String titulo) {
+    public synchronized void setTitulo(String titulo) {
+        String anterior = this.titulo;
         this.titulo = titulo;
+        if (observador != null) {
+            observador.textoCambiado(this, anterior, descripcion);
+        }
     }
     
     public String getDescripcion() {
         return descripcion;
     }
     
-    public void setDescripcion(String descripcion) {
+    public synchronized void setDescripcion(String descripcion) {
+        String anterior = this.descripcion;
         this.descripcion = descripcion;
+        if (observador != null) {
+            observador.textoCambiado(this, titulo, anterior);
+        }
     }
     
     public String getCiudad() {
         return ciudad;
     }
     
-    public void setCiudad(String ciudad) {
+    public synchronized void setCiudad(String ciudad) {
+        String anterior = this.ciudad;
         this.ciudad = ciudad;
+        this.claveCiudad = PropiedadData.normalizarCiudad(ciudad);
+        if (observador != null) {
+            observador.ciudadCambiada(this, anterior);
+        }
     }
     
     public String getDireccion() {
         return direccion;
     }
     
-    public void setDireccion(String direccion) {
+    public synchronized void setDireccion(String direccion) {
         this.direccion = direccion;
+        if (observador != null) {
+            observador.direccionCambiada(this);
+        }
     }
     
     public String getTipo() {
         return tipo;
     }
     
-    public void setTipo(String tipo) {
+    public synchronized void setTipo(String tipo) {
         this.tipo = tipo;
+        if (observador != null) {
+            observador.caracteristicasCambiadas(this);
+        }
     }
     
     public int getCapacidad() {
         return capacidad;
     }
     
-    public void setCapacidad(int capacidad) {
+    public synchronized void setCapacidad(int capacidad) {
         this.capacidad = capacidad;
+        if (observador != null) {
+            observador.caracteristicasCambiadas(this);
+        }
     }
     
     public int getHabitaciones() {
         return habitaciones;
     }
     
-    public void setHabitaciones(int habitaciones) {
+    public synchronized void setHabitaciones(int habitaciones) {
         this.habitaciones = habitaciones;
+        if (observador != null) {
+            observador.caracteristicasCambiadas(this);
+        }
     }
     
     public int getBanos() {
         return banos;
     }
     
-    public void setBanos(int banos) {
+    public synchronized void setBanos(int banos) {
         this.banos = banos;
+        if (observador != null) {
+            observador.caracteristicasCambiadas(this);
+        }
     }
     
     public double getPrecioPorNoche() {
         return precioPorNoche;
     }
     
-    public void setPrecioPorNoche(double precioPorNoche) {
+    public synchronized void setPrecioPorNoche(double precioPorNoche) {
+        double anterior = this.precioPorNoche;
         this.precioPorNoche = precioPorNoche;
+        if (observador != null && anterior != precioPorNoche) {
+            observador.precioCambiado(this, anterior);
+        }
     }
     
     public List<String> getServicios() {
         return servicios;
     }
     
-    public void setServicios(List<String> servicios) {
-        this.servicios = servicios;
+    /**
+     * Reemplaza los servicios (los repetidos se guardan una sola vez)
+     * @param servicios Servicios nuevos, en el orden en que se muestran
+     */
+    public synchronized void setServicios(List<String> servicios) {
+        // La lista nueva se asigna antes de avisar, así cada aviso ve el estado final
+        Set<String> nuevos = new LinkedHashSet<>(servicios);
+        Set<String> anteriores = new LinkedHashSet<>(this.servicios);
+        this.servicios = new CopyOnWriteArrayList<>(nuevos);
+        if (observador != null) {
+            // Solo la diferencia: los que siguen no cambian índices ni facetas
+            for (String servicio : anteriores) {
+                if (!nuevos.contains(servicio)) {
+                    observador.servicioRemovido(this, servicio);
+                }
+            }
+            for (String servicio : nuevos) {
+                if (!anteriores.contains(servicio)) {
+                    observador.servicioAgregado(this, servicio);
+                }
+            }
+        }
+    }
+    
+    public double getLatitud() {
+        return latitud;
+    }
+    
+    public double getLongitud() {
+        return longitud;
+    }
+    
+    /**
+     * Asigna las coordenadas de la propiedad
+     * @param latitud Latitud en grados (-90 a 90)
+     * @param longitud Longitud en grados (-180 a 180)
+     */
+    public synchronized void setUbicacion(double latitud, double longitud) {
+        double latitudAnterior = this.latitud;
+        double longitudAnterior = this.longitud;
+        this.latitud = latitud;
+        this.longitud = longitud;
+        if (observador != null) {
+            observador.ubicacionCambiada(this, latitudAnterior, longitudAnterior);
+        }
+    }
+    
+    /**
+     * @return true si la propiedad tiene coordenadas
+     */
+    public boolean tieneUbicacion() {
+        return !Double.isNaN(latitud) && !Double.isNaN(longitud);
     }
     
     public boolean isDisponible() {
         return disponible;
     }
     
-    public void setDisponible(boolean disponible) {
+    public synchronized void setDisponible(boolean disponible) {
         this.disponible = disponible;
+        if (observador != null) {
+            observador.caracteristicasCambiadas(this);
+        }
     }
     
     //   MÉTODOS DE UTILIDAD  
@@ -202,9 +318,12 @@ public class Propiedad {
      * Agrega un servicio a la propiedad (si no existe ya)
      * @param servicio Nombre del servicio (ej: "WiFi", "Cocina")
      */
-    public void agregarServicio(String servicio) {
+    public synchronized void agregarServicio(String servicio) {
         if (!this.servicios.contains(servicio)) {
             this.servicios.add(servicio);
+            if (observador != null) {
+                observador.servicioAgregado(this, servicio);
+            }
         }
     }
     
@@ -212,8 +331,11 @@ public class Propiedad {
      * Remueve un servicio de la propiedad
      * @param servicio Nombre del servicio a remover
      */
-    public void removerServicio(String servicio) {
-        this.servicios.remove(servicio);
+    public synchronized void removerServicio(String servicio) {
+        if (this.servicios.remove(servicio) && observador != null
+                && !this.servicios.contains(servicio)) {
+            observador.servicioRemovido(this, servicio);
+        }
     }
     
     /**
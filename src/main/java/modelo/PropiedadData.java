@@ -1,30 +1,195 @@
 package modelo;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Clase DAO (Data Access Object) para gestionar propiedades
  * Almacena propiedades en memoria (ArrayList estático)
- * En el futuro migrará a base de datos
+ * La versión sobre base de datos es PropiedadDataJdbc (ver MotorAlmacenamiento)
+ *
+ * Se puede usar desde varios hilos: los cambios del catálogo toman el
+ * candado de escritura y las búsquedas leen sin bloquearse entre sí
  */
-public class PropiedadData {
+public class PropiedadData implements AlmacenPropiedades {
     
     //   ALMACENAMIENTO EN MEMORIA  
     
-    // Lista estática para mantener propiedades entre instancias
-    private static List<Propiedad> listaPropiedades = new ArrayList<>();
+    // Propiedades por ordinal (las de un punto de control se arman al pedirlas)
+    private static TablaPropiedades tabla = new TablaPropiedades();
+    
+    //   ÍNDICES EN MEMORIA  
+    
+    // Índice primario: propiedadId -> Propiedad (se consulta sin candado)
+    // Las que vienen del punto de control se buscan en la tabla
+    private static Map<String, Propiedad> indicePorId = new ConcurrentHashMap<>();
+    
+    // Índices secundarios: anfitrionId -> propiedades, ciudad normalizada -> ordinales
+    // (por anfitrión solo las agregadas después del punto de control)
+    private static Map<String, List<Propiedad>> indicePorAnfitrion = new ConcurrentHashMap<>();
+    private static Map<String, MapaBits> indicePorCiudad = new ConcurrentHashMap<>();
+    
+    // Índices ordenados por precio: global y por ciudad normalizada
+    private static IndicePrecios indicePrecios = new IndicePrecios();
+    private static Map<String, IndicePrecios> preciosPorCiudad = new ConcurrentHashMap<>();
+    
+    // Índice invertido de servicios (mapas de bits por ordinal)
+    private static IndiceServicios indiceServicios = new IndiceServicios();
+    
+    // Índice invertido de texto (título y descripción)
+    private static IndiceTexto indiceTexto = new IndiceTexto();
+    
+    // Índice espacial en cuadrícula (latitud/longitud)
+    private static IndiceGeografico indiceGeografico = new IndiceGeografico();
+    
+    // Noches ocupadas de cada propiedad (horizonte móvil desde hoy)
+    private static CalendarioOcupacion calendario = new CalendarioOcupacion(LocalDate.now());
+    
+    // Diccionarios de ciudades y servicios con sus conteos
+    private static DiccionarioFacetas facetaCiudades = new DiccionarioFacetas();
+    private static DiccionarioFacetas facetaServicios = new DiccionarioFacetas();
+    
+    // Copia en columnas de los campos que se leen en cada búsqueda
+    private static ColumnasPropiedades columnas = new ColumnasPropiedades();
+    
+    // Búsqueda paralela: mínimo de candidatas para usar el pool y tamaño de cada trozo
+    private static final int UMBRAL_PARALELO = 65536;
+    private static final int TAMANO_TROZO = 16384;
+    
+    // Evaluador de criterios numéricos para los recorridos completos
+    // (vectorial si el módulo jdk.incubator.vector está habilitado)
+    private static final EvaluadorPredicados evaluador = EvaluadorPredicados.crear();
+    
+    // Resultados de búsquedas recientes (se invalidan al cambiar el catálogo)
+    private static final int CAPACIDAD_CACHE = 256;
+    private static final CacheBusquedas cache = new CacheBusquedas(CAPACIDAD_CACHE, PoliticaCache.LRU);
+    
+    // Mantiene los índices al día cuando cambia una propiedad registrada
+    private static final ObservadorPropiedad observadorCatalogo = new ObservadorCatalogo();
+    
+    // Candado del catálogo (lista e índices): los cambios toman la escritura;
+    // las lecturas se intentan primero sin candado (lectura optimista)
+    private static final StampedLock candado = new StampedLock();
+    
+    // Versión del catálogo: sube con cada cambio (con el candado de escritura)
+    private static long version;
+    
+    // Versiones de las instantáneas abiertas -> cuántas hay abiertas en cada una
+    private static final TreeMap<Long, Integer> instantaneasAbiertas = new TreeMap<>();
+    
+    // Datos anteriores de las propiedades que cambiaron mientras había
+    // instantáneas abiertas (ordinal -> versión más reciente)
+    private static final Map<Integer, VersionAnterior> versionesAnteriores = new ConcurrentHashMap<>();
+    
+    // Registro de escritura donde se anota cada cambio (null = solo en memoria)
+    private static volatile RegistroEscritura registro;
+    
+    // Un punto de control a la vez; el automático corre en su propio hilo
+    private static final Object candadoPuntoControl = new Object();
+    private static final AtomicBoolean puntoControlPendiente = new AtomicBoolean();
     
     //   CONSTRUCTOR  
     
     /**
-     * Constructor: carga datos de prueba si la lista está vacía
+     * Constructor: la primera vez reconstruye el catálogo desde el registro de
+     * escritura (si está configurado) o, si no hay nada guardado, carga datos de prueba
      */
     public PropiedadData() {
-        if (listaPropiedades.isEmpty()) {
-            cargarDatosPrueba();
+        this(true);
+    }
+    
+    /**
+     * @param iniciar false para usar el catálogo tal como está, sin
+     *        recuperar ni cargar datos de prueba (ver sinDatos)
+     */
+    private PropiedadData(boolean iniciar) {
+        if (!iniciar) {
+            return;
+        }
+        synchronized (PropiedadData.class) {
+            if (leer(() -> tabla.tamano() == 0)) {
+                RegistroEscritura abierto = RegistroEscritura.abrirConfigurado("propiedades");
+                boolean recuperado = abierto != null && recuperar(abierto);
+                registro = abierto;
+                if (!recuperado) {
+                    cargarDatosPrueba();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Catálogo vacío, sin datos de prueba ni registro de escritura, para
+     * pruebas y benchmarks (ver MotorAlmacenamiento.crearPropiedadesVacias)
+     * El catálogo es estático: las instancias que ya existían también quedan vacías
+     */
+    static PropiedadData sinDatos() {
+        synchronized (PropiedadData.class) {
+            vaciar();
+            return new PropiedadData(false);
+        }
+    }
+    
+    /**
+     * Descarta el catálogo estático completo: propiedades, índices,
+     * calendario y caché. El registro de escritura se cierra (sus archivos
+     * quedan) y las propiedades descartadas dejan de avisar sus cambios
+     */
+    private static void vaciar() {
+        RegistroEscritura r;
+        synchronized (candadoPuntoControl) {
+            r = registro;
+            escribir(() -> {
+                tabla.desconectar();
+                tabla = new TablaPropiedades();
+                indicePorId = new ConcurrentHashMap<>();
+                indicePorAnfitrion = new ConcurrentHashMap<>();
+                indicePorCiudad = new ConcurrentHashMap<>();
+                indicePrecios = new IndicePrecios();
+                preciosPorCiudad = new ConcurrentHashMap<>();
+                indiceServicios = new IndiceServicios();
+                indiceTexto = new IndiceTexto();
+                indiceGeografico = new IndiceGeografico();
+                calendario = new CalendarioOcupacion(LocalDate.now());
+                facetaCiudades = new DiccionarioFacetas();
+                facetaServicios = new DiccionarioFacetas();
+                columnas = new ColumnasPropiedades();
+                versionesAnteriores.clear();
+                cache.limpiar();
+                registro = null;
+                version++;
+            });
+        }
+        if (r != null) {
+            r.close();
         }
     }
     
@@ -33,7 +198,7 @@ public class PropiedadData {
     /**
      * Registra una nueva propiedad en el sistema
      * @param propiedad Propiedad a registrar
-     * @return true si se registró exitosamente
+     * @return true si se registró exitosamente, false si su ID ya está registrado
      */
     public boolean registrarPropiedad(Propiedad propiedad) {
         // Generar ID único si no tiene
@@ -41,163 +206,1071 @@ public class PropiedadData {
             propiedad.setPropiedadId(UUID.randomUUID().toString());
         }
         
-        listaPropiedades.add(propiedad);
+        // Validar que el ID no esté registrado (de forma atómica)
+        if (!agregarAlCatalogo(propiedad)) {
+            return false;
+        }
         System.out.println("✅ Propiedad registrada: " + propiedad.getTitulo());
         return true;
     }
     
+    /**
+     * Registra varias propiedades nuevas de una vez
+     * Entran al catálogo como un solo lote: un paso por el candado de
+     * escritura, los índices de precio se mezclan una sola vez y el registro
+     * de escritura espera un solo fsync para todas
+     * @param propiedades Propiedades a registrar (las que no tienen ID reciben uno)
+     * @return Cantidad registrada; se omiten las nulas y las de ID ya registrado
+     */
+    public int registrarPropiedades(Collection<Propiedad> propiedades) {
+        if (propiedades == null || propiedades.isEmpty()) {
+            return 0;
+        }
+        GeneradorIds ids = new GeneradorIds();
+        List<Propiedad> nuevas = new ArrayList<>(propiedades.size());
+        for (Propiedad propiedad : propiedades) {
+            if (propiedad == null) {
+                continue;
+            }
+            if (propiedad.getPropiedadId() == null || propiedad.getPropiedadId().isEmpty()) {
+                propiedad.setPropiedadId(ids.siguiente());
+            }
+            nuevas.add(propiedad);
+        }
+        
+        List<String> repetidas = agregarLote(prepararLote(nuevas));
+        RegistroEscritura r = registro;
+        if (r != null) {
+            revisarPuntoControl(r);
+        }
+        int registradas = nuevas.size() - repetidas.size();
+        System.out.println("✅ Propiedades registradas: " + registradas
+                           + (repetidas.isEmpty() ? "" : " (" + repetidas.size() + " con ID repetido)"));
+        return registradas;
+    }
+    
+    /**
+     * Guarda los datos de otra instancia de una propiedad ya registrada
+     * Las instancias registradas avisan sus propios cambios a los índices;
+     * si se pasa otra instancia, todos sus datos se copian a la registrada
+     * en un solo cambio (las búsquedas nunca ven la mitad) y se anota un
+     * solo registro con el estado completo
+     * @param propiedad Propiedad con el ID de una registrada
+     * @return true si la propiedad existía
+     */
+    public boolean actualizarPropiedad(Propiedad propiedad) {
+        Propiedad registrada = porId(propiedad.getPropiedadId());
+        if (registrada == null) {
+            return false;
+        }
+        if (registrada != propiedad) {
+            reemplazar(registrada, propiedad, true);
+        }
+        return true;
+    }
+    
     /**
      * Busca una propiedad por su ID
      * @param id ID de la propiedad
      * @return Propiedad si existe, null si no
      */
     public Propiedad buscarPorId(String id) {
-        for (Propiedad p : listaPropiedades) {
-            if (p.getPropiedadId().equals(id)) {
-                return p;
+        return porId(id);
+    }
+    
+    /**
+     * Obtiene todas las propiedades disponibles
+     * @return Lista de propiedades con disponible=true
+     */
+    public List<Propiedad> obtenerPropiedadesDisponibles() {
+        return leer(() -> {
+            List<Propiedad> disponibles = new ArrayList<>(columnas.cantidadDisponibles());
+            for (int o = columnas.siguienteDisponible(0); o >= 0; o = columnas.siguienteDisponible(o + 1)) {
+                disponibles.add(tabla.obtener(o));
+            }
+            return disponibles;
+        });
+    }
+    
+    /**
+     * Obtiene todas las propiedades (disponibles y no disponibles)
+     * @return Lista completa de propiedades
+     */
+    public List<Propiedad> obtenerTodasPropiedades() {
+        return leer(tabla::aLista);
+    }
+    
+    /**
+     * Obtiene propiedades de un anfitrión específico
+     * @param anfitrionId ID del anfitrión
+     * @return Lista de propiedades del anfitrión
+     */
+    public List<Propiedad> obtenerPropiedadesPorAnfitrion(String anfitrionId) {
+        return leer(() -> {
+            List<Propiedad> propiedades = tabla.cargadasDeAnfitrion(anfitrionId);
+            List<Propiedad> nuevas = indicePorAnfitrion.get(anfitrionId);
+            if (nuevas != null) {
+                propiedades.addAll(nuevas);
+            }
+            return propiedades;
+        });
+    }
+    
+    /**
+     * Busca en el índice por id y, si no está, entre las del punto de control
+     */
+    private static Propiedad porId(String propiedadId) {
+        Propiedad propiedad = indicePorId.get(propiedadId);
+        return propiedad != null ? propiedad : tabla.buscarCargada(propiedadId);
+    }
+    
+    //   MÉTODOS DE BÚSQUEDA CON FILTROS  
+    
+    /**
+     * Busca propiedades aplicando filtros
+     * @param ciudad Ciudad a buscar 
+     * @param precioMin Precio mínimo 
+     * @param precioMax Precio máximo 
+     * @param serviciosRequeridos Lista de servicios que debe tener 
+     * @return Lista de propiedades que cumplen los filtros
+     */
+    public List<Propiedad> buscarConFiltros(String ciudad, double precioMin, 
+                                            double precioMax, List<String> serviciosRequeridos) {
+        return buscarConFiltros(new FiltroBusqueda(ciudad, precioMin, precioMax, serviciosRequeridos));
+    }
+    
+    /**
+     * Busca propiedades aplicando un filtro ya normalizado
+     * El planificador elige el índice más selectivo como punto de partida y
+     * los demás criterios se verifican en una sola pasada sobre las columnas;
+     * los objetos Propiedad solo se leen para los resultados finales
+     * @param filtro Criterios de búsqueda
+     * @return Lista de propiedades que cumplen los filtros (en orden del catálogo)
+     */
+    public List<Propiedad> buscarConFiltros(FiltroBusqueda filtro) {
+        return buscarConFiltros(filtro, null);
+    }
+    
+    /**
+     * Busca propiedades repartiendo la verificación entre los hilos de un pool
+     * Si hay pocas candidatas (o no hay pool) la búsqueda es secuencial
+     * @param filtro Criterios de búsqueda
+     * @param pool Pool fork/join a usar (null = secuencial)
+     * @return Lista de propiedades que cumplen los filtros (en orden del catálogo)
+     */
+    public List<Propiedad> buscarConFiltros(FiltroBusqueda filtro, ForkJoinPool pool) {
+        List<Propiedad> resultados = leerConSello(sello -> {
+            ListaEnteros ordinales = buscarOrdinales(filtro, pool, sello);
+            List<Propiedad> propiedades = new ArrayList<>(ordinales.tamano());
+            for (int i = 0; i < ordinales.tamano(); i++) {
+                propiedades.add(tabla.obtener(ordinales.obtener(i)));
+            }
+            return propiedades;
+        });
+        
+        System.out.println("Búsqueda completada: " + resultados.size() + " propiedades encontradas");
+        return resultados;
+    }
+    
+    /**
+     * Busca propiedades y devuelve solo una página ordenada de resultados
+     * Las coincidencias se cuentan sobre ordinales y, si hay orden, se eligen
+     * con un montículo acotado: solo se materializan y ordenan las de la página
+     * @param filtro Criterios de búsqueda
+     * @param orden Criterio de orden de los resultados
+     * @param desplazamiento Cantidad de resultados a saltar (desde 0)
+     * @param tamanoPagina Cantidad máxima de resultados de la página
+     * @param pool Pool fork/join a usar (null = secuencial)
+     * @return Página de resultados con el total de coincidencias
+     */
+    public PaginaResultados buscarPagina(FiltroBusqueda filtro, OrdenBusqueda orden,
+                                         int desplazamiento, int tamanoPagina, ForkJoinPool pool) {
+        PaginaResultados pagina = leerConSello(sello ->
+            paginar(filtro, buscarOrdinales(filtro, pool, sello), orden, desplazamiento, tamanoPagina, false));
+        System.out.println("Búsqueda completada: " + pagina.getTotal() + " propiedades encontradas");
+        return pagina;
+    }
+    
+    /**
+     * Busca una página ordenada y, en la misma pasada sobre las coincidencias,
+     * cuenta cuántas hay por ciudad, servicio y tipo
+     * Ciudades y tipos se cuentan con las columnas; los servicios, intersectando
+     * el mapa de bits de coincidencias con el de cada servicio
+     * @param filtro Criterios de búsqueda
+     * @param orden Criterio de orden de los resultados
+     * @param desplazamiento Cantidad de resultados a saltar (desde 0)
+     * @param tamanoPagina Cantidad máxima de resultados de la página
+     * @param pool Pool fork/join a usar (null = secuencial)
+     * @return Página de resultados con el total y las facetas de todas las coincidencias
+     */
+    public PaginaResultados buscarConFacetas(FiltroBusqueda filtro, OrdenBusqueda orden,
+                                             int desplazamiento, int tamanoPagina, ForkJoinPool pool) {
+        PaginaResultados pagina = leerConSello(sello ->
+            paginar(filtro, buscarOrdinales(filtro, pool, sello), orden, desplazamiento, tamanoPagina, true));
+        System.out.println("Búsqueda completada: " + pagina.getTotal() + " propiedades encontradas");
+        return pagina;
+    }
+    
+    /**
+     * Arma la página pedida a partir de los ordinales que cumplen el filtro
+     * Si hay orden, las coincidencias se eligen con un montículo acotado: solo
+     * se materializan y ordenan las de la página
+     * @param filtro Criterios de búsqueda (el texto define la relevancia)
+     * @param ordinales Coincidencias en orden del catálogo
+     * @param conFacetas true para contar además las coincidencias por faceta
+     */
+    private static PaginaResultados paginar(FiltroBusqueda filtro, ListaEnteros ordinales,
+                                            OrdenBusqueda orden, int desplazamiento,
+                                            int tamanoPagina, boolean conFacetas) {
+        int total = ordinales.tamano();
+        int fin = (int) Math.min(total, (long) desplazamiento + tamanoPagina);
+        
+        boolean ordenar = fin > desplazamiento && usaOrden(orden, filtro);
+        
+        // Top-K: conservar solo las primeras 'fin' según el orden pedido
+        MonticuloAcotado mejores = ordenar ? new MonticuloAcotado(fin) : null;
+        
+        // Conteos por id de columna y mapa de bits de las coincidencias
+        int[] conteoCiudades = null;
+        int[] conteoTipos = null;
+        MapaBits coincidencias = null;
+        if (conFacetas) {
+            conteoCiudades = new int[columnas.cantidadCiudades()];
+            conteoTipos = new int[columnas.cantidadTipos()];
+            coincidencias = new MapaBits();
+        }
+        
+        if (ordenar || conFacetas) {
+            for (int i = 0; i < total; i++) {
+                int ordinal = ordinales.obtener(i);
+                if (ordenar) {
+                    mejores.ofrecer(claveOrden(orden, filtro, ordinal), ordinal);
+                }
+                if (conFacetas) {
+                    conteoCiudades[columnas.ciudades[ordinal]]++;
+                    conteoTipos[columnas.tipos[ordinal]]++;
+                    coincidencias.agregar(ordinal);
+                }
+            }
+        }
+        
+        List<Propiedad> pagina = new ArrayList<>(Math.max(0, fin - desplazamiento));
+        if (ordenar) {
+            int[] ordenados = mejores.extraerOrdenados();
+            for (int i = desplazamiento; i < fin; i++) {
+                pagina.add(tabla.obtener(ordenados[i]));
+            }
+        } else {
+            // Las coincidencias ya están en orden del catálogo
+            for (int i = desplazamiento; i < fin; i++) {
+                pagina.add(tabla.obtener(ordinales.obtener(i)));
+            }
+        }
+        
+        FacetasBusqueda facetas = conFacetas
+            ? armarFacetas(conteoCiudades, conteoTipos, coincidencias, new ArrayList<>()) : null;
+        
+        return new PaginaResultados(pagina, total, desplazamiento, facetas);
+    }
+    
+    /**
+     * Sin texto buscado (o sin zona) la relevancia (o distancia) es el orden del catálogo
+     * @return true si las coincidencias deben ordenarse con claveOrden
+     */
+    static boolean usaOrden(OrdenBusqueda orden, FiltroBusqueda filtro) {
+        return orden != OrdenBusqueda.CATALOGO
+            && (orden != OrdenBusqueda.RELEVANCIA || filtro.tieneTexto())
+            && (orden != OrdenBusqueda.DISTANCIA || filtro.tieneUbicacion());
+    }
+    
+    /**
+     * Clave de orden de una coincidencia: menor clave = aparece antes
+     * Relevancia y distancia dependen del filtro; el resto sale de las columnas
+     */
+    private static double claveOrden(OrdenBusqueda orden, FiltroBusqueda filtro, int ordinal) {
+        switch (orden) {
+            case RELEVANCIA:
+                return -indiceTexto.puntaje(filtro.getConsultaTexto(), ordinal);
+            case DISTANCIA:
+                return filtro.getArea().distanciaAlCentro(columnas.latitudes[ordinal],
+                                                          columnas.longitudes[ordinal]);
+            default:
+                return orden.clave(columnas, ordinal);
+        }
+    }
+    
+    /**
+     * Clave de orden con los datos de una versión anterior de la propiedad
+     */
+    private static double claveOrden(OrdenBusqueda orden, FiltroBusqueda filtro, Propiedad copia) {
+        switch (orden) {
+            case RELEVANCIA:
+                return -indiceTexto.puntajeDocumento(filtro.getConsultaTexto(),
+                                                     copia.getTitulo(), copia.getDescripcion());
+            case DISTANCIA:
+                return filtro.getArea().distanciaAlCentro(copia.getLatitud(), copia.getLongitud());
+            default:
+                return orden.clave(copia);
+        }
+    }
+    
+    /**
+     * Traduce los conteos por id a nombres y cuenta los servicios por intersección
+     * @param anteriores Coincidencias que se cuentan con los datos de una
+     *                   versión anterior (no están en los conteos ni en el mapa)
+     */
+    private static FacetasBusqueda armarFacetas(int[] conteoCiudades, int[] conteoTipos,
+                                                MapaBits coincidencias, List<Propiedad> anteriores) {
+        Map<String, Integer> porCiudad = new HashMap<>();
+        for (int id = 0; id < conteoCiudades.length; id++) {
+            if (conteoCiudades[id] > 0) {
+                porCiudad.put(facetaCiudades.nombre(columnas.claveCiudad(id)), conteoCiudades[id]);
             }
         }
-        return null;
+        
+        Map<String, Integer> porTipo = new HashMap<>();
+        for (int id = 0; id < conteoTipos.length; id++) {
+            if (conteoTipos[id] > 0 && columnas.tipo(id) != null) {
+                porTipo.put(columnas.tipo(id), conteoTipos[id]);
+            }
+        }
+        
+        Map<String, Integer> porServicio = new HashMap<>();
+        if (!coincidencias.estaVacio()) {
+            for (int id = 0; id < indiceServicios.cantidadServicios(); id++) {
+                int n = coincidencias.cardinalidadInterseccion(indiceServicios.mapa(id));
+                if (n > 0) {
+                    porServicio.put(indiceServicios.nombreServicio(id), n);
+                }
+            }
+        }
+        
+        for (Propiedad copia : anteriores) {
+            String ciudad = facetaCiudades.contarTotal(copia.claveCiudad) > 0
+                          ? facetaCiudades.nombre(copia.claveCiudad) : copia.getCiudad();
+            porCiudad.merge(ciudad, 1, Integer::sum);
+            if (copia.getTipo() != null) {
+                porTipo.merge(copia.getTipo(), 1, Integer::sum);
+            }
+            for (String servicio : copia.getServicios()) {
+                porServicio.merge(servicio, 1, Integer::sum);
+            }
+        }
+        
+        return new FacetasBusqueda(porCiudad, porServicio, porTipo);
+    }
+    
+    /**
+     * Busca propiedades y devuelve una página ordenada (secuencial)
+     * @see #buscarPagina(FiltroBusqueda, OrdenBusqueda, int, int, ForkJoinPool)
+     */
+    public PaginaResultados buscarPagina(FiltroBusqueda filtro, OrdenBusqueda orden,
+                                         int desplazamiento, int tamanoPagina) {
+        return buscarPagina(filtro, orden, desplazamiento, tamanoPagina, null);
+    }
+    
+    //   CALENDARIO DE DISPONIBILIDAD  
+    
+    /**
+     * Ocupa las noches de una estadía si todas estaban libres
+     * @param propiedadId ID de la propiedad
+     * @param fechaEntrada Fecha de llegada (primera noche)
+     * @param fechaSalida Fecha de salida (no se cuenta como noche)
+     * @return true si se ocuparon; false si la propiedad no existe, alguna
+     *         noche ya estaba ocupada o las fechas salen del horizonte
+     */
+    public boolean bloquearFechas(String propiedadId, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        Propiedad propiedad = porId(propiedadId);
+        if (propiedad == null) {
+            return false;
+        }
+        avanzarCalendario();
+        return calendario.ocupar(propiedad.ordinal, fechaEntrada, fechaSalida);
+    }
+    
+    /**
+     * Libera las noches de una estadía (ej: reserva cancelada)
+     * @param propiedadId ID de la propiedad
+     * @param fechaEntrada Fecha de llegada
+     * @param fechaSalida Fecha de salida
+     * @return true si la propiedad existe
+     */
+    public boolean liberarFechas(String propiedadId, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        Propiedad propiedad = porId(propiedadId);
+        if (propiedad == null) {
+            return false;
+        }
+        avanzarCalendario();
+        calendario.liberar(propiedad.ordinal, fechaEntrada, fechaSalida);
+        return true;
+    }
+    
+    /**
+     * Verifica si una propiedad está libre todas las noches de una estadía
+     * @return true si existe y ninguna noche está ocupada
+     */
+    public boolean estaLibreEntre(String propiedadId, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        Propiedad propiedad = porId(propiedadId);
+        if (propiedad == null) {
+            return false;
+        }
+        avanzarCalendario();
+        return calendario.estaLibre(propiedad.ordinal, fechaEntrada, fechaSalida);
+    }
+    
+    /**
+     * Obtiene las noches ocupadas de una propiedad desde hoy
+     * @param propiedadId ID de la propiedad
+     * @return Fechas ocupadas en orden (vacía si no existe)
+     */
+    public List<LocalDate> obtenerNochesOcupadas(String propiedadId) {
+        Propiedad propiedad = porId(propiedadId);
+        if (propiedad == null) {
+            return new ArrayList<>();
+        }
+        avanzarCalendario();
+        return calendario.nochesOcupadas(propiedad.ordinal);
+    }
+    
+    /**
+     * Mueve el horizonte del calendario a hoy (las búsquedas con fechas no
+     * se guardan en caché, así que no hay nada que invalidar)
+     */
+    private static void avanzarCalendario() {
+        calendario.avanzarHasta(LocalDate.now());
+    }
+    
+    //   CACHÉ DE BÚSQUEDAS  
+    
+    /**
+     * Cambia el tamaño y la política de expulsión de la caché de búsquedas
+     * @param capacidad Cantidad máxima de búsquedas guardadas (0 = desactivada)
+     * @param politica LRU o LFU
+     */
+    public void configurarCache(int capacidad, PoliticaCache politica) {
+        cache.configurar(capacidad, politica);
+    }
+    
+    /**
+     * @return Aciertos, fallos, invalidaciones y expulsiones de la caché
+     */
+    public EstadisticasCache obtenerEstadisticasCache() {
+        return cache.estadisticas();
+    }
+    
+    //   INSTANTÁNEAS (VERSIONES DEL CATÁLOGO)  
+    
+    /**
+     * Datos que tenía una propiedad en los índices hasta una versión
+     * Las de una misma propiedad forman una cadena de la más nueva a la más vieja
+     */
+    private static final class VersionAnterior {
+        final long hasta;          // vale para las versiones menores que esta
+        final Propiedad copia;
+        VersionAnterior anterior;
+        
+        VersionAnterior(long hasta, Propiedad copia, VersionAnterior anterior) {
+            this.hasta = hasta;
+            this.copia = copia;
+            this.anterior = anterior;
+        }
+    }
+    
+    /**
+     * @return Versión actual del catálogo (sube con cada cambio)
+     */
+    public long obtenerVersion() {
+        return leer(() -> version);
+    }
+    
+    /**
+     * Abre una vista de solo lectura fija en la versión actual del catálogo
+     * Varias búsquedas sobre la instantánea (ej: las páginas de un resultado)
+     * ven los mismos datos aunque el catálogo cambie entre una y otra
+     * Debe cerrarse al terminar (try-with-resources)
+     * @return Instantánea con búsquedas secuenciales
+     */
+    public InstantaneaCatalogo abrirInstantanea() {
+        return abrirInstantanea(null);
+    }
+    
+    /**
+     * @param pool Pool fork/join para búsquedas en catálogos grandes (null = secuencial)
+     * @see #abrirInstantanea()
+     */
+    public InstantaneaCatalogo abrirInstantanea(ForkJoinPool pool) {
+        // Registrar la versión antes de validar: si ningún cambio se cruzó,
+        // todo cambio posterior ya ve la instantánea y guarda sus datos
+        long sello = candado.tryOptimisticRead();
+        if (sello != 0) {
+            long v = version;
+            int n = tabla.tamano();
+            registrarInstantanea(v);
+            if (candado.validate(sello)) {
+                return new InstantaneaCatalogo(v, n, pool);
+            }
+            quitarInstantanea(v);
+        }
+        sello = candado.readLock();
+        try {
+            registrarInstantanea(version);
+            return new InstantaneaCatalogo(version, tabla.tamano(), pool);
+        } finally {
+            candado.unlockRead(sello);
+        }
+    }
+    
+    /**
+     * Ordinales que cumplían el filtro en la versión v
+     * Parte del resultado actual y corrige las propiedades que cambiaron
+     * después de v con los datos que tenían en esa versión
+     * @param n Cantidad de propiedades en la versión v (las siguientes no existían)
+     * @return Ordinales en orden del catálogo
+     */
+    static int[] coincidenciasEnVersion(FiltroBusqueda filtro, long v, int n, ForkJoinPool pool) {
+        return leerConSello(sello -> {
+            ListaEnteros actuales = buscarOrdinales(filtro, pool, sello);
+            ListaEnteros resultado = new ListaEnteros(actuales.tamano() + 1);
+            int i = 0;
+            for (Map.Entry<Integer, Propiedad> e : cambiadasDesde(v, n).entrySet()) {
+                int cambiada = e.getKey();
+                for (; i < actuales.tamano() && actuales.obtener(i) < cambiada; i++) {
+                    resultado.agregar(actuales.obtener(i));
+                }
+                if (i < actuales.tamano() && actuales.obtener(i) == cambiada) {
+                    i++;   // su estado actual no cuenta
+                }
+                if (cumpleVersionAnterior(e.getValue(), filtro)) {
+                    resultado.agregar(cambiada);
+                }
+            }
+            for (; i < actuales.tamano() && actuales.obtener(i) < n; i++) {
+                resultado.agregar(actuales.obtener(i));
+            }
+            return resultado.aArreglo();
+        });
+    }
+    
+    /**
+     * Ordena las coincidencias de la versión v con los datos de esa versión
+     * @param ordinales Coincidencias en orden del catálogo
+     * @return Los mismos ordinales en el orden pedido
+     */
+    static int[] ordenarEnVersion(FiltroBusqueda filtro, OrdenBusqueda orden, int[] ordinales, long v) {
+        if (!usaOrden(orden, filtro)) {
+            return ordinales;
+        }
+        return leer(() -> {
+            double[] claves = new double[ordinales.length];
+            Integer[] posiciones = new Integer[ordinales.length];
+            for (int i = 0; i < ordinales.length; i++) {
+                Propiedad copia = copiaEnVersion(ordinales[i], v);
+                claves[i] = copia != null ? claveOrden(orden, filtro, copia)
+                                          : claveOrden(orden, filtro, ordinales[i]);
+                posiciones[i] = i;
+            }
+            // Empates por ordinal, igual que la búsqueda paginada
+            Arrays.sort(posiciones, (a, b) -> {
+                int c = Double.compare(claves[a], claves[b]);
+                return c != 0 ? c : Integer.compare(ordinales[a], ordinales[b]);
+            });
+            int[] ordenados = new int[ordinales.length];
+            for (int i = 0; i < ordenados.length; i++) {
+                ordenados[i] = ordinales[posiciones[i]];
+            }
+            return ordenados;
+        });
+    }
+    
+    /**
+     * Materializa un tramo de ordinales de la versión v
+     * Las propiedades que cambiaron después de v se devuelven como copias
+     * con sus datos de esa versión; las demás, como están en el catálogo
+     * @return Propiedades de ordinales[desde..hasta)
+     */
+    static List<Propiedad> materializarEnVersion(int[] ordinales, int desde, int hasta, long v) {
+        return leer(() -> {
+            List<Propiedad> propiedades = new ArrayList<>(hasta - desde);
+            for (int i = desde; i < hasta; i++) {
+                Propiedad copia = copiaEnVersion(ordinales[i], v);
+                propiedades.add(copia != null ? copia : tabla.obtener(ordinales[i]));
+            }
+            return propiedades;
+        });
+    }
+    
+    /**
+     * Facetas de las coincidencias de la versión v
+     * @param ordinales Coincidencias en orden del catálogo
+     */
+    static FacetasBusqueda facetasEnVersion(int[] ordinales, long v) {
+        return leer(() -> {
+            int[] conteoCiudades = new int[columnas.cantidadCiudades()];
+            int[] conteoTipos = new int[columnas.cantidadTipos()];
+            MapaBits coincidencias = new MapaBits();
+            List<Propiedad> anteriores = new ArrayList<>();
+            for (int o : ordinales) {
+                Propiedad copia = copiaEnVersion(o, v);
+                if (copia != null) {
+                    anteriores.add(copia);
+                } else {
+                    conteoCiudades[columnas.ciudades[o]]++;
+                    conteoTipos[columnas.tipos[o]]++;
+                    coincidencias.agregar(o);
+                }
+            }
+            return armarFacetas(conteoCiudades, conteoTipos, coincidencias, anteriores);
+        });
+    }
+    
+    /**
+     * Propiedad con los datos que tenía en la versión v
+     * @param n Cantidad de propiedades en la versión v
+     * @return La propiedad, una copia con sus datos de esa versión, o null
+     *         si todavía no existía
+     */
+    static Propiedad buscarPorIdEnVersion(String propiedadId, long v, int n) {
+        Propiedad actual = propiedadId != null ? porId(propiedadId) : null;
+        if (actual == null || actual.ordinal >= n) {
+            return null;
+        }
+        Propiedad copia = leer(() -> copiaEnVersion(actual.ordinal, v));
+        return copia != null ? copia : actual;
+    }
+    
+    /**
+     * Cierra una instantánea y descarta los datos anteriores que ya nadie puede ver
+     */
+    static void cerrarInstantanea(long v) {
+        escribir(() -> {
+            quitarInstantanea(v);
+            podarVersiones();
+        });
+    }
+    
+    private static void registrarInstantanea(long v) {
+        synchronized (instantaneasAbiertas) {
+            instantaneasAbiertas.merge(v, 1, Integer::sum);
+        }
+    }
+    
+    private static void quitarInstantanea(long v) {
+        synchronized (instantaneasAbiertas) {
+            instantaneasAbiertas.computeIfPresent(v, (k, abiertas) -> abiertas > 1 ? abiertas - 1 : null);
+        }
+    }
+    
+    /**
+     * Abre una nueva versión antes de cambiar una propiedad indexada
+     * Si hay instantáneas abiertas guarda primero los datos que la propiedad
+     * tiene en los índices, que son los que esas instantáneas deben seguir viendo
+     * Se llama con el candado de escritura tomado, antes de tocar los índices
+     * @param ciudad Ciudad antes del cambio
+     * @param titulo Título antes del cambio
+     * @param descripcion Descripción antes del cambio
+     */
+    private static void nuevaVersion(Propiedad propiedad) {
+        nuevaVersion(propiedad, propiedad.getCiudad(), propiedad.getTitulo(), propiedad.getDescripcion());
+    }
+    
+    private static void nuevaVersion(Propiedad propiedad, String ciudad, String titulo, String descripcion) {
+        version++;
+        synchronized (instantaneasAbiertas) {
+            if (instantaneasAbiertas.isEmpty()) {
+                return;
+            }
+        }
+        int o = propiedad.ordinal;
+        versionesAnteriores.put(o, new VersionAnterior(version, copiaIndexada(propiedad, ciudad, titulo, descripcion),
+                                                       versionesAnteriores.get(o)));
+    }
+    
+    /**
+     * Copia suelta (sin observador) de la propiedad tal como está en los índices
+     */
+    private static Propiedad copiaIndexada(Propiedad propiedad, String ciudad, String titulo, String descripcion) {
+        int o = propiedad.ordinal;
+        Propiedad copia = new Propiedad(propiedad.getPropiedadId(), propiedad.getAnfitrionId(), titulo,
+                                        descripcion, ciudad, propiedad.getDireccion(),
+                                        columnas.tipo(columnas.tipos[o]), columnas.capacidades[o],
+                                        columnas.habitaciones[o], columnas.banos[o], columnas.precios[o]);
+        copia.setUbicacion(columnas.latitudes[o], columnas.longitudes[o]);
+        copia.setDisponible(columnas.estaDisponible(o));
+        for (int id = 0; id < indiceServicios.cantidadServicios(); id++) {
+            if (indiceServicios.mapa(id).contiene(o)) {
+                copia.agregarServicio(indiceServicios.nombreServicio(id));
+            }
+        }
+        copia.ordinal = o;
+        return copia;
+    }
+    
+    // Datos de la propiedad en la versión v, o null si no cambió después de v
+    private static Propiedad copiaEnVersion(int ordinal, long v) {
+        VersionAnterior va = versionesAnteriores.get(ordinal);
+        if (va == null || va.hasta <= v) {
+            return null;
+        }
+        while (va.anterior != null && va.anterior.hasta > v) {
+            va = va.anterior;
+        }
+        return va.copia;
+    }
+    
+    // Ordinal -> datos en la versión v de las propiedades que cambiaron después
+    private static TreeMap<Integer, Propiedad> cambiadasDesde(long v, int n) {
+        TreeMap<Integer, Propiedad> cambiadas = new TreeMap<>();
+        for (Integer o : versionesAnteriores.keySet()) {
+            Propiedad copia = o < n ? copiaEnVersion(o, v) : null;
+            if (copia != null) {
+                cambiadas.put(o, copia);
+            }
+        }
+        return cambiadas;
+    }
+    
+    /**
+     * Evalúa el filtro sobre los datos anteriores de una propiedad
+     * (las fechas se verifican con el calendario actual)
+     */
+    private static boolean cumpleVersionAnterior(Propiedad copia, FiltroBusqueda filtro) {
+        return copia.isDisponible()
+            && copia.getPrecioPorNoche() >= filtro.getPrecioDesde()
+            && copia.getPrecioPorNoche() <= filtro.getPrecioHasta()
+            && copia.getCapacidad() >= filtro.getCapacidadMinima()
+            && copia.getHabitaciones() >= filtro.getHabitacionesMinimas()
+            && copia.getBanos() >= filtro.getBanosMinimos()
+            && (!filtro.tieneCiudad() || copia.claveCiudad.equals(filtro.getClaveCiudad()))
+            && copia.getServicios().containsAll(filtro.getServicios())
+            && (!filtro.tieneTexto() || indiceTexto.coincideDocumento(filtro.getConsultaTexto(),
+                                                                       copia.getTitulo(), copia.getDescripcion()))
+            && (!filtro.tieneUbicacion() || filtro.getArea().contiene(copia.getLatitud(), copia.getLongitud()))
+            && (!filtro.tieneFechas() || calendario.estaLibre(copia.ordinal, filtro.getFechaEntrada(),
+                                                              filtro.getFechaSalida()));
+    }
+    
+    /**
+     * Descarta los datos anteriores que ninguna instantánea abierta puede ver
+     * Se llama con el candado de escritura tomado
+     */
+    private static void podarVersiones() {
+        long minima;
+        synchronized (instantaneasAbiertas) {
+            if (instantaneasAbiertas.isEmpty()) {
+                versionesAnteriores.clear();
+                return;
+            }
+            minima = instantaneasAbiertas.firstKey();
+        }
+        Iterator<VersionAnterior> it = versionesAnteriores.values().iterator();
+        while (it.hasNext()) {
+            VersionAnterior va = it.next();
+            if (va.hasta <= minima) {
+                it.remove();
+                continue;
+            }
+            while (va.anterior != null && va.anterior.hasta > minima) {
+                va = va.anterior;
+            }
+            va.anterior = null;
+        }
+    }
+    
+    /**
+     * Devuelve los ordinales que cumplen el filtro, desde la caché si es posible
+     * El resultado guardado se comparte: quien lo recibe no debe modificarlo
+     * Las búsquedas con fechas no se guardan: cada reserva cambiaría su
+     * resultado y las reservas no deben tocar ninguna estructura global
+     * @param filtro Criterios de búsqueda
+     * @param pool Pool fork/join para catálogos grandes (null = secuencial)
+     * @param sello Sello de la lectura en curso (el resultado solo se guarda
+     *              si ningún cambio del catálogo se cruzó con la búsqueda)
+     * @return Ordinales en orden del catálogo
+     */
+    private static ListaEnteros buscarOrdinales(FiltroBusqueda filtro, ForkJoinPool pool, long sello) {
+        if (filtro.tieneFechas()) {
+            avanzarCalendario();
+            return ejecutarBusqueda(filtro, pool);
+        }
+        if (!cache.estaActiva()) {
+            return ejecutarBusqueda(filtro, pool);
+        }
+        String clave = filtro.clave();
+        ListaEnteros ordinales = cache.obtener(clave);
+        if (ordinales == null) {
+            ordinales = ejecutarBusqueda(filtro, pool);
+            cache.guardar(clave, filtro.copiar(), ordinales, () -> candado.validate(sello));
+        }
+        return ordinales;
+    }
+    
+    /**
+     * Ejecuta la búsqueda y devuelve solo los ordinales que cumplen el filtro
+     * @param filtro Criterios de búsqueda
+     * @param pool Pool fork/join para catálogos grandes (null = secuencial)
+     * @return Ordinales en orden del catálogo
+     */
+    private static ListaEnteros ejecutarBusqueda(FiltroBusqueda filtro, ForkJoinPool pool) {
+        // Mapas de bits a verificar: servicios y texto (null = ninguno)
+        List<MapaBits> mapasRequeridos = null;
+        if (filtro.tieneServicios()) {
+            mapasRequeridos = indiceServicios.mapas(filtro.getServicios());
+            if (mapasRequeridos == null) {
+                // Algún servicio no existe en el catálogo
+                return new ListaEnteros();
+            }
+        }
+        
+        // Texto: propiedades con todos los términos y frases
+        MapaBits coincidenTexto = null;
+        if (filtro.tieneTexto()) {
+            coincidenTexto = indiceTexto.buscar(filtro.getConsultaTexto());
+            if (coincidenTexto.estaVacio()) {
+                return new ListaEnteros();
+            }
+        }
+        
+        // Ciudad: id en la columna de ciudades (-1 = sin propiedades en esa ciudad)
+        int idCiudad = filtro.tieneCiudad() ? columnas.idCiudad(filtro.getClaveCiudad()) : -1;
+        if (filtro.tieneCiudad() && idCiudad < 0) {
+            return new ListaEnteros();
+        }
+        
+        // Candidatas según el acceso elegido (null = recorrer todo el catálogo)
+        int[] candidatas = null;
+        int total;
+        PlanBusqueda plan = planificar(filtro);
+        switch (plan.getAcceso()) {
+            case SERVICIOS:
+                // La intersección de bitmaps ya garantiza los servicios
+                candidatas = indiceServicios.interseccion(filtro.getServicios()).aArreglo();
+                mapasRequeridos = null;
+                total = candidatas.length;
+                break;
+                
+            case PRECIO:
+                // Rebanada del índice de precios (por ciudad si aplica), en orden del catálogo
+                candidatas = indicePreciosPara(filtro)
+                    .rango(filtro.getPrecioDesde(), filtro.getPrecioHasta());
+                Arrays.sort(candidatas);
+                total = candidatas.length;
+                break;
+                
+            case CIUDAD:
+                candidatas = indicePorCiudad.get(filtro.getClaveCiudad()).aArreglo();
+                total = candidatas.length;
+                break;
+                
+            case TEXTO:
+                // Las candidatas ya contienen el texto
+                candidatas = coincidenTexto.aArreglo();
+                coincidenTexto = null;
+                total = candidatas.length;
+                break;
+                
+            case UBICACION:
+                // Propiedades de las celdas que tocan la zona (la distancia se verifica después)
+                candidatas = indiceGeografico.candidatas(filtro.getArea());
+                total = candidatas.length;
+                break;
+                
+            default:
+                total = columnas.tamano();
+                break;
+        }
+        
+        // El texto se verifica como un mapa de bits más
+        if (coincidenTexto != null) {
+            if (mapasRequeridos == null) {
+                mapasRequeridos = new ArrayList<>(1);
+            }
+            mapasRequeridos.add(coincidenTexto);
+        }
+        
+        TareaBusqueda tarea = new TareaBusqueda(filtro, idCiudad, mapasRequeridos, candidatas, 0, total);
+        if (pool != null && total >= UMBRAL_PARALELO) {
+            return pool.invoke(tarea);
+        }
+        return tarea.ejecutarSecuencial();
+    }
+    
+    /**
+     * Muestra el plan que usaría una búsqueda, sin ejecutarla
+     * @param filtro Criterios de búsqueda
+     * @return Plan elegido con las estimaciones de cada acceso
+     */
+    public PlanBusqueda explicarBusqueda(FiltroBusqueda filtro) {
+        return leer(() -> planificar(filtro));
     }
     
     /**
-     * Obtiene todas las propiedades disponibles
-     * @return Lista de propiedades con disponible=true
+     * Estima cuántas candidatas produce cada índice aplicable y elige el menor
+     * Las estadísticas salen de los propios índices: tamaño de la lista de la
+     * ciudad, conteo exacto del rango en el índice ordenado de precios y
+     * cardinalidad del servicio menos frecuente
+     * @param filtro Criterios de búsqueda
+     * @return Plan con el acceso elegido
      */
-    public List<Propiedad> obtenerPropiedadesDisponibles() {
-        List<Propiedad> disponibles = new ArrayList<>();
-        for (Propiedad p : listaPropiedades) {
-            if (p.isDisponible()) {
-                disponibles.add(p);
-            }
+    private static PlanBusqueda planificar(FiltroBusqueda filtro) {
+        PlanBusqueda plan = new PlanBusqueda(filtro, tabla.tamano());
+        
+        if (filtro.tieneCiudad()) {
+            MapaBits deLaCiudad = indicePorCiudad.get(filtro.getClaveCiudad());
+            plan.considerar(PlanBusqueda.Acceso.CIUDAD, deLaCiudad != null ? deLaCiudad.cardinalidad() : 0);
+        }
+        if (filtro.tienePrecio()) {
+            plan.considerar(PlanBusqueda.Acceso.PRECIO, 
+                indicePreciosPara(filtro).contar(filtro.getPrecioDesde(), filtro.getPrecioHasta()));
+        }
+        if (filtro.tieneServicios()) {
+            plan.considerar(PlanBusqueda.Acceso.SERVICIOS, 
+                indiceServicios.cardinalidadMinima(filtro.getServicios()));
+        }
+        if (filtro.tieneTexto()) {
+            plan.considerar(PlanBusqueda.Acceso.TEXTO, 
+                indiceTexto.frecuenciaMinima(filtro.getConsultaTexto()));
         }
-        return disponibles;
+        if (filtro.tieneUbicacion()) {
+            plan.considerar(PlanBusqueda.Acceso.UBICACION, indiceGeografico.contar(filtro.getArea()));
+        }
+        return plan;
     }
     
     /**
-     * Obtiene todas las propiedades (disponibles y no disponibles)
-     * @return Lista completa de propiedades
+     * Índice de precios que corresponde al filtro (el de la ciudad si aplica)
      */
-    public List<Propiedad> obtenerTodasPropiedades() {
-        return new ArrayList<>(listaPropiedades);
+    private static IndicePrecios indicePreciosPara(FiltroBusqueda filtro) {
+        if (!filtro.tieneCiudad()) {
+            return indicePrecios;
+        }
+        IndicePrecios indice = preciosPorCiudad.get(filtro.getClaveCiudad());
+        return indice != null ? indice : new IndicePrecios();
     }
     
     /**
-     * Obtiene propiedades de un anfitrión específico
-     * @param anfitrionId ID del anfitrión
-     * @return Lista de propiedades del anfitrión
+     * Verifica una propiedad contra un filtro resolviendo la ciudad y los
+     * servicios en los índices actuales (para invalidar la caché)
      */
-    public List<Propiedad> obtenerPropiedadesPorAnfitrion(String anfitrionId) {
-        List<Propiedad> propiedades = new ArrayList<>();
-        for (Propiedad p : listaPropiedades) {
-            if (p.getAnfitrionId().equals(anfitrionId)) {
-                propiedades.add(p);
+    private static boolean cumpleFiltro(int ordinal, FiltroBusqueda filtro) {
+        List<MapaBits> mapasRequeridos = null;
+        if (filtro.tieneServicios()) {
+            mapasRequeridos = indiceServicios.mapas(filtro.getServicios());
+            if (mapasRequeridos == null) {
+                return false;
             }
         }
-        return propiedades;
+        int idCiudad = filtro.tieneCiudad() ? columnas.idCiudad(filtro.getClaveCiudad()) : -1;
+        if (filtro.tieneCiudad() && idCiudad < 0) {
+            return false;
+        }
+        if (filtro.tieneTexto() && !indiceTexto.coincide(filtro.getConsultaTexto(), ordinal)) {
+            return false;
+        }
+        return cumpleFiltro(ordinal, filtro, idCiudad, mapasRequeridos);
     }
     
-    //   MÉTODOS DE BÚSQUEDA CON FILTROS  
+    /**
+     * Evalúa todos los criterios de búsqueda sobre las columnas de una propiedad
+     * @param ordinal Ordinal de la propiedad candidata
+     * @param filtro Criterios de búsqueda
+     * @param idCiudad id de la ciudad buscada (solo si el filtro tiene ciudad)
+     * @param mapasRequeridos Mapas de servicios y texto requeridos (null = sin filtro)
+     * @return true si la propiedad cumple todos los criterios
+     */
+    private static boolean cumpleFiltro(int ordinal, FiltroBusqueda filtro, int idCiudad,
+                                        List<MapaBits> mapasRequeridos) {
+        double precio = columnas.precios[ordinal];
+        return columnas.estaDisponible(ordinal)
+            && precio >= filtro.getPrecioDesde()
+            && precio <= filtro.getPrecioHasta()
+            && (filtro.getCapacidadMinima() == 0 || columnas.capacidades[ordinal] >= filtro.getCapacidadMinima())
+            && (filtro.getHabitacionesMinimas() == 0 || columnas.habitaciones[ordinal] >= filtro.getHabitacionesMinimas())
+            && (filtro.getBanosMinimos() == 0 || columnas.banos[ordinal] >= filtro.getBanosMinimos())
+            && cumpleOtrosCriterios(ordinal, filtro, idCiudad, mapasRequeridos);
+    }
     
     /**
-     * Busca propiedades aplicando filtros
-     * @param ciudad Ciudad a buscar 
-     * @param precioMin Precio mínimo 
-     * @param precioMax Precio máximo 
-     * @param serviciosRequeridos Lista de servicios que debe tener 
-     * @return Lista de propiedades que cumplen los filtros
+     * Evalúa los criterios que no cubre el evaluador por bloques
+     * (ciudad, zona, fechas, servicios y texto) de una propiedad
      */
-    public List<Propiedad> buscarConFiltros(String ciudad, double precioMin, 
-                                            double precioMax, List<String> serviciosRequeridos) {
-        // Empezar con todas las propiedades disponibles
-        List<Propiedad> resultados = obtenerPropiedadesDisponibles();
-        
-        // Filtro por ciudad
-        if (ciudad != null && !ciudad.trim().isEmpty() && 
-            !ciudad.equalsIgnoreCase("Todas") && !ciudad.equalsIgnoreCase("Seleccione")) {
-            List<Propiedad> filtradas = new ArrayList<>();
-            for (Propiedad p : resultados) {
-                if (p.getCiudad().equalsIgnoreCase(ciudad)) {
-                    filtradas.add(p);
-                }
-            }
-            resultados = filtradas;
+    private static boolean cumpleOtrosCriterios(int ordinal, FiltroBusqueda filtro, int idCiudad,
+                                                  List<MapaBits> mapasRequeridos) {
+        if (filtro.tieneCiudad() && columnas.ciudades[ordinal] != idCiudad) {
+            return false;
         }
-        
-        // Filtro por precio mínimo
-        if (precioMin > 0) {
-            List<Propiedad> filtradas = new ArrayList<>();
-            for (Propiedad p : resultados) {
-                if (p.getPrecioPorNoche() >= precioMin) {
-                    filtradas.add(p);
-                }
-            }
-            resultados = filtradas;
+        if (filtro.tieneUbicacion()
+            && !filtro.getArea().contiene(columnas.latitudes[ordinal], columnas.longitudes[ordinal])) {
+            return false;
         }
-        
-        // Filtro por precio máximo
-        if (precioMax > 0 && precioMax >= precioMin) {
-            List<Propiedad> filtradas = new ArrayList<>();
-            for (Propiedad p : resultados) {
-                if (p.getPrecioPorNoche() <= precioMax) {
-                    filtradas.add(p);
-                }
-            }
-            resultados = filtradas;
+        if (filtro.tieneFechas()
+            && !calendario.estaLibre(ordinal, filtro.getFechaEntrada(), filtro.getFechaSalida())) {
+            return false;
         }
-        
-        // Filtro por servicios
-        if (serviciosRequeridos != null && !serviciosRequeridos.isEmpty()) {
-            List<Propiedad> filtradas = new ArrayList<>();
-            for (Propiedad p : resultados) {
-                // La propiedad debe tener TODOS los servicios requeridos
-                if (p.getServicios().containsAll(serviciosRequeridos)) {
-                    filtradas.add(p);
+        if (mapasRequeridos != null) {
+            for (MapaBits mapa : mapasRequeridos) {
+                if (!mapa.contiene(ordinal)) {
+                    return false;
                 }
             }
-            resultados = filtradas;
         }
-        
-        System.out.println("Búsqueda completada: " + resultados.size() + " propiedades encontradas");
-        return resultados;
+        return true;
     }
     
     /**
      * Obtiene lista de ciudades únicas (para llenar ComboBox)
-     * @return Lista de nombres de ciudades ordenadas
+     * @return Lista de nombres de ciudades ordenadas (solo lectura)
      */
     public List<String> obtenerCiudades() {
-        List<String> ciudades = new ArrayList<>();
-        for (Propiedad p : listaPropiedades) {
-            if (!ciudades.contains(p.getCiudad())) {
-                ciudades.add(p.getCiudad());
-            }
-        }
-        // Ordenar alfabéticamente
-        ciudades.sort(String.CASE_INSENSITIVE_ORDER);
-        return ciudades;
+        return leer(facetaCiudades::nombres);
     }
     
     /**
      * Obtiene todos los servicios únicos disponibles
-     * @return Lista de servicios disponibles en todas las propiedades
+     * @return Lista de servicios disponibles en todas las propiedades (solo lectura)
      */
     public List<String> obtenerServiciosDisponibles() {
-        List<String> servicios = new ArrayList<>();
-        for (Propiedad p : listaPropiedades) {
-            for (String servicio : p.getServicios()) {
-                if (!servicios.contains(servicio)) {
-                    servicios.add(servicio);
-                }
-            }
-        }
-        servicios.sort(String.CASE_INSENSITIVE_ORDER);
-        return servicios;
+        return leer(facetaServicios::nombres);
+    }
+    
+    /**
+     * Cuenta las propiedades disponibles en una ciudad
+     * @param ciudad Nombre de la ciudad
+     * @return Cantidad de propiedades disponibles
+     */
+    public int contarDisponiblesPorCiudad(String ciudad) {
+        String clave = normalizarCiudad(ciudad);
+        return leer(() -> facetaCiudades.contarDisponibles(clave));
+    }
+    
+    /**
+     * Cuenta las propiedades disponibles que ofrecen un servicio
+     * @param servicio Nombre del servicio
+     * @return Cantidad de propiedades disponibles
+     */
+    public int contarDisponiblesPorServicio(String servicio) {
+        return leer(() -> facetaServicios.contarDisponibles(servicio));
     }
     
     //   DATOS DE PRUEBA  
     
     private void cargarDatosPrueba() {
+        for (Propiedad propiedad : crearDatosPrueba()) {
+            agregarAlCatalogo(propiedad);
+        }
+        System.out.println("✅ Datos de prueba cargados: " + leer(tabla::tamano) + " propiedades");
+        System.out.println("   - Bogotá: 6 propiedades");
+        System.out.println("   - Medellín: 2 propiedades");
+        System.out.println("   - Cartagena: 1 propiedad");
+        System.out.println("   - Cali: 1 propiedad");
+    }
+    
+    /**
+     * Propiedades de ejemplo (las mismas para cualquier almacenamiento)
+     * @return Propiedades nuevas, cada una con su propio ID
+     */
+    static List<Propiedad> crearDatosPrueba() {
+        List<Propiedad> datos = new ArrayList<>();
+        
         // ID genérico de anfitrión (en producción sería del usuario real)
         String anfitrionDemo = "anfitrion-demo";
         
@@ -215,7 +1288,8 @@ public class PropiedadData {
         p1.agregarServicio("WiFi");
         p1.agregarServicio("Cocina");
         p1.agregarServicio("TV");
-        listaPropiedades.add(p1);
+        p1.setUbicacion(4.6486, -74.0628);
+        datos.add(p1);
         
         //   PROPIEDAD 2: Bogotá  
         Propiedad p2 = new Propiedad(
@@ -232,7 +1306,8 @@ public class PropiedadData {
         p2.agregarServicio("Cocina");
         p2.agregarServicio("Parqueadero");
         p2.agregarServicio("Lavadora");
-        listaPropiedades.add(p2);
+        p2.setUbicacion(4.6946, -74.0306);
+        datos.add(p2);
         
         //   PROPIEDAD 3: Bogotá  
         Propiedad p3 = new Propiedad(
@@ -247,7 +1322,8 @@ public class PropiedadData {
         );
         p3.agregarServicio("WiFi");
         p3.agregarServicio("TV");
-        listaPropiedades.add(p3);
+        p3.setUbicacion(4.6356, -74.078);
+        datos.add(p3);
         
         //   PROPIEDAD 4: Bogotá  
         Propiedad p4 = new Propiedad(
@@ -265,7 +1341,8 @@ public class PropiedadData {
         p4.agregarServicio("TV");
         p4.agregarServicio("Aire Acondicionado");
         p4.agregarServicio("Parqueadero");
-        listaPropiedades.add(p4);
+        p4.setUbicacion(4.6767, -74.0483);
+        datos.add(p4);
         
         //   PROPIEDAD 5: Bogotá  
         Propiedad p5 = new Propiedad(
@@ -280,7 +1357,8 @@ public class PropiedadData {
         );
         p5.agregarServicio("WiFi");
         p5.agregarServicio("Cocina");
-        listaPropiedades.add(p5);
+        p5.setUbicacion(4.7411, -74.0836);
+        datos.add(p5);
         
         //   PROPIEDAD 6: Medellín  
         Propiedad p6 = new Propiedad(
@@ -298,7 +1376,8 @@ public class PropiedadData {
         p6.agregarServicio("TV");
         p6.agregarServicio("Parqueadero");
         p6.agregarServicio("Piscina");
-        listaPropiedades.add(p6);
+        p6.setUbicacion(6.2086, -75.5659);
+        datos.add(p6);
         
         //   PROPIEDAD 7: Cartagena  
         Propiedad p7 = new Propiedad(
@@ -316,7 +1395,8 @@ public class PropiedadData {
         p7.agregarServicio("TV");
         p7.agregarServicio("Aire Acondicionado");
         p7.agregarServicio("Parqueadero");
-        listaPropiedades.add(p7);
+        p7.setUbicacion(10.3997, -75.5567);
+        datos.add(p7);
         
         //   PROPIEDAD 8: Cali  
         Propiedad p8 = new Propiedad(
@@ -332,7 +1412,8 @@ public class PropiedadData {
         p8.agregarServicio("WiFi");
         p8.agregarServicio("Cocina");
         p8.agregarServicio("TV");
-        listaPropiedades.add(p8);
+        p8.setUbicacion(3.4689, -76.5183);
+        datos.add(p8);
         
         //   PROPIEDAD 9: Bogotá  
         Propiedad p9 = new Propiedad(
@@ -347,7 +1428,8 @@ public class PropiedadData {
         );
         p9.agregarServicio("WiFi");
         p9.agregarServicio("Cocina");
-        listaPropiedades.add(p9);
+        p9.setUbicacion(4.653, -74.11);
+        datos.add(p9);
         
         //   PROPIEDAD 10: Medellín  
         Propiedad p10 = new Propiedad(
@@ -365,13 +1447,775 @@ public class PropiedadData {
         p10.agregarServicio("Parqueadero");
         p10.agregarServicio("Piscina");
         p10.agregarServicio("Chimenea");
-        listaPropiedades.add(p10);
+        p10.setUbicacion(6.1551, -75.3737);
+        datos.add(p10);
         
-        System.out.println("✅ Datos de prueba cargados: " + listaPropiedades.size() + " propiedades");
-        System.out.println("   - Bogotá: 6 propiedades");
-        System.out.println("   - Medellín: 2 propiedades");
-        System.out.println("   - Cartagena: 1 propiedad");
-        System.out.println("   - Cali: 1 propiedad");
+        return datos;
+    }
+    
+    //   MANTENIMIENTO DE ÍNDICES  
+    
+    /**
+     * Agrega una propiedad a la lista y a todos los índices
+     * @param propiedad Propiedad a agregar
+     * @return false si ya había una propiedad con ese ID (no se agrega)
+     */
+    private static boolean agregarAlCatalogo(Propiedad propiedad) {
+        return escribirSi(propiedad, () -> {
+            if (porId(propiedad.getPropiedadId()) != null) {
+                return false;
+            }
+            indexar(propiedad);
+            return true;
+        });
+    }
+    
+    // Se llama con el candado de escritura tomado
+    private static void indexar(Propiedad propiedad) {
+        version++;
+        propiedad.ordinal = tabla.tamano();
+        propiedad.observador = observadorCatalogo;
+        // El calendario crece antes de publicar el ID: bloquearFechas no toma
+        // el candado del catálogo y puede llegar apenas el ID sea visible
+        calendario.agregar(propiedad.ordinal);
+        tabla.agregar(propiedad);
+        indicePorId.put(propiedad.getPropiedadId(), propiedad);
+        indicePorAnfitrion.computeIfAbsent(propiedad.getAnfitrionId(), k -> new CopyOnWriteArrayList<>())
+                          .add(propiedad);
+        agregarAIndices(propiedad);
+        invalidarCache(propiedad);
+    }
+    
+    /**
+     * Pasa una propiedad al índice de su anfitrión nuevo
+     * Las del punto de control no salen del grupo de su anfitrión original
+     * (cargadasDeAnfitrion las omite mientras tengan otro), así que solo se
+     * agregan al índice si no vuelven a ese anfitrión
+     * Se llama con el candado de escritura tomado
+     */
+    private static void cambiarAnfitrion(Propiedad propiedad, String anfitrionAnterior) {
+        String anfitrion = propiedad.getAnfitrionId();
+        if (Objects.equals(anfitrionAnterior, anfitrion)) {
+            return;
+        }
+        List<Propiedad> anteriores = anfitrionAnterior != null ? indicePorAnfitrion.get(anfitrionAnterior) : null;
+        if (anteriores != null) {
+            anteriores.remove(propiedad);
+        }
+        if (anfitrion != null && !tabla.esCargadaDeAnfitrion(propiedad.ordinal, anfitrion)) {
+            indicePorAnfitrion.computeIfAbsent(anfitrion, k -> new CopyOnWriteArrayList<>()).add(propiedad);
+        }
+    }
+    
+    // Índices de búsqueda, columnas y facetas (con el candado de escritura tomado)
+    private static void agregarAIndices(Propiedad propiedad) {
+        agregarAIndicesSinPrecio(propiedad,
+                                 new IndiceTexto.Documento(propiedad.getTitulo(), propiedad.getDescripcion()));
+        indicePrecios.agregar(propiedad.ordinal, propiedad.getPrecioPorNoche());
+        preciosPorCiudad.computeIfAbsent(propiedad.claveCiudad, k -> new IndicePrecios())
+                        .agregar(propiedad.ordinal, propiedad.getPrecioPorNoche());
+    }
+    
+    // Todos menos los índices de precio (ordenados), que un lote mezcla de una vez
+    private static void agregarAIndicesSinPrecio(Propiedad propiedad, IndiceTexto.Documento texto) {
+        indicePorCiudad.computeIfAbsent(propiedad.claveCiudad, k -> new MapaBits())
+                       .agregar(propiedad.ordinal);
+        columnas.agregar(propiedad);
+        facetaCiudades.agregar(propiedad.claveCiudad, propiedad.getCiudad(), propiedad.isDisponible());
+        for (String servicio : propiedad.getServicios()) {
+            indiceServicios.agregar(propiedad.ordinal, servicio);
+            facetaServicios.agregar(servicio, servicio, propiedad.isDisponible());
+        }
+        indiceTexto.agregar(propiedad, texto);
+        indiceGeografico.agregar(propiedad.ordinal, propiedad.getLatitud(), propiedad.getLongitud());
+    }
+    
+    /**
+     * Prepara un lote de propiedades nuevas para agregarLote
+     * Se puede llamar desde varios hilos a la vez (no toca el catálogo)
+     * @param propiedades Propiedades con ID asignado
+     */
+    static LotePropiedades prepararLote(List<Propiedad> propiedades) {
+        return new LotePropiedades(propiedades, registro != null);
+    }
+    
+    /**
+     * Agrega un lote de propiedades nuevas con un solo paso por el candado de
+     * escritura: las listas por anfitrión y los índices de precio se mezclan
+     * una vez por lote (no una vez por propiedad), la caché se descarta una
+     * sola vez y el registro de escritura espera un solo fsync
+     * @param lote Lote armado con prepararLote
+     * @return IDs que ya estaban en el catálogo o repetidos en el lote (esas no se agregan)
+     */
+    static List<String> agregarLote(LotePropiedades lote) {
+        RegistroEscritura r = registro;
+        List<String> repetidos = new ArrayList<>();
+        long numero;
+        long sello = candado.writeLock();
+        try {
+            numero = indexarLote(lote, r, repetidos);
+        } finally {
+            candado.unlockWrite(sello);
+        }
+        if (r != null && numero > 0) {
+            r.esperar(numero);
+        }
+        return repetidos;
+    }
+    
+    // Se llama con el candado de escritura tomado; devuelve el último registro anotado (0 = ninguno)
+    private static long indexarLote(LotePropiedades lote, RegistroEscritura r, List<String> repetidos) {
+        int n = lote.tamano();
+        int[] ordinales = new int[n];
+        double[] precios = new double[n];
+        Map<String, List<Propiedad>> porAnfitrion = new HashMap<>();
+        Map<String, ListaEnteros> porCiudad = new HashMap<>();
+        int agregadas = 0;
+        long numero = 0;
+        version++;
+        for (int i = 0; i < n; i++) {
+            Propiedad propiedad = lote.propiedades.get(i);
+            if (porId(propiedad.getPropiedadId()) != null) {
+                repetidos.add(propiedad.getPropiedadId());
+                continue;
+            }
+            propiedad.ordinal = tabla.tamano();
+            propiedad.observador = observadorCatalogo;
+            calendario.agregar(propiedad.ordinal);   // antes de publicar el ID (ver indexar)
+            tabla.agregar(propiedad);
+            indicePorId.put(propiedad.getPropiedadId(), propiedad);
+            porAnfitrion.computeIfAbsent(propiedad.getAnfitrionId(), k -> new ArrayList<>()).add(propiedad);
+            agregarAIndicesSinPrecio(propiedad, lote.documentos[i]);
+            porCiudad.computeIfAbsent(propiedad.claveCiudad, k -> new ListaEnteros()).agregar(agregadas);
+            ordinales[agregadas] = propiedad.ordinal;
+            precios[agregadas] = propiedad.getPrecioPorNoche();
+            agregadas++;
+            if (r != null) {
+                numero = r.agregar(lote.registros != null ? lote.registros[i] : codificar(propiedad));
+            }
+        }
+        if (agregadas == 0) {
+            return numero;
+        }
+        
+        for (Map.Entry<String, List<Propiedad>> e : porAnfitrion.entrySet()) {
+            indicePorAnfitrion.computeIfAbsent(e.getKey(), k -> new CopyOnWriteArrayList<>())
+                              .addAll(e.getValue());
+        }
+        indicePrecios.agregarLote(ordinales, precios, agregadas);
+        for (Map.Entry<String, ListaEnteros> e : porCiudad.entrySet()) {
+            ListaEnteros posiciones = e.getValue();
+            int[] ordinalesCiudad = new int[posiciones.tamano()];
+            double[] preciosCiudad = new double[posiciones.tamano()];
+            for (int k = 0; k < posiciones.tamano(); k++) {
+                ordinalesCiudad[k] = ordinales[posiciones.obtener(k)];
+                preciosCiudad[k] = precios[posiciones.obtener(k)];
+            }
+            preciosPorCiudad.computeIfAbsent(e.getKey(), k -> new IndicePrecios())
+                            .agregarLote(ordinalesCiudad, preciosCiudad, ordinalesCiudad.length);
+        }
+        cache.limpiar();
+        return numero;
+    }
+    
+    /**
+     * Quita una propiedad de los índices de búsqueda y las facetas según lo
+     * que esos índices tienen de ella (no según el objeto, que pudo cambiar)
+     * Se llama con el candado de escritura tomado
+     */
+    private static void quitarDeIndices(int o) {
+        String clave = columnas.claveCiudad(columnas.ciudades[o]);
+        boolean disponible = columnas.estaDisponible(o);
+        double precio = columnas.precios[o];
+        indicePorCiudad.get(clave).remover(o);
+        facetaCiudades.remover(clave, disponible);
+        indicePrecios.remover(o, precio);
+        preciosPorCiudad.get(clave).remover(o, precio);
+        for (int id = 0; id < indiceServicios.cantidadServicios(); id++) {
+            if (indiceServicios.mapa(id).contiene(o)) {
+                String servicio = indiceServicios.nombreServicio(id);
+                indiceServicios.remover(o, servicio);
+                facetaServicios.remover(servicio, disponible);
+            }
+        }
+        indiceTexto.remover(o);
+        indiceGeografico.remover(o, columnas.latitudes[o], columnas.longitudes[o]);
+    }
+    
+    //   CONCURRENCIA  
+    
+    /**
+     * Lee el catálogo sin bloquear a los demás lectores
+     * Primero se lee sin candado; si un cambio se cruzó (o la lectura vio un
+     * estado a medias y falló) el resultado se descarta y se repite con el
+     * candado de lectura, que solo espera a que termine ese cambio
+     * @param lectura Lectura a ejecutar; recibe el sello de la lectura
+     * @return Resultado de una lectura sin cambios concurrentes
+     */
+    private static <T> T leerConSello(LongFunction<T> lectura) {
+        long sello = candado.tryOptimisticRead();
+        if (sello != 0) {
+            try {
+                T resultado = lectura.apply(sello);
+                if (candado.validate(sello)) {
+                    return resultado;
+                }
+            } catch (RuntimeException e) {
+                // Sin cambios cruzados el error es real
+                if (candado.validate(sello)) {
+                    throw e;
+                }
+            }
+        }
+        sello = candado.readLock();
+        try {
+            return lectura.apply(sello);
+        } finally {
+            candado.unlockRead(sello);
+        }
+    }
+    
+    /**
+     * @see #leerConSello(LongFunction)
+     */
+    private static <T> T leer(Supplier<T> lectura) {
+        return leerConSello(sello -> lectura.get());
+    }
+    
+    /**
+     * Aplica un cambio al catálogo con el candado de escritura
+     * @param cambio Cambio de la lista y los índices
+     */
+    private static void escribir(Runnable cambio) {
+        long sello = candado.writeLock();
+        try {
+            cambio.run();
+        } finally {
+            candado.unlockWrite(sello);
+        }
+    }
+    
+    /**
+     * Aplica el cambio de una propiedad y lo anota en el registro de escritura
+     * El registro se encola con el candado tomado (mismo orden que los cambios)
+     * pero se espera el fsync después de soltarlo, así las búsquedas no esperan al disco
+     * @param propiedad Propiedad nueva o modificada (se anota su estado completo)
+     * @param cambio Cambio de la lista y los índices
+     */
+    private static void escribir(Propiedad propiedad, Runnable cambio) {
+        escribirSi(propiedad, () -> {
+            cambio.run();
+            return true;
+        });
+    }
+    
+    /**
+     * Igual que escribir, pero el cambio puede no aplicarse (ej: ID repetido):
+     * si devuelve false no se anota nada en el registro
+     * @return Lo que devolvió el cambio
+     */
+    private static boolean escribirSi(Propiedad propiedad, BooleanSupplier cambio) {
+        RegistroEscritura r = registro;
+        long numero = 0;
+        boolean aplicado;
+        long sello = candado.writeLock();
+        try {
+            aplicado = cambio.getAsBoolean();
+            if (aplicado && r != null) {
+                numero = r.agregar(codificar(propiedad));
+            }
+        } finally {
+            candado.unlockWrite(sello);
+        }
+        if (aplicado && r != null) {
+            r.esperar(numero);
+            revisarPuntoControl(r);
+        }
+        return aplicado;
+    }
+    
+    //   REGISTRO DE ESCRITURA  
+    
+    // Tipo de registro: estado completo de una propiedad (alta o cambio)
+    private static final byte REGISTRO_PROPIEDAD = 1;
+    
+    /**
+     * Reconstruye el catálogo: carga el último punto de control (si hay) y
+     * reproduce solo la cola del registro escrita después de él
+     * Cada registro trae el estado completo de una propiedad, así que basta
+     * quedarse con el último de cada una: las que ya estaban en el punto de
+     * control toman ese estado y las demás se agregan en el orden en que se
+     * registraron por primera vez
+     * @return true si había propiedades guardadas
+     */
+    private static boolean recuperar(RegistroEscritura abierto) {
+        long inicio = System.nanoTime();
+        ArchivoPuntoControl punto;
+        try {
+            punto = ArchivoPuntoControl.abrir(archivoPuntoControl(abierto), FORMATO_PUNTO_CONTROL);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el punto de control de propiedades", e);
+        }
+        if (punto != null) {
+            escribir(() -> cargarPuntoControl(punto));
+        }
+        int cargadas = leer(tabla::tamano);
+        
+        Map<String, Propiedad> estados = new LinkedHashMap<>();
+        try {
+            abierto.reproducir(punto != null ? punto.getGeneracion() : 0, datos -> {
+                Propiedad propiedad = decodificar(datos);
+                estados.put(propiedad.getPropiedadId(), propiedad);
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el registro de propiedades", e);
+        }
+        for (Propiedad estado : estados.values()) {
+            Propiedad actual = porId(estado.getPropiedadId());
+            if (actual != null) {
+                restaurar(actual, estado);
+            } else {
+                agregarAlCatalogo(estado);
+            }
+        }
+        if (cargadas > 0 || !estados.isEmpty()) {
+            System.out.println("✅ Propiedades recuperadas: " + cargadas + " del punto de control y "
+                               + estados.size() + " del registro ("
+                               + (System.nanoTime() - inicio) / 1_000_000 + " ms)");
+        }
+        return cargadas > 0 || !estados.isEmpty();
+    }
+    
+    /**
+     * Lleva una propiedad ya indexada al estado anotado en el registro
+     * Los índices se corrigen a partir de lo que ellos mismos tienen: un
+     * punto de control pudo guardar el objeto con un cambio que todavía no
+     * había llegado a los índices (ese cambio es justamente el de la cola)
+     */
+    private static void restaurar(Propiedad actual, Propiedad estado) {
+        reemplazar(actual, estado, false);
+    }
+    
+    /**
+     * Copia todos los datos de estado a una propiedad ya indexada y la
+     * reindexa, con un solo paso por el candado de escritura
+     * Se toma primero el monitor de la propiedad (el mismo orden que sus
+     * setters): mientras el observador está quitado ningún otro hilo puede
+     * cambiarla sin que el cambio llegue a los índices
+     * @param anotar true para anotar el estado nuevo en el registro de escritura
+     */
+    private static void reemplazar(Propiedad actual, Propiedad estado, boolean anotar) {
+        Runnable cambio = () -> {
+            nuevaVersion(actual);
+            quitarDeIndices(actual.ordinal);
+            String anfitrionAnterior = actual.getAnfitrionId();
+            
+            // Copiar el estado sin avisar al observador: los índices se arman después
+            actual.observador = null;
+            actual.setAnfitrionId(estado.getAnfitrionId());
+            actual.setTitulo(estado.getTitulo());
+            actual.setDescripcion(estado.getDescripcion());
+            actual.setCiudad(estado.getCiudad());
+            actual.setDireccion(estado.getDireccion());
+            actual.setTipo(estado.getTipo());
+            actual.setCapacidad(estado.getCapacidad());
+            actual.setHabitaciones(estado.getHabitaciones());
+            actual.setBanos(estado.getBanos());
+            actual.setPrecioPorNoche(estado.getPrecioPorNoche());
+            actual.setUbicacion(estado.getLatitud(), estado.getLongitud());
+            actual.setDisponible(estado.isDisponible());
+            actual.setServicios(estado.getServicios());
+            actual.observador = observadorCatalogo;
+            
+            cambiarAnfitrion(actual, anfitrionAnterior);
+            agregarAIndices(actual);
+            invalidarCache(actual);
+        };
+        synchronized (actual) {
+            if (anotar) {
+                escribir(actual, cambio);
+            } else {
+                escribir(cambio);
+            }
+        }
+    }
+    
+    static byte[] codificar(Propiedad propiedad) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        try (DataOutputStream salida = new DataOutputStream(bytes)) {
+            salida.writeByte(REGISTRO_PROPIEDAD);
+            RegistroEscritura.escribirTexto(salida, propiedad.getPropiedadId());
+            RegistroEscritura.escribirTexto(salida, propiedad.getAnfitrionId());
+            RegistroEscritura.escribirTexto(salida, propiedad.getTitulo());
+            RegistroEscritura.escribirTexto(salida, propiedad.getDescripcion());
+            RegistroEscritura.escribirTexto(salida, propiedad.getCiudad());
+            RegistroEscritura.escribirTexto(salida, propiedad.getDireccion());
+            RegistroEscritura.escribirTexto(salida, propiedad.getTipo());
+            salida.writeInt(propiedad.getCapacidad());
+            salida.writeInt(propiedad.getHabitaciones());
+            salida.writeInt(propiedad.getBanos());
+            salida.writeDouble(propiedad.getPrecioPorNoche());
+            salida.writeDouble(propiedad.getLatitud());
+            salida.writeDouble(propiedad.getLongitud());
+            salida.writeBoolean(propiedad.isDisponible());
+            List<String> servicios = propiedad.getServicios();
+            salida.writeInt(servicios.size());
+            for (String servicio : servicios) {
+                RegistroEscritura.escribirTexto(salida, servicio);
+            }
+        } catch (IOException e) {
+            // No ocurre: se escribe en memoria
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    static Propiedad decodificar(DataInput datos) throws IOException {
+        byte tipo = datos.readByte();
+        if (tipo != REGISTRO_PROPIEDAD) {
+            throw new IOException("Tipo de registro desconocido: " + tipo);
+        }
+        Propiedad propiedad = new Propiedad(
+            RegistroEscritura.leerTexto(datos), RegistroEscritura.leerTexto(datos),
+            RegistroEscritura.leerTexto(datos), RegistroEscritura.leerTexto(datos),
+            RegistroEscritura.leerTexto(datos), RegistroEscritura.leerTexto(datos),
+            RegistroEscritura.leerTexto(datos),
+            datos.readInt(), datos.readInt(), datos.readInt(), datos.readDouble()
+        );
+        propiedad.setUbicacion(datos.readDouble(), datos.readDouble());
+        propiedad.setDisponible(datos.readBoolean());
+        int servicios = datos.readInt();
+        for (int i = 0; i < servicios; i++) {
+            propiedad.agregarServicio(RegistroEscritura.leerTexto(datos));
+        }
+        return propiedad;
+    }
+    
+    //   PUNTO DE CONTROL  
+    
+    // Versión del contenido de propiedades.snap
+    private static final int FORMATO_PUNTO_CONTROL = 1;
+    
+    /**
+     * Guarda una copia completa del catálogo y descarta el registro de
+     * escritura anterior a ella, así el próximo arranque carga la copia y
+     * solo reproduce los cambios posteriores
+     * Mientras se escribe, los cambios esperan (las búsquedas no)
+     * @return true si se guardó; false si no hay directorio de datos configurado
+     */
+    public boolean guardarPuntoControl() {
+        RegistroEscritura r = registro;
+        if (r == null) {
+            return false;
+        }
+        guardarPuntoControl(r);
+        return true;
+    }
+    
+    private static void guardarPuntoControl(RegistroEscritura r) {
+        synchronized (candadoPuntoControl) {
+            long inicio = System.nanoTime();
+            long generacion;
+            long bytes;
+            int cantidad;
+            // El candado de lectura detiene a quienes cambian el catálogo: el
+            // punto de control queda exactamente en el corte de la rotación
+            long sello = candado.readLock();
+            try {
+                cantidad = tabla.tamano();
+                generacion = r.rotar();
+                bytes = ArchivoPuntoControl.guardar(archivoPuntoControl(r), FORMATO_PUNTO_CONTROL,
+                                                    generacion, PropiedadData::escribirPuntoControl);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo guardar el punto de control de propiedades", e);
+            } finally {
+                candado.unlockRead(sello);
+            }
+            try {
+                r.descartarAnteriores(generacion);
+            } catch (IOException e) {
+                throw new UncheckedIOException("No se pudo descartar el registro anterior al punto de control", e);
+            }
+            System.out.println("✅ Punto de control de propiedades: " + cantidad + " propiedades, "
+                               + bytes / (1 << 20) + " MB (" + (System.nanoTime() - inicio) / 1_000_000 + " ms)");
+        }
+    }
+    
+    // Después de cada cambio: si el registro creció lo suficiente, guarda un
+    // punto de control en segundo plano (uno a la vez)
+    private static void revisarPuntoControl(RegistroEscritura r) {
+        if (!r.pidePuntoControl() || !puntoControlPendiente.compareAndSet(false, true)) {
+            return;
+        }
+        Thread hilo = new Thread(() -> {
+            try {
+                guardarPuntoControl(r);
+            } catch (RuntimeException e) {
+                System.err.println("⚠️ " + e.getMessage());
+            } finally {
+                puntoControlPendiente.set(false);
+            }
+        }, "punto-control-propiedades");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+    
+    private static Path archivoPuntoControl(RegistroEscritura r) {
+        return r.getDirectorio().resolve(r.getNombre() + ".snap");
+    }
+    
+    /**
+     * Contenido del punto de control: las propiedades y todos los índices de
+     * búsqueda ya armados, así al cargarlo no hay que volver a indexar
+     * Se llama con el candado de lectura tomado
+     */
+    private static void escribirPuntoControl(ArchivoPuntoControl.Salida salida) throws IOException {
+        int n = tabla.tamano();
+        tabla.escribir(salida);
+        columnas.escribir(salida);
+        indicePrecios.escribir(salida);
+        salida.writeInt(indicePorCiudad.size());
+        for (Map.Entry<String, MapaBits> e : indicePorCiudad.entrySet()) {
+            salida.escribirTexto(e.getKey());
+            e.getValue().escribir(salida);
+            preciosPorCiudad.getOrDefault(e.getKey(), new IndicePrecios()).escribir(salida);
+        }
+        indiceServicios.escribir(salida);
+        indiceTexto.escribir(salida, n);
+        indiceGeografico.escribir(salida);
+        facetaCiudades.escribir(salida);
+        facetaServicios.escribir(salida);
+    }
+    
+    // Carga el contenido en el mismo orden (con el candado de escritura tomado)
+    private static void cargarPuntoControl(ArchivoPuntoControl punto) {
+        ByteBuffer datos = punto.getDatos().duplicate();
+        TablaPropiedades cargada = TablaPropiedades.cargar(datos, observadorCatalogo);
+        int n = cargada.tamano();
+        if (n > 0) {
+            calendario.agregar(n - 1);   // antes de publicar la tabla (ver indexar)
+        }
+        tabla = cargada;
+        columnas.cargar(datos);
+        indicePrecios.cargar(datos);
+        int ciudades = datos.getInt();
+        for (int i = 0; i < ciudades; i++) {
+            String clave = ArchivoPuntoControl.leerTexto(datos);
+            indicePorCiudad.put(clave, MapaBits.leer(datos));
+            IndicePrecios precios = new IndicePrecios();
+            precios.cargar(datos);
+            preciosPorCiudad.put(clave, precios);
+        }
+        indiceServicios.cargar(datos);
+        indiceTexto.cargar(datos, n);
+        indiceGeografico.cargar(datos);
+        facetaCiudades.cargar(datos);
+        facetaServicios.cargar(datos);
+        version++;
+    }
+    
+    /**
+     * Descarta de la caché las búsquedas cuyo resultado cambia por esta propiedad
+     * Se llama después de actualizar los índices
+     * @param propiedad Propiedad nueva o modificada
+     */
+    private static void invalidarCache(Propiedad propiedad) {
+        int ordinal = propiedad.ordinal;
+        cache.propiedadCambiada(ordinal, filtro -> cumpleFiltro(ordinal, filtro));
+    }
+    
+    /**
+     * Normaliza el nombre de una ciudad para usarlo como clave de índice
+     * @param ciudad Nombre de la ciudad (ej: " Bogotá")
+     * @return Clave normalizada (ej: "bogotá")
+     */
+    static String normalizarCiudad(String ciudad) {
+        return ciudad == null ? "" : ciudad.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Verifica un rango de candidatas (o de ordinales del catálogo completo)
+     * Divide el rango en trozos que se procesan en paralelo y une los
+     * resultados en orden, de modo que el orden del catálogo se conserva
+     */
+    private static class TareaBusqueda extends RecursiveTask<ListaEnteros> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        // La tarea nunca se serializa (solo corre en el pool de este proceso)
+        private final transient FiltroBusqueda filtro;
+        private final int idCiudad;
+        private final transient List<MapaBits> mapasRequeridos;
+        private final int[] candidatas;   // null = ordinales del catálogo
+        private final int desde;
+        private final int hasta;
+        
+        TareaBusqueda(FiltroBusqueda filtro, int idCiudad, List<MapaBits> mapasRequeridos,
+                      int[] candidatas, int desde, int hasta) {
+            this.filtro = filtro;
+            this.idCiudad = idCiudad;
+            this.mapasRequeridos = mapasRequeridos;
+            this.candidatas = candidatas;
+            this.desde = desde;
+            this.hasta = hasta;
+        }
+        
+        @Override
+        protected ListaEnteros compute() {
+            if (hasta - desde <= TAMANO_TROZO) {
+                return ejecutarSecuencial();
+            }
+            // Punto medio alineado a 64 para no partir bloques del recorrido
+            int medio = ((desde + hasta) >>> 1) & ~63;
+            TareaBusqueda izquierda = new TareaBusqueda(filtro, idCiudad, mapasRequeridos, candidatas, desde, medio);
+            TareaBusqueda derecha = new TareaBusqueda(filtro, idCiudad, mapasRequeridos, candidatas, medio, hasta);
+            izquierda.fork();
+            ListaEnteros resultadoDerecha = derecha.compute();
+            ListaEnteros resultado = izquierda.join();
+            resultado.agregarTodos(resultadoDerecha);
+            return resultado;
+        }
+        
+        ListaEnteros ejecutarSecuencial() {
+            ListaEnteros resultados = new ListaEnteros();
+            if (candidatas != null) {
+                for (int i = desde; i < hasta; i++) {
+                    if (cumpleFiltro(candidatas[i], filtro, idCiudad, mapasRequeridos)) {
+                        resultados.agregar(candidatas[i]);
+                    }
+                }
+                return resultados;
+            }
+            // Recorrido de las columnas en bloques de 64 ordinales: los criterios
+            // numéricos se evalúan juntos (vectorialmente si se puede)
+            for (int inicio = desde; inicio < hasta; inicio += 64) {
+                long bloque = evaluador.evaluarBloque(columnas, filtro, inicio)
+                            & columnas.palabraDisponibles(inicio >>> 6);
+                while (bloque != 0) {
+                    int ordinal = inicio + Long.numberOfTrailingZeros(bloque);
+                    bloque &= bloque - 1;
+                    if (cumpleOtrosCriterios(ordinal, filtro, idCiudad, mapasRequeridos)) {
+                        resultados.agregar(ordinal);
+                    }
+                }
+            }
+            return resultados;
+        }
+    }
+    
+    /**
+     * Actualiza los índices cuando cambia una propiedad ya registrada
+     * Cada cambio toma el candado de escritura del catálogo
+     */
+    private static class ObservadorCatalogo implements ObservadorPropiedad {
+        
+        @Override
+        public void servicioAgregado(Propiedad propiedad, String servicio) {
+            escribir(propiedad, () -> {
+                nuevaVersion(propiedad);
+                indiceServicios.agregar(propiedad.ordinal, servicio);
+                facetaServicios.agregar(servicio, servicio, propiedad.isDisponible());
+                invalidarCache(propiedad);
+            });
+        }
+        
+        @Override
+        public void servicioRemovido(Propiedad propiedad, String servicio) {
+            escribir(propiedad, () -> {
+                nuevaVersion(propiedad);
+                indiceServicios.remover(propiedad.ordinal, servicio);
+                facetaServicios.remover(servicio, propiedad.isDisponible());
+                invalidarCache(propiedad);
+            });
+        }
+        
+        @Override
+        public void precioCambiado(Propiedad propiedad, double precioAnterior) {
+            escribir(propiedad, () -> {
+                nuevaVersion(propiedad);
+                String clave = propiedad.claveCiudad;
+                indicePrecios.remover(propiedad.ordinal, precioAnterior);
+                indicePrecios.agregar(propiedad.ordinal, propiedad.getPrecioPorNoche());
+                preciosPorCiudad.get(clave).remover(propiedad.ordinal, precioAnterior);
+                preciosPorCiudad.get(clave).agregar(propiedad.ordinal, propiedad.getPrecioPorNoche());
+                columnas.actualizar(propiedad);
+                invalidarCache(propiedad);
+            });
+        }
+        
+        @Override
+        public void ciudadCambiada(Propiedad propiedad, String ciudadAnterior) {
+            escribir(propiedad, () -> {
+                String claveAnterior = normalizarCiudad(ciudadAnterior);
+                String claveNueva = propiedad.claveCiudad;
+                if (claveAnterior.equals(claveNueva)) {
+                    return;
+                }
+                nuevaVersion(propiedad, ciudadAnterior, propiedad.getTitulo(), propiedad.getDescripcion());
+                indicePorCiudad.get(claveAnterior).remover(propiedad.ordinal);
+                indicePorCiudad.computeIfAbsent(claveNueva, k -> new MapaBits()).agregar(propiedad.ordinal);
+                preciosPorCiudad.get(claveAnterior).remover(propiedad.ordinal, propiedad.getPrecioPorNoche());
+                preciosPorCiudad.computeIfAbsent(claveNueva, k -> new IndicePrecios())
+                                .agregar(propiedad.ordinal, propiedad.getPrecioPorNoche());
+                facetaCiudades.remover(claveAnterior, propiedad.isDisponible());
+                facetaCiudades.agregar(claveNueva, propiedad.getCiudad(), propiedad.isDisponible());
+                columnas.actualizar(propiedad);
+                invalidarCache(propiedad);
+            });
+        }
+        
+        @Override
+        public void ubicacionCambiada(Propiedad propiedad, double latitudAnterior, double longitudAnterior) {
+            escribir(propiedad, () -> {
+                nuevaVersion(propiedad);
+                indiceGeografico.remover(propiedad.ordinal, latitudAnterior, longitudAnterior);
+                indiceGeografico.agregar(propiedad.ordinal, propiedad.getLatitud(), propiedad.getLongitud());
+                columnas.actualizar(propiedad);
+                invalidarCache(propiedad);
+            });
+        }
+        
+        @Override
+        public void caracteristicasCambiadas(Propiedad propiedad) {
+            escribir(propiedad, () -> {
+                nuevaVersion(propiedad);
+                boolean estabaDisponible = columnas.estaDisponible(propiedad.ordinal);
+                columnas.actualizar(propiedad);
+                
+                // Ajustar conteos de disponibles de las facetas si cambió el estado
+                if (estabaDisponible != propiedad.isDisponible()) {
+                    facetaCiudades.cambiarDisponibilidad(propiedad.claveCiudad, propiedad.isDisponible());
+                    for (String servicio : propiedad.getServicios()) {
+                        facetaServicios.cambiarDisponibilidad(servicio, propiedad.isDisponible());
+                    }
+                }
+                invalidarCache(propiedad);
+            });
+        }
+        
+        @Override
+        public void textoCambiado(Propiedad propiedad, String tituloAnterior, String descripcionAnterior) {
+            escribir(propiedad, () -> {
+                nuevaVersion(propiedad, propiedad.getCiudad(), tituloAnterior, descripcionAnterior);
+                indiceTexto.actualizar(propiedad);
+                invalidarCache(propiedad);
+            });
+        }
+        
+        // Ni el anfitrión ni la dirección cambian el resultado de una búsqueda:
+        // la caché sigue valiendo, solo se anota el cambio
+        @Override
+        public void anfitrionCambiado(Propiedad propiedad, String anfitrionAnterior) {
+            escribir(propiedad, () -> {
+                nuevaVersion(propiedad);
+                cambiarAnfitrion(propiedad, anfitrionAnterior);
+            });
+        }
+        
+        @Override
+        public void direccionCambiada(Propiedad propiedad) {
+            escribir(propiedad, () -> nuevaVersion(propiedad));
+        }
     }
     
     //   MÉTODOS DE UTILIDAD
@@ -381,11 +2225,12 @@ public class PropiedadData {
      */
     public void imprimirPropiedades() {
         System.out.println("   PROPIEDADES REGISTRADAS  ");
-        if (listaPropiedades.isEmpty()) {
+        List<Propiedad> propiedades = obtenerTodasPropiedades();
+        if (propiedades.isEmpty()) {
             System.out.println("No hay propiedades registradas");
         } else {
-            for (int i = 0; i < listaPropiedades.size(); i++) {
-                Propiedad p = listaPropiedades.get(i);
+            for (int i = 0; i < propiedades.size(); i++) {
+                Propiedad p = propiedades.get(i);
                 System.out.println((i + 1) + ". " + p.getTitulo() + 
                                    " - " + p.getCiudad() + 
                                    " - $" + String.format("%,.0f", p.getPrecioPorNoche()));
@@ -398,16 +2243,17 @@ public class PropiedadData {
      */
     public void imprimirEstadisticas() {
         System.out.println("   ESTADÍSTICAS  ");
-        System.out.println("Total propiedades: " + listaPropiedades.size());
+        List<Propiedad> propiedades = obtenerTodasPropiedades();
+        System.out.println("Total propiedades: " + propiedades.size());
         System.out.println("Propiedades disponibles: " + obtenerPropiedadesDisponibles().size());
         System.out.println("Ciudades: " + obtenerCiudades());
         
         // Precio promedio
         double sumaPrecios = 0;
-        for (Propiedad p : listaPropiedades) {
+        for (Propiedad p : propiedades) {
             sumaPrecios += p.getPrecioPorNoche();
         }
-        double promedio = sumaPrecios / listaPropiedades.size();
+        double promedio = sumaPrecios / propiedades.size();
         System.out.println("Precio promedio: $" + String.format("%,.0f", promedio));
     }
 }
@@ -0,0 +1,612 @@
+package modelo;
+
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * DAO de propiedades sobre una base de datos JDBC (H2 por defecto)
+ * Ofrece las mismas operaciones que PropiedadData, pero los datos viven en
+ * tablas: cada búsqueda con filtros es una sola consulta SQL parametrizada
+ * que usa los índices de ciudad, precio y servicios
+ *
+ * Las propiedades que devuelve son copias leídas de la base: para guardar
+ * un cambio hay que pasarla a actualizarPropiedad. La página ordenada y las
+ * facetas se arman en Java sobre las coincidencias (ver AlmacenPropiedades)
+ */
+public final class PropiedadDataJdbc implements AlmacenPropiedades {
+
+    //   ESQUEMA
+
+    // El orden de alta es la clave primaria: los resultados salen en orden del catálogo
+    private static final String[] ESQUEMA = {
+        "CREATE TABLE IF NOT EXISTS propiedades ("
+            + "orden BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY, "
+            + "propiedad_id VARCHAR(64) NOT NULL UNIQUE, anfitrion_id VARCHAR(64), "
+            + "titulo VARCHAR, descripcion VARCHAR, ciudad VARCHAR, ciudad_clave VARCHAR NOT NULL, "
+            + "direccion VARCHAR, latitud DOUBLE PRECISION, longitud DOUBLE PRECISION, tipo VARCHAR, "
+            + "capacidad INT NOT NULL, habitaciones INT NOT NULL, banos INT NOT NULL, "
+            + "precio_por_noche DOUBLE PRECISION NOT NULL, disponible BOOLEAN NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS idx_propiedades_ciudad_precio ON propiedades (ciudad_clave, precio_por_noche)",
+        "CREATE INDEX IF NOT EXISTS idx_propiedades_precio ON propiedades (precio_por_noche)",
+        "CREATE INDEX IF NOT EXISTS idx_propiedades_anfitrion ON propiedades (anfitrion_id)",
+        // Un servicio por fila; la posición conserva el orden en que se agregaron
+        "CREATE TABLE IF NOT EXISTS propiedad_servicios ("
+            + "propiedad_id VARCHAR(64) NOT NULL REFERENCES propiedades (propiedad_id) ON DELETE CASCADE, "
+            + "servicio VARCHAR NOT NULL, posicion INT NOT NULL, PRIMARY KEY (propiedad_id, servicio))",
+        "CREATE INDEX IF NOT EXISTS idx_servicios_servicio ON propiedad_servicios (servicio, propiedad_id)",
+        // Una fila por noche ocupada: la clave primaria impide dos reservas de la misma noche
+        "CREATE TABLE IF NOT EXISTS noches_ocupadas ("
+            + "propiedad_id VARCHAR(64) NOT NULL REFERENCES propiedades (propiedad_id) ON DELETE CASCADE, "
+            + "noche DATE NOT NULL, PRIMARY KEY (propiedad_id, noche))"
+    };
+
+    //   CONSULTAS SQL
+
+    // Columnas de una propiedad más uno de sus servicios (una fila por servicio)
+    private static final String SELECCION = "SELECT p.propiedad_id, p.anfitrion_id, p.titulo, p.descripcion, "
+        + "p.ciudad, p.direccion, p.tipo, p.capacidad, p.habitaciones, p.banos, p.precio_por_noche, "
+        + "p.latitud, p.longitud, p.disponible, s.servicio "
+        + "FROM propiedades p LEFT JOIN propiedad_servicios s ON s.propiedad_id = p.propiedad_id";
+    private static final String ORDEN = " ORDER BY p.orden, s.posicion";
+
+    private static final String INSERTAR = "INSERT INTO propiedades (propiedad_id, anfitrion_id, titulo, "
+        + "descripcion, ciudad, ciudad_clave, direccion, latitud, longitud, tipo, capacidad, habitaciones, "
+        + "banos, precio_por_noche, disponible) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String ACTUALIZAR = "UPDATE propiedades SET anfitrion_id = ?, titulo = ?, "
+        + "descripcion = ?, ciudad = ?, ciudad_clave = ?, direccion = ?, latitud = ?, longitud = ?, tipo = ?, "
+        + "capacidad = ?, habitaciones = ?, banos = ?, precio_por_noche = ?, disponible = ? WHERE propiedad_id = ?";
+    private static final String INSERTAR_SERVICIO =
+        "INSERT INTO propiedad_servicios (propiedad_id, servicio, posicion) VALUES (?, ?, ?)";
+    private static final String INSERTAR_NOCHE = "INSERT INTO noches_ocupadas (propiedad_id, noche) VALUES (?, ?)";
+
+    // Filas que se mandan juntas en cada lote de inserciones
+    static final int FILAS_POR_LOTE = 1000;
+
+    private final PoolConexiones pool;
+
+    // Solo se usa para verificar texto (no guarda documentos)
+    private final IndiceTexto textos = new IndiceTexto();
+
+    //   CONSTRUCTOR
+
+    /**
+     * Constructor con el pool compartido (configurado por propiedades del sistema)
+     */
+    public PropiedadDataJdbc() {
+        this(PoolConexiones.compartido());
+    }
+
+    /**
+     * Crea las tablas si no existen y, si no hay propiedades, carga datos de prueba
+     * @param pool Pool de conexiones a la base de datos
+     */
+    public PropiedadDataJdbc(PoolConexiones pool) {
+        this(pool, true);
+    }
+
+    /**
+     * @param pool Pool de conexiones a la base de datos
+     * @param datosPrueba false para no cargar datos de prueba aunque no haya propiedades
+     */
+    PropiedadDataJdbc(PoolConexiones pool, boolean datosPrueba) {
+        this.pool = pool;
+        synchronized (PropiedadDataJdbc.class) {
+            boolean vacia = pool.usar(c -> {
+                c.ejecutar(ESQUEMA);
+                return c.contar("SELECT COUNT(*) FROM propiedades") == 0;
+            });
+            if (vacia && datosPrueba) {
+                cargarDatosPrueba();
+            }
+        }
+    }
+
+    //   MÉTODOS CRUD
+
+    /**
+     * Registra una nueva propiedad en el sistema
+     * @param propiedad Propiedad a registrar
+     * @return true si se registró; false si ya hay una propiedad con ese ID
+     */
+    public boolean registrarPropiedad(Propiedad propiedad) {
+        // Generar ID único si no tiene
+        if (propiedad.getPropiedadId() == null || propiedad.getPropiedadId().isEmpty()) {
+            propiedad.setPropiedadId(UUID.randomUUID().toString());
+        }
+
+        boolean registrada = pool.enTransaccion(c -> {
+            try {
+                insertar(c, List.of(propiedad));
+                return true;
+            } catch (SQLException e) {
+                if (!PoolConexiones.esClaveRepetida(e)) {
+                    throw e;
+                }
+                c.jdbc.rollback();
+                return false;
+            }
+        });
+        if (registrada) {
+            System.out.println("✅ Propiedad registrada: " + propiedad.getTitulo());
+        }
+        return registrada;
+    }
+
+    /**
+     * Registra varias propiedades nuevas en una sola transacción
+     * Las filas se mandan a la base en lotes JDBC (una ida y vuelta por
+     * lote en vez de una por fila)
+     * @param propiedades Propiedades a registrar (las que no tienen ID reciben uno)
+     * @return Cantidad registrada; se omiten las nulas y las de ID ya registrado
+     */
+    public int registrarPropiedades(Collection<Propiedad> propiedades) {
+        if (propiedades == null || propiedades.isEmpty()) {
+            return 0;
+        }
+        GeneradorIds ids = new GeneradorIds();
+        List<Propiedad> nuevas = new ArrayList<>(propiedades.size());
+        Set<String> vistas = new HashSet<>();
+        int recibidas = 0;
+        for (Propiedad propiedad : propiedades) {
+            if (propiedad == null) {
+                continue;
+            }
+            recibidas++;
+            if (propiedad.getPropiedadId() == null || propiedad.getPropiedadId().isEmpty()) {
+                propiedad.setPropiedadId(ids.siguiente());
+            }
+            if (vistas.add(propiedad.getPropiedadId())) {
+                nuevas.add(propiedad);
+            }
+        }
+
+        int registradas = pool.enTransaccion(c -> {
+            Set<String> existentes = c.existentes("SELECT propiedad_id FROM propiedades WHERE propiedad_id = ANY(?)",
+                                                  vistas);
+            if (!existentes.isEmpty()) {
+                nuevas.removeIf(p -> existentes.contains(p.getPropiedadId()));
+            }
+            insertar(c, nuevas);
+            return nuevas.size();
+        });
+        int repetidas = recibidas - registradas;
+        System.out.println("✅ Propiedades registradas: " + registradas
+                           + (repetidas == 0 ? "" : " (" + repetidas + " con ID repetido)"));
+        return registradas;
+    }
+
+    /**
+     * Guarda los datos actuales de una propiedad ya registrada (incluidos sus servicios)
+     * @param propiedad Propiedad con los cambios
+     * @return true si existía y se actualizó
+     */
+    public boolean actualizarPropiedad(Propiedad propiedad) {
+        return pool.enTransaccion(c -> {
+            PreparedStatement sentencia = c.preparar(ACTUALIZAR);
+            sentencia.setString(1, propiedad.getAnfitrionId());
+            asignarDatos(sentencia, 2, propiedad);
+            sentencia.setString(15, propiedad.getPropiedadId());
+            if (sentencia.executeUpdate() == 0) {
+                return false;
+            }
+            PreparedStatement borrar = c.preparar("DELETE FROM propiedad_servicios WHERE propiedad_id = ?");
+            borrar.setString(1, propiedad.getPropiedadId());
+            borrar.executeUpdate();
+            insertarServicios(c, List.of(propiedad));
+            return true;
+        });
+    }
+
+    /**
+     * Busca una propiedad por su ID
+     * @param id ID de la propiedad
+     * @return Propiedad si existe, null si no
+     */
+    public Propiedad buscarPorId(String id) {
+        List<Propiedad> encontradas = consultar(SELECCION + " WHERE p.propiedad_id = ?" + ORDEN, List.of(id));
+        return encontradas.isEmpty() ? null : encontradas.get(0);
+    }
+
+    /**
+     * Obtiene todas las propiedades disponibles
+     * @return Lista de propiedades con disponible=true
+     */
+    public List<Propiedad> obtenerPropiedadesDisponibles() {
+        return consultar(SELECCION + " WHERE p.disponible" + ORDEN, List.of());
+    }
+
+    /**
+     * Obtiene todas las propiedades (disponibles y no disponibles)
+     * @return Lista completa de propiedades
+     */
+    public List<Propiedad> obtenerTodasPropiedades() {
+        return consultar(SELECCION + ORDEN, List.of());
+    }
+
+    /**
+     * Obtiene propiedades de un anfitrión específico
+     * @param anfitrionId ID del anfitrión
+     * @return Lista de propiedades del anfitrión
+     */
+    public List<Propiedad> obtenerPropiedadesPorAnfitrion(String anfitrionId) {
+        return consultar(SELECCION + " WHERE p.anfitrion_id = ?" + ORDEN, List.of(anfitrionId));
+    }
+
+    //   MÉTODOS DE BÚSQUEDA CON FILTROS
+
+    /**
+     * Busca propiedades aplicando filtros
+     * @param ciudad Ciudad a buscar
+     * @param precioMin Precio mínimo
+     * @param precioMax Precio máximo
+     * @param serviciosRequeridos Lista de servicios que debe tener
+     * @return Lista de propiedades que cumplen los filtros
+     */
+    public List<Propiedad> buscarConFiltros(String ciudad, double precioMin,
+                                            double precioMax, List<String> serviciosRequeridos) {
+        return buscarConFiltros(new FiltroBusqueda(ciudad, precioMin, precioMax, serviciosRequeridos));
+    }
+
+    /**
+     * Busca propiedades con una sola consulta SQL parametrizada
+     * Ciudad, precio, mínimos, servicios (un EXISTS por servicio sobre la
+     * tabla de servicios) y fechas (NOT EXISTS sobre las noches ocupadas) se
+     * resuelven en la base; de la zona se manda el rectángulo y el círculo se
+     * verifica al leer, igual que el texto, que no tiene índice en la base
+     * @param filtro Criterios de búsqueda
+     * @return Lista de propiedades que cumplen los filtros (en orden del catálogo)
+     */
+    public List<Propiedad> buscarConFiltros(FiltroBusqueda filtro) {
+        StringBuilder sql = new StringBuilder(SELECCION).append(" WHERE p.disponible");
+        List<Object> parametros = new ArrayList<>();
+        if (filtro.getPrecioDesde() != Double.NEGATIVE_INFINITY) {
+            condicion(sql, parametros, " AND p.precio_por_noche >= ?", filtro.getPrecioDesde());
+        }
+        if (filtro.getPrecioHasta() != Double.POSITIVE_INFINITY) {
+            condicion(sql, parametros, " AND p.precio_por_noche <= ?", filtro.getPrecioHasta());
+        }
+        if (filtro.tieneCiudad()) {
+            condicion(sql, parametros, " AND p.ciudad_clave = ?", filtro.getClaveCiudad());
+        }
+        if (filtro.getCapacidadMinima() > 0) {
+            condicion(sql, parametros, " AND p.capacidad >= ?", filtro.getCapacidadMinima());
+        }
+        if (filtro.getHabitacionesMinimas() > 0) {
+            condicion(sql, parametros, " AND p.habitaciones >= ?", filtro.getHabitacionesMinimas());
+        }
+        if (filtro.getBanosMinimos() > 0) {
+            condicion(sql, parametros, " AND p.banos >= ?", filtro.getBanosMinimos());
+        }
+        AreaGeografica area = filtro.getArea();
+        if (area != null) {
+            condicion(sql, parametros, " AND p.latitud BETWEEN ? AND ?", area.latitudMin, area.latitudMax);
+            condicion(sql, parametros, " AND p.longitud BETWEEN ? AND ?", area.longitudMin, area.longitudMax);
+        }
+        for (String servicio : new LinkedHashSet<>(filtro.getServicios())) {
+            condicion(sql, parametros, " AND EXISTS (SELECT 1 FROM propiedad_servicios r "
+                      + "WHERE r.propiedad_id = p.propiedad_id AND r.servicio = ?)", servicio);
+        }
+        if (filtro.tieneFechas()) {
+            condicion(sql, parametros, " AND NOT EXISTS (SELECT 1 FROM noches_ocupadas n "
+                      + "WHERE n.propiedad_id = p.propiedad_id AND n.noche >= ? AND n.noche < ?)",
+                      desdeHoy(filtro.getFechaEntrada()), filtro.getFechaSalida());
+        }
+        sql.append(ORDEN);
+
+        List<Propiedad> resultados = consultar(sql.toString(), parametros);
+        if (area != null || filtro.tieneTexto()) {
+            resultados.removeIf(p -> (area != null && !area.contiene(p.getLatitud(), p.getLongitud()))
+                || (filtro.tieneTexto() && !textos.coincideDocumento(filtro.getConsultaTexto(),
+                                                                     p.getTitulo(), p.getDescripcion())));
+        }
+
+        System.out.println("Búsqueda completada: " + resultados.size() + " propiedades encontradas");
+        return resultados;
+    }
+
+    private static void condicion(StringBuilder sql, List<Object> parametros, String texto, Object... valores) {
+        sql.append(texto);
+        parametros.addAll(List.of(valores));
+    }
+
+    //   CALENDARIO DE DISPONIBILIDAD
+
+    /**
+     * Ocupa las noches de una estadía si todas estaban libres
+     * Las noches se insertan en una transacción: si otra reserva ya ocupó
+     * alguna, la clave primaria lo rechaza y no queda ninguna ocupada
+     * @param propiedadId ID de la propiedad
+     * @param fechaEntrada Fecha de llegada (primera noche)
+     * @param fechaSalida Fecha de salida (no se cuenta como noche)
+     * @return true si se ocuparon; false si la propiedad no existe, alguna
+     *         noche ya estaba ocupada o las fechas salen del horizonte
+     */
+    public boolean bloquearFechas(String propiedadId, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        LocalDate hoy = LocalDate.now();
+        if (fechaEntrada == null || fechaSalida == null || !fechaEntrada.isBefore(fechaSalida)
+            || fechaEntrada.isBefore(hoy) || fechaSalida.isAfter(hoy.plusDays(CalendarioOcupacion.DIAS_HORIZONTE))) {
+            return false;
+        }
+        return pool.enTransaccion(c -> {
+            if (!existe(c, propiedadId)) {
+                return false;
+            }
+            PreparedStatement sentencia = c.preparar(INSERTAR_NOCHE);
+            for (LocalDate noche = fechaEntrada; noche.isBefore(fechaSalida); noche = noche.plusDays(1)) {
+                sentencia.setString(1, propiedadId);
+                sentencia.setObject(2, noche);
+                sentencia.addBatch();
+            }
+            try {
+                sentencia.executeBatch();
+                return true;
+            } catch (BatchUpdateException e) {
+                sentencia.clearBatch();
+                if (!PoolConexiones.esClaveRepetida(e)) {
+                    throw e;
+                }
+                c.jdbc.rollback();
+                return false;
+            }
+        });
+    }
+
+    /**
+     * Libera las noches de una estadía (ej: reserva cancelada)
+     * @param propiedadId ID de la propiedad
+     * @param fechaEntrada Fecha de llegada
+     * @param fechaSalida Fecha de salida
+     * @return true si la propiedad existe
+     */
+    public boolean liberarFechas(String propiedadId, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        return pool.usar(c -> {
+            if (!existe(c, propiedadId)) {
+                return false;
+            }
+            PreparedStatement sentencia = c.preparar(
+                "DELETE FROM noches_ocupadas WHERE propiedad_id = ? AND noche >= ? AND noche < ?");
+            sentencia.setString(1, propiedadId);
+            sentencia.setObject(2, fechaEntrada);
+            sentencia.setObject(3, fechaSalida);
+            sentencia.executeUpdate();
+            return true;
+        });
+    }
+
+    /**
+     * Verifica si una propiedad está libre todas las noches de una estadía
+     * @return true si existe y ninguna noche está ocupada
+     */
+    public boolean estaLibreEntre(String propiedadId, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        return pool.usar(c -> {
+            PreparedStatement sentencia = c.preparar("SELECT NOT EXISTS (SELECT 1 FROM noches_ocupadas n "
+                + "WHERE n.propiedad_id = p.propiedad_id AND n.noche >= ? AND n.noche < ?) "
+                + "FROM propiedades p WHERE p.propiedad_id = ?");
+            sentencia.setObject(1, desdeHoy(fechaEntrada));
+            sentencia.setObject(2, fechaSalida);
+            sentencia.setString(3, propiedadId);
+            try (ResultSet rs = sentencia.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        });
+    }
+
+    /**
+     * Obtiene las noches ocupadas de una propiedad desde hoy
+     * @param propiedadId ID de la propiedad
+     * @return Fechas ocupadas en orden (vacía si no existe)
+     */
+    public List<LocalDate> obtenerNochesOcupadas(String propiedadId) {
+        return pool.usar(c -> {
+            PreparedStatement sentencia = c.preparar(
+                "SELECT noche FROM noches_ocupadas WHERE propiedad_id = ? AND noche >= ? ORDER BY noche");
+            sentencia.setString(1, propiedadId);
+            sentencia.setObject(2, LocalDate.now());
+            List<LocalDate> noches = new ArrayList<>();
+            try (ResultSet rs = sentencia.executeQuery()) {
+                while (rs.next()) {
+                    noches.add(rs.getObject(1, LocalDate.class));
+                }
+            }
+            return noches;
+        });
+    }
+
+    /**
+     * Las noches anteriores a hoy ya no cuentan (como en el calendario en memoria)
+     */
+    private static LocalDate desdeHoy(LocalDate fecha) {
+        LocalDate hoy = LocalDate.now();
+        return fecha.isBefore(hoy) ? hoy : fecha;
+    }
+
+    //   MÉTODOS DE CONSULTA DEL CATÁLOGO
+
+    /**
+     * Obtiene lista de ciudades únicas (para llenar ComboBox)
+     * @return Lista de nombres de ciudades ordenadas
+     */
+    public List<String> obtenerCiudades() {
+        List<String> ciudades = textos("SELECT MIN(ciudad) FROM propiedades GROUP BY ciudad_clave", List.of());
+        ciudades.sort(String.CASE_INSENSITIVE_ORDER);
+        return ciudades;
+    }
+
+    /**
+     * Obtiene todos los servicios únicos disponibles
+     * @return Lista de servicios de todas las propiedades
+     */
+    public List<String> obtenerServiciosDisponibles() {
+        List<String> servicios = textos("SELECT DISTINCT servicio FROM propiedad_servicios", List.of());
+        servicios.sort(String.CASE_INSENSITIVE_ORDER);
+        return servicios;
+    }
+
+    /**
+     * Cuenta las propiedades disponibles en una ciudad
+     * @param ciudad Nombre de la ciudad
+     * @return Cantidad de propiedades disponibles
+     */
+    public int contarDisponiblesPorCiudad(String ciudad) {
+        return pool.usar(c -> c.contar("SELECT COUNT(*) FROM propiedades WHERE ciudad_clave = ? AND disponible",
+                                       PropiedadData.normalizarCiudad(ciudad)));
+    }
+
+    /**
+     * Cuenta las propiedades disponibles que ofrecen un servicio
+     * @param servicio Nombre del servicio
+     * @return Cantidad de propiedades disponibles
+     */
+    public int contarDisponiblesPorServicio(String servicio) {
+        return pool.usar(c -> c.contar("SELECT COUNT(*) FROM propiedad_servicios s JOIN propiedades p "
+                                          + "ON p.propiedad_id = s.propiedad_id WHERE s.servicio = ? AND p.disponible",
+                                       servicio));
+    }
+
+    //   DATOS DE PRUEBA
+
+    private void cargarDatosPrueba() {
+        registrarPropiedades(PropiedadData.crearDatosPrueba());
+        System.out.println("✅ Datos de prueba cargados en " + pool.getUrl());
+    }
+
+    //   ACCESO A LA BASE DE DATOS
+
+    /**
+     * Inserta propiedades y servicios en lotes JDBC (dentro de la transacción del llamador)
+     */
+    private static void insertar(PoolConexiones.Conexion c, List<Propiedad> propiedades) throws SQLException {
+        PreparedStatement sentencia = c.preparar(INSERTAR);
+        try {
+            int pendientes = 0;
+            for (Propiedad propiedad : propiedades) {
+                sentencia.setString(1, propiedad.getPropiedadId());
+                sentencia.setString(2, propiedad.getAnfitrionId());
+                asignarDatos(sentencia, 3, propiedad);
+                sentencia.addBatch();
+                if (++pendientes == FILAS_POR_LOTE) {
+                    sentencia.executeBatch();
+                    pendientes = 0;
+                }
+            }
+            if (pendientes > 0) {
+                sentencia.executeBatch();
+            }
+        } catch (SQLException e) {
+            sentencia.clearBatch();
+            throw e;
+        }
+        insertarServicios(c, propiedades);
+    }
+
+    private static void insertarServicios(PoolConexiones.Conexion c, List<Propiedad> propiedades) throws SQLException {
+        PreparedStatement sentencia = c.preparar(INSERTAR_SERVICIO);
+        try {
+            int pendientes = 0;
+            for (Propiedad propiedad : propiedades) {
+                int posicion = 0;
+                for (String servicio : propiedad.getServicios()) {
+                    sentencia.setString(1, propiedad.getPropiedadId());
+                    sentencia.setString(2, servicio);
+                    sentencia.setInt(3, posicion++);
+                    sentencia.addBatch();
+                    if (++pendientes == FILAS_POR_LOTE) {
+                        sentencia.executeBatch();
+                        pendientes = 0;
+                    }
+                }
+            }
+            if (pendientes > 0) {
+                sentencia.executeBatch();
+            }
+        } catch (SQLException e) {
+            sentencia.clearBatch();
+            throw e;
+        }
+    }
+
+    /**
+     * Asigna los datos de la propiedad desde el título hasta "disponible"
+     * (13 parámetros seguidos desde la posición dada)
+     */
+    private static void asignarDatos(PreparedStatement sentencia, int i, Propiedad propiedad) throws SQLException {
+        sentencia.setString(i, propiedad.getTitulo());
+        sentencia.setString(i + 1, propiedad.getDescripcion());
+        sentencia.setString(i + 2, propiedad.getCiudad());
+        sentencia.setString(i + 3, PropiedadData.normalizarCiudad(propiedad.getCiudad()));
+        sentencia.setString(i + 4, propiedad.getDireccion());
+        sentencia.setObject(i + 5, propiedad.tieneUbicacion() ? propiedad.getLatitud() : null);
+        sentencia.setObject(i + 6, propiedad.tieneUbicacion() ? propiedad.getLongitud() : null);
+        sentencia.setString(i + 7, propiedad.getTipo());
+        sentencia.setInt(i + 8, propiedad.getCapacidad());
+        sentencia.setInt(i + 9, propiedad.getHabitaciones());
+        sentencia.setInt(i + 10, propiedad.getBanos());
+        sentencia.setDouble(i + 11, propiedad.getPrecioPorNoche());
+        sentencia.setBoolean(i + 12, propiedad.isDisponible());
+    }
+
+    /**
+     * Ejecuta una consulta que empieza con SELECCION y arma las propiedades
+     * (las filas de una misma propiedad llegan seguidas, una por servicio)
+     */
+    private List<Propiedad> consultar(String sql, List<Object> parametros) {
+        return pool.usar(c -> {
+            PreparedStatement sentencia = c.preparar(sql, parametros.toArray());
+            List<Propiedad> propiedades = new ArrayList<>();
+            try (ResultSet rs = sentencia.executeQuery()) {
+                Propiedad actual = null;
+                while (rs.next()) {
+                    String id = rs.getString(1);
+                    if (actual == null || !actual.getPropiedadId().equals(id)) {
+                        actual = leer(rs, id);
+                        propiedades.add(actual);
+                    }
+                    String servicio = rs.getString(15);
+                    if (servicio != null) {
+                        actual.agregarServicio(servicio);
+                    }
+                }
+            }
+            return propiedades;
+        });
+    }
+
+    private static Propiedad leer(ResultSet rs, String id) throws SQLException {
+        Propiedad propiedad = new Propiedad(id, rs.getString(2), rs.getString(3), rs.getString(4),
+                                            rs.getString(5), rs.getString(6), rs.getString(7),
+                                            rs.getInt(8), rs.getInt(9), rs.getInt(10), rs.getDouble(11));
+        double latitud = rs.getDouble(12);
+        if (!rs.wasNull()) {
+            propiedad.setUbicacion(latitud, rs.getDouble(13));
+        }
+        propiedad.setDisponible(rs.getBoolean(14));
+        return propiedad;
+    }
+
+    private List<String> textos(String sql, List<Object> parametros) {
+        return pool.usar(c -> {
+            PreparedStatement sentencia = c.preparar(sql, parametros.toArray());
+            List<String> valores = new ArrayList<>();
+            try (ResultSet rs = sentencia.executeQuery()) {
+                while (rs.next()) {
+                    valores.add(rs.getString(1));
+                }
+            }
+            return valores;
+        });
+    }
+
+    private static boolean existe(PoolConexiones.Conexion c, String propiedadId) throws SQLException {
+        return c.contar("SELECT COUNT(*) FROM propiedades WHERE propiedad_id = ?", propiedadId) > 0;
+    }
+}
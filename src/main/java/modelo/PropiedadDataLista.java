@@ -0,0 +1,283 @@
+package modelo;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Motor de propiedades más simple: una lista sin índices
+ * Cada búsqueda recorre todas las propiedades. Es el almacenamiento con que
+ * empezó el proyecto; sirve para catálogos chicos y como referencia para
+ * comparar los demás motores
+ *
+ * Los métodos son sincronizados: un cambio y una búsqueda nunca se mezclan
+ */
+public class PropiedadDataLista implements AlmacenPropiedades {
+
+    //   ALMACENAMIENTO EN MEMORIA
+
+    private final List<Propiedad> listaPropiedades = new ArrayList<>();
+
+    // ID de la propiedad -> noches ocupadas
+    private final Map<String, TreeSet<LocalDate>> nochesOcupadas = new HashMap<>();
+
+    // Solo se usa para verificar texto (no guarda documentos)
+    private final IndiceTexto textos = new IndiceTexto();
+
+    //   CONSTRUCTOR
+
+    /**
+     * Constructor: empieza con los datos de prueba
+     */
+    public PropiedadDataLista() {
+        this(true);
+    }
+
+    /**
+     * @param datosPrueba false para empezar vacía (pruebas y benchmarks)
+     */
+    PropiedadDataLista(boolean datosPrueba) {
+        if (datosPrueba) {
+            listaPropiedades.addAll(PropiedadData.crearDatosPrueba());
+            System.out.println("✅ Datos de prueba cargados: " + listaPropiedades.size() + " propiedades");
+        }
+    }
+
+    //   MÉTODOS CRUD
+
+    @Override
+    public synchronized boolean registrarPropiedad(Propiedad propiedad) {
+        // Generar ID único si no tiene
+        if (propiedad.getPropiedadId() == null || propiedad.getPropiedadId().isEmpty()) {
+            propiedad.setPropiedadId(UUID.randomUUID().toString());
+        }
+        if (buscarPorId(propiedad.getPropiedadId()) != null) {
+            return false;
+        }
+
+        listaPropiedades.add(propiedad);
+        System.out.println("✅ Propiedad registrada: " + propiedad.getTitulo());
+        return true;
+    }
+
+    @Override
+    public synchronized int registrarPropiedades(Collection<Propiedad> propiedades) {
+        if (propiedades == null || propiedades.isEmpty()) {
+            return 0;
+        }
+        GeneradorIds ids = new GeneradorIds();
+        Set<String> registradas = new HashSet<>();
+        for (Propiedad p : listaPropiedades) {
+            registradas.add(p.getPropiedadId());
+        }
+        int agregadas = 0;
+        int repetidas = 0;
+        for (Propiedad propiedad : propiedades) {
+            if (propiedad == null) {
+                continue;
+            }
+            if (propiedad.getPropiedadId() == null || propiedad.getPropiedadId().isEmpty()) {
+                propiedad.setPropiedadId(ids.siguiente());
+            }
+            if (registradas.add(propiedad.getPropiedadId())) {
+                listaPropiedades.add(propiedad);
+                agregadas++;
+            } else {
+                repetidas++;
+            }
+        }
+        System.out.println("✅ Propiedades registradas: " + agregadas
+                           + (repetidas == 0 ? "" : " (" + repetidas + " con ID repetido)"));
+        return agregadas;
+    }
+
+    /**
+     * La lista guarda las mismas instancias que se registraron, así que sus
+     * cambios ya están guardados; si se pasa otra instancia con el mismo ID,
+     * reemplaza a la registrada
+     */
+    @Override
+    public synchronized boolean actualizarPropiedad(Propiedad propiedad) {
+        for (int i = 0; i < listaPropiedades.size(); i++) {
+            if (listaPropiedades.get(i).getPropiedadId().equals(propiedad.getPropiedadId())) {
+                listaPropiedades.set(i, propiedad);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public synchronized Propiedad buscarPorId(String id) {
+        for (Propiedad p : listaPropiedades) {
+            if (p.getPropiedadId().equals(id)) {
+                return p;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized List<Propiedad> obtenerPropiedadesDisponibles() {
+        List<Propiedad> disponibles = new ArrayList<>();
+        for (Propiedad p : listaPropiedades) {
+            if (p.isDisponible()) {
+                disponibles.add(p);
+            }
+        }
+        return disponibles;
+    }
+
+    @Override
+    public synchronized List<Propiedad> obtenerTodasPropiedades() {
+        return new ArrayList<>(listaPropiedades);
+    }
+
+    @Override
+    public synchronized List<Propiedad> obtenerPropiedadesPorAnfitrion(String anfitrionId) {
+        List<Propiedad> propiedades = new ArrayList<>();
+        for (Propiedad p : listaPropiedades) {
+            if (p.getAnfitrionId().equals(anfitrionId)) {
+                propiedades.add(p);
+            }
+        }
+        return propiedades;
+    }
+
+    //   MÉTODOS DE BÚSQUEDA CON FILTROS
+
+    /**
+     * Recorre la lista completa verificando cada criterio del filtro
+     */
+    @Override
+    public synchronized List<Propiedad> buscarConFiltros(FiltroBusqueda filtro) {
+        List<Propiedad> resultados = new ArrayList<>();
+        for (Propiedad p : listaPropiedades) {
+            if (cumpleFiltro(p, filtro)) {
+                resultados.add(p);
+            }
+        }
+        System.out.println("Búsqueda completada: " + resultados.size() + " propiedades encontradas");
+        return resultados;
+    }
+
+    private boolean cumpleFiltro(Propiedad p, FiltroBusqueda filtro) {
+        return p.isDisponible()
+            && p.getPrecioPorNoche() >= filtro.getPrecioDesde()
+            && p.getPrecioPorNoche() <= filtro.getPrecioHasta()
+            && p.getCapacidad() >= filtro.getCapacidadMinima()
+            && p.getHabitaciones() >= filtro.getHabitacionesMinimas()
+            && p.getBanos() >= filtro.getBanosMinimos()
+            && (!filtro.tieneCiudad() || p.claveCiudad.equals(filtro.getClaveCiudad()))
+            && p.getServicios().containsAll(filtro.getServicios())
+            && (!filtro.tieneUbicacion() || filtro.getArea().contiene(p.getLatitud(), p.getLongitud()))
+            && (!filtro.tieneTexto() || textos.coincideDocumento(filtro.getConsultaTexto(),
+                                                                  p.getTitulo(), p.getDescripcion()))
+            && (!filtro.tieneFechas() || libre(p.getPropiedadId(), filtro.getFechaEntrada(),
+                                               filtro.getFechaSalida()));
+    }
+
+    //   CALENDARIO DE DISPONIBILIDAD
+
+    @Override
+    public synchronized boolean bloquearFechas(String propiedadId, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        LocalDate hoy = LocalDate.now();
+        if (buscarPorId(propiedadId) == null || fechaEntrada == null || fechaSalida == null
+            || !fechaEntrada.isBefore(fechaSalida) || fechaEntrada.isBefore(hoy)
+            || fechaSalida.isAfter(hoy.plusDays(CalendarioOcupacion.DIAS_HORIZONTE))
+            || !libre(propiedadId, fechaEntrada, fechaSalida)) {
+            return false;
+        }
+        TreeSet<LocalDate> noches = nochesOcupadas.computeIfAbsent(propiedadId, k -> new TreeSet<>());
+        for (LocalDate noche = fechaEntrada; noche.isBefore(fechaSalida); noche = noche.plusDays(1)) {
+            noches.add(noche);
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized boolean liberarFechas(String propiedadId, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        if (buscarPorId(propiedadId) == null) {
+            return false;
+        }
+        TreeSet<LocalDate> noches = nochesOcupadas.get(propiedadId);
+        if (noches != null && fechaEntrada.isBefore(fechaSalida)) {
+            noches.subSet(fechaEntrada, fechaSalida).clear();
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized boolean estaLibreEntre(String propiedadId, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        return buscarPorId(propiedadId) != null && libre(propiedadId, fechaEntrada, fechaSalida);
+    }
+
+    @Override
+    public synchronized List<LocalDate> obtenerNochesOcupadas(String propiedadId) {
+        TreeSet<LocalDate> noches = nochesOcupadas.get(propiedadId);
+        return noches != null ? new ArrayList<>(noches.tailSet(LocalDate.now())) : new ArrayList<>();
+    }
+
+    /**
+     * @return true si ninguna noche desde hoy dentro de la estadía está ocupada
+     */
+    private boolean libre(String propiedadId, LocalDate fechaEntrada, LocalDate fechaSalida) {
+        TreeSet<LocalDate> noches = nochesOcupadas.get(propiedadId);
+        LocalDate desde = fechaEntrada.isBefore(LocalDate.now()) ? LocalDate.now() : fechaEntrada;
+        return noches == null || !desde.isBefore(fechaSalida) || noches.subSet(desde, fechaSalida).isEmpty();
+    }
+
+    //   MÉTODOS DE CONSULTA DEL CATÁLOGO
+
+    @Override
+    public synchronized List<String> obtenerCiudades() {
+        Map<String, String> ciudades = new HashMap<>();
+        for (Propiedad p : listaPropiedades) {
+            ciudades.putIfAbsent(p.claveCiudad, p.getCiudad());
+        }
+        List<String> nombres = new ArrayList<>(ciudades.values());
+        nombres.sort(String.CASE_INSENSITIVE_ORDER);
+        return nombres;
+    }
+
+    @Override
+    public synchronized List<String> obtenerServiciosDisponibles() {
+        Set<String> servicios = new HashSet<>();
+        for (Propiedad p : listaPropiedades) {
+            servicios.addAll(p.getServicios());
+        }
+        List<String> nombres = new ArrayList<>(servicios);
+        nombres.sort(String.CASE_INSENSITIVE_ORDER);
+        return nombres;
+    }
+
+    @Override
+    public synchronized int contarDisponiblesPorCiudad(String ciudad) {
+        String clave = PropiedadData.normalizarCiudad(ciudad);
+        int count = 0;
+        for (Propiedad p : listaPropiedades) {
+            if (p.isDisponible() && p.claveCiudad.equals(clave)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized int contarDisponiblesPorServicio(String servicio) {
+        int count = 0;
+        for (Propiedad p : listaPropiedades) {
+            if (p.isDisponible() && p.getServicios().contains(servicio)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,585 @@
+package modelo;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Registro de escritura anticipada (write-ahead log): archivo al que solo se
+ * agregan registros, uno por cambio, para reconstruir los datos al reiniciar
+ *
+ * Cada registro es [longitud][crc32][datos]. Al abrir se leen los registros
+ * en orden y se corta la cola incompleta que pudo dejar una caída
+ *
+ * El registro se reparte en generaciones (nombre-00000003.log, ...): rotar
+ * cierra la generación actual y empieza otra, así un punto de control que
+ * guardó todo lo anterior a una generación permite borrar esos archivos y
+ * al reiniciar solo se reproduce la cola posterior
+ *
+ * Las escrituras se agrupan (group commit): quien cambia algo solo encola su
+ * registro y un hilo escritor vuelca todo lo pendiente de una vez; el fsync
+ * se hace según la PoliticaSincronizacion, así muchos cambios seguidos
+ * comparten un mismo fsync en vez de pagar uno cada uno
+ *
+ * Se activa con propiedades del sistema:
+ *   staykonnect.datos                        directorio de los registros (sin él, todo queda en memoria)
+ *   staykonnect.sincronizacion               POR_ESCRITURA, POR_LOTE (por defecto) o POR_INTERVALO
+ *   staykonnect.sincronizacion.intervaloMs   intervalo de POR_INTERVALO (por defecto 100)
+ *   staykonnect.puntoControl.registros       registros entre puntos de control automáticos
+ *                                            (por defecto 100000; 0 = solo a pedido)
+ */
+public class RegistroEscritura implements AutoCloseable {
+
+    public static final String PROPIEDAD_DIRECTORIO = "staykonnect.datos";
+    public static final String PROPIEDAD_SINCRONIZACION = "staykonnect.sincronizacion";
+    public static final String PROPIEDAD_INTERVALO = "staykonnect.sincronizacion.intervaloMs";
+    public static final String PROPIEDAD_PUNTO_CONTROL = "staykonnect.puntoControl.registros";
+
+    private static final long INTERVALO_POR_DEFECTO = 100;
+    private static final long PUNTO_CONTROL_POR_DEFECTO = 100_000;
+
+    // Longitud y crc de cada registro
+    private static final int ENCABEZADO = 8;
+
+    // Un registro más largo que esto solo puede ser basura de una escritura cortada
+    private static final int MAXIMO_REGISTRO = 16 << 20;
+
+    // Marca en la cola de pendientes: el escritor pasa a la generación siguiente
+    private static final byte[] ROTACION = new byte[0];
+
+    /**
+     * Aplica un registro leído del archivo
+     */
+    public interface Lector {
+        void leer(DataInput datos) throws IOException;
+    }
+
+    private final Path directorio;
+    private final String nombre;
+    private final PoliticaSincronizacion politica;
+    private final long intervaloMs;
+
+    // Archivo de la generación en curso: lo abre reproducir y después solo lo toca el hilo escritor
+    private FileChannel canal;
+    private long generacion;
+    private long ultimoFsync;
+    private boolean hayDatosSinForzar;
+
+    // Protegidos por el monitor del registro; los números cuentan registros desde 1
+    private final ArrayDeque<byte[]> pendientes = new ArrayDeque<>();
+    private long encolados;
+    private long sincronizados;
+    private long lotes;
+    private long generacionEncolada;
+    private long generacionEscrita;
+    private long desdeRotacion;
+    private long registrosPorPuntoControl;
+    private IOException error;
+    private boolean cerrado;
+    private Thread escritor;
+
+    /**
+     * Prepara el registro en un directorio (lo crea si no existe)
+     * Antes de agregar registros hay que llamar a reproducir
+     * @param directorio Directorio de los archivos del registro
+     * @param nombre Nombre del registro (prefijo de sus archivos)
+     * @param politica Cuándo forzar los datos al disco
+     * @param intervaloMs Intervalo entre fsync con POR_INTERVALO
+     */
+    public RegistroEscritura(Path directorio, String nombre, PoliticaSincronizacion politica,
+                             long intervaloMs) throws IOException {
+        Files.createDirectories(directorio);
+        this.directorio = directorio;
+        this.nombre = nombre;
+        this.politica = politica;
+        this.intervaloMs = Math.max(1, intervaloMs);
+
+        // Un registro de antes de las generaciones pasa a ser la generación 0
+        Path anterior = directorio.resolve(nombre + ".log");
+        if (Files.exists(anterior) && !Files.exists(archivo(0))) {
+            Files.move(anterior, archivo(0));
+        }
+    }
+
+    /**
+     * Abre el registro con el nombre dado según las propiedades del sistema
+     * @param nombre Nombre del registro (ej: "propiedades")
+     * @return El registro, o null si no hay directorio de datos configurado
+     */
+    static RegistroEscritura abrirConfigurado(String nombre) {
+        String directorio = System.getProperty(PROPIEDAD_DIRECTORIO);
+        if (directorio == null || directorio.trim().isEmpty()) {
+            return null;
+        }
+        PoliticaSincronizacion politica = PoliticaSincronizacion.valueOf(
+            System.getProperty(PROPIEDAD_SINCRONIZACION, PoliticaSincronizacion.POR_LOTE.name())
+                  .trim().toUpperCase(Locale.ROOT));
+        long intervalo = Long.getLong(PROPIEDAD_INTERVALO, INTERVALO_POR_DEFECTO);
+        try {
+            RegistroEscritura registro = new RegistroEscritura(Paths.get(directorio.trim()), nombre,
+                                                               politica, intervalo);
+            registro.setRegistrosPorPuntoControl(Long.getLong(PROPIEDAD_PUNTO_CONTROL, PUNTO_CONTROL_POR_DEFECTO));
+            // Lo que quede encolado al salir se escribe y se fuerza al disco
+            Runtime.getRuntime().addShutdownHook(new Thread(registro::close, "cierre-registro-" + nombre));
+            return registro;
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el registro " + nombre + " en " + directorio, e);
+        }
+    }
+
+    public PoliticaSincronizacion getPolitica() {
+        return politica;
+    }
+
+    public Path getDirectorio() {
+        return directorio;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * @return Registros reproducidos o agregados desde la última rotación
+     */
+    public synchronized long getRegistrosDesdeRotacion() {
+        return desdeRotacion;
+    }
+
+    /**
+     * @param registros Registros desde la última rotación que piden un punto de control (0 = nunca)
+     */
+    public synchronized void setRegistrosPorPuntoControl(long registros) {
+        this.registrosPorPuntoControl = Math.max(0, registros);
+    }
+
+    /**
+     * @return true si desde la última rotación se acumularon suficientes
+     *         registros como para guardar un punto de control
+     */
+    public synchronized boolean pidePuntoControl() {
+        return registrosPorPuntoControl > 0 && desdeRotacion >= registrosPorPuntoControl;
+    }
+
+    //   LECTURA
+
+    /**
+     * Lee en orden todos los registros válidos y luego empieza a aceptar
+     * registros nuevos
+     * @see #reproducir(long, Lector)
+     */
+    public int reproducir(Lector lector) throws IOException {
+        return reproducir(0, lector);
+    }
+
+    /**
+     * Lee en orden los registros válidos desde una generación y luego empieza
+     * a aceptar registros nuevos. Las generaciones anteriores se borran (ya
+     * las cubre un punto de control). Si el final de un archivo está
+     * incompleto o dañado (caída a mitad de una escritura) se descarta desde ahí
+     * @param desdeGeneracion Primera generación a leer
+     * @param lector Aplica cada registro
+     * @return Cantidad de registros leídos
+     */
+    public int reproducir(long desdeGeneracion, Lector lector) throws IOException {
+        int leidos = 0;
+        long ultima = desdeGeneracion;
+        for (long g : generaciones()) {
+            if (g < desdeGeneracion) {
+                Files.delete(archivo(g));
+            } else {
+                leidos += reproducirArchivo(archivo(g), lector);
+                ultima = g;
+            }
+        }
+
+        canal = abrirArchivo(ultima);
+        canal.position(canal.size());
+        synchronized (this) {
+            generacion = ultima;
+            generacionEncolada = ultima;
+            generacionEscrita = ultima;
+            desdeRotacion = leidos;
+        }
+        iniciarEscritor();
+        return leidos;
+    }
+
+    private int reproducirArchivo(Path archivo, Lector lector) throws IOException {
+        int leidos = 0;
+        long validos = 0;
+        try (InputStream flujo = Files.newInputStream(archivo)) {
+            DataInputStream entrada = new DataInputStream(new BufferedInputStream(flujo, 1 << 16));
+            CRC32 crc = new CRC32();
+            while (true) {
+                byte[] datos;
+                try {
+                    int longitud = entrada.readInt();
+                    int suma = entrada.readInt();
+                    if (longitud < 0 || longitud > MAXIMO_REGISTRO) {
+                        break;
+                    }
+                    datos = new byte[longitud];
+                    entrada.readFully(datos);
+                    crc.reset();
+                    crc.update(datos);
+                    if ((int) crc.getValue() != suma) {
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+                lector.leer(new DataInputStream(new ByteArrayInputStream(datos)));
+                validos += ENCABEZADO + datos.length;
+                leidos++;
+            }
+        }
+
+        long tamano = Files.size(archivo);
+        if (validos < tamano) {
+            System.out.println("⚠ Registro " + archivo.getFileName() + ": se descartan "
+                               + (tamano - validos) + " bytes incompletos al final");
+            try (FileChannel recorte = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+                recorte.truncate(validos);
+                recorte.force(true);
+            }
+        }
+        return leidos;
+    }
+
+    // Generaciones con archivo en el directorio, de menor a mayor
+    private List<Long> generaciones() throws IOException {
+        List<Long> generaciones = new ArrayList<>();
+        String prefijo = nombre + "-";
+        try (Stream<Path> archivos = Files.list(directorio)) {
+            archivos.forEach(a -> {
+                String n = a.getFileName().toString();
+                if (n.startsWith(prefijo) && n.endsWith(".log")) {
+                    try {
+                        generaciones.add(Long.parseLong(n.substring(prefijo.length(), n.length() - 4)));
+                    } catch (NumberFormatException e) {
+                        // No es de este registro
+                    }
+                }
+            });
+        }
+        Collections.sort(generaciones);
+        return generaciones;
+    }
+
+    private Path archivo(long generacion) {
+        return directorio.resolve(String.format(Locale.ROOT, "%s-%08d.log", nombre, generacion));
+    }
+
+    private FileChannel abrirArchivo(long generacion) throws IOException {
+        return FileChannel.open(archivo(generacion), StandardOpenOption.CREATE,
+                                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    //   ESCRITURA
+
+    /**
+     * Encola un registro; el hilo escritor lo vuelca con los demás pendientes
+     * Quien llama debe encolar en el mismo orden en que aplica los cambios
+     * @param datos Contenido del registro
+     * @return Número del registro (para esperar)
+     */
+    public synchronized long agregar(byte[] datos) {
+        if (cerrado) {
+            throw new IllegalStateException("El registro " + nombre + " ya está cerrado");
+        }
+        pendientes.add(datos);
+        notifyAll();
+        desdeRotacion++;
+        return ++encolados;
+    }
+
+    /**
+     * Cierra la generación actual: los registros agregados desde ahora van a
+     * la generación siguiente. Quien llama debe impedir cambios mientras
+     * tanto si quiere que la rotación coincida con un punto de control
+     * @return Número de la generación nueva
+     */
+    public synchronized long rotar() {
+        if (cerrado) {
+            throw new IllegalStateException("El registro " + nombre + " ya está cerrado");
+        }
+        pendientes.add(ROTACION);
+        notifyAll();
+        encolados++;
+        desdeRotacion = 0;
+        return ++generacionEncolada;
+    }
+
+    /**
+     * Borra los archivos de las generaciones anteriores a la dada, una vez
+     * que el escritor ya pasó a ella (sus datos ya están en un punto de control)
+     * @param generacion Primera generación que se conserva
+     */
+    public void descartarAnteriores(long generacion) throws IOException {
+        synchronized (this) {
+            boolean interrumpido = false;
+            while (generacionEscrita < generacion && error == null && escritor != null && escritor.isAlive()) {
+                try {
+                    wait(100);
+                } catch (InterruptedException e) {
+                    interrumpido = true;
+                }
+            }
+            if (interrumpido) {
+                Thread.currentThread().interrupt();
+            }
+            if (generacionEscrita < generacion) {
+                return;
+            }
+        }
+        for (long g : generaciones()) {
+            if (g < generacion) {
+                Files.deleteIfExists(archivo(g));
+            }
+        }
+    }
+
+    /**
+     * Espera a que el registro sea durable según la política
+     * Con POR_INTERVALO no espera (el fsync llega en el próximo intervalo)
+     * @param numero Número devuelto por agregar
+     * @throws UncheckedIOException si el escritor falló antes de forzarlo al disco
+     */
+    public synchronized void esperar(long numero) {
+        boolean interrumpido = false;
+        while (politica != PoliticaSincronizacion.POR_INTERVALO && sincronizados < numero && error == null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrumpido = true;
+            }
+        }
+        if (interrumpido) {
+            Thread.currentThread().interrupt();
+        }
+        if (error != null && sincronizados < numero) {
+            throw new UncheckedIOException("No se pudo guardar en el registro " + nombre, error);
+        }
+    }
+
+    /**
+     * @return Cantidad de lotes escritos (cuántas veces despertó el escritor)
+     */
+    public synchronized long getLotes() {
+        return lotes;
+    }
+
+    /**
+     * Escribe y fuerza al disco lo pendiente y detiene el hilo escritor
+     */
+    @Override
+    public void close() {
+        Thread hilo;
+        synchronized (this) {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+            notifyAll();
+            hilo = escritor;
+        }
+        if (hilo != null) {
+            try {
+                hilo.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (canal == null) {
+            return;
+        }
+        try {
+            canal.close();
+        } catch (IOException e) {
+            System.out.println("⚠ Error al cerrar el registro " + nombre + ": " + e.getMessage());
+        }
+    }
+
+    //   HILO ESCRITOR
+
+    private synchronized void iniciarEscritor() {
+        if (escritor == null) {
+            escritor = new Thread(this::escribirPendientes, "registro-" + nombre);
+            escritor.setDaemon(true);
+            escritor.start();
+        }
+    }
+
+    private void escribirPendientes() {
+        ultimoFsync = System.nanoTime();
+        while (true) {
+            byte[][] lote;
+            long hasta;
+            boolean cerrando;
+            synchronized (this) {
+                try {
+                    while (pendientes.isEmpty() && !cerrado) {
+                        if (!hayDatosSinForzar) {
+                            wait();
+                            continue;
+                        }
+                        long restante = intervaloMs - (System.nanoTime() - ultimoFsync) / 1_000_000;
+                        if (restante <= 0) {
+                            break;
+                        }
+                        wait(restante);
+                    }
+                } catch (InterruptedException e) {
+                    cerrado = true;
+                }
+                if (pendientes.isEmpty() && cerrado && !hayDatosSinForzar) {
+                    return;
+                }
+                lote = pendientes.toArray(new byte[0][]);
+                pendientes.clear();
+                hasta = encolados;
+                cerrando = cerrado;
+                lotes++;
+            }
+
+            try {
+                // Las marcas de rotación parten el lote: lo anterior se fuerza en el archivo viejo
+                long numero = hasta - lote.length;
+                int desde = 0;
+                for (int i = 0; i < lote.length; i++) {
+                    if (lote[i] == ROTACION) {
+                        numero = volcar(lote, desde, i, numero, true);
+                        cambiarDeArchivo();
+                        marcarSincronizados(++numero);
+                        desde = i + 1;
+                    }
+                }
+                volcar(lote, desde, lote.length, numero, cerrando);
+            } catch (IOException e) {
+                synchronized (this) {
+                    error = e;
+                    notifyAll();
+                }
+                System.out.println("⚠ Error al escribir el registro " + nombre + ": " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    // Escribe los registros [desde, hasta) del lote según la política;
+    // numero es el del registro anterior al primero. Devuelve el del último
+    private long volcar(byte[][] lote, int desde, int hasta, long numero, boolean forzar) throws IOException {
+        if (politica == PoliticaSincronizacion.POR_ESCRITURA) {
+            for (int i = desde; i < hasta; i++) {
+                escribirTodo(armar(lote, i, i + 1));
+                canal.force(false);
+                marcarSincronizados(++numero);
+            }
+            return numero;
+        }
+        if (hasta > desde) {
+            escribirTodo(armar(lote, desde, hasta));
+            hayDatosSinForzar = true;
+        }
+        numero += hasta - desde;
+        forzar |= politica == PoliticaSincronizacion.POR_LOTE
+                  || (System.nanoTime() - ultimoFsync) / 1_000_000 >= intervaloMs;
+        if (forzar && hayDatosSinForzar) {
+            canal.force(false);
+            ultimoFsync = System.nanoTime();
+            hayDatosSinForzar = false;
+        }
+        if (!hayDatosSinForzar) {
+            marcarSincronizados(numero);
+        }
+        return numero;
+    }
+
+    private void cambiarDeArchivo() throws IOException {
+        canal.close();
+        canal = abrirArchivo(generacion + 1);
+        canal.position(canal.size());
+        generacion++;
+        synchronized (this) {
+            generacionEscrita = generacion;
+            notifyAll();
+        }
+    }
+
+    private synchronized void marcarSincronizados(long numero) {
+        sincronizados = Math.max(sincronizados, numero);
+        notifyAll();
+    }
+
+    // Registros [desde, hasta) del lote, cada uno con su encabezado
+    private static ByteBuffer armar(byte[][] lote, int desde, int hasta) {
+        int total = 0;
+        for (int i = desde; i < hasta; i++) {
+            total += ENCABEZADO + lote[i].length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        CRC32 crc = new CRC32();
+        for (int i = desde; i < hasta; i++) {
+            crc.reset();
+            crc.update(lote[i]);
+            buffer.putInt(lote[i].length).putInt((int) crc.getValue()).put(lote[i]);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private void escribirTodo(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            canal.write(buffer);
+        }
+    }
+
+    //   FORMATO DE CAMPOS
+
+    /**
+     * Escribe un texto que puede ser null (largo en bytes UTF-8 y bytes; -1 = null)
+     */
+    static void escribirTexto(DataOutput salida, String texto) throws IOException {
+        if (texto == null) {
+            salida.writeInt(-1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        salida.writeInt(bytes.length);
+        salida.write(bytes);
+    }
+
+    /**
+     * @see #escribirTexto(DataOutput, String)
+     */
+    static String leerTexto(DataInput entrada) throws IOException {
+        int longitud = entrada.readInt();
+        if (longitud < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud];
+        entrada.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,135 @@
+package modelo;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Clase que representa la reserva de una propiedad por un viajero
+ * Las noches van desde la fecha de entrada hasta el día anterior a la salida
+ */
+public class Reserva {
+    
+    //  ESTADOS
+    
+    public static final String CONFIRMADA = "Confirmada";
+    public static final String CANCELADA = "Cancelada";
+    
+    //  ATRIBUTOS
+    
+    private String reservaId;
+    private String propiedadId;
+    private String viajeroId;
+    private LocalDate fechaEntrada;
+    private LocalDate fechaSalida;
+    private double total;
+    private volatile String estado;     // "Confirmada" o "Cancelada"
+    private String fechaCreacion;
+    
+    //  CONSTRUCTORES
+    
+    public Reserva() {
+        this.estado = CONFIRMADA;
+        this.fechaCreacion = LocalDate.now().toString();
+    }
+    
+    /**
+     * Constructor completo (genera el ID)
+     */
+    public Reserva(String propiedadId, String viajeroId, LocalDate fechaEntrada,
+                   LocalDate fechaSalida, double total) {
+        this.reservaId = UUID.randomUUID().toString();
+        this.propiedadId = propiedadId;
+        this.viajeroId = viajeroId;
+        this.fechaEntrada = fechaEntrada;
+        this.fechaSalida = fechaSalida;
+        this.total = total;
+        this.estado = CONFIRMADA;
+        this.fechaCreacion = LocalDate.now().toString();
+    }
+    
+    //GETTERS Y SETTERS
+    
+    public String getReservaId() {
+        return reservaId;
+    }
+    
+    public void setReservaId(String reservaId) {
+        this.reservaId = reservaId;
+    }
+    
+    public String getPropiedadId() {
+        return propiedadId;
+    }
+    
+    public void setPropiedadId(String propiedadId) {
+        this.propiedadId = propiedadId;
+    }
+    
+    public String getViajeroId() {
+        return viajeroId;
+    }
+    
+    public void setViajeroId(String viajeroId) {
+        this.viajeroId = viajeroId;
+    }
+    
+    public LocalDate getFechaEntrada() {
+        return fechaEntrada;
+    }
+    
+    public void setFechaEntrada(LocalDate fechaEntrada) {
+        this.fechaEntrada = fechaEntrada;
+    }
+    
+    public LocalDate getFechaSalida() {
+        return fechaSalida;
+    }
+    
+    public void setFechaSalida(LocalDate fechaSalida) {
+        this.fechaSalida = fechaSalida;
+    }
+    
+    public double getTotal() {
+        return total;
+    }
+    
+    public void setTotal(double total) {
+        this.total = total;
+    }
+    
+    public String getEstado() {
+        return estado;
+    }
+    
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+    
+    public String getFechaCreacion() {
+        return fechaCreacion;
+    }
+    
+    public void setFechaCreacion(String fechaCreacion) {
+        this.fechaCreacion = fechaCreacion;
+    }
+    
+    //  MÉTODOS DE UTILIDAD
+    
+    /**
+     * @return Cantidad de noches de la estadía
+     */
+    public long getNoches() {
+        return ChronoUnit.DAYS.between(fechaEntrada, fechaSalida);
+    }
+    
+    public boolean estaConfirmada() {
+        return CONFIRMADA.equals(estado);
+    }
+    
+    @Override
+    public String toString() {
+        return "Reserva [" + fechaEntrada + " a " + fechaSalida + ", " + getNoches()
+             + " noches, $" + total + ", " + estado + "]";
+    }
+}
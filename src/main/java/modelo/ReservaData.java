@@ -0,0 +1,407 @@
+package modelo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Clase DAO (Data Access Object) para gestionar reservas
+ * Almacena reservas en memoria y ocupa las noches en el calendario del
+ * motor de propiedades. Se puede usar desde muchos hilos a la vez: ocupar
+ * las noches es atómico en todos los motores (en PropiedadData toma solo
+ * el candado de la franja de la propiedad), así dos reservas de la misma
+ * propiedad nunca se solapan
+ *
+ * Si hay directorio de datos configurado, cada reserva y cada cancelación
+ * se anotan en su propio registro de escritura ("reservas") con puntos de
+ * control en reservas.snap, y se espera el fsync antes de confirmarlas.
+ * Al reiniciar se recuperan las reservas y se vuelven a ocupar en el
+ * calendario las noches de las confirmadas (desde hoy): el calendario de
+ * PropiedadData vive solo en memoria y se reconstruye a partir de ellas.
+ * Con PropiedadDataJdbc las noches ya están en la base y ocuparlas de nuevo
+ * no cambia nada
+ */
+public class ReservaData {
+    
+    //   ALMACENAMIENTO EN MEMORIA  
+    
+    private static final Map<String, Reserva> indicePorId = new ConcurrentHashMap<>();
+    
+    private static final Map<String, Queue<Reserva>> indicePorPropiedad = new ConcurrentHashMap<>();
+    
+    // Registro de escritura de reservas y cancelaciones (null = solo en memoria)
+    private static volatile RegistroEscritura registro;
+    
+    // true cuando ya se intentó recuperar el registro (ver descartarTodas)
+    private static boolean iniciado;
+    
+    // Lectura: anotar y publicar una reserva o cancelación (muchas a la vez)
+    // Escritura: rotar el registro y copiar las reservas del punto de control
+    private static final StampedLock candadoRegistro = new StampedLock();
+    
+    private final AlmacenPropiedades propiedades;
+    
+    //   CONSTRUCTOR  
+    
+    /**
+     * Constructor: la primera vez recupera las reservas del registro de
+     * escritura (si está configurado) y ocupa sus noches en el calendario
+     * @param propiedades DAO de propiedades (dueño del calendario de disponibilidad)
+     */
+    public ReservaData(AlmacenPropiedades propiedades) {
+        this.propiedades = propiedades;
+        synchronized (ReservaData.class) {
+            if (!iniciado) {
+                iniciado = true;
+                RegistroEscritura abierto = RegistroEscritura.abrirConfigurado("reservas");
+                if (abierto != null) {
+                    recuperar(abierto, propiedades);
+                }
+                registro = abierto;
+            }
+        }
+    }
+    
+    //   MÉTODOS CRUD  
+    
+    /**
+     * Reserva una propiedad para un rango de fechas
+     * La verificación de disponibilidad y la ocupación de las noches son una
+     * sola operación atómica, así que dos viajeros nunca obtienen noches en común
+     * Con registro de escritura vuelve cuando la reserva ya quedó guardada
+     * @param propiedadId ID de la propiedad
+     * @param viajeroId ID del viajero
+     * @param fechaEntrada Fecha de llegada (primera noche)
+     * @param fechaSalida Fecha de salida (no se cuenta como noche)
+     * @return Reserva confirmada, o null si la propiedad no existe, no está
+     *         disponible, alguna noche ya estaba ocupada o las fechas salen del horizonte
+     */
+    public Reserva reservar(String propiedadId, String viajeroId,
+                            LocalDate fechaEntrada, LocalDate fechaSalida) {
+        Propiedad propiedad = propiedades.buscarPorId(propiedadId);
+        if (propiedad == null || !propiedad.isDisponible()) {
+            return null;
+        }
+        if (!propiedades.bloquearFechas(propiedadId, fechaEntrada, fechaSalida)) {
+            return null;
+        }
+        
+        long noches = ChronoUnit.DAYS.between(fechaEntrada, fechaSalida);
+        Reserva reserva = new Reserva(propiedadId, viajeroId, fechaEntrada, fechaSalida,
+                                      noches * propiedad.getPrecioPorNoche());
+        RegistroEscritura r = registro;
+        long numero = 0;
+        long sello = candadoRegistro.readLock();
+        try {
+            // Se anota antes de publicarla: nadie la cancela sin que esté en el registro
+            if (r != null) {
+                numero = r.agregar(codificar(reserva));
+            }
+            publicar(reserva);
+        } finally {
+            candadoRegistro.unlockRead(sello);
+        }
+        esperar(r, numero);
+        return reserva;
+    }
+    
+    /**
+     * Cancela una reserva confirmada y libera sus noches
+     * Si dos hilos cancelan la misma reserva solo uno libera las noches
+     * Las noches se liberan cuando la cancelación ya quedó guardada
+     * @param reservaId ID de la reserva
+     * @return true si se canceló; false si no existe o ya estaba cancelada
+     */
+    public boolean cancelarReserva(String reservaId) {
+        Reserva reserva = indicePorId.get(reservaId);
+        if (reserva == null) {
+            return false;
+        }
+        RegistroEscritura r = registro;
+        long numero = 0;
+        long sello = candadoRegistro.readLock();
+        try {
+            synchronized (reserva) {
+                if (!reserva.estaConfirmada()) {
+                    return false;
+                }
+                reserva.setEstado(Reserva.CANCELADA);
+                if (r != null) {
+                    numero = r.agregar(codificarCancelacion(reservaId));
+                }
+            }
+        } finally {
+            candadoRegistro.unlockRead(sello);
+        }
+        esperar(r, numero);
+        propiedades.liberarFechas(reserva.getPropiedadId(), reserva.getFechaEntrada(), reserva.getFechaSalida());
+        return true;
+    }
+    
+    /**
+     * Busca una reserva por su ID
+     * @param reservaId ID de la reserva
+     * @return Reserva si existe, null si no
+     */
+    public Reserva buscarPorId(String reservaId) {
+        return indicePorId.get(reservaId);
+    }
+    
+    /**
+     * Obtiene las reservas de una propiedad ordenadas por fecha de entrada
+     * @param propiedadId ID de la propiedad
+     * @return Lista de reservas (confirmadas y canceladas)
+     */
+    public List<Reserva> obtenerReservasPorPropiedad(String propiedadId) {
+        List<Reserva> resultado = new ArrayList<>();
+        Queue<Reserva> reservas = indicePorPropiedad.get(propiedadId);
+        if (reservas != null) {
+            resultado.addAll(reservas);
+        }
+        resultado.sort(Comparator.comparing(Reserva::getFechaEntrada));
+        return resultado;
+    }
+    
+    /**
+     * Obtiene las reservas hechas por un viajero ordenadas por fecha de entrada
+     * @param viajeroId ID del viajero
+     * @return Lista de reservas
+     */
+    public List<Reserva> obtenerReservasPorViajero(String viajeroId) {
+        List<Reserva> resultado = new ArrayList<>();
+        for (Reserva r : indicePorId.values()) {
+            if (r.getViajeroId().equals(viajeroId)) {
+                resultado.add(r);
+            }
+        }
+        resultado.sort(Comparator.comparing(Reserva::getFechaEntrada));
+        return resultado;
+    }
+    
+    /**
+     * Olvida todas las reservas (confirmadas y canceladas) sin liberar sus
+     * noches. Solo para benchmarks y pruebas, entre corridas
+     * El registro de escritura se cierra (sus archivos quedan): la próxima
+     * instancia vuelve a recuperar lo que haya en el directorio configurado
+     */
+    static void descartarTodas() {
+        synchronized (ReservaData.class) {
+            RegistroEscritura r = registro;
+            long sello = candadoRegistro.writeLock();
+            try {
+                indicePorId.clear();
+                indicePorPropiedad.clear();
+                registro = null;
+                iniciado = false;
+            } finally {
+                candadoRegistro.unlockWrite(sello);
+            }
+            if (r != null) {
+                r.close();
+            }
+        }
+    }
+    
+    /**
+     * Obtiene las reservas de todas las propiedades de un anfitrión
+     * @param anfitrionId ID del anfitrión
+     * @return Lista de reservas ordenadas por fecha de entrada
+     */
+    public List<Reserva> obtenerReservasPorAnfitrion(String anfitrionId) {
+        List<Reserva> resultado = new ArrayList<>();
+        for (Propiedad p : propiedades.obtenerPropiedadesPorAnfitrion(anfitrionId)) {
+            Queue<Reserva> reservas = indicePorPropiedad.get(p.getPropiedadId());
+            if (reservas != null) {
+                resultado.addAll(reservas);
+            }
+        }
+        resultado.sort(Comparator.comparing(Reserva::getFechaEntrada));
+        return resultado;
+    }
+    
+    private static void publicar(Reserva reserva) {
+        indicePorId.put(reserva.getReservaId(), reserva);
+        indicePorPropiedad.computeIfAbsent(reserva.getPropiedadId(), k -> new ConcurrentLinkedQueue<>())
+                          .add(reserva);
+    }
+    
+    //   REGISTRO DE ESCRITURA  
+    
+    // Tipos de registro: reserva confirmada (estado completo) y cancelación
+    private static final byte REGISTRO_RESERVA = 1;
+    private static final byte REGISTRO_CANCELACION = 2;
+    
+    // Versión del contenido de reservas.snap
+    private static final int FORMATO_PUNTO_CONTROL = 1;
+    
+    // El fsync se espera sin el candado: el punto de control no espera al disco
+    private static void esperar(RegistroEscritura r, long numero) {
+        if (r != null) {
+            r.esperar(numero);
+            if (r.pidePuntoControl()) {
+                guardarPuntoControl(r);
+            }
+        }
+    }
+    
+    /**
+     * Recupera las reservas del último punto de control (si hay) y de la cola
+     * del registro posterior a él, y ocupa en el calendario las noches que
+     * quedan (desde hoy) de las confirmadas
+     * Una reserva puede estar en ambos (se anotó justo al guardar el punto
+     * de control); la segunda se descarta porque el ID ya existe
+     */
+    private static void recuperar(RegistroEscritura abierto, AlmacenPropiedades propiedades) {
+        try {
+            ArchivoPuntoControl punto = ArchivoPuntoControl.abrir(archivoPuntoControl(abierto),
+                                                                  FORMATO_PUNTO_CONTROL);
+            if (punto != null) {
+                ByteBuffer datos = punto.getDatos();
+                int cantidad = datos.getInt();
+                for (int i = 0; i < cantidad; i++) {
+                    byte[] estado = new byte[datos.getInt()];
+                    datos.get(estado);
+                    aplicar(new DataInputStream(new ByteArrayInputStream(estado)));
+                }
+            }
+            abierto.reproducir(punto != null ? punto.getGeneracion() : 0, ReservaData::aplicar);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el registro de reservas", e);
+        }
+        LocalDate hoy = LocalDate.now();
+        int ocupadas = 0;
+        for (Reserva reserva : indicePorId.values()) {
+            if (!reserva.estaConfirmada() || !reserva.getFechaSalida().isAfter(hoy)) {
+                continue;
+            }
+            LocalDate desde = reserva.getFechaEntrada().isBefore(hoy) ? hoy : reserva.getFechaEntrada();
+            if (propiedades.bloquearFechas(reserva.getPropiedadId(), desde, reserva.getFechaSalida())) {
+                ocupadas++;
+            }
+        }
+        if (!indicePorId.isEmpty()) {
+            System.out.println("✅ Reservas recuperadas: " + indicePorId.size()
+                               + " (" + ocupadas + " vuelven a ocupar el calendario)");
+        }
+    }
+    
+    // Aplica un registro recuperado: alta (si el ID es nuevo) o cancelación
+    private static void aplicar(DataInput datos) throws IOException {
+        byte tipo = datos.readByte();
+        if (tipo == REGISTRO_CANCELACION) {
+            Reserva reserva = indicePorId.get(RegistroEscritura.leerTexto(datos));
+            if (reserva != null) {
+                reserva.setEstado(Reserva.CANCELADA);
+            }
+            return;
+        }
+        if (tipo != REGISTRO_RESERVA) {
+            throw new IOException("Tipo de registro desconocido: " + tipo);
+        }
+        Reserva reserva = decodificar(datos);
+        if (!indicePorId.containsKey(reserva.getReservaId())) {
+            publicar(reserva);
+        }
+    }
+    
+    /**
+     * Guarda todas las reservas en reservas.snap y descarta el registro de
+     * escritura anterior
+     * La rotación y la copia se hacen con el candado de escritura: toda
+     * reserva o cancelación anotada antes de rotar ya está publicada
+     */
+    private static void guardarPuntoControl(RegistroEscritura r) {
+        synchronized (ReservaData.class) {
+            if (!r.pidePuntoControl()) {
+                return;   // otro hilo lo acaba de guardar
+            }
+            try {
+                long generacion;
+                List<byte[]> estados = new ArrayList<>();
+                long sello = candadoRegistro.writeLock();
+                try {
+                    generacion = r.rotar();
+                    for (Reserva reserva : indicePorId.values()) {
+                        estados.add(codificar(reserva));
+                    }
+                } finally {
+                    candadoRegistro.unlockWrite(sello);
+                }
+                ArchivoPuntoControl.guardar(archivoPuntoControl(r), FORMATO_PUNTO_CONTROL, generacion, salida -> {
+                    salida.writeInt(estados.size());
+                    for (byte[] estado : estados) {
+                        salida.writeInt(estado.length);
+                        salida.write(estado);
+                    }
+                });
+                r.descartarAnteriores(generacion);
+            } catch (IOException e) {
+                System.err.println("⚠️ No se pudo guardar el punto de control de reservas: " + e.getMessage());
+            }
+        }
+    }
+    
+    private static Path archivoPuntoControl(RegistroEscritura r) {
+        return r.getDirectorio().resolve(r.getNombre() + ".snap");
+    }
+    
+    private static byte[] codificar(Reserva reserva) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream salida = new DataOutputStream(bytes)) {
+            salida.writeByte(REGISTRO_RESERVA);
+            RegistroEscritura.escribirTexto(salida, reserva.getReservaId());
+            RegistroEscritura.escribirTexto(salida, reserva.getPropiedadId());
+            RegistroEscritura.escribirTexto(salida, reserva.getViajeroId());
+            salida.writeLong(reserva.getFechaEntrada().toEpochDay());
+            salida.writeLong(reserva.getFechaSalida().toEpochDay());
+            salida.writeDouble(reserva.getTotal());
+            RegistroEscritura.escribirTexto(salida, reserva.getEstado());
+            RegistroEscritura.escribirTexto(salida, reserva.getFechaCreacion());
+        } catch (IOException e) {
+            // No ocurre: se escribe en memoria
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static byte[] codificarCancelacion(String reservaId) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(48);
+        try (DataOutputStream salida = new DataOutputStream(bytes)) {
+            salida.writeByte(REGISTRO_CANCELACION);
+            RegistroEscritura.escribirTexto(salida, reservaId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    // El tipo ya se leyó (ver aplicar)
+    private static Reserva decodificar(DataInput datos) throws IOException {
+        Reserva reserva = new Reserva();
+        reserva.setReservaId(RegistroEscritura.leerTexto(datos));
+        reserva.setPropiedadId(RegistroEscritura.leerTexto(datos));
+        reserva.setViajeroId(RegistroEscritura.leerTexto(datos));
+        reserva.setFechaEntrada(LocalDate.ofEpochDay(datos.readLong()));
+        reserva.setFechaSalida(LocalDate.ofEpochDay(datos.readLong()));
+        reserva.setTotal(datos.readDouble());
+        reserva.setEstado(RegistroEscritura.leerTexto(datos));
+        reserva.setFechaCreacion(RegistroEscritura.leerTexto(datos));
+        return reserva;
+    }
+}
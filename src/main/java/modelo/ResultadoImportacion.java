@@ -0,0 +1,148 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Resumen de una importación: filas importadas y rechazadas, y el tiempo
+ * de cada etapa del proceso con su rendimiento en filas por segundo
+ */
+public class ResultadoImportacion {
+
+    // Errores que se guardan con su texto (el resto solo se cuenta)
+    static final int MAXIMO_ERRORES = 100;
+
+    private final String archivo;
+    private long filasLeidas;
+    private long importadas;
+    private long rechazadas;
+    private final List<String> errores = new ArrayList<>();
+
+    // Tiempo ocupado de cada etapa (el análisis suma el de todos sus hilos)
+    private long nanosLectura;
+    private long nanosAnalisis;
+    private long nanosInsercion;
+    private long nanosPuntoControl;
+    private long nanosTotal;
+    private int hilosAnalisis;
+
+    ResultadoImportacion(String archivo) {
+        this.archivo = archivo;
+    }
+
+    //   REGISTRO (lo usa el importador)
+
+    void sumarLeidas(long filas) {
+        filasLeidas += filas;
+    }
+
+    void sumarImportadas(long filas) {
+        importadas += filas;
+    }
+
+    void rechazar(long linea, String motivo) {
+        rechazadas++;
+        if (errores.size() < MAXIMO_ERRORES) {
+            errores.add("Línea " + linea + ": " + motivo);
+        }
+    }
+
+    void tiempos(long lectura, long analisis, long insercion, long puntoControl, long total, int hilos) {
+        this.nanosLectura = lectura;
+        this.nanosAnalisis = analisis;
+        this.nanosInsercion = insercion;
+        this.nanosPuntoControl = puntoControl;
+        this.nanosTotal = total;
+        this.hilosAnalisis = hilos;
+    }
+
+    //   CONSULTA
+
+    public String getArchivo() {
+        return archivo;
+    }
+
+    public long getFilasLeidas() {
+        return filasLeidas;
+    }
+
+    public long getImportadas() {
+        return importadas;
+    }
+
+    public long getRechazadas() {
+        return rechazadas;
+    }
+
+    /**
+     * @return Motivo de los primeros rechazos (ej: "Línea 12: el precio debe ser mayor a 0")
+     */
+    public List<String> getErrores() {
+        return Collections.unmodifiableList(errores);
+    }
+
+    public long getMsLectura() {
+        return nanosLectura / 1_000_000;
+    }
+
+    /**
+     * @return Tiempo de análisis y validación sumado entre todos los hilos
+     */
+    public long getMsAnalisis() {
+        return nanosAnalisis / 1_000_000;
+    }
+
+    public long getMsInsercion() {
+        return nanosInsercion / 1_000_000;
+    }
+
+    public long getMsPuntoControl() {
+        return nanosPuntoControl / 1_000_000;
+    }
+
+    public long getMsTotal() {
+        return nanosTotal / 1_000_000;
+    }
+
+    /**
+     * @return Filas por segundo de toda la importación
+     */
+    public double getFilasPorSegundo() {
+        return porSegundo(filasLeidas, nanosTotal);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(archivo).append(": ").append(filasLeidas).append(" filas, ")
+          .append(importadas).append(" importadas, ").append(rechazadas).append(" rechazadas en ")
+          .append(getMsTotal()).append(" ms (").append(formato(getFilasPorSegundo())).append(" filas/s)\n");
+        etapa(sb, "lectura", nanosLectura, filasLeidas);
+        etapa(sb, "análisis (" + hilosAnalisis + " hilos)", nanosAnalisis / Math.max(1, hilosAnalisis), filasLeidas);
+        etapa(sb, "inserción", nanosInsercion, importadas);
+        if (nanosPuntoControl > 0) {
+            sb.append("   punto de control: ").append(getMsPuntoControl()).append(" ms\n");
+        }
+        for (String error : errores) {
+            sb.append("   ⚠️ ").append(error).append('\n');
+        }
+        if (rechazadas > errores.size()) {
+            sb.append("   ... y ").append(rechazadas - errores.size()).append(" rechazos más\n");
+        }
+        return sb.toString().trim();
+    }
+
+    private static void etapa(StringBuilder sb, String nombre, long nanos, long filas) {
+        sb.append("   ").append(nombre).append(": ").append(nanos / 1_000_000).append(" ms (")
+          .append(formato(porSegundo(filas, nanos))).append(" filas/s)\n");
+    }
+
+    private static double porSegundo(long filas, long nanos) {
+        return nanos > 0 ? filas * 1e9 / nanos : 0;
+    }
+
+    private static String formato(double valor) {
+        return String.format("%,.0f", valor);
+    }
+}
@@ -0,0 +1,65 @@
+package modelo;
+
+/**
+ * Usuario que inició sesión en el programa
+ *
+ * La sesión no depende del motor de almacenamiento: el mismo objeto sirve
+ * con MEMORIA, LISTA o JDBC, y los controladores la reciben en el
+ * constructor en lugar de leer un campo estático de UsuarioData
+ * El programa usa la sesión compartida; las pruebas pueden crear otras
+ */
+public final class SesionUsuario {
+
+    private static final SesionUsuario COMPARTIDA = new SesionUsuario();
+
+    private volatile Usuario usuario;
+
+    /**
+     * Sesión nueva, sin usuario
+     */
+    public SesionUsuario() {
+    }
+
+    /**
+     * @return Sesión del programa, común a todas las ventanas
+     */
+    public static SesionUsuario compartida() {
+        return COMPARTIDA;
+    }
+
+    /**
+     * Establece el usuario que inició sesión
+     * @param usuario Usuario que inició sesión
+     */
+    public void iniciar(Usuario usuario) {
+        this.usuario = usuario;
+        if (usuario != null) {
+            System.out.println("✅ Sesión iniciada: " + usuario.getNombre() + " (" + usuario.getRol() + ")");
+        }
+    }
+
+    /**
+     * @return Usuario actual o null si nadie inició sesión
+     */
+    public Usuario getUsuario() {
+        return usuario;
+    }
+
+    /**
+     * Cierra la sesión del usuario actual
+     */
+    public void cerrar() {
+        Usuario anterior = usuario;
+        if (anterior != null) {
+            System.out.println("👋 Sesión cerrada: " + anterior.getNombre());
+        }
+        usuario = null;
+    }
+
+    /**
+     * @return true si hay un usuario con sesión iniciada
+     */
+    public boolean hayActiva() {
+        return usuario != null;
+    }
+}
@@ -0,0 +1,346 @@
+package modelo;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Propiedades del catálogo por ordinal
+ *
+ * Las que vienen de un punto de control no se crean al cargarlo: su estado
+ * queda en el archivo proyectado en memoria (mismo formato que el registro
+ * de escritura) y el objeto Propiedad se arma la primera vez que alguien lo
+ * pide. Desde ahí es siempre el mismo objeto, así sus cambios llegan a los
+ * índices como los de cualquier otra. Las búsquedas por id y por anfitrión de
+ * esas propiedades usan tablas hash guardadas en el mismo archivo
+ *
+ * Las propiedades agregadas después van en un arreglo común. Se cambia con
+ * el candado de escritura del catálogo; armar una propiedad cargada no
+ * necesita candado (si dos hilos la arman a la vez, gana la primera)
+ */
+class TablaPropiedades {
+
+    // Propiedades del punto de control (0 = no hay)
+    private final int cargadas;
+    private final ByteBuffer registros;          // estado de cada una, uno tras otro
+    private final IntBuffer inicios;             // ordinal -> posición de su estado (cargadas + 1)
+    private final IntBuffer tablaIds;            // hash abierto: id -> ordinal + 1
+    private final IntBuffer tablaAnfitriones;    // hash abierto: anfitrión -> grupo + 1
+    private final IntBuffer inicioGrupos;        // grupo -> primera posición en ordinalesGrupos
+    private final IntBuffer ordinalesGrupos;     // ordinales agrupados por anfitrión
+    private final AtomicReferenceArray<Propiedad> armadas;
+    private final ObservadorPropiedad observador;
+
+    // Propiedades agregadas después del punto de control (ordinal - cargadas)
+    private Propiedad[] nuevas = new Propiedad[16];
+    private int tamano;
+
+    /**
+     * Tabla vacía
+     */
+    TablaPropiedades() {
+        this(0, null, null, null, null, null, null, null);
+    }
+
+    private TablaPropiedades(int cargadas, ByteBuffer registros, IntBuffer inicios, IntBuffer tablaIds,
+                             IntBuffer tablaAnfitriones, IntBuffer inicioGrupos, IntBuffer ordinalesGrupos,
+                             ObservadorPropiedad observador) {
+        this.cargadas = cargadas;
+        this.registros = registros;
+        this.inicios = inicios;
+        this.tablaIds = tablaIds;
+        this.tablaAnfitriones = tablaAnfitriones;
+        this.inicioGrupos = inicioGrupos;
+        this.ordinalesGrupos = ordinalesGrupos;
+        this.armadas = new AtomicReferenceArray<>(cargadas);
+        this.observador = observador;
+        this.tamano = cargadas;
+    }
+
+    //   ACCESO POR ORDINAL
+
+    public int tamano() {
+        return tamano;
+    }
+
+    /**
+     * @param ordinal Ordinal de la propiedad (menor que tamano)
+     * @return La propiedad; si venía del punto de control, se arma la primera vez
+     */
+    public Propiedad obtener(int ordinal) {
+        if (ordinal >= cargadas) {
+            return nuevas[ordinal - cargadas];
+        }
+        Propiedad propiedad = armadas.get(ordinal);
+        if (propiedad == null) {
+            Propiedad leida = leer(ordinal);
+            propiedad = armadas.compareAndExchange(ordinal, null, leida);
+            if (propiedad == null) {
+                propiedad = leida;
+            }
+        }
+        return propiedad;
+    }
+
+    /**
+     * Agrega una propiedad al final (con el candado de escritura tomado)
+     * @param propiedad Propiedad con ordinal igual a tamano()
+     */
+    public void agregar(Propiedad propiedad) {
+        int i = tamano - cargadas;
+        if (i == nuevas.length) {
+            nuevas = Arrays.copyOf(nuevas, nuevas.length * 2);
+        }
+        nuevas[i] = propiedad;
+        tamano++;
+    }
+
+    /**
+     * Quita el observador de las propiedades armadas (la tabla se descarta)
+     * Se llama con el candado de escritura tomado
+     */
+    void desconectar() {
+        for (int i = 0; i < tamano - cargadas; i++) {
+            nuevas[i].observador = null;
+        }
+        for (int o = 0; o < cargadas; o++) {
+            Propiedad propiedad = armadas.get(o);
+            if (propiedad != null) {
+                propiedad.observador = null;
+            }
+        }
+    }
+
+    /**
+     * @return Todas las propiedades en orden de ordinal (arma las que falten)
+     */
+    public List<Propiedad> aLista() {
+        int n = tamano;
+        List<Propiedad> propiedades = new ArrayList<>(n);
+        for (int o = 0; o < n; o++) {
+            propiedades.add(obtener(o));
+        }
+        return propiedades;
+    }
+
+    //   BÚSQUEDAS EN EL PUNTO DE CONTROL
+
+    /**
+     * @param propiedadId ID de la propiedad
+     * @return La propiedad si venía del punto de control, o null
+     */
+    public Propiedad buscarCargada(String propiedadId) {
+        if (cargadas == 0 || propiedadId == null) {
+            return null;
+        }
+        byte[] buscado = propiedadId.getBytes(StandardCharsets.UTF_8);
+        int mascara = tablaIds.limit() - 1;
+        for (int i = dispersar(propiedadId) & mascara; ; i = (i + 1) & mascara) {
+            int valor = tablaIds.get(i);
+            if (valor == 0) {
+                return null;
+            }
+            if (textoIgual(posicionId(valor - 1), buscado)) {
+                return obtener(valor - 1);
+            }
+        }
+    }
+
+    /**
+     * @param anfitrionId ID del anfitrión
+     * @return Propiedades del anfitrión que venían del punto de control (en
+     *         orden); se omiten las que después pasaron a otro anfitrión
+     */
+    public List<Propiedad> cargadasDeAnfitrion(String anfitrionId) {
+        List<Propiedad> propiedades = new ArrayList<>();
+        if (cargadas == 0 || anfitrionId == null) {
+            return propiedades;
+        }
+        byte[] buscado = anfitrionId.getBytes(StandardCharsets.UTF_8);
+        int mascara = tablaAnfitriones.limit() - 1;
+        for (int i = dispersar(anfitrionId) & mascara; ; i = (i + 1) & mascara) {
+            int valor = tablaAnfitriones.get(i);
+            if (valor == 0) {
+                return propiedades;
+            }
+            int desde = inicioGrupos.get(valor - 1);
+            int hasta = inicioGrupos.get(valor);
+            if (textoIgual(posicionAnfitrion(ordinalesGrupos.get(desde)), buscado)) {
+                for (int k = desde; k < hasta; k++) {
+                    Propiedad propiedad = obtener(ordinalesGrupos.get(k));
+                    if (anfitrionId.equals(propiedad.getAnfitrionId())) {
+                        propiedades.add(propiedad);
+                    }
+                }
+                return propiedades;
+            }
+        }
+    }
+
+    /**
+     * @param ordinal Ordinal de la propiedad
+     * @param anfitrionId ID del anfitrión
+     * @return true si la propiedad venía del punto de control en el grupo de ese anfitrión
+     */
+    public boolean esCargadaDeAnfitrion(int ordinal, String anfitrionId) {
+        return ordinal < cargadas && anfitrionId != null
+               && textoIgual(posicionAnfitrion(ordinal), anfitrionId.getBytes(StandardCharsets.UTF_8));
+    }
+
+    //   PUNTO DE CONTROL
+
+    /**
+     * Escribe el estado de cada propiedad y las tablas de ids y anfitriones
+     * Las cargadas que nadie armó se copian tal cual del punto de control anterior
+     */
+    void escribir(ArchivoPuntoControl.Salida salida) throws IOException {
+        int n = tamano;
+        String[] ids = new String[n];
+        Map<String, ListaEnteros> porAnfitrion = new LinkedHashMap<>();
+        int[] posiciones = new int[n + 1];
+
+        salida.writeInt(n);
+        int marca = salida.reservarEntero();
+        int base = salida.size();
+        for (int o = 0; o < n; o++) {
+            posiciones[o] = salida.size() - base;
+            Propiedad propiedad = o >= cargadas ? nuevas[o - cargadas] : armadas.get(o);
+            String anfitrion;
+            if (propiedad != null) {
+                salida.write(PropiedadData.codificar(propiedad));
+                ids[o] = propiedad.getPropiedadId();
+                anfitrion = propiedad.getAnfitrionId();
+            } else {
+                salida.escribirBytes(registros.duplicate().position(inicios.get(o)).limit(inicios.get(o + 1)));
+                ids[o] = texto(posicionId(o));
+                anfitrion = texto(posicionAnfitrion(o));
+            }
+            porAnfitrion.computeIfAbsent(anfitrion, k -> new ListaEnteros()).agregar(o);
+        }
+        posiciones[n] = salida.size() - base;
+        salida.completar(marca, posiciones[n]);
+        salida.escribirEnteros(posiciones, n + 1);
+
+        int[] tabla = new int[capacidad(n)];
+        for (int o = 0; o < n; o++) {
+            insertar(tabla, dispersar(ids[o]), o + 1);
+        }
+        salida.writeInt(tabla.length);
+        salida.escribirEnteros(tabla, tabla.length);
+
+        int grupos = porAnfitrion.size();
+        int[] tablaGrupos = new int[capacidad(grupos)];
+        int[] inicioGrupo = new int[grupos + 1];
+        int[] agrupados = new int[n];
+        int g = 0;
+        int k = 0;
+        for (Map.Entry<String, ListaEnteros> e : porAnfitrion.entrySet()) {
+            insertar(tablaGrupos, dispersar(e.getKey()), g + 1);
+            inicioGrupo[g++] = k;
+            for (int i = 0; i < e.getValue().tamano(); i++) {
+                agrupados[k++] = e.getValue().obtener(i);
+            }
+        }
+        inicioGrupo[g] = k;
+        salida.writeInt(tablaGrupos.length);
+        salida.escribirEnteros(tablaGrupos, tablaGrupos.length);
+        salida.writeInt(grupos);
+        salida.escribirEnteros(inicioGrupo, grupos + 1);
+        salida.escribirEnteros(agrupados, n);
+    }
+
+    /**
+     * Tabla con las propiedades de un punto de control, sin armar ninguna
+     * (solo se toman vistas del archivo proyectado)
+     * @param observador Observador que reciben las propiedades al armarse
+     */
+    static TablaPropiedades cargar(ByteBuffer datos, ObservadorPropiedad observador) {
+        int n = datos.getInt();
+        ByteBuffer registros = ArchivoPuntoControl.vistaBytes(datos, datos.getInt());
+        IntBuffer inicios = ArchivoPuntoControl.vistaEnteros(datos, n + 1);
+        IntBuffer tablaIds = ArchivoPuntoControl.vistaEnteros(datos, datos.getInt());
+        IntBuffer tablaAnfitriones = ArchivoPuntoControl.vistaEnteros(datos, datos.getInt());
+        IntBuffer inicioGrupos = ArchivoPuntoControl.vistaEnteros(datos, datos.getInt() + 1);
+        IntBuffer ordinalesGrupos = ArchivoPuntoControl.vistaEnteros(datos, n);
+        return new TablaPropiedades(n, registros, inicios, tablaIds, tablaAnfitriones,
+                                    inicioGrupos, ordinalesGrupos, observador);
+    }
+
+    //   MÉTODOS PRIVADOS
+
+    // Arma la propiedad con su estado guardado
+    private Propiedad leer(int ordinal) {
+        byte[] estado = new byte[inicios.get(ordinal + 1) - inicios.get(ordinal)];
+        registros.get(inicios.get(ordinal), estado);
+        try {
+            Propiedad propiedad = PropiedadData.decodificar(new DataInputStream(new ByteArrayInputStream(estado)));
+            propiedad.ordinal = ordinal;
+            propiedad.observador = observador;
+            return propiedad;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Estado dañado de la propiedad " + ordinal + " en el punto de control", e);
+        }
+    }
+
+    // El estado empieza con el tipo de registro, el id y el anfitrión
+    private int posicionId(int ordinal) {
+        return inicios.get(ordinal) + 1;
+    }
+
+    private int posicionAnfitrion(int ordinal) {
+        int id = posicionId(ordinal);
+        return id + 4 + Math.max(0, registros.getInt(id));
+    }
+
+    private String texto(int posicion) {
+        int longitud = registros.getInt(posicion);
+        if (longitud < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud];
+        registros.get(posicion + 4, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean textoIgual(int posicion, byte[] buscado) {
+        if (registros.getInt(posicion) != buscado.length) {
+            return false;
+        }
+        for (int i = 0; i < buscado.length; i++) {
+            if (registros.get(posicion + 4 + i) != buscado[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int dispersar(String texto) {
+        int h = Objects.hashCode(texto);
+        return h ^ (h >>> 16);
+    }
+
+    // Potencia de dos con al menos el doble de lugares que elementos
+    private static int capacidad(int elementos) {
+        return Integer.highestOneBit(Math.max(1, elementos) * 2 - 1) << 1;
+    }
+
+    private static void insertar(int[] tabla, int hash, int valor) {
+        int mascara = tabla.length - 1;
+        int i = hash & mascara;
+        while (tabla[i] != 0) {
+            i = (i + 1) & mascara;
+        }
+        tabla[i] = valor;
+    }
+}
@@ -0,0 +1,102 @@
+package modelo;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Convierte textos en español en términos para el índice de texto
+ * Pasa a minúsculas, quita tildes ("Bogotá" -> "bogota"), separa por
+ * caracteres que no son letras ni dígitos, marca las palabras vacías
+ * y reduce los plurales regulares ("playas" -> "playa")
+ */
+final class TokenizadorEspanol {
+
+    // Palabras demasiado frecuentes para aportar a la búsqueda (ya sin tildes)
+    private static final Set<String> PALABRAS_VACIAS = new HashSet<>(Arrays.asList(
+        "a", "al", "con", "de", "del", "desde", "e", "el", "en", "entre", "es", "hasta",
+        "la", "las", "lo", "los", "mas", "muy", "o", "para", "por", "que", "se", "sin",
+        "sobre", "su", "sus", "u", "un", "una", "unas", "unos", "y"
+    ));
+
+    // Largo mínimo de la raíz al quitar "-s" tras consonante ("clubs" -> "club")
+    private static final int RAIZ_MINIMA = 4;
+
+    private TokenizadorEspanol() {
+    }
+
+    /**
+     * Separa un texto en términos normalizados
+     * Las palabras vacías quedan como null para conservar las posiciones
+     * (así "frente al mar" sigue siendo una frase de tres posiciones)
+     * @param texto Texto a separar (puede ser null)
+     * @return Términos en orden de aparición
+     */
+    public static List<String> tokenizar(String texto) {
+        List<String> terminos = new ArrayList<>();
+        if (texto == null || texto.isEmpty()) {
+            return terminos;
+        }
+        String plano = quitarTildes(texto.toLowerCase(Locale.ROOT));
+        int inicio = -1;
+        for (int i = 0; i <= plano.length(); i++) {
+            boolean esParte = i < plano.length() && Character.isLetterOrDigit(plano.charAt(i));
+            if (esParte && inicio < 0) {
+                inicio = i;
+            } else if (!esParte && inicio >= 0) {
+                String palabra = plano.substring(inicio, i);
+                terminos.add(PALABRAS_VACIAS.contains(palabra) ? null : singular(palabra));
+                inicio = -1;
+            }
+        }
+        return terminos;
+    }
+
+    /**
+     * Quita tildes y diéresis ("á" -> "a", "ñ" -> "n")
+     */
+    static String quitarTildes(String texto) {
+        String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(descompuesto.length());
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char c = descompuesto.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Reduce plurales regulares: "-es" tras consonante ("ciudades" -> "ciudad")
+     * y "-s" tras vocal ("playas" -> "playa")
+     * Los préstamos que forman el plural con "-s" tras consonante ("lofts",
+     * "clubs") también pierden la "s" si queda una raíz de al menos
+     * RAIZ_MINIMA letras, así palabras cortas como "bus" no cambian
+     * Se aplica igual al índice y a la consulta, así ambas formas coinciden
+     */
+    private static String singular(String palabra) {
+        int n = palabra.length();
+        if (n >= 5 && palabra.endsWith("es") && !esVocal(palabra.charAt(n - 3))) {
+            return palabra.substring(0, n - 2);
+        }
+        if (n >= 4 && palabra.charAt(n - 1) == 's' && esVocal(palabra.charAt(n - 2))) {
+            return palabra.substring(0, n - 1);
+        }
+        if (n > RAIZ_MINIMA && palabra.charAt(n - 1) == 's') {
+            char anterior = palabra.charAt(n - 2);
+            if (Character.isLetter(anterior) && anterior != 's' && !esVocal(anterior)) {
+                return palabra.substring(0, n - 1);
+            }
+        }
+        return palabra;
+    }
+
+    private static boolean esVocal(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+}
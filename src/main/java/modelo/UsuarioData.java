@@ -1,27 +1,104 @@
 package modelo;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
 
 /**
  * Clase DAO (Data Access Object) para gestionar usuarios
- * Almacena usuarios en memoria (ArrayList estático)
- * En el futuro migrará a base de datos
+ * Almacena usuarios en memoria (lista estática)
+ * La versión sobre base de datos es UsuarioDataJdbc (ver MotorAlmacenamiento)
+ *
+ * Se puede usar desde varios hilos: las altas toman el candado de escritura
+ * y agregan al final de un arreglo que crece al doble (costo constante por
+ * alta); las lecturas de la lista empiezan optimistas y no se bloquean entre
+ * sí, y el índice por email garantiza que dos registros simultáneos no
+ * repitan el mismo email
  */
-public class UsuarioData {
+public class UsuarioData implements AlmacenUsuarios {
     
     //   ALMACENAMIENTO EN MEMORIA  
     
-    private static List<Usuario> listaUsuarios = new ArrayList<>();
+    // Usuarios en orden de alta: solo se agrega al final, lo anterior no cambia
+    private static Usuario[] tablaUsuarios = new Usuario[16];
+    private static int cantidadUsuarios;
     
-    private static Usuario usuarioActual = null;
+    // Escritura: altas. Lecturas de la lista: optimistas (ver leer)
+    private static final StampedLock candado = new StampedLock();
+    
+    // Email en minúsculas -> usuario
+    private static Map<String, Usuario> indicePorEmail = new ConcurrentHashMap<>();
+    
+    // Registro de escritura donde se anota cada alta (null = solo en memoria)
+    private static volatile RegistroEscritura registro;
     
     //   CONSTRUCTOR  
     
+    /**
+     * Constructor: la primera vez recupera los usuarios del registro de
+     * escritura (si está configurado) o, si no hay nada guardado, carga datos de prueba
+     */
     public UsuarioData() {
-        if (listaUsuarios.isEmpty()) {
-            cargarDatosPrueba();
+        this(true);
+    }
+    
+    /**
+     * @param iniciar false para usar la lista tal como está, sin recuperar
+     *        ni cargar datos de prueba (ver sinDatos)
+     */
+    private UsuarioData(boolean iniciar) {
+        if (!iniciar) {
+            return;
+        }
+        synchronized (UsuarioData.class) {
+            if (contarUsuarios() == 0) {
+                RegistroEscritura abierto = RegistroEscritura.abrirConfigurado("usuarios");
+                boolean recuperado = abierto != null && recuperar(abierto);
+                registro = abierto;
+                if (!recuperado) {
+                    cargarDatosPrueba();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Lista vacía, sin datos de prueba ni registro de escritura, para
+     * pruebas y benchmarks (ver MotorAlmacenamiento.crearUsuariosVacios)
+     * La lista es estática: las instancias que ya existían también quedan vacías
+     */
+    static UsuarioData sinDatos() {
+        synchronized (UsuarioData.class) {
+            RegistroEscritura r = registro;
+            long sello = candado.writeLock();
+            try {
+                tablaUsuarios = new Usuario[16];
+                cantidadUsuarios = 0;
+                indicePorEmail = new ConcurrentHashMap<>();
+                registro = null;
+            } finally {
+                candado.unlockWrite(sello);
+            }
+            if (r != null) {
+                r.close();
+            }
+            return new UsuarioData(false);
         }
     }
     
@@ -33,21 +110,48 @@ public class UsuarioData {
      * @return true si se registró exitosamente, false si el email ya existe
      */
     public boolean registrarUsuario(Usuario usuario) {
-        // Validar que el email no esté duplicado
-        if (existeEmail(usuario.getEmail())) {
-            return false;
-        }
-        
         // Generar ID único si no tiene
         if (usuario.getUsuarioId() == null || usuario.getUsuarioId().isEmpty()) {
             usuario.setUsuarioId(UUID.randomUUID().toString());
         }
         
-        listaUsuarios.add(usuario);
+        // Validar que el email no esté duplicado (de forma atómica)
+        if (!agregar(usuario)) {
+            return false;
+        }
         System.out.println("✅ Usuario registrado: " + usuario.getEmail());
         return true;
     }
     
+    /**
+     * Registra varios usuarios de una vez: se toma el candado una sola vez
+     * y el registro de escritura espera un solo fsync para todos
+     * @param usuarios Usuarios a registrar (los que no tienen ID reciben uno)
+     * @return Cantidad registrada; se omiten los nulos y los de email ya registrado
+     */
+    public int registrarUsuarios(Collection<Usuario> usuarios) {
+        if (usuarios == null || usuarios.isEmpty()) {
+            return 0;
+        }
+        GeneradorIds ids = new GeneradorIds();
+        List<Usuario> nuevos = new ArrayList<>(usuarios.size());
+        for (Usuario usuario : usuarios) {
+            if (usuario == null) {
+                continue;
+            }
+            if (usuario.getUsuarioId() == null || usuario.getUsuarioId().isEmpty()) {
+                usuario.setUsuarioId(ids.siguiente());
+            }
+            nuevos.add(usuario);
+        }
+        
+        List<String> repetidos = agregarLote(nuevos);
+        int registrados = nuevos.size() - repetidos.size();
+        System.out.println("✅ Usuarios registrados: " + registrados
+                           + (repetidos.isEmpty() ? "" : " (" + repetidos.size() + " con email ya registrado)"));
+        return registrados;
+    }
+    
     /**
      * Busca un usuario por email y contraseña
      * @param email Email del usuario
@@ -55,12 +159,8 @@ public class UsuarioData {
      * @return Usuario si los datos son correctos, null si no
      */
     public Usuario buscarUsuario(String email, String contrasena) {
-        for (Usuario u : listaUsuarios) {
-            if (u.getEmail().equalsIgnoreCase(email) && u.getContrasena().equals(contrasena)) {
-                return u;
-            }
-        }
-        return null;
+        Usuario u = buscarPorEmail(email);
+        return u != null && u.getContrasena().equals(contrasena) ? u : null;
     }
     
     /**
@@ -69,12 +169,7 @@ public class UsuarioData {
      * @return Usuario si existe, null si no
      */
     public Usuario buscarPorEmail(String email) {
-        for (Usuario u : listaUsuarios) {
-            if (u.getEmail().equalsIgnoreCase(email)) {
-                return u;
-            }
-        }
-        return null;
+        return indicePorEmail.get(claveEmail(email));
     }
     
     /**
@@ -91,7 +186,7 @@ public class UsuarioData {
      * @return Lista de todos los usuarios
      */
     public List<Usuario> obtenerTodosUsuarios() {
-        return new ArrayList<>(listaUsuarios);
+        return leer(() -> new ArrayList<>(Arrays.asList(tablaUsuarios).subList(0, cantidadUsuarios)));
     }
     
     /**
@@ -100,61 +195,40 @@ public class UsuarioData {
      * @return Cantidad de usuarios con ese rol
      */
     public int contarPorRol(String rol) {
-        int count = 0;
-        for (Usuario u : listaUsuarios) {
-            if (u.getRol().equalsIgnoreCase(rol)) {
-                count++;
+        return leer(() -> {
+            int count = 0;
+            for (int i = 0; i < cantidadUsuarios; i++) {
+                if (tablaUsuarios[i].getRol().equalsIgnoreCase(rol)) {
+                    count++;
+                }
             }
-        }
-        return count;
-    }
-    
-    //   GESTIÓN DE SESIÓN  
-    
-    /**
-     * Establece el usuario actualmente logueado
-     * @param usuario Usuario que inició sesión
-     */
-    public static void setUsuarioActual(Usuario usuario) {
-        usuarioActual = usuario;
-        if (usuario != null) {
-            System.out.println("✅ Sesión iniciada: " + usuario.getNombre() + " (" + usuario.getRol() + ")");
-        }
+            return count;
+        });
     }
     
-    /**
-     * Obtiene el usuario actualmente logueado
-     * @return Usuario actual o null si nadie está logueado
-     */
-    public static Usuario getUsuarioActual() {
-        return usuarioActual;
-    }
+    //   DATOS DE PRUEBA  
     
     /**
-     * Cierra la sesión del usuario actual
+     * Carga usuarios de ejemplo para pruebas
+     * Solo se ejecuta una vez al inicio
      */
-    public static void cerrarSesion() {
-        if (usuarioActual != null) {
-            System.out.println("👋 Sesión cerrada: " + usuarioActual.getNombre());
+    private void cargarDatosPrueba() {
+        for (Usuario usuario : crearDatosPrueba()) {
+            agregar(usuario);
         }
-        usuarioActual = null;
-    }
-    
-    /**
-     * Verifica si hay un usuario logueado actualmente
-     * @return true si hay sesión activa, false si no
-     */
-    public static boolean haySesionActiva() {
-        return usuarioActual != null;
+        System.out.println("✅ Datos de prueba cargados: " + contarUsuarios() + " usuarios");
+        System.out.println("   - Admin: admin@admin.com / 1234");
+        System.out.println("   - Viajeros: 2");
+        System.out.println("   - Anfitriones: 2");
     }
     
-    //   DATOS DE PRUEBA  
-    
     /**
-     * Carga usuarios de ejemplo para pruebas
-     * Solo se ejecuta una vez al inicio
+     * Usuarios de ejemplo (los mismos para cualquier almacenamiento)
+     * @return Usuarios nuevos, cada uno con su propio ID
      */
-    private void cargarDatosPrueba() {
+    static List<Usuario> crearDatosPrueba() {
+        List<Usuario> datos = new ArrayList<>();
+        
         // Usuario Admin
         Usuario admin = new Usuario(
             UUID.randomUUID().toString(),
@@ -164,7 +238,7 @@ public class UsuarioData {
             "1234",
             "Admin"
         );
-        listaUsuarios.add(admin);
+        datos.add(admin);
         
         // Viajero de prueba 1
         Usuario viajero1 = new Usuario(
@@ -175,7 +249,7 @@ public class UsuarioData {
             "viajero123",
             "Viajero"
         );
-        listaUsuarios.add(viajero1);
+        datos.add(viajero1);
         
         // Viajero de prueba 2
         Usuario viajero2 = new Usuario(
@@ -186,7 +260,7 @@ public class UsuarioData {
             "viajero123",
             "Viajero"
         );
-        listaUsuarios.add(viajero2);
+        datos.add(viajero2);
         
         // Anfitrión de prueba 1
         Usuario anfitrion1 = new Usuario(
@@ -197,7 +271,7 @@ public class UsuarioData {
             "anfitrion123",
             "Anfitrion"
         );
-        listaUsuarios.add(anfitrion1);
+        datos.add(anfitrion1);
         
         // Anfitrión de prueba 2
         Usuario anfitrion2 = new Usuario(
@@ -208,12 +282,223 @@ public class UsuarioData {
             "anfitrion123",
             "Anfitrion"
         );
-        listaUsuarios.add(anfitrion2);
+        datos.add(anfitrion2);
         
-        System.out.println("✅ Datos de prueba cargados: " + listaUsuarios.size() + " usuarios");
-        System.out.println("   - Admin: admin@admin.com / 1234");
-        System.out.println("   - Viajeros: 2");
-        System.out.println("   - Anfitriones: 2");
+        return datos;
+    }
+    
+    /**
+     * Agrega un usuario a la lista si su email no está registrado y, si hay
+     * registro de escritura, espera a que el alta quede guardada
+     * @param usuario Usuario con ID asignado
+     * @return false si el email ya existía
+     */
+    private static boolean agregar(Usuario usuario) {
+        RegistroEscritura r = registro;
+        long numero = 0;
+        long sello = candado.writeLock();
+        try {
+            if (indicePorEmail.putIfAbsent(claveEmail(usuario.getEmail()), usuario) != null) {
+                return false;
+            }
+            anexar(usuario);
+            if (r != null) {
+                numero = r.agregar(codificar(usuario));
+            }
+        } finally {
+            candado.unlockWrite(sello);
+        }
+        // El fsync se espera sin el candado: las lecturas no esperan al disco
+        if (r != null) {
+            r.esperar(numero);
+            if (r.pidePuntoControl()) {
+                guardarPuntoControl(r);
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Agrega varios usuarios de una vez: un solo paso por el candado de
+     * escritura y el registro de escritura espera un solo fsync para todo el lote
+     * @param usuarios Usuarios con ID asignado
+     * @return Emails que ya estaban registrados (esos usuarios no se agregan)
+     */
+    static List<String> agregarLote(List<Usuario> usuarios) {
+        List<String> repetidos = new ArrayList<>();
+        RegistroEscritura r = registro;
+        long numero = 0;
+        long sello = candado.writeLock();
+        try {
+            for (Usuario usuario : usuarios) {
+                if (indicePorEmail.putIfAbsent(claveEmail(usuario.getEmail()), usuario) != null) {
+                    repetidos.add(usuario.getEmail());
+                    continue;
+                }
+                anexar(usuario);
+                if (r != null) {
+                    numero = r.agregar(codificar(usuario));
+                }
+            }
+        } finally {
+            candado.unlockWrite(sello);
+        }
+        if (numero > 0) {
+            r.esperar(numero);
+            if (r.pidePuntoControl()) {
+                guardarPuntoControl(r);
+            }
+        }
+        return repetidos;
+    }
+    
+    // Se llama con el candado de escritura tomado
+    private static void anexar(Usuario usuario) {
+        if (cantidadUsuarios == tablaUsuarios.length) {
+            tablaUsuarios = Arrays.copyOf(tablaUsuarios, cantidadUsuarios * 2);
+        }
+        tablaUsuarios[cantidadUsuarios++] = usuario;
+    }
+    
+    private static int contarUsuarios() {
+        return leer(() -> cantidadUsuarios);
+    }
+    
+    /**
+     * Ejecuta una lectura de la lista sin bloquear: primero optimista y, si
+     * un alta se cruzó (o la lectura vio un arreglo a medio crecer y falló),
+     * se repite con el candado de lectura
+     */
+    private static <T> T leer(Supplier<T> lectura) {
+        long sello = candado.tryOptimisticRead();
+        if (sello != 0) {
+            try {
+                T resultado = lectura.get();
+                if (candado.validate(sello)) {
+                    return resultado;
+                }
+            } catch (RuntimeException e) {
+                // Sin altas cruzadas el error es real
+                if (candado.validate(sello)) {
+                    throw e;
+                }
+            }
+        }
+        sello = candado.readLock();
+        try {
+            return lectura.get();
+        } finally {
+            candado.unlockRead(sello);
+        }
+    }
+    
+    // Los emails se comparan sin distinguir mayúsculas
+    static String claveEmail(String email) {
+        return email == null ? "" : email.toLowerCase(Locale.ROOT);
+    }
+    
+    //   REGISTRO DE ESCRITURA  
+    
+    // Tipo de registro: alta de un usuario
+    private static final byte REGISTRO_USUARIO = 1;
+    
+    // Versión del contenido de usuarios.snap
+    private static final int FORMATO_PUNTO_CONTROL = 1;
+    
+    /**
+     * Recupera los usuarios del último punto de control (si hay) y de la
+     * cola del registro de escritura posterior a él
+     * Un alta puede estar en ambos (se anotó justo al guardar el punto de
+     * control); la segunda se descarta porque el email ya existe
+     * @return true si había usuarios guardados
+     */
+    private static boolean recuperar(RegistroEscritura abierto) {
+        try {
+            ArchivoPuntoControl punto = ArchivoPuntoControl.abrir(archivoPuntoControl(abierto),
+                                                                  FORMATO_PUNTO_CONTROL);
+            if (punto != null) {
+                ByteBuffer datos = punto.getDatos();
+                int cantidad = datos.getInt();
+                for (int i = 0; i < cantidad; i++) {
+                    byte[] estado = new byte[datos.getInt()];
+                    datos.get(estado);
+                    agregar(decodificar(new DataInputStream(new ByteArrayInputStream(estado))));
+                }
+            }
+            abierto.reproducir(punto != null ? punto.getGeneracion() : 0, datos -> agregar(decodificar(datos)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo leer el registro de usuarios", e);
+        }
+        int recuperados = contarUsuarios();
+        if (recuperados > 0) {
+            System.out.println("✅ Usuarios recuperados: " + recuperados);
+        }
+        return recuperados > 0;
+    }
+    
+    /**
+     * Guarda todos los usuarios en usuarios.snap y descarta el registro de
+     * escritura anterior
+     * Se rota antes de copiar la lista: toda alta anotada antes de la
+     * rotación ya está en la lista, así ninguna queda fuera
+     */
+    private static void guardarPuntoControl(RegistroEscritura r) {
+        synchronized (UsuarioData.class) {
+            if (!r.pidePuntoControl()) {
+                return;   // otro hilo lo acaba de guardar
+            }
+            try {
+                long generacion = r.rotar();
+                List<Usuario> usuarios = leer(() -> new ArrayList<>(Arrays.asList(tablaUsuarios).subList(0, cantidadUsuarios)));
+                ArchivoPuntoControl.guardar(archivoPuntoControl(r), FORMATO_PUNTO_CONTROL, generacion, salida -> {
+                    salida.writeInt(usuarios.size());
+                    for (Usuario usuario : usuarios) {
+                        byte[] estado = codificar(usuario);
+                        salida.writeInt(estado.length);
+                        salida.write(estado);
+                    }
+                });
+                r.descartarAnteriores(generacion);
+            } catch (IOException e) {
+                System.err.println("⚠️ No se pudo guardar el punto de control de usuarios: " + e.getMessage());
+            }
+        }
+    }
+    
+    private static Path archivoPuntoControl(RegistroEscritura r) {
+        return r.getDirectorio().resolve(r.getNombre() + ".snap");
+    }
+    
+    private static byte[] codificar(Usuario usuario) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream salida = new DataOutputStream(bytes)) {
+            salida.writeByte(REGISTRO_USUARIO);
+            RegistroEscritura.escribirTexto(salida, usuario.getUsuarioId());
+            RegistroEscritura.escribirTexto(salida, usuario.getNombre());
+            RegistroEscritura.escribirTexto(salida, usuario.getEmail());
+            RegistroEscritura.escribirTexto(salida, usuario.getTelefono());
+            RegistroEscritura.escribirTexto(salida, usuario.getContrasena());
+            RegistroEscritura.escribirTexto(salida, usuario.getRol());
+            RegistroEscritura.escribirTexto(salida, usuario.getFechaRegistro());
+        } catch (IOException e) {
+            // No ocurre: se escribe en memoria
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+    
+    private static Usuario decodificar(DataInput datos) throws IOException {
+        byte tipo = datos.readByte();
+        if (tipo != REGISTRO_USUARIO) {
+            throw new IOException("Tipo de registro desconocido: " + tipo);
+        }
+        Usuario usuario = new Usuario(
+            RegistroEscritura.leerTexto(datos), RegistroEscritura.leerTexto(datos),
+            RegistroEscritura.leerTexto(datos), RegistroEscritura.leerTexto(datos),
+            RegistroEscritura.leerTexto(datos), RegistroEscritura.leerTexto(datos)
+        );
+        usuario.setFechaRegistro(RegistroEscritura.leerTexto(datos));
+        return usuario;
     }
     
     //   MÉTODOS DE UTILIDAD  
@@ -223,11 +508,12 @@ public class UsuarioData {
      */
     public void imprimirUsuarios() {
         System.out.println("\n  USUARIOS REGISTRADOS  ");
-        if (listaUsuarios.isEmpty()) {
+        List<Usuario> usuarios = obtenerTodosUsuarios();
+        if (usuarios.isEmpty()) {
             System.out.println("No hay usuarios registrados");
         } else {
-            for (int i = 0; i < listaUsuarios.size(); i++) {
-                Usuario u = listaUsuarios.get(i);
+            for (int i = 0; i < usuarios.size(); i++) {
+                Usuario u = usuarios.get(i);
                 System.out.println((i + 1) + ". " + u.getNombre() + " (" + u.getEmail() + ") - " + u.getRol());
             }
         }
@@ -238,7 +524,7 @@ public class UsuarioData {
      */
     public void imprimirEstadisticas() {
         System.out.println("\n  ESTADÍSTICAS  ");
-        System.out.println("Total usuarios: " + listaUsuarios.size());
+        System.out.println("Total usuarios: " + contarUsuarios());
         System.out.println("Viajeros: " + contarPorRol("Viajero"));
         System.out.println("Anfitriones: " + contarPorRol("Anfitrion"));
         System.out.println("Otros: " + contarPorRol("Admin"));
@@ -0,0 +1,243 @@
+package modelo;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * DAO de usuarios sobre una base de datos JDBC (H2 por defecto)
+ * Ofrece las mismas operaciones que UsuarioData; el índice único sobre el
+ * email en minúsculas garantiza que dos registros simultáneos no repitan
+ * el mismo email. La sesión sigue en UsuarioData (es del programa, no de la base)
+ */
+public final class UsuarioDataJdbc implements AlmacenUsuarios {
+
+    //   ESQUEMA
+
+    private static final String[] ESQUEMA = {
+        "CREATE TABLE IF NOT EXISTS usuarios ("
+            + "orden BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY, "
+            + "usuario_id VARCHAR(64) NOT NULL UNIQUE, nombre VARCHAR, email VARCHAR, "
+            + "email_clave VARCHAR NOT NULL UNIQUE, telefono VARCHAR, contrasena VARCHAR, "
+            + "rol VARCHAR, fecha_registro VARCHAR)"
+    };
+
+    //   CONSULTAS SQL
+
+    private static final String SELECCION = "SELECT usuario_id, nombre, email, telefono, contrasena, rol, "
+        + "fecha_registro FROM usuarios";
+    private static final String INSERTAR = "INSERT INTO usuarios (usuario_id, nombre, email, email_clave, "
+        + "telefono, contrasena, rol, fecha_registro) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final PoolConexiones pool;
+
+    //   CONSTRUCTOR
+
+    /**
+     * Constructor con el pool compartido (configurado por propiedades del sistema)
+     */
+    public UsuarioDataJdbc() {
+        this(PoolConexiones.compartido());
+    }
+
+    /**
+     * Crea la tabla si no existe y, si no hay usuarios, carga datos de prueba
+     * @param pool Pool de conexiones a la base de datos
+     */
+    public UsuarioDataJdbc(PoolConexiones pool) {
+        this(pool, true);
+    }
+
+    /**
+     * @param pool Pool de conexiones a la base de datos
+     * @param datosPrueba false para no cargar datos de prueba aunque no haya usuarios
+     */
+    UsuarioDataJdbc(PoolConexiones pool, boolean datosPrueba) {
+        this.pool = pool;
+        synchronized (UsuarioDataJdbc.class) {
+            boolean vacia = pool.usar(c -> {
+                c.ejecutar(ESQUEMA);
+                return c.contar("SELECT COUNT(*) FROM usuarios") == 0;
+            });
+            if (vacia && datosPrueba) {
+                cargarDatosPrueba();
+            }
+        }
+    }
+
+    //   MÉTODOS CRUD
+
+    /**
+     * Registra un nuevo usuario en el sistema
+     * @param usuario Usuario a registrar
+     * @return true si se registró exitosamente, false si el email ya existe
+     */
+    public boolean registrarUsuario(Usuario usuario) {
+        // Generar ID único si no tiene
+        if (usuario.getUsuarioId() == null || usuario.getUsuarioId().isEmpty()) {
+            usuario.setUsuarioId(UUID.randomUUID().toString());
+        }
+
+        // El índice único decide de forma atómica si el email ya estaba
+        boolean registrado = pool.usar(c -> {
+            try {
+                asignar(c.preparar(INSERTAR), usuario).executeUpdate();
+                return true;
+            } catch (SQLException e) {
+                if (!PoolConexiones.esClaveRepetida(e)) {
+                    throw e;
+                }
+                return false;
+            }
+        });
+        if (registrado) {
+            System.out.println("✅ Usuario registrado: " + usuario.getEmail());
+        }
+        return registrado;
+    }
+
+    /**
+     * Registra varios usuarios en una sola transacción con un lote JDBC
+     * @param usuarios Usuarios a registrar (los que no tienen ID reciben uno)
+     * @return Cantidad registrada; se omiten los nulos y los de email ya registrado
+     */
+    public int registrarUsuarios(Collection<Usuario> usuarios) {
+        if (usuarios == null || usuarios.isEmpty()) {
+            return 0;
+        }
+        GeneradorIds ids = new GeneradorIds();
+        // Email en minúsculas -> primer usuario del lote con ese email
+        Map<String, Usuario> nuevos = new LinkedHashMap<>();
+        int recibidos = 0;
+        for (Usuario usuario : usuarios) {
+            if (usuario == null) {
+                continue;
+            }
+            recibidos++;
+            if (usuario.getUsuarioId() == null || usuario.getUsuarioId().isEmpty()) {
+                usuario.setUsuarioId(ids.siguiente());
+            }
+            nuevos.putIfAbsent(UsuarioData.claveEmail(usuario.getEmail()), usuario);
+        }
+
+        int registrados = pool.enTransaccion(c -> {
+            Set<String> existentes = c.existentes("SELECT email_clave FROM usuarios WHERE email_clave = ANY(?)",
+                                                  nuevos.keySet());
+            nuevos.keySet().removeAll(existentes);
+            PreparedStatement sentencia = c.preparar(INSERTAR);
+            try {
+                int pendientes = 0;
+                for (Usuario usuario : nuevos.values()) {
+                    asignar(sentencia, usuario).addBatch();
+                    if (++pendientes == PropiedadDataJdbc.FILAS_POR_LOTE) {
+                        sentencia.executeBatch();
+                        pendientes = 0;
+                    }
+                }
+                if (pendientes > 0) {
+                    sentencia.executeBatch();
+                }
+            } catch (SQLException e) {
+                sentencia.clearBatch();
+                throw e;
+            }
+            return nuevos.size();
+        });
+        int repetidos = recibidos - registrados;
+        System.out.println("✅ Usuarios registrados: " + registrados
+                           + (repetidos == 0 ? "" : " (" + repetidos + " con email ya registrado)"));
+        return registrados;
+    }
+
+    /**
+     * Busca un usuario por email y contraseña
+     * @param email Email del usuario
+     * @param contrasena Contraseña del usuario
+     * @return Usuario si los datos son correctos, null si no
+     */
+    public Usuario buscarUsuario(String email, String contrasena) {
+        Usuario u = buscarPorEmail(email);
+        return u != null && u.getContrasena().equals(contrasena) ? u : null;
+    }
+
+    /**
+     * Busca un usuario solo por email
+     * @param email Email a buscar
+     * @return Usuario si existe, null si no
+     */
+    public Usuario buscarPorEmail(String email) {
+        List<Usuario> encontrados = consultar(SELECCION + " WHERE email_clave = ?", UsuarioData.claveEmail(email));
+        return encontrados.isEmpty() ? null : encontrados.get(0);
+    }
+
+    /**
+     * Verifica si un email ya está registrado
+     * @param email Email a verificar
+     * @return true si el email existe, false si no
+     */
+    public boolean existeEmail(String email) {
+        return pool.usar(c -> c.contar("SELECT COUNT(*) FROM usuarios WHERE email_clave = ?",
+                                       UsuarioData.claveEmail(email)) > 0);
+    }
+
+    /**
+     * Obtiene todos los usuarios registrados
+     * @return Lista de todos los usuarios (en orden de registro)
+     */
+    public List<Usuario> obtenerTodosUsuarios() {
+        return consultar(SELECCION + " ORDER BY orden");
+    }
+
+    /**
+     * Cuenta cuántos usuarios tienen un rol específico
+     * @param rol "Viajero" o "Anfitrion"
+     * @return Cantidad de usuarios con ese rol
+     */
+    public int contarPorRol(String rol) {
+        return pool.usar(c -> c.contar("SELECT COUNT(*) FROM usuarios WHERE UPPER(rol) = UPPER(?)", rol));
+    }
+
+    //   DATOS DE PRUEBA
+
+    private void cargarDatosPrueba() {
+        registrarUsuarios(UsuarioData.crearDatosPrueba());
+        System.out.println("✅ Datos de prueba cargados en " + pool.getUrl());
+        System.out.println("   - Admin: admin@admin.com / 1234");
+    }
+
+    //   ACCESO A LA BASE DE DATOS
+
+    private static PreparedStatement asignar(PreparedStatement sentencia, Usuario usuario) throws SQLException {
+        sentencia.setString(1, usuario.getUsuarioId());
+        sentencia.setString(2, usuario.getNombre());
+        sentencia.setString(3, usuario.getEmail());
+        sentencia.setString(4, UsuarioData.claveEmail(usuario.getEmail()));
+        sentencia.setString(5, usuario.getTelefono());
+        sentencia.setString(6, usuario.getContrasena());
+        sentencia.setString(7, usuario.getRol());
+        sentencia.setString(8, usuario.getFechaRegistro());
+        return sentencia;
+    }
+
+    private List<Usuario> consultar(String sql, Object... parametros) {
+        return pool.usar(c -> {
+            List<Usuario> usuarios = new ArrayList<>();
+            try (ResultSet rs = c.preparar(sql, parametros).executeQuery()) {
+                while (rs.next()) {
+                    Usuario usuario = new Usuario(rs.getString(1), rs.getString(2), rs.getString(3),
+                                                  rs.getString(4), rs.getString(5), rs.getString(6));
+                    usuario.setFechaRegistro(rs.getString(7));
+                    usuarios.add(usuario);
+                }
+            }
+            return usuarios;
+        });
+    }
+}
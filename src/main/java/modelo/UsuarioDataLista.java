@@ -0,0 +1,129 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Motor de usuarios más simple: una lista sin índices
+ * Cada consulta por email recorre todos los usuarios. Es el almacenamiento
+ * con que empezó el proyecto y sirve de referencia para comparar los demás motores
+ *
+ * Los métodos son sincronizados: verificar el email y agregar el usuario
+ * ocurren juntos, así dos registros simultáneos no repiten email
+ */
+public class UsuarioDataLista implements AlmacenUsuarios {
+
+    //   ALMACENAMIENTO EN MEMORIA
+
+    private final List<Usuario> listaUsuarios = new ArrayList<>();
+
+    //   CONSTRUCTOR
+
+    /**
+     * Constructor: empieza con los datos de prueba
+     */
+    public UsuarioDataLista() {
+        this(true);
+    }
+
+    /**
+     * @param datosPrueba false para empezar vacía (pruebas y benchmarks)
+     */
+    UsuarioDataLista(boolean datosPrueba) {
+        if (datosPrueba) {
+            listaUsuarios.addAll(UsuarioData.crearDatosPrueba());
+            System.out.println("✅ Datos de prueba cargados: " + listaUsuarios.size() + " usuarios");
+        }
+    }
+
+    //   MÉTODOS CRUD
+
+    @Override
+    public synchronized boolean registrarUsuario(Usuario usuario) {
+        // Generar ID único si no tiene
+        if (usuario.getUsuarioId() == null || usuario.getUsuarioId().isEmpty()) {
+            usuario.setUsuarioId(UUID.randomUUID().toString());
+        }
+
+        if (existeEmail(usuario.getEmail())) {
+            return false;
+        }
+        listaUsuarios.add(usuario);
+        System.out.println("✅ Usuario registrado: " + usuario.getEmail());
+        return true;
+    }
+
+    @Override
+    public synchronized int registrarUsuarios(Collection<Usuario> usuarios) {
+        if (usuarios == null || usuarios.isEmpty()) {
+            return 0;
+        }
+        GeneradorIds ids = new GeneradorIds();
+        // Un recorrido por lote, no uno por usuario (ver PropiedadDataLista)
+        Set<String> registrados = new HashSet<>();
+        for (Usuario u : listaUsuarios) {
+            registrados.add(UsuarioData.claveEmail(u.getEmail()));
+        }
+        int agregados = 0;
+        int repetidos = 0;
+        for (Usuario usuario : usuarios) {
+            if (usuario == null) {
+                continue;
+            }
+            if (usuario.getUsuarioId() == null || usuario.getUsuarioId().isEmpty()) {
+                usuario.setUsuarioId(ids.siguiente());
+            }
+            if (registrados.add(UsuarioData.claveEmail(usuario.getEmail()))) {
+                listaUsuarios.add(usuario);
+                agregados++;
+            } else {
+                repetidos++;
+            }
+        }
+        System.out.println("✅ Usuarios registrados: " + agregados
+                           + (repetidos == 0 ? "" : " (" + repetidos + " con email ya registrado)"));
+        return agregados;
+    }
+
+    @Override
+    public synchronized Usuario buscarUsuario(String email, String contrasena) {
+        Usuario u = buscarPorEmail(email);
+        return u != null && u.getContrasena().equals(contrasena) ? u : null;
+    }
+
+    @Override
+    public synchronized Usuario buscarPorEmail(String email) {
+        String clave = UsuarioData.claveEmail(email);
+        for (Usuario u : listaUsuarios) {
+            if (UsuarioData.claveEmail(u.getEmail()).equals(clave)) {
+                return u;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized boolean existeEmail(String email) {
+        return buscarPorEmail(email) != null;
+    }
+
+    @Override
+    public synchronized List<Usuario> obtenerTodosUsuarios() {
+        return new ArrayList<>(listaUsuarios);
+    }
+
+    @Override
+    public synchronized int contarPorRol(String rol) {
+        int count = 0;
+        for (Usuario u : listaUsuarios) {
+            if (u.getRol().equalsIgnoreCase(rol)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -4,7 +4,8 @@ import javax.swing.*;
 import java.awt.event.ActionListener;
 
 import modelo.Usuario;
-import modelo.UsuarioData;
+import modelo.AlmacenUsuarios;
+import modelo.MotorAlmacenamiento;
 import controlador.ControladorLogin;
 import controlador.ControladorLogin.ResultadoLogin;
 
@@ -23,22 +24,22 @@ public class InicioSesion extends JFrame {
 
     // ========== CONTROLADOR Y DAO ==========
     private ControladorLogin controlador;
-    private UsuarioData dao;
+    private AlmacenUsuarios dao;
 
     // ========== CONSTRUCTOR ==========
 
     /**
-     * Constructor por defecto (crea nuevo DAO)
+     * Constructor por defecto (usa el DAO del motor configurado)
      */
     public InicioSesion() {
-        this(new UsuarioData());
+        this(MotorAlmacenamiento.usuarios());
     }
 
     /**
      * Constructor con DAO existente
      * @param dao Objeto DAO para gestión de usuarios
      */
-    public InicioSesion(UsuarioData dao) {
+    public InicioSesion(AlmacenUsuarios dao) {
         super("Inicio de Sesión - StayKonnect");
         this.dao = dao;
         this.controlador = new ControladorLogin(dao);
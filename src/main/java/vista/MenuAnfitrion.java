@@ -1,5 +1,9 @@
 package vista;
 
+import controlador.ControladorReservas;
+import modelo.MotorAlmacenamiento;
+import modelo.Reserva;
+import java.util.List;
 import javax.swing.*;
 
 public class MenuAnfitrion extends JFrame {
@@ -25,6 +29,7 @@ public class MenuAnfitrion extends JFrame {
 
         JButton btnReservas = new JButton("Ver Reservas");
         btnReservas.setBounds(130, 170, 200, 35);
+        btnReservas.addActionListener(e -> mostrarReservas());
         add(btnReservas);
 
         JButton btnSalir = new JButton("Salir");
@@ -32,4 +37,22 @@ public class MenuAnfitrion extends JFrame {
         btnSalir.addActionListener(e -> dispose());
         add(btnSalir);
     }
+
+    /**
+     * Muestra las reservas de las propiedades del anfitrión actual
+     */
+    private void mostrarReservas() {
+        ControladorReservas controlador = new ControladorReservas(MotorAlmacenamiento.propiedades());
+        List<Reserva> reservas = controlador.obtenerReservasUsuarioActual();
+        if (reservas.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No hay reservas para sus propiedades",
+                    "Reservas", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Reserva r : reservas) {
+            sb.append(r).append('\n');
+        }
+        JOptionPane.showMessageDialog(this, sb.toString(), "Reservas", JOptionPane.INFORMATION_MESSAGE);
+    }
 }
@@ -4,7 +4,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import javax.swing.*;
 import modelo.Usuario;
-import modelo.UsuarioData;
+import modelo.AlmacenUsuarios;
 
 public class Registro extends JFrame {
     private JTextField txtNombre;
@@ -16,9 +16,9 @@ public class Registro extends JFrame {
     private JButton btnRegistrar;
     private JButton btnVolver;
 
-    private UsuarioData dao;
+    private AlmacenUsuarios dao;
 
-    public Registro(UsuarioData dao) {
+    public Registro(AlmacenUsuarios dao) {
         super("Registro");
         this.dao = dao;
         initComponents();
@@ -0,0 +1,53 @@
+package controlador;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import modelo.AlmacenPropiedades;
+import modelo.AlmacenUsuarios;
+import modelo.MotorAlmacenamiento;
+import modelo.Propiedad;
+import modelo.SesionUsuario;
+import modelo.Usuario;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Los controladores leen el usuario de la sesión que reciben, sea cual sea el motor
+ */
+class ControladorReservasTest {
+
+    @Test
+    void reservaConElUsuarioDeSuSesion() {
+        AlmacenUsuarios usuarios = MotorAlmacenamiento.LISTA.crearUsuariosVacios();
+        AlmacenPropiedades propiedades = MotorAlmacenamiento.LISTA.crearPropiedadesVacias();
+        usuarios.registrarUsuario(new Usuario("V1", "Viajera", "viajera@correo.com", "300", "clave", "Viajero"));
+        propiedades.registrarPropiedad(new Propiedad("sesion-p1", "H1", "Loft", "Cerca del centro", "Cali",
+                                                     "Calle 1", "Apartamento", 4, 2, 1, 100));
+
+        SesionUsuario sesion = new SesionUsuario();
+        SesionUsuario otra = new SesionUsuario();
+        ControladorReservas reservas = new ControladorReservas(propiedades, sesion);
+        String entrada = LocalDate.now().plusDays(10).toString();
+        String salida = LocalDate.now().plusDays(12).toString();
+
+        assertFalse(reservas.crearReserva("sesion-p1", entrada, salida).isExitoso());
+
+        assertTrue(new ControladorLogin(usuarios, sesion).autenticar("viajera@correo.com", "clave").isExitoso());
+        assertEquals("V1", sesion.getUsuario().getUsuarioId());
+        assertNull(otra.getUsuario());
+
+        ControladorReservas.ResultadoReserva resultado = reservas.crearReserva("sesion-p1", entrada, salida);
+        assertTrue(resultado.isExitoso());
+        assertEquals("V1", resultado.getReserva().getViajeroId());
+        assertEquals(1, reservas.obtenerReservasUsuarioActual().size());
+        assertEquals(0, new ControladorReservas(propiedades, otra).obtenerReservasUsuarioActual().size());
+
+        new ControladorLogin(usuarios, sesion).cerrarSesion();
+        assertFalse(sesion.hayActiva());
+        assertTrue(reservas.cancelarReserva(resultado.getReserva().getReservaId()).getMensaje()
+                           .contains("iniciar sesión"));
+    }
+}
@@ -0,0 +1,87 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Caché de búsquedas: expulsión e invalidación selectiva al cambiar una propiedad
+ */
+class CacheBusquedasTest {
+
+    @AfterEach
+    void restaurar() {
+        PropiedadData.sinDatos().configurarCache(256, PoliticaCache.LRU);
+    }
+
+    @Test
+    void soloDescartaLasBusquedasQueCambian() {
+        PropiedadData catalogo = PropiedadData.sinDatos();
+        catalogo.configurarCache(8, PoliticaCache.LRU);
+        Propiedad p1 = PropiedadTest.propiedad("p1");
+        catalogo.registrarPropiedad(p1);
+        catalogo.registrarPropiedad(PropiedadTest.propiedad("p2"));
+        Propiedad otra = PropiedadTest.propiedad("p3");
+        otra.setCiudad("Pasto");
+        catalogo.registrarPropiedad(otra);
+
+        assertEquals(2, catalogo.buscarConFiltros("Cali", 50, 150, List.of()).size());
+        assertEquals(1, catalogo.buscarConFiltros("Pasto", 0, 0, List.of()).size());
+        EstadisticasCache antes = catalogo.obtenerEstadisticasCache();
+        assertEquals(2, antes.getTamano());
+
+        // Sigue cumpliendo los dos filtros como antes: nada se descarta
+        p1.setPrecioPorNoche(120);
+        otra.setPrecioPorNoche(5000);
+        assertEquals(antes.getInvalidaciones(), catalogo.obtenerEstadisticasCache().getInvalidaciones());
+        assertEquals(2, catalogo.buscarConFiltros("Cali", 50, 150, List.of()).size());
+        assertEquals(antes.getAciertos() + 1, catalogo.obtenerEstadisticasCache().getAciertos());
+
+        // Sale del rango de Cali: solo cae esa búsqueda
+        p1.setPrecioPorNoche(500);
+        EstadisticasCache despues = catalogo.obtenerEstadisticasCache();
+        assertEquals(antes.getInvalidaciones() + 1, despues.getInvalidaciones());
+        assertEquals(1, despues.getTamano());
+        assertEquals(1, catalogo.buscarConFiltros("Cali", 50, 150, List.of()).size());
+
+        // Entra a Cali y sale de Pasto: caen las dos
+        otra.setPrecioPorNoche(100);
+        otra.setCiudad("Cali");
+        assertEquals(despues.getInvalidaciones() + 2, catalogo.obtenerEstadisticasCache().getInvalidaciones());
+        assertEquals(2, catalogo.buscarConFiltros("Cali", 50, 150, List.of()).size());
+        assertEquals(0, catalogo.buscarConFiltros("Pasto", 0, 0, List.of()).size());
+    }
+
+    @Test
+    void expulsaSegunLaPolitica() {
+        CacheBusquedas lru = new CacheBusquedas(2, PoliticaCache.LRU);
+        CacheBusquedas lfu = new CacheBusquedas(2, PoliticaCache.LFU);
+        for (CacheBusquedas cache : List.of(lru, lfu)) {
+            guardar(cache, "a");
+            guardar(cache, "b");
+            cache.obtener("b");
+            cache.obtener("b");
+            cache.obtener("a");   // "a" es la más reciente, "b" la más usada
+            guardar(cache, "c");
+        }
+        assertNull(lru.obtener("b"));
+        assertNotNull(lru.obtener("a"));
+        assertNull(lfu.obtener("a"));
+        assertNotNull(lfu.obtener("b"));
+        assertEquals(1, lru.estadisticas().getExpulsiones());
+
+        // Un resultado que quedó viejo durante la búsqueda no se guarda
+        lru.guardar("d", new FiltroBusqueda("", 0, 0, List.of()), new ListaEnteros(), () -> false);
+        assertNull(lru.obtener("d"));
+        lru.configurar(0, PoliticaCache.LRU);
+        assertEquals(0, lru.estadisticas().getTamano());
+    }
+
+    private static void guardar(CacheBusquedas cache, String clave) {
+        cache.guardar(clave, new FiltroBusqueda(clave, 0, 0, List.of()), new ListaEnteros(), () -> true);
+    }
+}
@@ -0,0 +1,103 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Calendario de ocupación en los bordes de palabras, segmentos y horizonte
+ */
+class CalendarioOcupacionTest {
+
+    private static final LocalDate HOY = LocalDate.of(2026, 1, 1);
+
+    @Test
+    void rangosQueCruzanPalabras() {
+        CalendarioOcupacion calendario = new CalendarioOcupacion(HOY);
+        calendario.agregar(0);
+
+        assertTrue(calendario.ocupar(0, dia(63), dia(65)));
+        assertTrue(calendario.estaLibre(0, dia(62), dia(63)));
+        assertFalse(calendario.estaLibre(0, dia(62), dia(64)));
+        assertFalse(calendario.estaLibre(0, dia(64), dia(65)));
+        assertTrue(calendario.estaLibre(0, dia(65), dia(128)));
+        assertFalse(calendario.ocupar(0, dia(0), dia(200)));   // se solapa: no marca nada
+        assertEquals(List.of(dia(63), dia(64)), calendario.nochesOcupadas(0));
+
+        // Última noche del horizonte
+        assertTrue(calendario.ocupar(0, dia(364), dia(365)));
+        assertFalse(calendario.ocupar(0, dia(360), dia(366)));
+        assertFalse(calendario.ocupar(0, dia(-1), dia(2)));
+        assertTrue(calendario.estaLibre(0, dia(365), dia(400)));   // fuera del horizonte
+        assertFalse(calendario.estaLibre(0, dia(300), dia(400)));
+
+        calendario.liberar(0, dia(64), dia(500));
+        assertEquals(List.of(dia(63)), calendario.nochesOcupadas(0));
+    }
+
+    @Test
+    void propiedadesDeSegmentosYFranjasDistintas() {
+        CalendarioOcupacion calendario = new CalendarioOcupacion(HOY);
+        calendario.agregar(1023);
+        assertTrue(calendario.ocupar(1023, dia(10), dia(20)));
+        // Crecer agrega segmentos sin perder lo ya marcado
+        calendario.agregar(1024);
+        calendario.agregar(5000);
+        assertEquals(10, calendario.nochesOcupadas(1023).size());
+        assertTrue(calendario.nochesOcupadas(1024).isEmpty());
+
+        // 1024 + 64 comparte franja con 1024, pero no noches
+        assertTrue(calendario.ocupar(1024, dia(10), dia(20)));
+        assertTrue(calendario.ocupar(1088, dia(15), dia(16)));
+        assertTrue(calendario.ocupar(5000, dia(0), dia(365)));
+        assertFalse(calendario.ocupar(1024, dia(19), dia(21)));
+        assertTrue(calendario.estaLibre(1022, dia(0), dia(365)));
+        assertTrue(calendario.estaLibre(4999, dia(0), dia(365)));
+        assertEquals(List.of(dia(15)), calendario.nochesOcupadas(1088));
+        assertEquals(365, calendario.nochesOcupadas(5000).size());
+    }
+
+    @Test
+    void avanzarConservaLasFechas() {
+        CalendarioOcupacion calendario = new CalendarioOcupacion(HOY);
+        calendario.agregar(1500);
+        Random azar = new Random(11);
+        TreeSet<LocalDate> referencia = new TreeSet<>();
+        for (int i = 0; i < 40; i++) {
+            int desde = azar.nextInt(360);
+            LocalDate entrada = dia(desde);
+            LocalDate salida = dia(desde + 1 + azar.nextInt(5));
+            if (calendario.ocupar(1500, entrada, salida)) {
+                for (LocalDate d = entrada; d.isBefore(salida); d = d.plusDays(1)) {
+                    referencia.add(d);
+                }
+            }
+        }
+
+        LocalDate inicio = HOY;
+        for (int salto : new int[] {1, 63, 64, 70}) {
+            inicio = inicio.plusDays(salto);
+            assertTrue(calendario.avanzarHasta(inicio));
+            List<LocalDate> esperadas = new ArrayList<>(referencia.tailSet(inicio));
+            assertEquals(esperadas, calendario.nochesOcupadas(1500));
+        }
+        assertFalse(calendario.avanzarHasta(inicio));
+        assertFalse(calendario.avanzarHasta(HOY));
+
+        // Las noches que entran al horizonte llegan libres
+        assertTrue(calendario.estaLibre(1500, dia(365), inicio.plusDays(365)));
+        assertTrue(calendario.avanzarHasta(inicio.plusDays(500)));
+        assertTrue(calendario.nochesOcupadas(1500).isEmpty());
+    }
+
+    private static LocalDate dia(int n) {
+        return HOY.plusDays(n);
+    }
+}
@@ -0,0 +1,124 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Importación CSV y JSONL: campos entre comillas, filas mal formadas y repetidas
+ * Lotes de 2 filas, así los repetidos y los rechazos caen en trozos distintos
+ */
+class ImportadorDatosTest {
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void importaCsvConComillasYRechazaFilasMalas() throws IOException {
+        PropiedadData catalogo = PropiedadData.sinDatos();
+        Path archivo = escribir("propiedades.csv",
+            "propiedadId,anfitrionId,titulo,descripcion,ciudad,precioPorNoche,servicios\n"
+            + "i1,H1,\"Loft, centro\",\"Amplio\n"                // línea 2: sigue en la 3
+            + "con \"\"vista\"\" al mar\",Cali,120,WiFi|TV|WiFi\n"
+            + "i2,H1,Casa,,Cali,abc,\n"                           // línea 4: precio
+            + "i3,H1,Casa,Sin servicios,Cali,90\n"                // línea 5: faltan columnas
+            + "\n"
+            + "i4,H2,Finca,,Pereira,200,Piscina\n"                // línea 7
+            + "i1,H3,Repetida,,Cali,50,\n"                        // línea 8: ID repetido
+            + "i5,H2,\"Sin cerrar,Cali,80,\n");                   // línea 9: comillas abiertas
+
+        ResultadoImportacion resultado = importador(catalogo).importarPropiedades(archivo);
+
+        assertEquals(6, resultado.getFilasLeidas());
+        assertEquals(2, resultado.getImportadas());
+        assertEquals(4, resultado.getRechazadas());
+        assertEquals(List.of("Línea 4", "Línea 5", "Línea 8", "Línea 9"), lineas(resultado));
+        assertTrue(resultado.getErrores().contains("Línea 8: el ID i1 ya existe"));
+
+        Propiedad i1 = catalogo.buscarPorId("i1");
+        assertEquals("Loft, centro", i1.getTitulo());
+        assertEquals("Amplio\ncon \"vista\" al mar", i1.getDescripcion());
+        assertEquals("H1", i1.getAnfitrionId());
+        assertEquals(List.of("WiFi", "TV"), i1.getServicios());
+        assertEquals(List.of(catalogo.buscarPorId("i4")), catalogo.buscarConFiltros("Pereira", 0, 0, List.of("Piscina")));
+        assertNull(catalogo.buscarPorId("i3"));
+    }
+
+    @Test
+    void importaJsonlYRechazaObjetosMalFormados() throws IOException {
+        PropiedadData catalogo = PropiedadData.sinDatos();
+        catalogo.registrarPropiedad(PropiedadTest.propiedad("existente"));
+        Path archivo = escribir("propiedades.jsonl",
+            "{\"propiedadId\":\"j1\",\"anfitrionId\":\"H1\",\"titulo\":\"Casa \\\"Azul\\\"\",\"ciudad\":\"Bogot\\u00e1\","
+                + "\"precioPorNoche\":150.5,\"servicios\":[\"WiFi\",\"Cocina\"],\"descripcion\":null}\n"
+            + "{\"propiedadId\":\"j2\",\"anfitrionId\":\"H1\",\"titulo\":\"Rota\",\"ciudad\":\"Cali\",\"precioPorNoche\":10\n"
+            + "{\"propiedadId\":\"existente\",\"anfitrionId\":\"H1\",\"titulo\":\"Otra\",\"ciudad\":\"Cali\",\"precioPorNoche\":10}\n"
+            + "{ \"anfitrionId\" : \"H2\", \"titulo\" : \"Sin id\", \"ciudad\" : \"Cali\", \"precioPorNoche\" : 70, \"disponible\" : false }\n"
+            + "{\"propiedadId\":\"j4\",\"anfitrionId\":\"H2\",\"titulo\":\"Sin precio\",\"ciudad\":\"Cali\"}\n"
+            + "{\"propiedadId\":\"j5\",\"anfitrionId\":\"H2\",\"titulo\":\"Basura\",\"ciudad\":\"Cali\",\"precioPorNoche\":5} x\n");
+
+        ResultadoImportacion resultado = importador(catalogo).importarPropiedades(archivo);
+
+        assertEquals(6, resultado.getFilasLeidas());
+        assertEquals(2, resultado.getImportadas());
+        assertEquals(List.of("Línea 2", "Línea 3", "Línea 5", "Línea 6"), lineas(resultado));
+        assertTrue(resultado.getErrores().contains("Línea 5: falta precioPorNoche"));
+
+        Propiedad j1 = catalogo.buscarPorId("j1");
+        assertEquals("Casa \"Azul\"", j1.getTitulo());
+        assertEquals("Bogotá", j1.getCiudad());
+        assertEquals("", j1.getDescripcion());
+        assertEquals(List.of("WiFi", "Cocina"), j1.getServicios());
+        assertEquals("Propiedad existente", catalogo.buscarPorId("existente").getTitulo());
+
+        // La fila sin ID recibió uno nuevo y entró como no disponible
+        List<Propiedad> deH2 = catalogo.obtenerPropiedadesPorAnfitrion("H2");
+        assertEquals(1, deH2.size());
+        assertFalse(deH2.get(0).isDisponible());
+    }
+
+    @Test
+    void rechazaEmailsRepetidosSinDistinguirMayusculas() throws IOException {
+        UsuarioData usuarios = UsuarioData.sinDatos();
+        Path archivo = escribir("usuarios.csv",
+            "nombre,email,contrasena,rol\n"
+            + "Ana,ana@correo.com,clave,Viajero\n"
+            + "Ana B,ANA@correo.com,clave,Anfitrion\n"
+            + "Sin arroba,correo.com,clave,Viajero\n");
+
+        ResultadoImportacion resultado = new ImportadorDatos(PropiedadData.sinDatos(), usuarios)
+            .importarUsuarios(archivo);
+
+        assertEquals(1, resultado.getImportadas());
+        assertEquals(List.of("Línea 3", "Línea 4"), lineas(resultado));
+        assertEquals("Ana", usuarios.buscarPorEmail("ana@correo.com").getNombre());
+    }
+
+    private ImportadorDatos importador(PropiedadData catalogo) {
+        ImportadorDatos importador = new ImportadorDatos(catalogo, UsuarioData.sinDatos());
+        importador.setTamanoLote(2);
+        importador.setHilos(2);
+        return importador;
+    }
+
+    private Path escribir(String nombre, String contenido) throws IOException {
+        return Files.writeString(directorio.resolve(nombre), contenido, StandardCharsets.UTF_8);
+    }
+
+    // "Línea N" de cada rechazo, en orden de línea
+    private static List<String> lineas(ResultadoImportacion resultado) {
+        return resultado.getErrores().stream()
+            .map(e -> e.substring(0, e.indexOf(':')))
+            .sorted((a, b) -> Integer.compare(Integer.parseInt(a.substring(6)), Integer.parseInt(b.substring(6))))
+            .toList();
+    }
+}
@@ -0,0 +1,136 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Índice de precios por cubetas comparado con un conjunto ordenado de referencia
+ */
+class IndicePreciosTest {
+
+    // Pares (precio, ordinal) en el orden del índice
+    private final TreeSet<double[]> referencia = new TreeSet<>(
+        Comparator.<double[]>comparingDouble(p -> p[0]).thenComparingDouble(p -> p[1]));
+
+    @Test
+    void agregaYRemueveEntreCubetas() {
+        IndicePrecios indice = new IndicePrecios();
+        Random azar = new Random(7);
+        List<double[]> presentes = new ArrayList<>();
+        for (int ordinal = 0; ordinal < 6 * IndicePrecios.TAMANO_CUBETA; ordinal++) {
+            // Pocos precios distintos: muchos empates que se ordenan por ordinal
+            double precio = 50 + azar.nextInt(40) * 5;
+            indice.agregar(ordinal, precio);
+            double[] par = {precio, ordinal};
+            referencia.add(par);
+            presentes.add(par);
+            if (azar.nextInt(3) == 0) {
+                double[] quitado = presentes.remove(azar.nextInt(presentes.size()));
+                indice.remover((int) quitado[1], quitado[0]);
+                referencia.remove(quitado);
+            }
+        }
+        indice.remover(-1, 60);   // ausente: no cambia nada
+        comparar(indice);
+
+        // Vaciar cubetas enteras y volver a llenarlas
+        for (double[] par : presentes.subList(0, presentes.size() / 2)) {
+            indice.remover((int) par[1], par[0]);
+            referencia.remove(par);
+        }
+        comparar(indice);
+        indice.agregar(1_000_000, 10);
+        indice.agregar(1_000_001, 500);
+        referencia.add(new double[] {10, 1_000_000});
+        referencia.add(new double[] {500, 1_000_001});
+        comparar(indice);
+    }
+
+    @Test
+    void sobreviveAlPuntoDeControl() throws IOException {
+        IndicePrecios indice = new IndicePrecios();
+        for (int ordinal = 0; ordinal < 2000; ordinal++) {
+            double precio = (ordinal * 37) % 301;
+            indice.agregar(ordinal, precio);
+            referencia.add(new double[] {precio, ordinal});
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ArchivoPuntoControl.Salida salida = new ArchivoPuntoControl.Salida(bytes)) {
+            indice.escribir(salida);
+            salida.writeInt(0x7E57);   // lo que sigue en el archivo
+        }
+        ByteBuffer datos = ByteBuffer.wrap(bytes.toByteArray());
+        IndicePrecios cargado = new IndicePrecios();
+        cargado.cargar(datos);
+        assertEquals(0x7E57, datos.getInt());
+        comparar(cargado);
+
+        cargado.agregar(5000, 150);
+        cargado.remover(0, 0);
+        referencia.add(new double[] {150, 5000});
+        referencia.remove(new double[] {0, 0});
+        comparar(cargado);
+    }
+
+    @Test
+    void elLoteQuedaIgualQueAgregarUnaPorUna() {
+        Random azar = new Random(11);
+        // Lote grande sobre índice vacío, lote grande que se mezcla, y lote
+        // chico sobre un índice grande (que se inserta fila por fila)
+        int[][] casos = {{0, 3000}, {2500, 4000}, {20_000, 30}};
+        for (int[] caso : casos) {
+            IndicePrecios enLote = new IndicePrecios();
+            IndicePrecios unaPorUna = new IndicePrecios();
+            int ordinal = 0;
+            for (; ordinal < caso[0]; ordinal++) {
+                double precio = azar.nextInt(200);
+                enLote.agregar(ordinal, precio);
+                unaPorUna.agregar(ordinal, precio);
+            }
+            int[] nuevos = new int[caso[1] + 5];
+            double[] precios = new double[nuevos.length];
+            for (int i = 0; i < caso[1]; i++, ordinal++) {
+                nuevos[i] = ordinal;
+                precios[i] = azar.nextInt(200);   // empates con los que ya estaban
+                unaPorUna.agregar(nuevos[i], precios[i]);
+            }
+            enLote.agregarLote(nuevos, precios, caso[1]);   // los arreglos pueden sobrar
+
+            assertEquals(unaPorUna.tamano(), enLote.tamano());
+            assertArrayEquals(unaPorUna.rango(-1, 1000), enLote.rango(-1, 1000));
+            for (double desde = 0; desde < 200; desde += 17) {
+                assertArrayEquals(unaPorUna.rango(desde, desde + 9), enLote.rango(desde, desde + 9));
+                assertEquals(unaPorUna.contar(desde, desde + 9), enLote.contar(desde, desde + 9));
+            }
+            // Después del lote sigue aceptando cambios sueltos
+            enLote.remover(nuevos[0], precios[0]);
+            unaPorUna.remover(nuevos[0], precios[0]);
+            enLote.agregar(ordinal, 55);
+            unaPorUna.agregar(ordinal, 55);
+            assertArrayEquals(unaPorUna.rango(-1, 1000), enLote.rango(-1, 1000));
+        }
+    }
+
+    private void comparar(IndicePrecios indice) {
+        assertEquals(referencia.size(), indice.tamano());
+        double[][] rangos = {{0, 1000}, {50, 50}, {75, 120}, {121, 121.5}, {300, 10}, {-5, 10}, {195, 600}};
+        for (double[] r : rangos) {
+            int[] esperados = referencia.stream()
+                .filter(p -> p[0] >= r[0] && p[0] <= r[1])
+                .mapToInt(p -> (int) p[1])
+                .toArray();
+            assertArrayEquals(esperados, indice.rango(r[0], r[1]), "rango " + r[0] + "-" + r[1]);
+            assertEquals(esperados.length, indice.contar(r[0], r[1]));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Índice invertido de servicios sobre mapas de bits
+ */
+class IndiceServiciosTest {
+
+    // WiFi en todos los ordinales pares, Piscina en los múltiplos de 3, TV solo en el 9
+    private static IndiceServicios indice() {
+        IndiceServicios indice = new IndiceServicios();
+        for (int ordinal = 0; ordinal < 100_000; ordinal++) {
+            if (ordinal % 2 == 0) {
+                indice.agregar(ordinal, "WiFi");
+            }
+            if (ordinal % 3 == 0) {
+                indice.agregar(ordinal, "Piscina");
+            }
+        }
+        indice.agregar(9, "TV");
+        return indice;
+    }
+
+    @Test
+    void intersectaLosServiciosPedidos() {
+        IndiceServicios indice = indice();
+
+        MapaBits ambos = indice.interseccion(List.of("WiFi", "Piscina"));
+        assertEquals(16_667, ambos.cardinalidad());
+        assertTrue(ambos.contiene(99_996));
+        assertEquals(33_334, indice.cardinalidadMinima(List.of("Piscina", "WiFi")));
+        assertArrayEquals(new int[] {9}, indice.interseccion(List.of("TV", "Piscina")).aArreglo());
+        assertTrue(indice.interseccion(List.of("TV", "WiFi")).estaVacio());
+
+        // Un servicio que nadie ofrece vacía el resultado
+        assertTrue(indice.interseccion(List.of("WiFi", "Sauna")).estaVacio());
+        assertEquals(0, indice.cardinalidadMinima(List.of("WiFi", "Sauna")));
+        assertNull(indice.mapas(List.of("Sauna")));
+    }
+
+    @Test
+    void removerNoAfectaAOtrosServicios() {
+        IndiceServicios indice = indice();
+        indice.remover(6, "WiFi");
+        indice.remover(6, "Sauna");   // servicio desconocido: no hace nada
+
+        assertEquals(49_999, indice.mapa(indice.idServicio("WiFi")).cardinalidad());
+        assertTrue(indice.mapa(indice.idServicio("Piscina")).contiene(6));
+        // La intersección es una copia: cambiarla no toca el índice
+        MapaBits resultado = indice.interseccion(List.of("TV"));
+        resultado.remover(9);
+        assertEquals(1, indice.mapa(indice.idServicio("TV")).cardinalidad());
+    }
+
+    @Test
+    void conservaLosIdsEnElPuntoDeControl() throws IOException {
+        IndiceServicios indice = indice();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ArchivoPuntoControl.Salida salida = new ArchivoPuntoControl.Salida(bytes)) {
+            indice.escribir(salida);
+        }
+        IndiceServicios cargado = new IndiceServicios();
+        cargado.cargar(ByteBuffer.wrap(bytes.toByteArray()));
+
+        assertEquals(3, cargado.cantidadServicios());
+        for (int id = 0; id < 3; id++) {
+            assertEquals(indice.nombreServicio(id), cargado.nombreServicio(id));
+            assertArrayEquals(indice.mapa(id).aArreglo(), cargado.mapa(id).aArreglo());
+        }
+        assertEquals(3, cargado.idServicio("Cocina"));   // los nuevos siguen la numeración
+    }
+}
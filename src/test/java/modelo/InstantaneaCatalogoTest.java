@@ -0,0 +1,94 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Instantáneas del catálogo: cada una lee los datos de su versión
+ */
+class InstantaneaCatalogoTest {
+
+    private static final FiltroBusqueda CALI = new FiltroBusqueda("Cali", 50, 150, List.of());
+
+    @AfterEach
+    void limpiar() {
+        PropiedadData.sinDatos();
+    }
+
+    @Test
+    void cadaInstantaneaVeSuVersion() {
+        PropiedadData catalogo = PropiedadData.sinDatos();
+        Propiedad p1 = PropiedadTest.propiedad("p1");
+        Propiedad p2 = PropiedadTest.propiedad("p2");
+        catalogo.registrarPropiedad(p1);
+        catalogo.registrarPropiedad(p2);
+
+        try (InstantaneaCatalogo primera = catalogo.abrirInstantanea()) {
+            p1.setPrecioPorNoche(500);
+            catalogo.registrarPropiedad(PropiedadTest.propiedad("p3"));
+            try (InstantaneaCatalogo segunda = catalogo.abrirInstantanea()) {
+                // Dos cambios más sobre p1: la primera debe saltar ambos registros
+                p1.setCiudad("Pasto");
+                p1.setPrecioPorNoche(120);
+                p2.agregarServicio("WiFi");
+
+                assertEquals(List.of("p1", "p2"), ids(primera.buscarConFiltros(CALI)));
+                Propiedad antigua = primera.buscarPorId("p1");
+                assertNotSame(p1, antigua);
+                assertEquals(100, antigua.getPrecioPorNoche());
+                assertEquals("Cali", antigua.getCiudad());
+                assertNull(primera.buscarPorId("p3"));
+                assertEquals(2, primera.getCantidadPropiedades());
+
+                assertEquals(List.of("p2", "p3"), ids(segunda.buscarConFiltros(CALI)));
+                assertEquals(500, segunda.buscarPorId("p1").getPrecioPorNoche());
+                assertEquals("Cali", segunda.buscarPorId("p1").getCiudad());
+
+                FiltroBusqueda conWifi = new FiltroBusqueda("", 0, 0, List.of("WiFi"));
+                assertTrue(primera.buscarConFiltros(conWifi).isEmpty());
+                assertTrue(segunda.buscarPorId("p2").getServicios().isEmpty());
+                assertEquals(List.of("p2"), ids(catalogo.buscarConFiltros(conWifi)));
+                assertEquals(List.of("p2", "p3"), ids(catalogo.buscarConFiltros(CALI)));
+            }
+            // Cerrar la segunda no quita los datos que la primera todavía ve
+            assertEquals(100, primera.buscarPorId("p1").getPrecioPorNoche());
+            assertEquals(List.of("p1", "p2"), ids(primera.buscarConFiltros(CALI)));
+        }
+    }
+
+    @Test
+    void lasPaginasNoSeSolapanAunqueCambieElCatalogo() {
+        PropiedadData catalogo = PropiedadData.sinDatos();
+        for (int i = 1; i <= 4; i++) {
+            Propiedad p = PropiedadTest.propiedad("p" + i);
+            p.setPrecioPorNoche(50 + 10 * i);
+            catalogo.registrarPropiedad(p);
+        }
+
+        InstantaneaCatalogo instantanea = catalogo.abrirInstantanea();
+        PaginaResultados primera = instantanea.buscarPagina(CALI, OrdenBusqueda.PRECIO_ASC, 0, 2);
+        // La más cara pasa a ser la más barata entre una página y otra
+        catalogo.buscarPorId("p4").setPrecioPorNoche(55);
+        PaginaResultados segunda = instantanea.buscarPagina(CALI, OrdenBusqueda.PRECIO_ASC, 2, 2);
+
+        assertEquals(List.of("p1", "p2"), ids(primera.getPropiedades()));
+        assertEquals(List.of("p3", "p4"), ids(segunda.getPropiedades()));
+        assertEquals(90, segunda.getPropiedades().get(1).getPrecioPorNoche());
+        assertEquals(4, segunda.getTotal());
+
+        instantanea.close();
+        assertThrows(IllegalStateException.class, () -> instantanea.buscarPorId("p1"));
+    }
+
+    private static List<String> ids(List<Propiedad> propiedades) {
+        return propiedades.stream().map(Propiedad::getPropiedadId).collect(Collectors.toList());
+    }
+}
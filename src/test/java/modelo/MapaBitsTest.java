@@ -0,0 +1,113 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Mapa de bits comprimido comparado con un BitSet, en bloques de arreglo y de bits
+ */
+class MapaBitsTest {
+
+    // Bloque 0 denso (bits), bloque 1 disperso (arreglo), bloque 3 denso que se vacía a medias
+    private static MapaBits llenar(BitSet referencia, Random azar) {
+        MapaBits mapa = new MapaBits();
+        for (int i = 0; i < 9000; i++) {
+            int valor = azar.nextInt(1 << 16);
+            mapa.agregar(valor);
+            referencia.set(valor);
+        }
+        for (int i = 0; i < 300; i++) {
+            int valor = (1 << 16) + azar.nextInt(1 << 16);
+            mapa.agregar(valor);
+            referencia.set(valor);
+        }
+        for (int valor = 3 << 16; valor < (3 << 16) + 6000; valor++) {
+            mapa.agregar(valor);
+            referencia.set(valor);
+        }
+        // Por debajo del límite de arreglo otra vez
+        for (int valor = (3 << 16) + 100; valor < (3 << 16) + 5000; valor++) {
+            mapa.remover(valor);
+            referencia.clear(valor);
+        }
+        return mapa;
+    }
+
+    @Test
+    void coincideConUnBitSet() {
+        BitSet referencia = new BitSet();
+        MapaBits mapa = llenar(referencia, new Random(3));
+
+        assertEquals(referencia.cardinality(), mapa.cardinalidad());
+        assertArrayEquals(referencia.stream().toArray(), mapa.aArreglo());
+        assertTrue(mapa.contiene(3 << 16));
+        assertFalse(mapa.contiene((3 << 16) + 100));
+        assertFalse(mapa.contiene(2 << 16));
+
+        mapa.agregar(5);
+        mapa.agregar(5);   // repetido: no cambia la cardinalidad
+        referencia.set(5);
+        mapa.remover(7 << 16);   // bloque que no existe
+        assertEquals(referencia.cardinality(), mapa.cardinalidad());
+    }
+
+    @Test
+    void intersectaBloquesDeDistintoTipo() {
+        BitSet a = new BitSet();
+        BitSet b = new BitSet();
+        MapaBits mapaA = llenar(a, new Random(5));
+        MapaBits mapaB = llenar(b, new Random(6));
+        MapaBits disperso = new MapaBits();
+        BitSet c = new BitSet();
+        for (int valor = 0; valor < 4 << 16; valor += 97) {
+            disperso.agregar(valor);
+            c.set(valor);
+        }
+
+        MapaBits[][] pares = {{mapaA, mapaB}, {mapaA, disperso}, {disperso, mapaB}};
+        BitSet[][] referencias = {{a, b}, {a, c}, {c, b}};
+        for (int i = 0; i < pares.length; i++) {
+            BitSet esperado = (BitSet) referencias[i][0].clone();
+            esperado.and(referencias[i][1]);
+            MapaBits interseccion = pares[i][0].interseccion(pares[i][1]);
+            assertArrayEquals(esperado.stream().toArray(), interseccion.aArreglo());
+            assertEquals(esperado.cardinality(), interseccion.cardinalidad());
+            assertEquals(esperado.cardinality(), pares[i][0].cardinalidadInterseccion(pares[i][1]));
+        }
+        assertTrue(mapaA.interseccion(new MapaBits()).estaVacio());
+    }
+
+    @Test
+    void copiaIndependienteYFormatoBinario() throws IOException {
+        BitSet referencia = new BitSet();
+        MapaBits mapa = llenar(referencia, new Random(9));
+
+        MapaBits copia = mapa.copiar();
+        copia.agregar(10 << 16);
+        copia.remover(referencia.nextSetBit(0));
+        assertEquals(referencia.cardinality(), mapa.cardinalidad());
+        assertArrayEquals(referencia.stream().toArray(), mapa.aArreglo());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ArchivoPuntoControl.Salida salida = new ArchivoPuntoControl.Salida(bytes)) {
+            mapa.escribir(salida);
+        }
+        MapaBits leido = MapaBits.leer(ByteBuffer.wrap(bytes.toByteArray()));
+        assertEquals(mapa.cardinalidad(), leido.cardinalidad());
+        assertArrayEquals(mapa.aArreglo(), leido.aArreglo());
+        // El leído sigue aceptando cambios en sus bloques
+        leido.agregar(3 << 16 | 200);
+        leido.agregar(12 << 16);
+        assertTrue(leido.contiene(3 << 16 | 200));
+        assertEquals(mapa.cardinalidad() + 2, leido.cardinalidad());
+    }
+}
@@ -0,0 +1,238 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * El mismo contrato para todos los motores: cada prueba corre sobre LISTA,
+ * MEMORIA y JDBC, cada vez con un almacenamiento vacío propio
+ */
+class MotorAlmacenamientoTest {
+
+    // Dentro del horizonte del calendario de cualquier motor
+    private static final LocalDate ENTRADA = LocalDate.now().plusDays(10);
+
+    //   PROPIEDADES
+
+    @ParameterizedTest
+    @EnumSource(MotorAlmacenamiento.class)
+    void empiezaVacio(MotorAlmacenamiento motor) {
+        motor.crearPropiedadesVacias().registrarPropiedad(propiedad("p1", "H1", "Cali", 100));
+        motor.crearUsuariosVacios().registrarUsuario(usuario("ana@correo.com", "Viajero"));
+
+        assertTrue(motor.crearPropiedadesVacias().obtenerTodasPropiedades().isEmpty());
+        assertTrue(motor.crearUsuariosVacios().obtenerTodosUsuarios().isEmpty());
+    }
+
+    @ParameterizedTest
+    @EnumSource(MotorAlmacenamiento.class)
+    void registraYBuscaPorId(MotorAlmacenamiento motor) {
+        AlmacenPropiedades propiedades = motor.crearPropiedadesVacias();
+
+        assertTrue(propiedades.registrarPropiedad(propiedad("p1", "H1", "Cali", 100)));
+        assertFalse(propiedades.registrarPropiedad(propiedad("p1", "H2", "Pasto", 300)));
+
+        Propiedad encontrada = propiedades.buscarPorId("p1");
+        assertNotNull(encontrada);
+        assertEquals("H1", encontrada.getAnfitrionId());
+        assertEquals("Cali", encontrada.getCiudad());
+        assertEquals(100, encontrada.getPrecioPorNoche());
+        assertEquals(List.of("WiFi"), encontrada.getServicios());
+        assertNull(propiedades.buscarPorId("no-existe"));
+        assertEquals(1, propiedades.obtenerTodasPropiedades().size());
+    }
+
+    @ParameterizedTest
+    @EnumSource(MotorAlmacenamiento.class)
+    void registraLoteSinRepetidos(MotorAlmacenamiento motor) {
+        AlmacenPropiedades propiedades = motor.crearPropiedadesVacias();
+
+        int registradas = propiedades.registrarPropiedades(List.of(
+            propiedad("p1", "H1", "Cali", 100),
+            propiedad("p2", "H1", "Cali", 200),
+            propiedad("p1", "H2", "Pasto", 300)));
+
+        assertEquals(2, registradas);
+        assertEquals(Set.of("p1", "p2"), ids(propiedades.obtenerTodasPropiedades()));
+        assertEquals("Cali", propiedades.buscarPorId("p1").getCiudad());
+        assertFalse(propiedades.registrarPropiedad(propiedad("p2", "H3", "Pasto", 300)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(MotorAlmacenamiento.class)
+    void actualizaConOtraInstancia(MotorAlmacenamiento motor) {
+        AlmacenPropiedades propiedades = motor.crearPropiedadesVacias();
+        propiedades.registrarPropiedad(propiedad("p1", "H1", "Cali", 100));
+        propiedades.registrarPropiedad(propiedad("p2", "H1", "Cali", 150));
+
+        Propiedad cambio = propiedad("p1", "H2", "Medellín", 250);
+        cambio.setDireccion("Carrera 7");
+        cambio.setServicios(List.of("Piscina"));
+        cambio.setDisponible(false);
+        assertTrue(propiedades.actualizarPropiedad(cambio));
+        assertFalse(propiedades.actualizarPropiedad(propiedad("no-existe", "H1", "Cali", 100)));
+
+        Propiedad guardada = propiedades.buscarPorId("p1");
+        assertEquals("H2", guardada.getAnfitrionId());
+        assertEquals("Medellín", guardada.getCiudad());
+        assertEquals("Carrera 7", guardada.getDireccion());
+        assertEquals(250, guardada.getPrecioPorNoche());
+        assertEquals(List.of("Piscina"), guardada.getServicios());
+        assertFalse(guardada.isDisponible());
+
+        assertEquals(Set.of("p2"), ids(propiedades.obtenerPropiedadesPorAnfitrion("H1")));
+        assertEquals(Set.of("p1"), ids(propiedades.obtenerPropiedadesPorAnfitrion("H2")));
+        assertEquals(Set.of("p2"), ids(propiedades.obtenerPropiedadesDisponibles()));
+        assertEquals(Set.of("p2"), ids(propiedades.buscarConFiltros("Cali", 0, 0, null)));
+        assertEquals(0, propiedades.contarDisponiblesPorServicio("Piscina"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(MotorAlmacenamiento.class)
+    void filtraPorCiudadPrecioServiciosYTexto(MotorAlmacenamiento motor) {
+        AlmacenPropiedades propiedades = catalogo(motor);
+
+        assertEquals(Set.of("p1", "p2", "p3"), ids(propiedades.buscarConFiltros(" cali", 0, 0, null)));
+        assertEquals(Set.of("p2", "p3", "p5"), ids(propiedades.buscarConFiltros("Todas", 150, 320, null)));
+        assertEquals(Set.of("p3"), ids(propiedades.buscarConFiltros("Cali", 0, 0, List.of("WiFi", "Piscina"))));
+        assertEquals(Set.of("p5"), ids(propiedades.buscarConFiltros("Bogotá", 0, 0, null)));
+        assertEquals(Set.of(), ids(propiedades.buscarConFiltros("Pasto", 0, 0, null)));
+
+        FiltroBusqueda texto = new FiltroBusqueda("", 0, 0, null);
+        texto.setTexto("piscina");
+        assertEquals(Set.of("p3", "p5"), ids(propiedades.buscarConFiltros(texto)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(MotorAlmacenamiento.class)
+    void paginaOrdenadaPorPrecio(MotorAlmacenamiento motor) {
+        AlmacenPropiedades propiedades = catalogo(motor);
+        FiltroBusqueda todas = new FiltroBusqueda("", 0, 0, null);
+
+        PaginaResultados pagina = propiedades.buscarPagina(todas, OrdenBusqueda.PRECIO_ASC, 1, 2,
+                                                           ForkJoinPool.commonPool());
+        assertEquals(4, pagina.getTotal());
+        assertEquals(List.of("p5", "p3"), idsEnOrden(pagina.getPropiedades()));
+        assertTrue(pagina.hayMas());
+
+        PaginaResultados ultima = propiedades.buscarPagina(todas, OrdenBusqueda.PRECIO_DESC, 3, 2,
+                                                           ForkJoinPool.commonPool());
+        assertEquals(List.of("p2"), idsEnOrden(ultima.getPropiedades()));
+        assertFalse(ultima.hayMas());
+
+        PaginaResultados fuera = propiedades.buscarPagina(todas, OrdenBusqueda.PRECIO_ASC, 10, 2,
+                                                          ForkJoinPool.commonPool());
+        assertEquals(4, fuera.getTotal());
+        assertTrue(fuera.getPropiedades().isEmpty());
+    }
+
+    @ParameterizedTest
+    @EnumSource(MotorAlmacenamiento.class)
+    void cuentaCiudadesYServicios(MotorAlmacenamiento motor) {
+        AlmacenPropiedades propiedades = catalogo(motor);
+
+        assertEquals(Set.of("Cali", "Bogotá"), Set.copyOf(propiedades.obtenerCiudades()));
+        assertEquals(Set.of("WiFi", "Piscina"), Set.copyOf(propiedades.obtenerServiciosDisponibles()));
+        assertEquals(3, propiedades.contarDisponiblesPorCiudad("CALI"));
+        assertEquals(1, propiedades.contarDisponiblesPorCiudad("Bogotá"));
+        assertEquals(3, propiedades.contarDisponiblesPorServicio("WiFi"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(MotorAlmacenamiento.class)
+    void ocupaYLiberaNoches(MotorAlmacenamiento motor) {
+        AlmacenPropiedades propiedades = motor.crearPropiedadesVacias();
+        propiedades.registrarPropiedad(propiedad("p1", "H1", "Cali", 100));
+        LocalDate salida = ENTRADA.plusDays(3);
+
+        assertTrue(propiedades.bloquearFechas("p1", ENTRADA, salida));
+        assertFalse(propiedades.bloquearFechas("p1", ENTRADA.plusDays(2), salida.plusDays(2)));
+        assertTrue(propiedades.bloquearFechas("p1", salida, salida.plusDays(1)));
+        assertFalse(propiedades.bloquearFechas("no-existe", ENTRADA, salida));
+
+        assertFalse(propiedades.estaLibreEntre("p1", ENTRADA.plusDays(1), ENTRADA.plusDays(2)));
+        assertTrue(propiedades.estaLibreEntre("p1", salida.plusDays(1), salida.plusDays(5)));
+        assertEquals(List.of(ENTRADA, ENTRADA.plusDays(1), ENTRADA.plusDays(2), salida),
+                     propiedades.obtenerNochesOcupadas("p1"));
+
+        assertTrue(propiedades.liberarFechas("p1", ENTRADA, salida));
+        assertTrue(propiedades.estaLibreEntre("p1", ENTRADA, salida));
+        assertEquals(List.of(salida), propiedades.obtenerNochesOcupadas("p1"));
+    }
+
+    //   USUARIOS
+
+    @ParameterizedTest
+    @EnumSource(MotorAlmacenamiento.class)
+    void registraUsuariosSinRepetirEmail(MotorAlmacenamiento motor) {
+        AlmacenUsuarios usuarios = motor.crearUsuariosVacios();
+
+        assertTrue(usuarios.registrarUsuario(usuario("ana@correo.com", "Viajero")));
+        assertFalse(usuarios.registrarUsuario(usuario("ANA@correo.com", "Anfitrion")));
+        assertEquals(2, usuarios.registrarUsuarios(List.of(
+            usuario("luis@correo.com", "Anfitrion"),
+            usuario("Ana@Correo.com", "Viajero"),
+            usuario("sol@correo.com", "Viajero"))));
+
+        assertEquals(3, usuarios.obtenerTodosUsuarios().size());
+        assertEquals(2, usuarios.contarPorRol("viajero"));
+        assertEquals(1, usuarios.contarPorRol("Anfitrion"));
+        assertTrue(usuarios.existeEmail("LUIS@correo.com"));
+        assertFalse(usuarios.existeEmail("nadie@correo.com"));
+
+        Usuario ana = usuarios.buscarUsuario("ana@correo.com", "secreta");
+        assertNotNull(ana);
+        assertNotNull(ana.getUsuarioId());
+        assertEquals("Viajero", ana.getRol());
+        assertNull(usuarios.buscarUsuario("ana@correo.com", "otra"));
+    }
+
+    //   DATOS
+
+    private static Propiedad propiedad(String id, String anfitrion, String ciudad, double precio) {
+        Propiedad p = new Propiedad(id, anfitrion, "Propiedad " + id, "Cerca del centro", ciudad,
+                                    "Calle " + id, "Apartamento", 4, 2, 1, precio);
+        p.setServicios(List.of("WiFi"));
+        return p;
+    }
+
+    // p1..p5 con precios 400, 150, 300, 100, 200; p3 y p5 tienen piscina y
+    // p4 no está disponible (las búsquedas no la devuelven)
+    private static AlmacenPropiedades catalogo(MotorAlmacenamiento motor) {
+        AlmacenPropiedades propiedades = motor.crearPropiedadesVacias();
+        Propiedad p3 = propiedad("p3", "H2", "Cali", 300);
+        p3.setServicios(List.of("WiFi", "Piscina"));
+        p3.setDescripcion("Casa con piscina");
+        Propiedad p4 = propiedad("p4", "H2", "Bogotá", 100);
+        p4.setDisponible(false);
+        Propiedad p5 = propiedad("p5", "H3", "Bogotá", 200);
+        p5.setServicios(List.of("Piscina"));
+        p5.setDescripcion("Piscina climatizada");
+        propiedades.registrarPropiedades(List.of(propiedad("p1", "H1", "Cali", 400),
+                                                 propiedad("p2", "H1", "Cali", 150), p3, p4, p5));
+        return propiedades;
+    }
+
+    private static Usuario usuario(String email, String rol) {
+        return new Usuario("Usuario " + email, email, "3001234567", "secreta", rol);
+    }
+
+    private static Set<String> ids(List<Propiedad> propiedades) {
+        return propiedades.stream().map(Propiedad::getPropiedadId).collect(Collectors.toSet());
+    }
+
+    private static List<String> idsEnOrden(List<Propiedad> propiedades) {
+        return propiedades.stream().map(Propiedad::getPropiedadId).collect(Collectors.toList());
+    }
+}
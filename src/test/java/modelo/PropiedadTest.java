@@ -0,0 +1,60 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Cambios sobre una propiedad ya registrada en el catálogo en memoria
+ */
+class PropiedadTest {
+
+    @Test
+    void noCambiaElIdDeUnaRegistrada() {
+        PropiedadData catalogo = PropiedadData.sinDatos();
+        Propiedad propiedad = propiedad("p1");
+        catalogo.registrarPropiedad(propiedad);
+
+        assertThrows(IllegalStateException.class, () -> propiedad.setPropiedadId("p2"));
+        propiedad.setPropiedadId("p1");   // el mismo ID no es un cambio
+
+        assertSame(propiedad, catalogo.buscarPorId("p1"));
+        assertNull(catalogo.buscarPorId("p2"));
+        assertEquals("p1", propiedad.getPropiedadId());
+    }
+
+    @Test
+    void cambiaElIdAntesDeRegistrar() {
+        Propiedad propiedad = propiedad("p1");
+        propiedad.setPropiedadId("p2");
+
+        assertEquals("p2", propiedad.getPropiedadId());
+    }
+
+    @Test
+    void guardaCadaServicioUnaVez() {
+        PropiedadData catalogo = PropiedadData.sinDatos();
+        Propiedad propiedad = propiedad("p1");
+        propiedad.setServicios(List.of("WiFi", "WiFi", "Cocina"));
+        catalogo.registrarPropiedad(propiedad);
+
+        propiedad.setServicios(List.of("Piscina", "WiFi", "Piscina"));
+        assertEquals(List.of("Piscina", "WiFi"), propiedad.getServicios());
+        assertEquals(1, catalogo.contarDisponiblesPorServicio("WiFi"));
+        assertEquals(1, catalogo.contarDisponiblesPorServicio("Piscina"));
+        assertEquals(0, catalogo.contarDisponiblesPorServicio("Cocina"));
+
+        propiedad.setServicios(List.of());
+        assertEquals(List.of(), catalogo.obtenerServiciosDisponibles());
+        assertEquals(List.of(), catalogo.buscarConFiltros("", 0, 0, List.of("WiFi")));
+    }
+
+    static Propiedad propiedad(String id) {
+        return new Propiedad(id, "H1", "Propiedad " + id, "Cerca del centro", "Cali",
+                             "Calle " + id, "Apartamento", 4, 2, 1, 100);
+    }
+}
@@ -0,0 +1,155 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Puntos de control: archivo proyectado, propiedades armadas al pedirlas y
+ * recuperación junto con la cola del registro de escritura
+ */
+class PuntoControlTest {
+
+    private static final int FORMATO = 7;
+
+    @TempDir
+    Path directorio;
+
+    @AfterEach
+    void cerrar() {
+        System.clearProperty(RegistroEscritura.PROPIEDAD_DIRECTORIO);
+        PropiedadData.sinDatos();
+    }
+
+    @Test
+    void armaLasPropiedadesAlPedirlas() throws IOException {
+        TablaPropiedades tabla = new TablaPropiedades();
+        for (String id : List.of("a", "b", "c")) {
+            Propiedad propiedad = PropiedadTest.propiedad(id);
+            propiedad.setAnfitrionId(id.equals("c") ? "H2" : "H1");
+            propiedad.ordinal = tabla.tamano();
+            tabla.agregar(propiedad);
+        }
+        Path archivo = directorio.resolve("tabla.snap");
+        ArchivoPuntoControl.guardar(archivo, FORMATO, 3, salida -> {
+            tabla.escribir(salida);
+            salida.writeInt(0xCAFE);
+        });
+
+        ArchivoPuntoControl punto = ArchivoPuntoControl.abrir(archivo, FORMATO);
+        assertEquals(3, punto.getGeneracion());
+        ByteBuffer datos = punto.getDatos();
+        TablaPropiedades cargada = TablaPropiedades.cargar(datos, null);
+        assertEquals(0xCAFE, datos.getInt());   // la tabla se leyó completa
+        assertEquals(3, cargada.tamano());
+
+        Propiedad b = cargada.buscarCargada("b");
+        assertEquals(1, b.ordinal);
+        assertEquals("Calle b", b.getDireccion());
+        assertSame(b, cargada.obtener(1));       // armada una sola vez
+        assertNull(cargada.buscarCargada("x"));
+        assertEquals(2, cargada.cargadasDeAnfitrion("H1").size());
+        assertTrue(cargada.esCargadaDeAnfitrion(2, "H2"));
+
+        // Guardar de nuevo: la armada (y cambiada) se codifica, las otras se copian tal cual
+        b.setTitulo("Cambiada");
+        Path otro = directorio.resolve("otra.snap");
+        ArchivoPuntoControl.guardar(otro, FORMATO, 4, cargada::escribir);
+        TablaPropiedades releida = TablaPropiedades.cargar(ArchivoPuntoControl.abrir(otro, FORMATO).getDatos(), null);
+        assertEquals("Cambiada", releida.buscarCargada("b").getTitulo());
+        assertEquals("Propiedad a", releida.obtener(0).getTitulo());
+        assertEquals("H2", releida.obtener(2).getAnfitrionId());
+
+        assertThrows(IOException.class, () -> ArchivoPuntoControl.abrir(otro, FORMATO + 1));
+        assertNull(ArchivoPuntoControl.abrir(directorio.resolve("no-existe.snap"), FORMATO));
+    }
+
+    @Test
+    void recuperaPuntoDeControlYColaDelRegistro() {
+        System.setProperty(RegistroEscritura.PROPIEDAD_DIRECTORIO, directorio.toString());
+        PropiedadData catalogo = reiniciar();
+        int iniciales = catalogo.obtenerTodasPropiedades().size();
+        registrarPropiedades(catalogo);
+        assertTrue(catalogo.guardarPuntoControl());
+        assertFalse(Files.exists(directorio.resolve("propiedades-00000000.log")));
+
+        // Cola: cambia una propiedad del punto de control y agrega otra
+        catalogo.buscarPorId("p1").setPrecioPorNoche(2345.5);
+        catalogo.registrarPropiedad(PropiedadTest.propiedad("p3"));
+
+        catalogo = reiniciar();
+        comprobar(catalogo, iniciales);
+    }
+
+    @Test
+    void noDuplicaLoQueEstaEnElPuntoDeControlYEnLaCola() throws IOException {
+        System.setProperty(RegistroEscritura.PROPIEDAD_DIRECTORIO, directorio.toString());
+        PropiedadData catalogo = reiniciar();
+        int iniciales = catalogo.obtenerTodasPropiedades().size();
+        registrarPropiedades(catalogo);
+        catalogo.guardarPuntoControl();
+        catalogo.buscarPorId("p1").setPrecioPorNoche(2345.5);
+        catalogo.registrarPropiedad(PropiedadTest.propiedad("p3"));
+
+        // Un punto de control que ya tiene los cambios de la generación 1,
+        // pero dice empezar en ella: la cola se reproduce encima
+        Path cola = directorio.resolve("propiedades-00000001.log");
+        byte[] copiaCola = Files.readAllBytes(cola);
+        catalogo.guardarPuntoControl();
+        PropiedadData.sinDatos();
+        Files.write(cola, copiaCola);
+        try (FileChannel canal = FileChannel.open(directorio.resolve("propiedades.snap"), StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(8).putLong(0, 1), 8);   // generación tras el mágico y el formato
+        }
+
+        catalogo = reiniciar();
+        comprobar(catalogo, iniciales);
+    }
+
+    private static void registrarPropiedades(PropiedadData catalogo) {
+        Propiedad p1 = PropiedadTest.propiedad("p1");
+        p1.setPrecioPorNoche(1234.5);
+        p1.setCiudad("Manizales");
+        p1.setServicios(List.of("Jacuzzi"));
+        catalogo.registrarPropiedad(p1);
+        catalogo.registrarPropiedad(PropiedadTest.propiedad("p2"));
+    }
+
+    // Estado tras los cambios de registrarPropiedades y de la cola
+    private static void comprobar(PropiedadData catalogo, int iniciales) {
+        assertEquals(iniciales + 3, catalogo.obtenerTodasPropiedades().size());
+        Propiedad p1 = catalogo.buscarPorId("p1");
+        assertEquals(2345.5, p1.getPrecioPorNoche());
+        assertEquals(List.of(p1), catalogo.buscarConFiltros("", 2345, 2346, List.of()));
+        assertEquals(List.of(), catalogo.buscarConFiltros("", 1234, 1235, List.of()));
+        assertEquals(List.of(p1), catalogo.buscarConFiltros("Manizales", 0, 0, List.of("Jacuzzi")));
+        assertEquals(1, catalogo.contarDisponiblesPorCiudad("Manizales"));
+        assertEquals(1, catalogo.obtenerTodasPropiedades().stream()
+                               .filter(p -> p.getPropiedadId().equals("p3")).count());
+
+        // La propiedad recuperada sigue avisando sus cambios a los índices
+        p1.setCiudad("Pasto");
+        assertEquals(0, catalogo.contarDisponiblesPorCiudad("Manizales"));
+        assertEquals(List.of(p1), catalogo.buscarConFiltros("Pasto", 0, 0, List.of()));
+    }
+
+    // Como al reiniciar el programa: catálogo vacío que se recupera del directorio
+    private static PropiedadData reiniciar() {
+        PropiedadData.sinDatos();
+        return new PropiedadData();
+    }
+}
@@ -0,0 +1,169 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Registro de escritura: reapertura, cola cortada o dañada y generaciones
+ */
+class RegistroEscrituraTest {
+
+    @TempDir
+    Path directorio;
+
+    @AfterEach
+    void cerrar() {
+        System.clearProperty(RegistroEscritura.PROPIEDAD_DIRECTORIO);
+        PropiedadData.sinDatos();
+    }
+
+    @Test
+    void reabreYSigueAgregando() throws IOException {
+        escribir("uno", "dos", "tres");
+        assertEquals(List.of("uno", "dos", "tres"), leer());
+
+        try (RegistroEscritura registro = abrir(new ArrayList<>())) {
+            registro.esperar(registro.agregar(texto("cuatro")));
+        }
+        assertEquals(List.of("uno", "dos", "tres", "cuatro"), leer());
+    }
+
+    @Test
+    void descartaLaColaCortada() throws IOException {
+        escribir("uno", "dos", "tres");
+        Path archivo = directorio.resolve("prueba-00000000.log");
+        long completo = Files.size(archivo);
+        recortar(archivo, completo - 3);   // el último registro quedó a medias
+
+        assertEquals(List.of("uno", "dos"), leer());
+        // El recorte deja el archivo en el último registro entero: lo nuevo va después
+        assertEquals(completo - 8 - 4 - "tres".length(), Files.size(archivo));
+        try (RegistroEscritura registro = abrir(new ArrayList<>())) {
+            registro.esperar(registro.agregar(texto("cinco")));
+        }
+        assertEquals(List.of("uno", "dos", "cinco"), leer());
+    }
+
+    @Test
+    void rechazaUnRegistroConCrcDistinto() throws IOException {
+        escribir("uno", "dos", "tres");
+        Path archivo = directorio.resolve("prueba-00000000.log");
+        // Encabezado (8) + "uno" (4 + 3), encabezado del segundo y un byte de su texto
+        long posicion = 8 + 7 + 8 + 5;
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.wrap(new byte[] {'X'}), posicion);
+        }
+
+        // Desde el dañado no se confía en nada: también se pierde "tres"
+        assertEquals(List.of("uno"), leer());
+    }
+
+    @Test
+    void reproduceYDescartaGeneraciones() throws IOException {
+        try (RegistroEscritura registro = abrir(new ArrayList<>())) {
+            registro.agregar(texto("uno"));
+            long generacion = registro.rotar();
+            assertEquals(1, generacion);
+            registro.esperar(registro.agregar(texto("dos")));
+        }
+        assertTrue(Files.exists(directorio.resolve("prueba-00000000.log")));
+        assertTrue(Files.exists(directorio.resolve("prueba-00000001.log")));
+        assertEquals(List.of("uno", "dos"), leer());
+
+        // Desde la generación 1 (como tras un punto de control): la 0 se borra
+        List<String> leidos = new ArrayList<>();
+        try (RegistroEscritura registro = new RegistroEscritura(directorio, "prueba",
+                                                                PoliticaSincronizacion.POR_LOTE, 100)) {
+            registro.reproducir(1, datos -> leidos.add(RegistroEscritura.leerTexto(datos)));
+            registro.esperar(registro.agregar(texto("tres")));
+            registro.esperar(registro.rotar());
+            registro.descartarAnteriores(2);
+        }
+        assertEquals(List.of("dos"), leidos);
+        assertFalse(Files.exists(directorio.resolve("prueba-00000000.log")));
+        assertFalse(Files.exists(directorio.resolve("prueba-00000001.log")));
+        assertTrue(Files.exists(directorio.resolve("prueba-00000002.log")));
+    }
+
+    @Test
+    void recuperaElCatalogoSinLaColaCortada() throws IOException {
+        System.setProperty(RegistroEscritura.PROPIEDAD_DIRECTORIO, directorio.toString());
+        PropiedadData catalogo = reiniciar();   // directorio vacío: datos de prueba
+        int iniciales = catalogo.obtenerTodasPropiedades().size();
+        catalogo.registrarPropiedad(PropiedadTest.propiedad("p1"));
+        catalogo.registrarPropiedad(PropiedadTest.propiedad("p2"));
+        catalogo.buscarPorId("p1").setPrecioPorNoche(1234.5);
+        catalogo.buscarPorId("p2").setCiudad("Manizales");
+
+        catalogo = reiniciar();
+        assertEquals(iniciales + 2, catalogo.obtenerTodasPropiedades().size());
+        assertEquals(1234.5, catalogo.buscarPorId("p1").getPrecioPorNoche());
+        assertEquals(1, catalogo.contarDisponiblesPorCiudad("Manizales"));
+
+        // Una caída a mitad del último cambio: se recupera el estado anterior a él
+        Path archivo = directorio.resolve("propiedades-00000000.log");
+        PropiedadData.sinDatos();
+        recortar(archivo, Files.size(archivo) - 1);
+        catalogo = reiniciar();
+        assertEquals("Cali", catalogo.buscarPorId("p2").getCiudad());
+        assertEquals(0, catalogo.contarDisponiblesPorCiudad("Manizales"));
+        assertEquals(List.of(catalogo.buscarPorId("p1")),
+                     catalogo.buscarConFiltros("", 1234, 1235, List.of()));
+        assertNull(catalogo.buscarPorId("p3"));
+    }
+
+    // Como al reiniciar el programa: catálogo vacío que se recupera del directorio
+    private static PropiedadData reiniciar() {
+        PropiedadData.sinDatos();
+        return new PropiedadData();
+    }
+
+    private void escribir(String... textos) throws IOException {
+        try (RegistroEscritura registro = abrir(new ArrayList<>())) {
+            long numero = 0;
+            for (String t : textos) {
+                numero = registro.agregar(texto(t));
+            }
+            registro.esperar(numero);
+        }
+    }
+
+    private List<String> leer() throws IOException {
+        List<String> leidos = new ArrayList<>();
+        abrir(leidos).close();
+        return leidos;
+    }
+
+    private RegistroEscritura abrir(List<String> leidos) throws IOException {
+        RegistroEscritura registro = new RegistroEscritura(directorio, "prueba", PoliticaSincronizacion.POR_LOTE, 100);
+        registro.reproducir(datos -> leidos.add(RegistroEscritura.leerTexto(datos)));
+        return registro;
+    }
+
+    // Mismo formato que RegistroEscritura.escribirTexto
+    private static byte[] texto(String texto) {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        return ByteBuffer.allocate(4 + bytes.length).putInt(bytes.length).put(bytes).array();
+    }
+
+    private static void recortar(Path archivo, long tamano) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            canal.truncate(tamano);
+        }
+    }
+}
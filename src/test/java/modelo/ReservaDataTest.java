@@ -0,0 +1,93 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Reservas y noches ocupadas que sobreviven a un reinicio
+ */
+class ReservaDataTest {
+
+    private static final LocalDate ENTRADA = LocalDate.now().plusDays(5);
+
+    @TempDir
+    Path directorio;
+
+    @AfterEach
+    void cerrar() {
+        System.clearProperty(RegistroEscritura.PROPIEDAD_DIRECTORIO);
+        System.clearProperty(RegistroEscritura.PROPIEDAD_PUNTO_CONTROL);
+        ReservaData.descartarTodas();
+        PropiedadData.sinDatos();
+    }
+
+    @Test
+    void recuperaReservasYCancelaciones() {
+        System.setProperty(RegistroEscritura.PROPIEDAD_DIRECTORIO, directorio.toString());
+        ReservaData reservas = abrir();
+        Reserva confirmada = reservas.reservar("p1", "V1", ENTRADA, ENTRADA.plusDays(3));
+        Reserva cancelada = reservas.reservar("p1", "V2", ENTRADA.plusDays(3), ENTRADA.plusDays(5));
+        assertTrue(reservas.cancelarReserva(cancelada.getReservaId()));
+
+        ReservaData recuperadas = reiniciar();
+        Reserva leida = recuperadas.buscarPorId(confirmada.getReservaId());
+        assertNotNull(leida);
+        assertEquals("V1", leida.getViajeroId());
+        assertEquals(ENTRADA, leida.getFechaEntrada());
+        assertEquals(confirmada.getTotal(), leida.getTotal());
+        assertFalse(recuperadas.buscarPorId(cancelada.getReservaId()).estaConfirmada());
+
+        // Las noches de la confirmada vuelven a estar ocupadas; las de la cancelada no
+        AlmacenPropiedades catalogo = new PropiedadData();
+        assertFalse(catalogo.estaLibreEntre("p1", ENTRADA.plusDays(2), ENTRADA.plusDays(3)));
+        assertTrue(catalogo.estaLibreEntre("p1", ENTRADA.plusDays(3), ENTRADA.plusDays(5)));
+        assertEquals(null, recuperadas.reservar("p1", "V3", ENTRADA, ENTRADA.plusDays(1)));
+    }
+
+    @Test
+    void recuperaDesdeElPuntoDeControl() throws Exception {
+        System.setProperty(RegistroEscritura.PROPIEDAD_DIRECTORIO, directorio.toString());
+        System.setProperty(RegistroEscritura.PROPIEDAD_PUNTO_CONTROL, "4");
+        ReservaData reservas = abrir();
+        List<Reserva> hechas = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            hechas.add(reservas.reservar("p1", "V" + i, ENTRADA.plusDays(i), ENTRADA.plusDays(i + 1)));
+        }
+        reservas.cancelarReserva(hechas.get(9).getReservaId());
+        assertTrue(Files.exists(directorio.resolve("reservas.snap")));
+
+        ReservaData recuperadas = reiniciar();
+        assertEquals(10, recuperadas.obtenerReservasPorPropiedad("p1").size());
+        for (int i = 0; i < 9; i++) {
+            assertTrue(recuperadas.buscarPorId(hechas.get(i).getReservaId()).estaConfirmada());
+        }
+        assertFalse(recuperadas.buscarPorId(hechas.get(9).getReservaId()).estaConfirmada());
+        assertTrue(new PropiedadData().estaLibreEntre("p1", ENTRADA.plusDays(9), ENTRADA.plusDays(10)));
+        assertFalse(new PropiedadData().estaLibreEntre("p1", ENTRADA.plusDays(8), ENTRADA.plusDays(9)));
+    }
+
+    // Catálogo en memoria con una propiedad y reservas que se anotan en el directorio
+    private static ReservaData abrir() {
+        ReservaData.descartarTodas();
+        PropiedadData catalogo = PropiedadData.sinDatos();
+        catalogo.registrarPropiedad(PropiedadTest.propiedad("p1"));
+        return new ReservaData(catalogo);
+    }
+
+    // Como al reiniciar el programa: las reservas y el calendario se pierden
+    // de memoria y la propiedad vuelve a estar en el catálogo, sin noches ocupadas
+    private static ReservaData reiniciar() {
+        return abrir();
+    }
+}
@@ -0,0 +1,36 @@
+package modelo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Normalización de términos del índice de texto
+ */
+class TokenizadorEspanolTest {
+
+    @Test
+    void reducePluralesRegulares() {
+        assertEquals(Arrays.asList("ciudad", "playa", "casa"),
+                     TokenizadorEspanol.tokenizar("Ciudades playas CASAS"));
+    }
+
+    @Test
+    void reducePluralesConSTrasConsonante() {
+        assertEquals(Arrays.asList("loft", "club", "parking"),
+                     TokenizadorEspanol.tokenizar("lofts clubs parkings"));
+    }
+
+    @Test
+    void noAcortaRaicesCortasNiDobleS() {
+        assertEquals(Arrays.asList("bus", "tics", "express"),
+                     TokenizadorEspanol.tokenizar("bus tics express"));
+    }
+
+    @Test
+    void quitaTildesYMarcaPalabrasVacias() {
+        assertEquals(Arrays.asList("loft", null, "bogota"),
+                     TokenizadorEspanol.tokenizar("Loft en Bogotá"));
+    }
+}